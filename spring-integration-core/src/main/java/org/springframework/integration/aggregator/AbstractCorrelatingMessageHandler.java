@@ -30,6 +30,7 @@ import org.springframework.integration.channel.NullChannel;
 import org.springframework.integration.core.MessageProducer;
 import org.springframework.integration.core.MessagingTemplate;
 import org.springframework.integration.handler.AbstractMessageHandler;
+import org.springframework.integration.store.AbstractMessageGroupStore;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.MessageGroupStore.MessageGroupCallback;
@@ -278,7 +279,7 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageH
 		}
 
 		// TODO: INT-1117 - make the lock global?
-		Lock lock = this.lockRegistry.obtain(UUIDConverter.getUUID(correlationKey).toString());
+		Lock lock = this.lockRegistry.obtain(this.lockKey(correlationKey));
 
 		lock.lockInterruptibly();
 		try {
@@ -294,6 +295,12 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageH
 				messageGroup = this.store(correlationKey, message);
 
 				if (releaseStrategy.canRelease(messageGroup)) {
+					/*
+					 * The store may have returned a view of its internal group; take a
+					 * snapshot so that the processor and afterRelease() see a stable group
+					 * while messages are being removed from the store.
+					 */
+					messageGroup = this.snapshot(messageGroup);
 					Collection<Message<?>> completedMessages = null;
 					try {
 						completedMessages = this.completeGroup(message, correlationKey, messageGroup);
@@ -324,8 +331,7 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageH
 	private void forceComplete(MessageGroup group) {
 
 		Object correlationKey = group.getGroupId();
-		// UUIDConverter is no-op if already converted
-		Lock lock = this.lockRegistry.obtain(UUIDConverter.getUUID(correlationKey).toString());
+		Lock lock = this.lockRegistry.obtain(this.lockKey(correlationKey));
 		boolean removeGroup = true;
 		try {
 			lock.lockInterruptibly();
@@ -410,10 +416,33 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageH
 		return new IntegrationMessageHeaderAccessor(lastReleasedMessage).getSequenceNumber();
 	}
 
+	/**
+	 * The key used to obtain the lock for a group. When the store keeps group ids as-is
+	 * (see {@link AbstractMessageGroupStore#isGroupIdStoredAsIs()}), the group ids are the
+	 * correlation keys themselves, so String and Number keys can be used as they are;
+	 * other stores may hand back groups (e.g. to the reaper) keyed by the UUID string of the
+	 * correlation key, so the key is converted for them. UUIDConverter is no-op if already converted.
+	 */
+	private Object lockKey(Object correlationKey) {
+		if (this.messageStore instanceof AbstractMessageGroupStore
+				&& ((AbstractMessageGroupStore) this.messageStore).isGroupIdStoredAsIs()
+				&& (correlationKey instanceof String || correlationKey instanceof Number)) {
+			return correlationKey;
+		}
+		return UUIDConverter.getUUID(correlationKey).toString();
+	}
+
 	private MessageGroup store(Object correlationKey, Message<?> message) {
 		return messageStore.addMessageToGroup(correlationKey, message);
 	}
 
+	private MessageGroup snapshot(MessageGroup group) {
+		SimpleMessageGroup snapshot = new SimpleMessageGroup(group);
+		snapshot.setLastReleasedMessageSequenceNumber(group.getLastReleasedMessageSequenceNumber());
+		snapshot.setLastModified(group.getLastModified());
+		return snapshot;
+	}
+
 	private void expireGroup(Object correlationKey, MessageGroup group) {
 		if (logger.isInfoEnabled()) {
 			logger.info("Expiring MessageGroup with correlationKey[" + correlationKey + "]");
@@ -512,10 +541,16 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageH
 		return false;
 	}
 
-	private static class SequenceAwareMessageGroup extends SimpleMessageGroup {
+	/**
+	 * Decorates a {@link MessageGroup} with sequence-aware {@link #canAdd(Message)} semantics.
+	 * The messages are not copied; all other operations delegate to the target group.
+	 */
+	private static class SequenceAwareMessageGroup implements MessageGroup {
+
+		private final MessageGroup target;
 
-		public SequenceAwareMessageGroup(MessageGroup messageGroup) {
-			super(messageGroup);
+		public SequenceAwareMessageGroup(MessageGroup target) {
+			this.target = target;
 		}
 
 		/**
@@ -551,5 +586,62 @@ public abstract class AbstractCorrelatingMessageHandler extends AbstractMessageH
 			}
 			return false;
 		}
+
+		@Override
+		public Collection<Message<?>> getMessages() {
+			return this.target.getMessages();
+		}
+
+		@Override
+		public Object getGroupId() {
+			return this.target.getGroupId();
+		}
+
+		@Override
+		public int getLastReleasedMessageSequenceNumber() {
+			return this.target.getLastReleasedMessageSequenceNumber();
+		}
+
+		@Override
+		public boolean isComplete() {
+			return this.target.isComplete();
+		}
+
+		@Override
+		public void complete() {
+			this.target.complete();
+		}
+
+		@Override
+		public int getSequenceSize() {
+			return this.target.getSequenceSize();
+		}
+
+		@Override
+		public int size() {
+			return this.target.size();
+		}
+
+		@Override
+		public Message<?> getOne() {
+			return this.target.getOne();
+		}
+
+		@Override
+		public long getTimestamp() {
+			return this.target.getTimestamp();
+		}
+
+		@Override
+		public long getLastModified() {
+			return this.target.getLastModified();
+		}
+
+		@Override
+		public String toString() {
+			return this.target.toString();
+		}
+
 	}
+
 }
@@ -64,9 +64,7 @@ public class AggregatingMessageHandler extends AbstractCorrelatingMessageHandler
 			remove(messageGroup);
 		}
 		else {
-			for (Message<?> message : messageGroup.getMessages()) {
-				this.messageStore.removeMessageFromGroup(messageGroup.getGroupId(), message);
-			}
+			this.messageStore.removeMessagesFromGroup(messageGroup.getGroupId(), messageGroup.getMessages());
 		}
 	}
 
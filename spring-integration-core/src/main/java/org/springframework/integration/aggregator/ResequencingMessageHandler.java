@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2011 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -63,9 +63,7 @@ public class ResequencingMessageHandler extends AbstractCorrelatingMessageHandle
 			if (completedMessages != null){
 				int lastReleasedSequenceNumber = this.findLastReleasedSequenceNumber(messageGroup.getGroupId(), completedMessages);
 				messageStore.setLastReleasedSequenceNumberForGroup(messageGroup.getGroupId(), lastReleasedSequenceNumber);
-				for (Message<?> msg : completedMessages) {
-					this.messageStore.removeMessageFromGroup(messageGroup.getGroupId(), msg);
-				}
+				this.messageStore.removeMessagesFromGroup(messageGroup.getGroupId(), completedMessages);
 			}
 		}
 	}
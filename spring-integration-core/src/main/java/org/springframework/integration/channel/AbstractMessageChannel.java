@@ -308,37 +308,51 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 
 	/**
 	 * A convenience wrapper class for the list of ChannelInterceptors.
+	 * <p>
+	 * Messages are passed to an array snapshot of the interceptors that is replaced
+	 * whenever the list is modified, so that no iterator is created per message, and
+	 * nothing at all is done (other than logging) when there are no interceptors.
 	 */
 	protected class ChannelInterceptorList {
 
 		private final List<ChannelInterceptor> interceptors = new CopyOnWriteArrayList<ChannelInterceptor>();
 
+		private volatile ChannelInterceptor[] snapshot = new ChannelInterceptor[0];
+
 
 		public boolean set(List<ChannelInterceptor> interceptors) {
 			synchronized (this.interceptors) {
 				this.interceptors.clear();
-				return this.interceptors.addAll(interceptors);
+				boolean changed = this.interceptors.addAll(interceptors);
+				this.refreshSnapshot();
+				return changed;
 			}
 		}
 
 		public boolean add(ChannelInterceptor interceptor) {
-			return this.interceptors.add(interceptor);
+			synchronized (this.interceptors) {
+				boolean changed = this.interceptors.add(interceptor);
+				this.refreshSnapshot();
+				return changed;
+			}
 		}
 
 		public void add(int index, ChannelInterceptor interceptor) {
-			this.interceptors.add(index, interceptor);
+			synchronized (this.interceptors) {
+				this.interceptors.add(index, interceptor);
+				this.refreshSnapshot();
+			}
 		}
 
 		public Message<?> preSend(Message<?> message, MessageChannel channel) {
 			if (logger.isDebugEnabled()) {
 				logger.debug("preSend on channel '" + channel + "', message: " + message);
 			}
-			if (this.interceptors.size() > 0) {
-				for (ChannelInterceptor interceptor : this.interceptors) {
-					message = interceptor.preSend(message, channel);
-					if (message == null) {
-						return null;
-					}
+			ChannelInterceptor[] interceptors = this.snapshot;
+			for (int i = 0; i < interceptors.length; i++) {
+				message = interceptors[i].preSend(message, channel);
+				if (message == null) {
+					return null;
 				}
 			}
 			return message;
@@ -348,10 +362,9 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			if (logger.isDebugEnabled()) {
 				logger.debug("postSend (sent=" + sent + ") on channel '" + channel + "', message: " + message);
 			}
-			if (this.interceptors.size() > 0) {
-				for (ChannelInterceptor interceptor : interceptors) {
-					interceptor.postSend(message, channel, sent);
-				}
+			ChannelInterceptor[] interceptors = this.snapshot;
+			for (int i = 0; i < interceptors.length; i++) {
+				interceptors[i].postSend(message, channel, sent);
 			}
 		}
 
@@ -359,11 +372,10 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			if (logger.isTraceEnabled()) {
 				logger.trace("preReceive on channel '" + channel + "'");
 			}
-			if (this.interceptors.size() > 0) {
-				for (ChannelInterceptor interceptor : interceptors) {
-					if (!interceptor.preReceive(channel)) {
-						return false;
-					}
+			ChannelInterceptor[] interceptors = this.snapshot;
+			for (int i = 0; i < interceptors.length; i++) {
+				if (!interceptors[i].preReceive(channel)) {
+					return false;
 				}
 			}
 			return true;
@@ -376,12 +388,11 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 			else if (logger.isTraceEnabled()) {
 				logger.trace("postReceive on channel '" + channel + "', message is null");
 			}
-			if (this.interceptors.size() > 0) {
-				for (ChannelInterceptor interceptor : interceptors) {
-					message = interceptor.postReceive(message, channel);
-					if (message == null) {
-						return null;
-					}
+			ChannelInterceptor[] interceptors = this.snapshot;
+			for (int i = 0; i < interceptors.length; i++) {
+				message = interceptors[i].postReceive(message, channel);
+				if (message == null) {
+					return null;
 				}
 			}
 			return message;
@@ -390,5 +401,9 @@ public abstract class AbstractMessageChannel extends IntegrationObjectSupport
 		public List<ChannelInterceptor> getInterceptors() {
 			return Collections.unmodifiableList(this.interceptors);
 		}
+
+		private void refreshSnapshot() {
+			this.snapshot = this.interceptors.toArray(new ChannelInterceptor[this.interceptors.size()]);
+		}
 	}
 }
@@ -242,6 +242,7 @@ public class ConsumerEndpointFactoryBean
 				pollingConsumer.setTrigger(this.pollerMetadata.getTrigger());
 				pollingConsumer.setAdviceChain(this.pollerMetadata.getAdviceChain());
 				pollingConsumer.setMaxMessagesPerPoll(this.pollerMetadata.getMaxMessagesPerPoll());
+				pollingConsumer.setAdviseEntirePoll(this.pollerMetadata.isAdviseEntirePoll());
 
 				pollingConsumer.setErrorHandler(this.pollerMetadata.getErrorHandler());
 
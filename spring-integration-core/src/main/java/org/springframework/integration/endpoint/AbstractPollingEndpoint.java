@@ -69,6 +69,8 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 
 	private volatile long maxMessagesPerPoll = -1;
 
+	private volatile boolean adviseEntirePoll;
+
 	private final Object initializationMonitor = new Object();
 
 	private volatile TransactionSynchronizationFactory transactionSynchronizationFactory;
@@ -93,6 +95,20 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 		this.maxMessagesPerPoll = maxMessagesPerPoll;
 	}
 
+	/**
+	 * Set to true to apply the advice chain to each poll as a whole, rather
+	 * than to each message received by the poll. With a transaction advice,
+	 * all the messages of a poll (up to {@link #setMaxMessagesPerPoll(long)
+	 * maxMessagesPerPoll}) are then received and handled in one transaction,
+	 * and a failure handling any of them rolls all of them back. Default false.
+	 * Cannot be combined with a {@link TransactionSynchronizationFactory}.
+	 * @param adviseEntirePoll true to advise the entire poll.
+	 * @since 4.0
+	 */
+	public void setAdviseEntirePoll(boolean adviseEntirePoll) {
+		this.adviseEntirePoll = adviseEntirePoll;
+	}
+
 	public void setErrorHandler(ErrorHandler errorHandler) {
 		this.errorHandler = errorHandler;
 	}
@@ -113,6 +129,8 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 				return;
 			}
 			Assert.notNull(this.trigger, "Trigger is required");
+			Assert.state(!this.adviseEntirePoll || this.transactionSynchronizationFactory == null,
+					"A TransactionSynchronizationFactory cannot be used when the entire poll is advised");
 			Executor providedExecutor = this.taskExecutor;
 			if (providedExecutor != null) {
 				this.taskExecutor = providedExecutor;
@@ -137,7 +155,6 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 		}
 	}
 
-	@SuppressWarnings("unchecked")
 	private Runnable createPoller() throws Exception {
 
 		Callable<Boolean> pollingTask = new Callable<Boolean>() {
@@ -147,17 +164,46 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 			}
 		};
 
+		if (this.adviseEntirePoll) {
+			final Callable<Boolean> singlePoll = pollingTask;
+			Callable<Boolean> entirePoll = new Callable<Boolean>() {
+				@Override
+				public Boolean call() throws Exception {
+					return pollMessages(singlePoll) > 0;
+				}
+			};
+			return new Poller(this.applyAdviceChain(entirePoll), true);
+		}
+		return new Poller(this.applyAdviceChain(pollingTask), false);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Callable<Boolean> applyAdviceChain(Callable<Boolean> pollingTask) {
 		List<Advice> adviceChain = this.adviceChain;
 		if (!CollectionUtils.isEmpty(adviceChain)) {
 			ProxyFactory proxyFactory = new ProxyFactory(pollingTask);
-			if (!CollectionUtils.isEmpty(adviceChain)) {
-				for (Advice advice : adviceChain) {
-					proxyFactory.addAdvice(advice);
-				}
+			for (Advice advice : adviceChain) {
+				proxyFactory.addAdvice(advice);
 			}
-			pollingTask = (Callable<Boolean>) proxyFactory.getProxy(this.beanClassLoader);
+			return (Callable<Boolean>) proxyFactory.getProxy(this.beanClassLoader);
 		}
-		return new Poller(pollingTask);
+		return pollingTask;
+	}
+
+	/**
+	 * Invoke the polling task until it receives no message or
+	 * maxMessagesPerPoll messages have been received.
+	 * @return the number of messages received.
+	 */
+	private int pollMessages(Callable<Boolean> pollingTask) throws Exception {
+		int count = 0;
+		while (this.initialized && (this.maxMessagesPerPoll <= 0 || count < this.maxMessagesPerPoll)) {
+			if (!pollingTask.call()) {
+				break;
+			}
+			count++;
+		}
+		return count;
 	}
 
 	// LifecycleSupport implementation
@@ -262,9 +308,12 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 
 		private final Callable<Boolean> pollingTask;
 
+		private final boolean entirePoll;
+
 
-		public Poller(Callable<Boolean> pollingTask) {
+		public Poller(Callable<Boolean> pollingTask, boolean entirePoll) {
 			this.pollingTask = pollingTask;
+			this.entirePoll = entirePoll;
 		}
 
 		@Override
@@ -272,21 +321,20 @@ public abstract class AbstractPollingEndpoint extends AbstractEndpoint implement
 			taskExecutor.execute(new Runnable() {
 				@Override
 				public void run() {
-					int count = 0;
-					while (initialized && (maxMessagesPerPoll <= 0 || count < maxMessagesPerPoll)) {
-						try {
-							if (!pollingTask.call()) {
-								break;
-							}
-							count++;
+					try {
+						if (entirePoll) {
+							pollingTask.call();
+						}
+						else {
+							pollMessages(pollingTask);
+						}
+					}
+					catch (Exception e) {
+						if (e instanceof RuntimeException) {
+							throw (RuntimeException) e;
 						}
-						catch (Exception e) {
-							if (e instanceof RuntimeException) {
-								throw (RuntimeException) e;
-							}
-							else {
-								throw new MessageHandlingException(new ErrorMessage(e), e);
-							}
+						else {
+							throw new MessageHandlingException(new ErrorMessage(e), e);
 						}
 					}
 				}
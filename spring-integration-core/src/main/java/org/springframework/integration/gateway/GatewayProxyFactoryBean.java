@@ -61,6 +61,8 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
 
 /**
  * Generates a proxy for the provided service interface to enable interaction
@@ -69,6 +71,12 @@ import org.springframework.util.StringUtils;
  * This component is also aware of the {@link ConversionService} set on the enclosing {@link BeanFactory}
  * under the name {@link IntegrationContextUtils#INTEGRATION_CONVERSION_SERVICE_BEAN_NAME} to
  * perform type conversions when necessary (thanks to Jon Schneider's contribution and suggestion in INT-1230).
+ * <p>
+ * Methods returning a {@link Future} are invoked on a thread from the async executor, which
+ * waits for the reply. Methods returning a {@link ListenableFuture} do not use a thread to
+ * wait for the reply: the request is sent on the calling thread and the future is completed
+ * when the reply is sent to the gateway; only the methods that just receive (no arguments)
+ * use the async executor.
  *
  * @author Mark Fisher
  * @author Oleg Zhurakousky
@@ -289,7 +297,17 @@ public class GatewayProxyFactoryBean extends AbstractEndpoint implements Trackab
 
 	@Override
 	public Object invoke(final MethodInvocation invocation) throws Throwable {
-		if (Future.class.isAssignableFrom(invocation.getMethod().getReturnType())) {
+		Class<?> returnType = invocation.getMethod().getReturnType();
+		if (ListenableFuture.class.equals(returnType)) {
+			ListenableFuture<Object> future = this.invokeGatewayMethodAsync(invocation);
+			if (future == null) {
+				ListenableFutureTask<Object> task = new ListenableFutureTask<Object>(new AsyncInvocationTask(invocation));
+				this.asyncExecutor.execute(task);
+				future = task;
+			}
+			return future;
+		}
+		if (Future.class.isAssignableFrom(returnType)) {
 			return this.asyncExecutor.submit(new AsyncInvocationTask(invocation));
 		}
 		return this.doInvoke(invocation);
@@ -321,13 +339,7 @@ public class GatewayProxyFactoryBean extends AbstractEndpoint implements Trackab
 		boolean shouldReply = returnType != void.class;
 		int paramCount = method.getParameterTypes().length;
 		Object response = null;
-		boolean hasPayloadExpression = method.isAnnotationPresent(Payload.class);
-		if (!hasPayloadExpression && this.methodMetadataMap != null) {
-			// check for the method metadata next
-			GatewayMethodMetadata metadata = this.methodMetadataMap.get(method.getName());
-			hasPayloadExpression = (metadata != null) && StringUtils.hasText(metadata.getPayloadExpression());
-		}
-		if (paramCount == 0 && !hasPayloadExpression) {
+		if (paramCount == 0 && !this.hasPayloadExpression(method)) {
 			if (shouldReply) {
 				if (shouldReturnMessage) {
 					return gateway.receive();
@@ -348,6 +360,37 @@ public class GatewayProxyFactoryBean extends AbstractEndpoint implements Trackab
 		return (response != null) ? this.convert(response, returnType) : null;
 	}
 
+	/**
+	 * Send the request without waiting for the reply.
+	 * @return the future reply, or null if the method does not send a request.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private ListenableFuture<Object> invokeGatewayMethodAsync(MethodInvocation invocation) throws Exception {
+		if (!this.initialized) {
+			this.afterPropertiesSet();
+		}
+		Method method = invocation.getMethod();
+		MethodInvocationGateway gateway = this.gatewayMap.get(method);
+		if (method.getParameterTypes().length == 0 && !this.hasPayloadExpression(method)) {
+			return null;
+		}
+		Object[] args = invocation.getArguments();
+		if (hasFutureParameterizedWithMessage(method)) {
+			return (ListenableFuture) gateway.sendAndReceiveMessageAsync(args);
+		}
+		return gateway.sendAndReceiveAsync(args);
+	}
+
+	private boolean hasPayloadExpression(Method method) {
+		boolean hasPayloadExpression = method.isAnnotationPresent(Payload.class);
+		if (!hasPayloadExpression && this.methodMetadataMap != null) {
+			// check for the method metadata next
+			GatewayMethodMetadata metadata = this.methodMetadataMap.get(method.getName());
+			hasPayloadExpression = (metadata != null) && StringUtils.hasText(metadata.getPayloadExpression());
+		}
+		return hasPayloadExpression;
+	}
+
 	private void rethrowExceptionCauseIfPossible(Throwable originalException, Method method) throws Throwable {
 		Class<?>[] exceptionTypes = method.getExceptionTypes();
 		Throwable t = originalException;
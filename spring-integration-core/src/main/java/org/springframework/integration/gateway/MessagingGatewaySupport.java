@@ -16,6 +16,16 @@
 
 package org.springframework.integration.gateway;
 
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import org.springframework.integration.core.MessagingTemplate;
 import org.springframework.integration.endpoint.AbstractEndpoint;
 import org.springframework.integration.endpoint.EventDrivenConsumer;
@@ -30,11 +40,17 @@ import org.springframework.integration.support.MessageBuilderFactory;
 import org.springframework.integration.support.converter.SimpleMessageConverter;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.PollableChannel;
 import org.springframework.messaging.SubscribableChannel;
 import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureAdapter;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+import org.springframework.util.concurrent.ListenableFutureCallbackRegistry;
 
 /**
  * A convenient base class for connecting application code to
@@ -287,11 +303,88 @@ public abstract class MessagingGatewaySupport extends AbstractEndpoint implement
 		return reply;
 	}
 
+	/**
+	 * Send the request and return a future that is completed when the reply arrives;
+	 * no thread waits for the reply. The future is completed by the thread that sends
+	 * the reply (or the error) to the gateway, so callbacks added to it run on that
+	 * thread. Errors are handled as with {@link #sendAndReceive(Object)}, including the
+	 * use of the error channel, if any. If a reply timeout is set (and a
+	 * {@link TaskScheduler} is available), a future that is not completed within the
+	 * timeout is completed with null.
+	 * @param object the request.
+	 * @return the future reply, converted with the reply mapper (if any).
+	 * @since 4.0
+	 */
+	protected ListenableFuture<Object> sendAndReceiveAsync(Object object) {
+		return new ListenableFutureAdapter<Object, Message<?>>(this.doSendAndReceiveAsync(object, true)) {
+
+			@Override
+			protected Object adapt(Message<?> reply) throws ExecutionException {
+				return (reply != null) ? messageConverter.fromMessage(reply, null) : null;
+			}
+
+		};
+	}
+
+	/**
+	 * Send the request and return a future that is completed with the reply message when
+	 * it arrives; no thread waits for the reply.
+	 * @param object the request.
+	 * @return the future reply message.
+	 * @since 4.0
+	 * @see #sendAndReceiveAsync(Object)
+	 */
+	protected ListenableFuture<Message<?>> sendAndReceiveMessageAsync(Object object) {
+		return this.doSendAndReceiveAsync(object, false);
+	}
+
+	@SuppressWarnings("unchecked")
+	private ListenableFuture<Message<?>> doSendAndReceiveAsync(Object object, boolean shouldConvert) {
+		this.initializeIfNecessary();
+		Assert.notNull(object, "request must not be null");
+		if (this.requestChannel == null) {
+			throw new MessagingException("No request channel available. Cannot send request message.");
+		}
+		if (this.replyChannel != null && this.replyMessageCorrelator == null) {
+			this.registerReplyMessageCorrelator();
+		}
+		final AsyncReplyChannel asyncReplyChannel = new AsyncReplyChannel(shouldConvert);
+		try {
+			Message<?> requestMessage = (object instanceof Message<?>)
+					? (Message<?>) object : this.requestMapper.toMessage(object);
+			requestMessage = this.historyWritingPostProcessor.postProcessMessage(requestMessage);
+			asyncReplyChannel.sendRequest(requestMessage);
+		}
+		catch (Exception e) {
+			logger.warn("failure occurred in gateway sendAndReceive", e);
+			asyncReplyChannel.handleError(e);
+		}
+		final ReplyFuture future = asyncReplyChannel.future;
+		TaskScheduler taskScheduler = this.getTaskScheduler();
+		if (this.replyTimeout >= 0 && !future.isDone() && taskScheduler != null) {
+			future.setTimeoutTask(taskScheduler.schedule(new Runnable() {
+
+				@Override
+				public void run() {
+					if (future.complete(null) && logger.isDebugEnabled()) {
+						logger.debug("No reply received within timeout of " + replyTimeout + "ms");
+					}
+				}
+
+			}, new Date(System.currentTimeMillis() + this.replyTimeout)));
+		}
+		return future;
+	}
+
 	private void rethrow(Throwable t, String description) {
+		throw this.asRuntimeException(t, description);
+	}
+
+	private RuntimeException asRuntimeException(Throwable t, String description) {
 		if (t instanceof RuntimeException) {
-			throw (RuntimeException) t;
+			return (RuntimeException) t;
 		}
-		throw new MessagingException(description, t);
+		return new MessagingException(description, t);
 	}
 
 	private void registerReplyMessageCorrelator() {
@@ -339,6 +432,226 @@ public abstract class MessagingGatewaySupport extends AbstractEndpoint implement
 	}
 
 
+	/**
+	 * A future that is completed explicitly, with callbacks held in a
+	 * {@link ListenableFutureCallbackRegistry}; the reply timeout task, if any, is
+	 * cancelled before the future completes.
+	 */
+	private static final class ReplyFuture implements ListenableFuture<Message<?>> {
+
+		private final ListenableFutureCallbackRegistry<Message<?>> callbacks =
+				new ListenableFutureCallbackRegistry<Message<?>>();
+
+		private final CountDownLatch latch = new CountDownLatch(1);
+
+		private final Object monitor = new Object();
+
+		private volatile ScheduledFuture<?> timeoutTask;
+
+		private boolean completing; // guarded by monitor
+
+		private volatile boolean done;
+
+		private volatile boolean cancelled;
+
+		private volatile Message<?> reply;
+
+		private volatile Throwable failure;
+
+		private void setTimeoutTask(ScheduledFuture<?> timeoutTask) {
+			this.timeoutTask = timeoutTask;
+			// the future may have completed while the task was scheduled
+			if (this.isDone()) {
+				this.cancelTimeoutTask();
+			}
+		}
+
+		/**
+		 * @return false if the future was already completed.
+		 */
+		private boolean complete(Message<?> reply) {
+			return this.doComplete(reply, null, false);
+		}
+
+		private void fail(Throwable t) {
+			this.doComplete(null, t, false);
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			return this.doComplete(null, null, true);
+		}
+
+		private boolean doComplete(Message<?> reply, Throwable failure, boolean cancelled) {
+			synchronized (this.monitor) {
+				if (this.completing) {
+					return false;
+				}
+				this.completing = true;
+			}
+			this.cancelTimeoutTask();
+			this.reply = reply;
+			this.failure = failure;
+			this.cancelled = cancelled;
+			this.done = true;
+			this.latch.countDown();
+			if (cancelled) {
+				this.callbacks.failure(new CancellationException());
+			}
+			else if (failure != null) {
+				this.callbacks.failure(failure);
+			}
+			else {
+				this.callbacks.success(reply);
+			}
+			return true;
+		}
+
+		private void cancelTimeoutTask() {
+			ScheduledFuture<?> timeoutTask = this.timeoutTask;
+			if (timeoutTask != null) {
+				timeoutTask.cancel(false);
+			}
+		}
+
+		@Override
+		public void addCallback(ListenableFutureCallback<? super Message<?>> callback) {
+			this.callbacks.addCallback(callback);
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return this.cancelled;
+		}
+
+		@Override
+		public boolean isDone() {
+			return this.done;
+		}
+
+		@Override
+		public Message<?> get() throws InterruptedException, ExecutionException {
+			this.latch.await();
+			return this.getReply();
+		}
+
+		@Override
+		public Message<?> get(long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException, TimeoutException {
+			if (!this.latch.await(timeout, unit)) {
+				throw new TimeoutException();
+			}
+			return this.getReply();
+		}
+
+		private Message<?> getReply() throws ExecutionException {
+			if (this.cancelled) {
+				throw new CancellationException();
+			}
+			if (this.failure != null) {
+				throw new ExecutionException(this.failure);
+			}
+			return this.reply;
+		}
+
+	}
+
+
+	/**
+	 * The reply (and error) channel of an asynchronous request; completes the future
+	 * with the reply, or with the reply of the error flow.
+	 */
+	private final class AsyncReplyChannel implements MessageChannel {
+
+		private final ReplyFuture future = new ReplyFuture();
+
+		private final boolean shouldConvert;
+
+		private volatile Object originalReplyChannel;
+
+		private volatile Object originalErrorChannel;
+
+		private volatile boolean inErrorFlow;
+
+		private AsyncReplyChannel(boolean shouldConvert) {
+			this.shouldConvert = shouldConvert;
+		}
+
+		private void sendRequest(Message<?> requestMessage) {
+			this.originalReplyChannel = requestMessage.getHeaders().getReplyChannel();
+			this.originalErrorChannel = requestMessage.getHeaders().getErrorChannel();
+			Message<?> message = getMessageBuilderFactory().fromMessage(requestMessage)
+					.setReplyChannel(this)
+					.setErrorChannel(this)
+					.build();
+			messagingTemplate.send(requestChannel, message);
+		}
+
+		@Override
+		public boolean send(Message<?> message) {
+			return this.send(message, -1);
+		}
+
+		@Override
+		public boolean send(Message<?> message, long timeout) {
+			if (this.future.isDone()) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("Reply message received but the gateway request has already completed (or timed out): "
+							+ message);
+				}
+				return false;
+			}
+			Object payload = message.getPayload();
+			Throwable error = null;
+			if (message instanceof ErrorMessage || (this.shouldConvert && payload instanceof Throwable)) {
+				error = (Throwable) payload;
+			}
+			if (this.inErrorFlow) {
+				if (error != null) {
+					this.future.fail(asRuntimeException(error, "error flow returned an Error Message"));
+				}
+				else {
+					this.future.complete(message);
+				}
+			}
+			else if (error != null) {
+				this.handleError(error);
+			}
+			else {
+				this.future.complete(getMessageBuilderFactory().fromMessage(message)
+						.setHeader(MessageHeaders.REPLY_CHANNEL, this.originalReplyChannel)
+						.setHeader(MessageHeaders.ERROR_CHANNEL, this.originalErrorChannel)
+						.build());
+			}
+			return true;
+		}
+
+		private void handleError(Throwable error) {
+			if (this.future.isDone()) {
+				// the request failed after a reply was received
+				return;
+			}
+			if (errorChannel == null) {
+				this.future.fail(asRuntimeException(error, "gateway received checked Exception"));
+				return;
+			}
+			this.inErrorFlow = true;
+			Map<String, Object> headers = new HashMap<String, Object>();
+			headers.put(MessageHeaders.REPLY_CHANNEL, this);
+			headers.put(MessageHeaders.ERROR_CHANNEL, this);
+			Message<?> errorMessage = new ErrorMessage(error, headers);
+			try {
+				messagingTemplate.send(errorChannel, errorMessage);
+			}
+			catch (Exception errorFlowFailure) {
+				this.future.fail(new MessagingException(errorMessage, "failure occurred in error-handling flow",
+						errorFlowFailure));
+			}
+		}
+
+	}
+
+
 	private static class DefaultRequestMapper implements InboundMessageMapper<Object> {
 
 		private volatile MessageBuilderFactory messageBuilderFactory = new DefaultMessageBuilderFactory();
@@ -268,7 +268,19 @@ public abstract class AbstractReplyProducingMessageHandler extends AbstractMessa
 		}
 	}
 
-	private boolean shouldSplitReply(Iterable<?> reply) {
+	/**
+	 * Determine whether a reply that is an {@link Iterable} should produce a reply
+	 * message for each of its elements (rather than a single reply with the
+	 * {@code Iterable} as its payload). By default, it is split if any element is a
+	 * {@link Message} or a message builder; this iterates the reply. Subclasses
+	 * returning an {@code Iterable} that can only be iterated once should override
+	 * this method.
+	 *
+	 * @param reply The reply.
+	 * @return true if a reply message should be produced for each element.
+	 * @since 4.0
+	 */
+	protected boolean shouldSplitReply(Iterable<?> reply) {
 		for (Object next : reply) {
 			if (next instanceof Message<?> || next instanceof AbstractIntegrationMessageBuilder<?>) {
 				return true;
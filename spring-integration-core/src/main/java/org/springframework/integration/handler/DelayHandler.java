@@ -17,13 +17,18 @@
 package org.springframework.integration.handler;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.aopalliance.aop.Advice;
 
 import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.expression.EvaluationContext;
@@ -72,6 +77,12 @@ import org.springframework.util.CollectionUtils;
  * seconds from the current time). If the value is a Date, it will be
  * delayed at least until that Date occurs (i.e. the delay in that case is
  * equivalent to {@code headerDate.getTime() - new Date().getTime()}).
+ * <p>
+ * By default, one task is scheduled for each delayed Message. When a
+ * {@code releaseTickInterval} is set, delayed Messages are instead kept in a
+ * hierarchical timing wheel that a single periodic task advances; all Messages
+ * that fall due in a tick are released together and removed from the
+ * {@link MessageGroupStore} in bulk.
  *
  * @author Mark Fisher
  * @author Artem Bilan
@@ -80,7 +91,7 @@ import org.springframework.util.CollectionUtils;
 
 @ManagedResource
 public class DelayHandler extends AbstractReplyProducingMessageHandler implements DelayHandlerManagement,
-		ApplicationListener<ContextRefreshedEvent> {
+		ApplicationListener<ContextRefreshedEvent>, DisposableBean {
 
 	private static final ExpressionParser expressionParser = new SpelExpressionParser(new SpelParserConfiguration(true, true));
 
@@ -104,6 +115,10 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 
 	private EvaluationContext evaluationContext;
 
+	private volatile long releaseTickInterval;
+
+	private volatile ReleaseWheel releaseWheel;
+
 	/**
 	 * Create a DelayHandler with the given 'messageGroupId' that is used as 'key' for {@link MessageGroup}
 	 * to store delayed Messages in the {@link MessageGroupStore}. The sending of Messages after
@@ -206,6 +221,22 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 		this.delayedAdviceChain = delayedAdviceChain;
 	}
 
+	/**
+	 * Set the tick interval in milliseconds of the timing wheel used to release
+	 * delayed Messages in batches. Messages are released in the first tick at or after
+	 * their due time, so the interval is also the maximum additional delay. The
+	 * Messages of a tick are released in turn on the scheduler thread running the
+	 * wheel. Default 0, meaning one task is scheduled for each Message.
+	 *
+	 * @param releaseTickInterval The tick interval in milliseconds.
+	 *
+	 * @since 4.0
+	 */
+	public void setReleaseTickInterval(long releaseTickInterval) {
+		Assert.isTrue(releaseTickInterval >= 0, "'releaseTickInterval' must not be negative");
+		this.releaseTickInterval = releaseTickInterval;
+	}
+
 	@Override
 	public String getComponentType() {
 		return "delayer";
@@ -227,6 +258,9 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 		}
 		this.evaluationContext = ExpressionUtils.createStandardEvaluationContext(this.getBeanFactory());
 		this.releaseHandler = this.createReleaseMessageTask();
+		if (this.releaseTickInterval > 0) {
+			this.releaseWheel = new ReleaseWheel(this.releaseTickInterval);
+		}
 	}
 
 	private MessageHandler createReleaseMessageTask() {
@@ -325,6 +359,11 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 
 		final Message<?> messageToSchedule = delayedMessage;
 
+		if (this.releaseWheel != null) {
+			this.releaseWheel.add(messageToSchedule, messageWrapper.getRequestDate() + delay);
+			return;
+		}
+
 		this.getTaskScheduler().schedule(new Runnable() {
 			@Override
 			public void run() {
@@ -340,7 +379,9 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 	private void doReleaseMessage(Message<?> message) {
 		if (this.messageStore instanceof SimpleMessageStore
 				|| ((MessageStore) this.messageStore).removeMessage(message.getHeaders().getId()) != null) {
-			this.messageStore.removeMessageFromGroup(this.messageGroupId, message);
+			if (this.releaseWheel == null) {
+				this.messageStore.removeMessageFromGroup(this.messageGroupId, message);
+			}
 			this.handleMessageInternal(message);
 		}
 		else {
@@ -351,6 +392,52 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 		}
 	}
 
+	/**
+	 * Release the Messages that fell due in a tick of the {@link ReleaseWheel}, then
+	 * remove them from the group in one bulk operation. As with a Message released by
+	 * its own task, a Message whose release fails is removed from the group too, unless
+	 * it is still in the {@link MessageStore} (its removal was rolled back with the
+	 * release by a transactional {@code delayedAdviceChain}); it is then left for
+	 * {@link #reschedulePersistedMessages()}. The failure is rethrown from a separate
+	 * task so that the scheduler's {@code ErrorHandler} handles it.
+	 */
+	private void releaseMessages(List<Message<?>> messages) {
+		List<Message<?>> done = new ArrayList<Message<?>>(messages.size());
+		for (Message<?> message : messages) {
+			try {
+				this.releaseHandler.handleMessage(message);
+				done.add(message);
+			}
+			catch (final RuntimeException e) {
+				if (this.messageStore instanceof SimpleMessageStore
+						|| ((MessageStore) this.messageStore).getMessage(message.getHeaders().getId()) == null) {
+					done.add(message);
+				}
+				this.getTaskScheduler().schedule(new Runnable() {
+					@Override
+					public void run() {
+						throw e;
+					}
+				}, new Date());
+			}
+		}
+		if (!done.isEmpty()) {
+			this.messageStore.removeMessagesFromGroup(this.messageGroupId, done);
+		}
+	}
+
+	/**
+	 * Cancel the task advancing the timing wheel, if any; Messages that are still
+	 * delayed are left in the {@link MessageGroupStore}.
+	 */
+	@Override
+	public void destroy() {
+		ReleaseWheel releaseWheel = this.releaseWheel;
+		if (releaseWheel != null) {
+			releaseWheel.stop();
+		}
+	}
+
 	@Override
 	public int getDelayedMessageCount() {
 		return this.messageStore.messageGroupSize(this.messageGroupId);
@@ -359,27 +446,42 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 	/**
 	 * Used for reading persisted Messages in the 'messageStore'
 	 * to reschedule them e.g. upon application restart.
-	 * The logic is based on iteration over {@code messageGroup.getMessages()}
-	 * and schedules task about 'delay' logic.
+	 * The logic is based on streaming the group with
+	 * {@link MessageGroupStore#streamMessagesForGroup} and schedules task about 'delay' logic.
 	 * This behavior is dictated by the avoidance of invocation thread overload.
+	 * When the timing wheel is used, each Message is simply added to the wheel.
 	 */
 	@Override
 	public void reschedulePersistedMessages() {
-		MessageGroup messageGroup = this.messageStore.getMessageGroup(this.messageGroupId);
-		for (final Message<?> message : messageGroup.getMessages()) {
-			this.getTaskScheduler().schedule(new Runnable() {
-				@Override
-				public void run() {
-					long delay = determineDelayForMessage(message);
-					if (delay > 0) {
-						releaseMessageAfterDelay(message, delay);
+		this.messageStore.streamMessagesForGroup(this.messageGroupId, new MessageGroupStore.MessageCallback() {
+
+			@Override
+			public void execute(final Message<?> message) {
+				if (releaseWheel != null) {
+					try {
+						releaseMessageAfterDelay(message, Math.max(determineDelayForMessage(message), 0));
 					}
-					else {
-						releaseMessage(message);
+					catch (RuntimeException e) {
+						// don't abort streaming the rest of the group
+						logger.error("Failed to reschedule persisted message: " + message, e);
 					}
+					return;
 				}
-			}, new Date());
-		}
+				getTaskScheduler().schedule(new Runnable() {
+					@Override
+					public void run() {
+						long delay = determineDelayForMessage(message);
+						if (delay > 0) {
+							releaseMessageAfterDelay(message, delay);
+						}
+						else {
+							releaseMessage(message);
+						}
+					}
+				}, new Date());
+			}
+
+		});
 	}
 
 	/**
@@ -419,6 +521,158 @@ public class DelayHandler extends AbstractReplyProducingMessageHandler implement
 	}
 
 
+	/**
+	 * A hierarchical timing wheel advanced by a single fixed-rate task. Each of the
+	 * {@link #LEVELS} wheels has {@link #WHEEL_SIZE} buckets; a bucket of level
+	 * {@code n} spans {@code WHEEL_SIZE^n} ticks and is cascaded into the lower levels
+	 * when the wheel below it wraps, so each Message is moved at most
+	 * {@code LEVELS - 1} times however long its delay is. Messages are added through a
+	 * concurrent queue; the buckets are only accessed by the tick task.
+	 */
+	private class ReleaseWheel implements Runnable {
+
+		private static final int WHEEL_BITS = 8;
+
+		private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+		private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+		private static final int LEVELS = 4;
+
+		private static final long MAX_TICKS = (1L << (WHEEL_BITS * LEVELS)) - 1;
+
+		private final long tickInterval;
+
+		private final long startTime = System.currentTimeMillis();
+
+		private final Queue<WheelEntry> pending = new ConcurrentLinkedQueue<WheelEntry>();
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private final List<WheelEntry>[][] buckets = new List[LEVELS][WHEEL_SIZE];
+
+		private final AtomicBoolean started = new AtomicBoolean();
+
+		private volatile ScheduledFuture<?> tickTask;
+
+		private volatile boolean stopped;
+
+		private long tick;
+
+		private ReleaseWheel(long tickInterval) {
+			this.tickInterval = tickInterval;
+		}
+
+		private void add(Message<?> message, long releaseTime) {
+			this.pending.add(new WheelEntry(message, releaseTime));
+			if (!this.started.get() && this.started.compareAndSet(false, true)) {
+				this.tickTask = getTaskScheduler().scheduleAtFixedRate(this, this.tickInterval);
+				if (this.stopped) {
+					this.tickTask.cancel(false);
+				}
+			}
+		}
+
+		private void stop() {
+			this.stopped = true;
+			ScheduledFuture<?> tickTask = this.tickTask;
+			if (tickTask != null) {
+				tickTask.cancel(false);
+			}
+		}
+
+		@Override
+		public void run() {
+			long currentTick = (System.currentTimeMillis() - this.startTime) / this.tickInterval;
+			WheelEntry entry;
+			while ((entry = this.pending.poll()) != null) {
+				long due = entry.releaseTime - this.startTime;
+				// the first tick at or after the release time
+				this.schedule(entry, due > 0 ? (due + this.tickInterval - 1) / this.tickInterval : 0);
+			}
+			List<Message<?>> expired = new ArrayList<Message<?>>();
+			while (this.tick <= currentTick) {
+				this.cascade();
+				int index = (int) (this.tick & WHEEL_MASK);
+				List<WheelEntry> bucket = this.buckets[0][index];
+				if (bucket != null) {
+					this.buckets[0][index] = null;
+					for (WheelEntry due : bucket) {
+						if (due.releaseTick <= this.tick) {
+							expired.add(due.message);
+						}
+						else {
+							this.place(due);
+						}
+					}
+				}
+				this.tick++;
+			}
+			if (!expired.isEmpty()) {
+				releaseMessages(expired);
+			}
+		}
+
+		/**
+		 * When the current tick starts a new revolution of a level, move the bucket
+		 * of the level above for that revolution down; higher levels first.
+		 */
+		private void cascade() {
+			int level = 0;
+			while (level < LEVELS - 1 && ((this.tick >>> (WHEEL_BITS * level)) & WHEEL_MASK) == 0) {
+				level++;
+			}
+			for (; level > 0; level--) {
+				int index = (int) ((this.tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+				List<WheelEntry> bucket = this.buckets[level][index];
+				if (bucket != null) {
+					this.buckets[level][index] = null;
+					for (WheelEntry entry : bucket) {
+						this.place(entry);
+					}
+				}
+			}
+		}
+
+		private void schedule(WheelEntry entry, long releaseTick) {
+			entry.releaseTick = Math.max(releaseTick, this.tick);
+			this.place(entry);
+		}
+
+		private void place(WheelEntry entry) {
+			long ticks = Math.min(Math.max(entry.releaseTick - this.tick, 0), MAX_TICKS);
+			long slotTick = this.tick + ticks;
+			int level = 0;
+			while (ticks >= (1L << (WHEEL_BITS * (level + 1)))) {
+				level++;
+			}
+			int index = (int) ((slotTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+			List<WheelEntry> bucket = this.buckets[level][index];
+			if (bucket == null) {
+				bucket = new ArrayList<WheelEntry>();
+				this.buckets[level][index] = bucket;
+			}
+			bucket.add(entry);
+		}
+
+	}
+
+
+	private static final class WheelEntry {
+
+		private final Message<?> message;
+
+		private final long releaseTime;
+
+		private long releaseTick;
+
+		private WheelEntry(Message<?> message, long releaseTime) {
+			this.message = message;
+			this.releaseTime = releaseTime;
+		}
+
+	}
+
+
 	public static final class DelayedMessageWrapper implements Serializable {
 
 		private static final long serialVersionUID = -4739802369074947045L;
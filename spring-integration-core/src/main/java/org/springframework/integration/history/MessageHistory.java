@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2010 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,13 @@
 
 package org.springframework.integration.history;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -33,12 +38,26 @@ import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 /**
+ * The immutable list of the components that a message has passed through.
+ * <p>
+ * Each history holds only its newest entry and a reference to the history it was
+ * written from, so writing an entry neither copies the earlier entries nor changes
+ * the history of any other message; messages that share a path share the history
+ * of that path. The entries, oldest first, are only assembled into an array when
+ * the history is read. A history is serialized as a list of its entries, as in
+ * previous versions.
+ *
  * @author Mark Fisher
  * @since 2.0
  */
-@SuppressWarnings("serial")
 public class MessageHistory implements List<Properties>, Serializable {
 
+	private static final long serialVersionUID = -3737724478337090745L;
+
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("components", List.class)
+	};
+
 	public static final String HEADER_NAME = "history";
 
 	public static final String NAME_PROPERTY = "name";
@@ -50,7 +69,20 @@ public class MessageHistory implements List<Properties>, Serializable {
 	private static final MessageBuilderFactory mesageBuilderFactory = new DefaultMessageBuilderFactory();
 
 
-	private final List<Properties> components;
+	/*
+	 * These fields are effectively final; they are not declared final because they
+	 * are set by readObject().
+	 */
+	private transient Properties entry;
+
+	private transient MessageHistory previous;
+
+	private transient int size;
+
+	/*
+	 * The entries, oldest first; created on demand.
+	 */
+	private transient volatile List<Properties> components;
 
 
 	public static MessageHistory read(Message<?> message) {
@@ -69,91 +101,110 @@ public class MessageHistory implements List<Properties>, Serializable {
 		Properties metadata = extractMetadata(component);
 		if (!metadata.isEmpty()) {
 			MessageHistory previousHistory = message.getHeaders().get(HEADER_NAME, MessageHistory.class);
-			List<Properties> components = (previousHistory != null) ?
-					new ArrayList<Properties>(previousHistory) : new ArrayList<Properties>();
-			components.add(metadata);
-			MessageHistory history = new MessageHistory(components);
+			MessageHistory history = new MessageHistory(metadata, previousHistory);
 			message = messageBuilderFactory.fromMessage(message).setHeader(HEADER_NAME, history).build();
 		}
 		return message;
 	}
 
 
-	private MessageHistory(List<Properties> components) {
-		Assert.notEmpty(components, "component list must not be empty");
-		this.components = components;
+	private MessageHistory(Properties entry, MessageHistory previous) {
+		this.entry = entry;
+		this.previous = previous;
+		this.size = (previous != null) ? previous.size + 1 : 1;
+	}
+
+	/**
+	 * @return the entries, oldest first.
+	 */
+	private List<Properties> components() {
+		List<Properties> components = this.components;
+		if (components == null) {
+			Properties[] entries = new Properties[this.size];
+			MessageHistory history = this;
+			for (int i = entries.length - 1; i >= 0; i--) {
+				entries[i] = history.entry;
+				history = history.previous;
+			}
+			components = Collections.unmodifiableList(Arrays.asList(entries));
+			this.components = components;
+		}
+		return components;
 	}
 
 
 	@Override
 	public int size() {
-		return this.components.size();
+		return this.size;
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return this.components.isEmpty();
+		return false;
 	}
 
 	@Override
 	public boolean contains(Object o) {
-		return this.components.contains(o);
+		return this.components().contains(o);
 	}
 
 	@Override
 	public boolean containsAll(Collection<?> c) {
-		return this.components.containsAll(c);
+		return this.components().containsAll(c);
 	}
 
 	@Override
 	public Properties get(int index) {
-		return this.components.get(index);
+		if (index == this.size - 1) {
+			return this.entry;
+		}
+		return this.components().get(index);
 	}
 
 	@Override
 	public Iterator<Properties> iterator() {
-		return Collections.unmodifiableList(this.components).iterator();
+		return this.components().iterator();
 	}
 
 	@Override
 	public ListIterator<Properties> listIterator() {
-		return Collections.unmodifiableList(this.components).listIterator();
+		return this.components().listIterator();
 	}
 
 	@Override
 	public ListIterator<Properties> listIterator(int index) {
-		return Collections.unmodifiableList(this.components).listIterator(index);
+		return this.components().listIterator(index);
 	}
 
 	@Override
 	public List<Properties> subList(int fromIndex, int toIndex) {
-		return Collections.unmodifiableList(this.components).subList(fromIndex, toIndex);
+		return this.components().subList(fromIndex, toIndex);
 	}
 
 	@Override
 	public Object[] toArray() {
-		return this.components.toArray();
+		return this.components().toArray();
 	}
 
 	@Override
 	public <T> T[] toArray(T[] a) {
-		return this.components.toArray(a);
+		return this.components().toArray(a);
 	}
 
 	@Override
 	public int indexOf(Object o) {
-		return this.components.indexOf(o);
+		return this.components().indexOf(o);
 	}
 
 	@Override
 	public int lastIndexOf(Object o) {
-		return this.components.lastIndexOf(o);
+		return this.components().lastIndexOf(o);
 	}
 
 	@Override
 	public String toString() {
 		List<String> names = new ArrayList<String>();
-		for (Properties p : this.components) {
+		for (Properties p : this.components()) {
 			String name = p.getProperty(NAME_PROPERTY);
 			if (name != null) {
 				names.add(name);
@@ -218,6 +269,26 @@ public class MessageHistory implements List<Properties>, Serializable {
 	}
 
 
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("components", new ArrayList<Properties>(this.components()));
+		out.writeFields();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		List<Properties> components = (List<Properties>) fields.get("components", null);
+		Assert.notEmpty(components, "component list must not be empty");
+		MessageHistory previous = null;
+		for (int i = 0; i < components.size() - 1; i++) {
+			previous = new MessageHistory(components.get(i), previous);
+		}
+		this.entry = components.get(components.size() - 1);
+		this.previous = previous;
+		this.size = components.size();
+	}
+
 	private static Properties extractMetadata(NamedComponent component) {
 		Entry entry = new Entry();
 		String name = component.getComponentName();
@@ -240,6 +311,8 @@ public class MessageHistory implements List<Properties>, Serializable {
 	 */
 	public static class Entry extends Properties {
 
+		private static final long serialVersionUID = -3209427833880610573L;
+
 		public String getName() {
 			return this.getProperty(NAME_PROPERTY);
 		}
@@ -21,18 +21,19 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.integration.mapping.support.HeaderNameMatcher;
 import org.springframework.integration.mapping.support.JsonHeaders;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
-import org.springframework.util.ObjectUtils;
-import org.springframework.util.PatternMatchUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -40,6 +41,7 @@ import org.springframework.util.StringUtils;
  *
  * @author Mark Fisher
  * @author Oleg Zhurakousky
+ * @author Gary Russell
  * @since 2.1
  */
 public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMapper<T> {
@@ -48,12 +50,12 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 
 	public static final String STANDARD_REPLY_HEADER_NAME_PATTERN = "STANDARD_REPLY_HEADERS";
 
-	private static final String[] TRANSIENT_HEADER_NAMES = new String[] {
+	private static final Set<String> TRANSIENT_HEADER_NAMES = new HashSet<String>(Arrays.asList(
 		MessageHeaders.ID,
 		MessageHeaders.ERROR_CHANNEL,
 		MessageHeaders.REPLY_CHANNEL,
 		MessageHeaders.TIMESTAMP
-	};
+	));
 
 	protected final Log logger = LogFactory.getLog(this.getClass());
 
@@ -65,6 +67,13 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 
 	private volatile List<String> replyHeaderNames = new ArrayList<String>();
 
+	/*
+	 * Compiled from the header names when first used.
+	 */
+	private volatile HeaderNameMatcher requestHeaderMatcher;
+
+	private volatile HeaderNameMatcher replyHeaderMatcher;
+
 	protected AbstractHeaderMapper() {
 		this.standardHeaderPrefix = this.getStandardHeaderPrefix();
 		this.requestHeaderNames.addAll(this.getStandardRequestHeaderNames());
@@ -84,6 +93,7 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 	public void setRequestHeaderNames(String[] requestHeaderNames) {
 		Assert.notNull(requestHeaderNames, "'requestHeaderNames' must not be null");
 		this.requestHeaderNames = Arrays.asList(requestHeaderNames);
+		this.requestHeaderMatcher = null;
 	}
 
 	/**
@@ -98,6 +108,7 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 	public void setReplyHeaderNames(String[] replyHeaderNames) {
 		Assert.notNull(replyHeaderNames, "'replyHeaderNames' must not be null");
 		this.replyHeaderNames = Arrays.asList(replyHeaderNames);
+		this.replyHeaderMatcher = null;
 	}
 
 	/**
@@ -123,7 +134,7 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 	 */
 	@Override
 	public void fromHeadersToRequest(MessageHeaders headers, T target) {
-		this.fromHeaders(headers, target, this.requestHeaderNames);
+		this.fromHeaders(headers, target, this.getRequestHeaderMatcher());
 	}
 	/**
 	 * Maps headers from a Spring Integration MessageHeaders instance to the target instance
@@ -134,7 +145,7 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 	 */
 	@Override
 	public void fromHeadersToReply(MessageHeaders headers, T target) {
-		this.fromHeaders(headers, target, this.replyHeaderNames);
+		this.fromHeaders(headers, target, this.getReplyHeaderMatcher());
 	}
 	/**
 	 * Maps headers/properties of the target object to Map of MessageHeaders
@@ -145,7 +156,7 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 	 */
 	@Override
 	public Map<String, Object> toHeadersFromRequest(T source) {
-		return this.toHeaders(source, this.requestHeaderNames);
+		return this.toHeaders(source, this.getRequestHeaderMatcher());
 	}
 	/**
 	 * Maps headers/properties of the target object to Map of MessageHeaders
@@ -156,14 +167,39 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 	 */
 	@Override
 	public Map<String, Object> toHeadersFromReply(T source) {
-		return this.toHeaders(source, this.replyHeaderNames);
+		return this.toHeaders(source, this.getReplyHeaderMatcher());
+	}
+
+	private HeaderNameMatcher getRequestHeaderMatcher() {
+		HeaderNameMatcher matcher = this.requestHeaderMatcher;
+		if (matcher == null) {
+			matcher = this.createHeaderMatcher(this.requestHeaderNames);
+			this.requestHeaderMatcher = matcher;
+		}
+		return matcher;
+	}
+
+	private HeaderNameMatcher getReplyHeaderMatcher() {
+		HeaderNameMatcher matcher = this.replyHeaderMatcher;
+		if (matcher == null) {
+			matcher = this.createHeaderMatcher(this.replyHeaderNames);
+			this.replyHeaderMatcher = matcher;
+		}
+		return matcher;
+	}
+
+	private HeaderNameMatcher createHeaderMatcher(List<String> headerPatterns) {
+		Map<String, List<String>> namedSets = new HashMap<String, List<String>>();
+		namedSets.put(STANDARD_REQUEST_HEADER_NAME_PATTERN, this.getStandardRequestHeaderNames());
+		namedSets.put(STANDARD_REPLY_HEADER_NAME_PATTERN, this.getStandardReplyHeaderNames());
+		return new HeaderNameMatcher(headerPatterns, namedSets);
 	}
 
-	private void fromHeaders(MessageHeaders headers, T target, List<String> headerPatterns){
+	private void fromHeaders(MessageHeaders headers, T target, HeaderNameMatcher headerMatcher){
 		try {
 			Map<String, Object> subset = new HashMap<String, Object>();
 			for (String headerName : headers.keySet()) {
-				if (this.shouldMapHeader(headerName, headerPatterns)){
+				if (this.shouldMapHeader(headerName, headerMatcher)){
 					subset.put(headerName, headers.get(headerName));
 				}
 			}
@@ -200,21 +236,21 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 	 * Maps headers from a source instance to the MessageHeaders of a
 	 * Spring Integration Message.
 	 */
-	private Map<String, Object> toHeaders(T source, List<String> headerPatterns) {
+	private Map<String, Object> toHeaders(T source, HeaderNameMatcher headerMatcher) {
 		Map<String, Object> headers = new HashMap<String, Object>();
 		Map<String, Object> standardHeaders = this.extractStandardHeaders(source);
-		this.copyHeaders(this.standardHeaderPrefix, standardHeaders, headers, headerPatterns);
+		this.copyHeaders(this.standardHeaderPrefix, standardHeaders, headers, headerMatcher);
 		Map<String, Object> userDefinedHeaders = this.extractUserDefinedHeaders(source);
-		this.copyHeaders(this.userDefinedHeaderPrefix, userDefinedHeaders, headers, headerPatterns);
+		this.copyHeaders(this.userDefinedHeaderPrefix, userDefinedHeaders, headers, headerMatcher);
 		return headers;
 	}
 
-	private <V> void copyHeaders(String prefix, Map<String, Object> source, Map<String, Object> target, List<String> headerPatterns) {
+	private <V> void copyHeaders(String prefix, Map<String, Object> source, Map<String, Object> target, HeaderNameMatcher headerMatcher) {
 		if (!CollectionUtils.isEmpty(source)) {
 			for (Map.Entry<String, Object> entry : source.entrySet()) {
 				try {
 					String headerName = this.addPrefixIfNecessary(prefix, entry.getKey());
-					if (this.shouldMapHeader(headerName, headerPatterns)){
+					if (this.shouldMapHeader(headerName, headerMatcher)){
 						target.put(headerName, entry.getValue());
 					}
 				}
@@ -228,34 +264,16 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 		}
 	}
 
-	private boolean shouldMapHeader(String headerName, List<String> patterns) {
-		if (!StringUtils.hasText(headerName)
-				|| ObjectUtils.containsElement(TRANSIENT_HEADER_NAMES, headerName)) {
+	private boolean shouldMapHeader(String headerName, HeaderNameMatcher headerMatcher) {
+		if (!StringUtils.hasText(headerName) || TRANSIENT_HEADER_NAMES.contains(headerName)) {
 			return false;
 		}
-		if (patterns != null && patterns.size() > 0) {
-			for (String pattern : patterns) {
-				if (PatternMatchUtils.simpleMatch(pattern.toLowerCase(), headerName.toLowerCase())) {
-					if (logger.isDebugEnabled()) {
-						logger.debug(MessageFormat.format("headerName=[{0}] WILL be mapped, matched pattern={1}", headerName, pattern));
-					}
-					return true;
-				}
-				else if (STANDARD_REQUEST_HEADER_NAME_PATTERN.equals(pattern)
-						&& this.containsElementIgnoreCase(this.getStandardRequestHeaderNames(), headerName)) {
-					if (logger.isDebugEnabled()) {
-						logger.debug(MessageFormat.format("headerName=[{0}] WILL be mapped, matched pattern={1}", headerName, pattern));
-					}
-					return true;
-				}
-				else if (STANDARD_REPLY_HEADER_NAME_PATTERN.equals(pattern)
-						&& this.containsElementIgnoreCase(this.getStandardReplyHeaderNames(), headerName)) {
-					if (logger.isDebugEnabled()) {
-						logger.debug(MessageFormat.format("headerName=[{0}] WILL be mapped, matched pattern={1}", headerName, pattern));
-					}
-					return true;
-				}
+		String pattern = headerMatcher.match(headerName);
+		if (pattern != null) {
+			if (logger.isDebugEnabled()) {
+				logger.debug(MessageFormat.format("headerName=[{0}] WILL be mapped, matched pattern={1}", headerName, pattern));
 			}
+			return true;
 		}
 		if (logger.isDebugEnabled()) {
 			logger.debug(MessageFormat.format("headerName=[{0}] WILL NOT be mapped", headerName));
@@ -281,15 +299,6 @@ public abstract class AbstractHeaderMapper<T> implements RequestReplyHeaderMappe
 		}
 	}
 
-	private boolean containsElementIgnoreCase(List<String> headerNames, String name) {
-		for (String headerName : headerNames) {
-			if (headerName.equalsIgnoreCase(name)){
-				return true;
-			}
-		}
-		return false;
-	}
-
 	/**
 	 * Adds the prefix to the header name
 	 */
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.mapping.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.util.PatternMatchUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Matches header names, ignoring case, against a fixed set of simple patterns
+ * (see {@link PatternMatchUtils#simpleMatch(String, String)}), as used by header mappers.
+ * <p>
+ * The patterns are compiled once: names without wildcards are held in a hash table, and
+ * "prefix*" and "*suffix" patterns in tables of their own; only other patterns are
+ * matched with {@link PatternMatchUtils}. A pattern can also stand for a set of names
+ * (for example, "STANDARD_REQUEST_HEADERS" for the standard headers of a protocol).
+ * <p>
+ * The result for each header name is cached (up to 1000 names), so that mapping the
+ * same headers again does not even lower-case them.
+ *
+ * @author Gary Russell
+ * @since 4.0
+ */
+public final class HeaderNameMatcher {
+
+	private static final int MAX_CACHED_NAMES = 1000;
+
+	private static final Object NO_MATCH = new Object();
+
+	private final Map<String, String> names = new HashMap<String, String>();
+
+	private final List<String[]> prefixes = new ArrayList<String[]>();
+
+	private final List<String[]> suffixes = new ArrayList<String[]>();
+
+	private final List<String[]> otherPatterns = new ArrayList<String[]>();
+
+	private String matchAllPattern;
+
+	private final ConcurrentMap<String, Object> results = new ConcurrentHashMap<String, Object>();
+
+	/**
+	 * @param patterns the simple patterns.
+	 */
+	public HeaderNameMatcher(Collection<String> patterns) {
+		this(patterns, Collections.<String, Collection<String>>emptyMap());
+	}
+
+	/**
+	 * @param patterns the simple patterns.
+	 * @param namedSets the header names matched by patterns that stand for a set of names,
+	 * keyed by pattern.
+	 */
+	public HeaderNameMatcher(Collection<String> patterns, Map<String, ? extends Collection<String>> namedSets) {
+		for (String pattern : patterns) {
+			if (pattern == null) {
+				continue;
+			}
+			Collection<String> namedSet = namedSets.get(pattern);
+			if (namedSet != null) {
+				for (String name : namedSet) {
+					this.addName(name.toLowerCase(), pattern);
+				}
+			}
+			this.addPattern(pattern);
+		}
+	}
+
+	private void addPattern(String pattern) {
+		String lowerCasePattern = pattern.toLowerCase();
+		int wildcards = StringUtils.countOccurrencesOf(lowerCasePattern, "*");
+		if (wildcards == 0) {
+			this.addName(lowerCasePattern, pattern);
+		}
+		else if (wildcards == lowerCasePattern.length()) {
+			if (this.matchAllPattern == null) {
+				this.matchAllPattern = pattern;
+			}
+		}
+		else if (wildcards == 1 && lowerCasePattern.endsWith("*")) {
+			this.prefixes.add(new String[] { lowerCasePattern.substring(0, lowerCasePattern.length() - 1), pattern });
+		}
+		else if (wildcards == 1 && lowerCasePattern.startsWith("*")) {
+			this.suffixes.add(new String[] { lowerCasePattern.substring(1), pattern });
+		}
+		else {
+			this.otherPatterns.add(new String[] { lowerCasePattern, pattern });
+		}
+	}
+
+	private void addName(String lowerCaseName, String pattern) {
+		if (!this.names.containsKey(lowerCaseName)) {
+			this.names.put(lowerCaseName, pattern);
+		}
+	}
+
+	/**
+	 * @param headerName the header name.
+	 * @return true if the header name matches one of the patterns.
+	 */
+	public boolean matches(String headerName) {
+		return this.match(headerName) != null;
+	}
+
+	/**
+	 * @param headerName the header name.
+	 * @return a pattern that the header name matches, or null if there is none.
+	 */
+	public String match(String headerName) {
+		if (headerName == null) {
+			return null;
+		}
+		Object result = this.results.get(headerName);
+		if (result == null) {
+			String pattern = this.doMatch(headerName);
+			result = (pattern != null) ? pattern : NO_MATCH;
+			// header names can come from outside (e.g. HTTP requests); bound the cache
+			if (this.results.size() < MAX_CACHED_NAMES) {
+				this.results.put(headerName, result);
+			}
+		}
+		return (result == NO_MATCH) ? null : (String) result;
+	}
+
+	private String doMatch(String headerName) {
+		if (this.matchAllPattern != null) {
+			return this.matchAllPattern;
+		}
+		String lowerCaseName = headerName.toLowerCase();
+		String pattern = this.names.get(lowerCaseName);
+		if (pattern != null) {
+			return pattern;
+		}
+		for (String[] prefix : this.prefixes) {
+			if (lowerCaseName.startsWith(prefix[0])) {
+				return prefix[1];
+			}
+		}
+		for (String[] suffix : this.suffixes) {
+			if (lowerCaseName.endsWith(suffix[0])) {
+				return suffix[1];
+			}
+		}
+		for (String[] otherPattern : this.otherPatterns) {
+			if (PatternMatchUtils.simpleMatch(otherPattern[0], lowerCaseName)) {
+				return otherPattern[1];
+			}
+		}
+		return null;
+	}
+
+}
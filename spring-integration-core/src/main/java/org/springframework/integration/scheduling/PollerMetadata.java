@@ -43,6 +43,8 @@ public class PollerMetadata {
 
 	private volatile long maxMessagesPerPoll = MAX_MESSAGES_UNBOUNDED;
 
+	private volatile boolean adviseEntirePoll;
+
 	private volatile long receiveTimeout = 1000;
 
 	private volatile ErrorHandler errorHandler;
@@ -101,6 +103,21 @@ public class PollerMetadata {
 		return this.maxMessagesPerPoll;
 	}
 
+	/**
+	 * Set to true to apply the advice chain to each poll as a whole rather
+	 * than to each message, so that all the messages received by a poll
+	 * share one transaction.
+	 * @param adviseEntirePoll true to advise the entire poll.
+	 * @since 4.0
+	 */
+	public void setAdviseEntirePoll(boolean adviseEntirePoll) {
+		this.adviseEntirePoll = adviseEntirePoll;
+	}
+
+	public boolean isAdviseEntirePoll() {
+		return this.adviseEntirePoll;
+	}
+
 	public void setReceiveTimeout(long receiveTimeout) {
 		this.receiveTimeout = receiveTimeout;
 	}
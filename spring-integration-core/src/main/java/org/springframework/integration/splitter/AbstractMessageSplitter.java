@@ -17,7 +17,10 @@
 package org.springframework.integration.splitter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import org.springframework.integration.handler.AbstractReplyProducingMessageHandler;
@@ -29,9 +32,27 @@ import org.springframework.util.ObjectUtils;
 
 /**
  * Base class for Message-splitting handlers.
+ * <p>
+ * The messages are built and sent one at a time, as the result of
+ * {@link #splitMessage(Message)} is iterated. When that result is an {@link Iterator}
+ * or an {@link Iterable} (other than a {@link Collection}), the elements are only
+ * produced as they are sent, so that an arbitrarily large result (for example,
+ * the lines of a file or the rows of a query) can be split without holding it in
+ * memory; a bounded output channel then applies back-pressure to the source.
+ * The size of such a result is not known in advance, so its messages have a
+ * sequence size of 0 (when sequence details are applied).
+ * <p>
+ * Note that, prior to version 4.0, an {@link Iterable} that is not a {@link Collection}
+ * (and an {@link Iterator}) was sent as the payload of a single message; it is now split.
+ * <p>
+ * When the handler has an advice chain, the result is iterated (and the messages built)
+ * within the advised call, so that exceptions thrown by the iterator are seen by the
+ * advice; the messages are then sent after the advised call returns, as for any other
+ * handler, and the result is therefore held in memory.
  *
  * @author Mark Fisher
  * @author Dave Syer
+ * @author Gary Russell
  */
 public abstract class AbstractMessageSplitter extends AbstractReplyProducingMessageHandler {
 
@@ -55,31 +76,52 @@ public abstract class AbstractMessageSplitter extends AbstractReplyProducingMess
 				|| (result.getClass().isArray() && ObjectUtils.isEmpty((Object[]) result))) {
 			return null;
 		}
-		MessageHeaders headers = message.getHeaders();
-		Object correlationId = headers.getId();
-		List<AbstractIntegrationMessageBuilder<?>> messageBuilders = new ArrayList<AbstractIntegrationMessageBuilder<?>>();
+		Iterator<?> items;
+		int sequenceSize;
 		if (result instanceof Collection) {
-			Collection<?> items = (Collection<?>) result;
-			int sequenceNumber = 0;
-			int sequenceSize = items.size();
-			for (Object item : items) {
-				messageBuilders.add(this.createBuilder(item, headers, correlationId, ++sequenceNumber, sequenceSize));
-			}
+			items = ((Collection<?>) result).iterator();
+			sequenceSize = ((Collection<?>) result).size();
 		}
 		else if (result.getClass().isArray()) {
-			Object[] items = (Object[]) result;
-			int sequenceNumber = 0;
-			int sequenceSize = items.length;
-			for (Object item : items) {
-				messageBuilders.add(this.createBuilder(item, headers, correlationId, ++sequenceNumber, sequenceSize));
-			}
+			items = Arrays.asList((Object[]) result).iterator();
+			sequenceSize = ((Object[]) result).length;
+		}
+		else if (result instanceof Iterable) {
+			items = ((Iterable<?>) result).iterator();
+			sequenceSize = 0;
+		}
+		else if (result instanceof Iterator) {
+			items = (Iterator<?>) result;
+			sequenceSize = 0;
 		}
 		else {
-			messageBuilders.add(this.createBuilder(result, headers, correlationId, 1, 1));
+			items = Collections.singletonList(result).iterator();
+			sequenceSize = 1;
+		}
+		// return null if there is nothing to iterate
+		if (!items.hasNext()) {
+			return null;
+		}
+		MessageBuilderIterable messageBuilders = new MessageBuilderIterable(items, message.getHeaders(), sequenceSize);
+		if (this.hasAdviceChain()) {
+			List<AbstractIntegrationMessageBuilder<?>> builders = new ArrayList<AbstractIntegrationMessageBuilder<?>>();
+			for (AbstractIntegrationMessageBuilder<?> builder : messageBuilders) {
+				builders.add(builder);
+			}
+			return builders;
 		}
 		return messageBuilders;
 	}
 
+	/**
+	 * The result of {@link #handleRequestMessage(Message)} can only be iterated once,
+	 * and always produces a message for each element.
+	 */
+	@Override
+	protected boolean shouldSplitReply(Iterable<?> reply) {
+		return reply instanceof MessageBuilderIterable || super.shouldSplitReply(reply);
+	}
+
 	@SuppressWarnings( { "unchecked", "rawtypes" })
 	private AbstractIntegrationMessageBuilder createBuilder(Object item, MessageHeaders headers, Object correlationId, int sequenceNumber,
 			int sequenceSize) {
@@ -103,14 +145,60 @@ public abstract class AbstractMessageSplitter extends AbstractReplyProducingMess
 	}
 
 	/**
-	 * Subclasses must override this method to split the received Message. The return value may be a Collection or
-	 * Array. The individual elements may be Messages, but it is not necessary. If the elements are not Messages, each
-	 * will be provided as the payload of a Message. It is also acceptable to return a single Object or Message. In that
-	 * case, a single reply Message will be produced.
+	 * Subclasses must override this method to split the received Message. The return value may be a Collection,
+	 * Array, Iterable or Iterator; an Iterable (other than a Collection) or Iterator is only iterated as the messages
+	 * are sent (unless the handler has an advice chain). Prior to version 4.0, an Iterable that was not a Collection
+	 * was treated as a single Object. The individual elements may be Messages, but it is not necessary. If the
+	 * elements are not Messages, each will be provided as the payload of a Message. It is also acceptable to return
+	 * a single Object or Message. In that case, a single reply Message will be produced.
 	 *
 	 * @param message The message.
 	 * @return The result of splitting the message.
 	 */
 	protected abstract Object splitMessage(Message<?> message);
 
+
+	/**
+	 * Builds a message for each of the items as it is iterated.
+	 */
+	private final class MessageBuilderIterable implements Iterable<AbstractIntegrationMessageBuilder<?>> {
+
+		private final Iterator<?> items;
+
+		private final MessageHeaders headers;
+
+		private final int sequenceSize;
+
+		private MessageBuilderIterable(Iterator<?> items, MessageHeaders headers, int sequenceSize) {
+			this.items = items;
+			this.headers = headers;
+			this.sequenceSize = sequenceSize;
+		}
+
+		@Override
+		public Iterator<AbstractIntegrationMessageBuilder<?>> iterator() {
+			return new Iterator<AbstractIntegrationMessageBuilder<?>>() {
+
+				private int sequenceNumber;
+
+				@Override
+				public boolean hasNext() {
+					return items.hasNext();
+				}
+
+				@Override
+				public AbstractIntegrationMessageBuilder<?> next() {
+					return createBuilder(items.next(), headers, headers.getId(), ++this.sequenceNumber, sequenceSize);
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+
+			};
+		}
+
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors
+ * Copyright 2002-2014 the original author or authors
  *
  *     Licensed under the Apache License, Version 2.0 (the "License");
  *     you may not use this file except in compliance with the License.
@@ -20,6 +20,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -155,6 +157,65 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 	}
 
 
+	/**
+	 * Stores the messages with {@link #doStoreAll(Map)} and then updates the group
+	 * metadata once, without building the group.
+	 */
+	@Override
+	public void addMessagesToGroup(Object groupId, Collection<Message<?>> messages) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		Assert.notNull(messages, "'messages' must not be null");
+		if (messages.isEmpty()) {
+			return;
+		}
+
+		MessageGroupMetadata messageGroupMetadata = this.getMessageGroupMetadata(groupId);
+		if (messageGroupMetadata == null) {
+			messageGroupMetadata = new MessageGroupMetadata(new SimpleMessageGroup(groupId));
+		}
+
+		Map<Object, Object> enrichedMessages = new LinkedHashMap<Object, Object>();
+		for (Message<?> message : messages) {
+			Assert.notNull(message, "'message' must not be null");
+			Message<?> enrichedMessage = this.enrichMessage(message);
+			enrichedMessages.put(MESSAGE_KEY_PREFIX + message.getHeaders().getId(), enrichedMessage);
+			messageGroupMetadata.add(message.getHeaders().getId());
+		}
+		this.doStoreAll(enrichedMessages);
+
+		messageGroupMetadata.setLastModified(System.currentTimeMillis());
+		this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, messageGroupMetadata);
+	}
+
+	/**
+	 * Updates the group metadata once, without building the group, and then removes
+	 * the messages with {@link #doRemoveAll(Collection)}.
+	 */
+	@Override
+	public void removeMessagesFromGroup(Object groupId, Collection<Message<?>> messagesToRemove) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		Assert.notNull(messagesToRemove, "'messagesToRemove' must not be null");
+
+		MessageGroupMetadata messageGroupMetadata = this.getMessageGroupMetadata(groupId);
+		if (messageGroupMetadata == null || messagesToRemove.isEmpty()) {
+			return;
+		}
+
+		Set<UUID> messageIds = new HashSet<UUID>();
+		List<Object> messageKeys = new ArrayList<Object>(messagesToRemove.size());
+		for (Message<?> message : messagesToRemove) {
+			UUID messageId = message.getHeaders().getId();
+			if (messageIds.add(messageId)) {
+				messageKeys.add(MESSAGE_KEY_PREFIX + messageId);
+			}
+		}
+		messageGroupMetadata.removeAll(messageIds);
+		messageGroupMetadata.setLastModified(System.currentTimeMillis());
+		this.doStore(MESSAGE_GROUP_KEY_PREFIX + groupId, messageGroupMetadata);
+
+		this.doRemoveAll(messageKeys);
+	}
+
 	@Override
 	public void completeGroup(Object groupId) {
 		Assert.notNull(groupId, "'groupId' must not be null");
@@ -253,6 +314,45 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 
 	protected abstract Collection<?> doListKeys(String keyPattern);
 
+	/**
+	 * Retrieve the objects with these ids; subclasses should override if the
+	 * underlying store supports bulk retrieval.
+	 * @param ids the ids of the objects to retrieve.
+	 * @return the objects, in the same order as the ids, with null for any that do not exist.
+	 * @since 4.0
+	 */
+	protected List<?> doRetrieveAll(Collection<Object> ids) {
+		List<Object> objects = new ArrayList<Object>(ids.size());
+		for (Object id : ids) {
+			objects.add(this.doRetrieve(id));
+		}
+		return objects;
+	}
+
+	/**
+	 * Store all the entries of the map; subclasses should override if the
+	 * underlying store supports bulk insertion.
+	 * @param objectsToStore the objects to store, by id.
+	 * @since 4.0
+	 */
+	protected void doStoreAll(Map<Object, Object> objectsToStore) {
+		for (Map.Entry<Object, Object> entry : objectsToStore.entrySet()) {
+			this.doStore(entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Remove the objects with these ids; subclasses should override if the
+	 * underlying store supports bulk deletion.
+	 * @param ids the ids of the objects to remove.
+	 * @since 4.0
+	 */
+	protected void doRemoveAll(Collection<Object> ids) {
+		for (Object id : ids) {
+			this.doRemove(id);
+		}
+	}
+
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	private Message<?> normalizeMessage(Message<?> message){
 		Message<?> normalizedMessage = this.getMessageBuilderFactory().fromMessage(message)
@@ -284,15 +384,18 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 		if (mgm != null) {
 			Assert.isInstanceOf(MessageGroupMetadata.class, mgm);
 			MessageGroupMetadata messageGroupMetadata = (MessageGroupMetadata) mgm;
-			ArrayList<Message<?>> messages = new ArrayList<Message<?>>();
-
+			List<Object> messageKeys = new ArrayList<Object>();
 			Iterator<UUID> messageIds = messageGroupMetadata.messageIdIterator();
 			while (messageIds.hasNext()){
-				if (raw){
-					messages.add(this.getRawMessage(messageIds.next()));
+				messageKeys.add(MESSAGE_KEY_PREFIX + messageIds.next());
+			}
+			ArrayList<Message<?>> messages = new ArrayList<Message<?>>(messageKeys.size());
+			for (Object message : this.doRetrieveAll(messageKeys)) {
+				if (raw || message == null) {
+					messages.add((Message<?>) message);
 				}
 				else {
-					messages.add(this.getMessage(messageIds.next()));
+					messages.add(this.normalizeMessage((Message<?>) message));
 				}
 			}
 
@@ -307,6 +410,15 @@ public abstract class AbstractKeyValueMessageStore extends AbstractMessageGroupS
 		}
 	}
 
+	private MessageGroupMetadata getMessageGroupMetadata(Object groupId) {
+		Object mgm = this.doRetrieve(MESSAGE_GROUP_KEY_PREFIX + groupId);
+		if (mgm != null) {
+			Assert.isInstanceOf(MessageGroupMetadata.class, mgm);
+			return (MessageGroupMetadata) mgm;
+		}
+		return null;
+	}
+
 	private SimpleMessageGroup getSimpleMessageGroup(MessageGroup messageGroup){
 		if (messageGroup instanceof SimpleMessageGroup){
 			return (SimpleMessageGroup) messageGroup;
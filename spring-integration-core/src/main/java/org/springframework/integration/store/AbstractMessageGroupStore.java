@@ -25,6 +25,7 @@ import org.springframework.integration.context.IntegrationContextUtils;
 import org.springframework.integration.support.DefaultMessageBuilderFactory;
 import org.springframework.integration.support.MessageBuilderFactory;
 import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.messaging.Message;
 
 /**
  * @author Dave Syer
@@ -113,6 +114,52 @@ public abstract class AbstractMessageGroupStore implements MessageGroupStore, It
 		return count;
 	}
 
+	/**
+	 * Adds the messages one at a time; subclasses should override if the
+	 * store supports bulk insertion.
+	 */
+	@Override
+	public void addMessagesToGroup(Object groupId, Collection<Message<?>> messages) {
+		for (Message<?> message : messages) {
+			this.addMessageToGroup(groupId, message);
+		}
+	}
+
+	/**
+	 * Removes the messages one at a time; subclasses should override if the
+	 * store supports bulk deletion.
+	 */
+	@Override
+	public void removeMessagesFromGroup(Object key, Collection<Message<?>> messagesToRemove) {
+		for (Message<?> message : messagesToRemove) {
+			this.removeMessageFromGroup(key, message);
+		}
+	}
+
+	/**
+	 * Iterates over the messages of {@link #getMessageGroup(Object)}; subclasses
+	 * should override if the store can read the group incrementally.
+	 */
+	@Override
+	public void streamMessagesForGroup(Object groupId, MessageCallback callback) {
+		for (Message<?> message : this.getMessageGroup(groupId).getMessages()) {
+			callback.execute(message);
+		}
+	}
+
+	/**
+	 * Whether the groups of this store keep the group ids they were created with, rather
+	 * than a key derived from them (such as the UUID string of the group id). Components
+	 * that key other resources by group id (e.g. the locks of an aggregator) can then use
+	 * the ids as they are. Default false; stores that keep the ids as-is should override.
+	 *
+	 * @return true if group ids are stored as-is.
+	 * @since 4.0
+	 */
+	public boolean isGroupIdStoredAsIs() {
+		return false;
+	}
+
 	@Override
 	@ManagedAttribute
 	public int getMessageCountForAllMessageGroups() {
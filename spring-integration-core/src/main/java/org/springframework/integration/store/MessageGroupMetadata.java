@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2011 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.integration.store;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -63,6 +64,22 @@ public class MessageGroupMetadata implements Serializable{
 	public void remove(UUID messageId){
 		this.messageIds.remove(messageId);
 	}
+
+	/**
+	 * @param messageId the id of a message added to the group.
+	 * @since 4.0
+	 */
+	public void add(UUID messageId){
+		this.messageIds.add(messageId);
+	}
+
+	/**
+	 * @param messageIds the ids of messages removed from the group.
+	 * @since 4.0
+	 */
+	public void removeAll(Collection<UUID> messageIds){
+		this.messageIds.removeAll(messageIds);
+	}
 	
 	public void setLastModified(long lastModified) {
 		this.lastModified = lastModified;
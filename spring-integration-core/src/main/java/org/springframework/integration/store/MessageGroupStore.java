@@ -12,6 +12,7 @@
  */
 package org.springframework.integration.store;
 
+import java.util.Collection;
 import java.util.Iterator;
 
 import org.springframework.jmx.export.annotation.ManagedAttribute;
@@ -49,6 +50,19 @@ public interface MessageGroupStore extends BasicMessageGroupStore {
 	@ManagedAttribute
 	int getMessageGroupCount();
 
+	/**
+	 * Store messages with an association to a group id. The effect is the same as calling
+	 * {@link #addMessageToGroup(Object, Message)} for each message, but implementations
+	 * may store the messages in bulk; the modified group is not returned, to avoid
+	 * reloading it.
+	 *
+	 * @param groupId The group id to store the messages under.
+	 * @param messages The messages.
+	 *
+	 * @since 4.0
+	 */
+	void addMessagesToGroup(Object groupId, Collection<Message<?>> messages);
+
 	/**
 	 * Persist a deletion on a single message from the group. The group is modified to reflect that 'messageToRemove' is
 	 * no longer present in the group.
@@ -59,6 +73,31 @@ public interface MessageGroupStore extends BasicMessageGroupStore {
 	 */
 	MessageGroup removeMessageFromGroup(Object key, Message<?> messageToRemove);
 
+	/**
+	 * Persist the deletion of messages from the group. The effect is the same as calling
+	 * {@link #removeMessageFromGroup(Object, Message)} for each message, but implementations
+	 * may perform the deletion in bulk; the modified group is not returned, to avoid
+	 * reloading it.
+	 *
+	 * @param key The groupId for the group containing the messages.
+	 * @param messagesToRemove The messages to be removed.
+	 *
+	 * @since 4.0
+	 */
+	void removeMessagesFromGroup(Object key, Collection<Message<?>> messagesToRemove);
+
+	/**
+	 * Pass each message of the group to the callback, in turn. Unlike
+	 * {@code getMessageGroup(groupId).getMessages()}, implementations are not required to
+	 * load the whole group into memory first. The callback should not modify the group.
+	 *
+	 * @param groupId The group identifier.
+	 * @param callback The callback to invoke for each message.
+	 *
+	 * @since 4.0
+	 */
+	void streamMessagesForGroup(Object groupId, MessageCallback callback);
+
 	/**
 	 * Remove the message group with this id.
 	 *
@@ -117,4 +156,16 @@ public interface MessageGroupStore extends BasicMessageGroupStore {
 
 	}
 
+	/**
+	 * Invoked for each message when a group is streamed through
+	 * {@link MessageGroupStore#streamMessagesForGroup(Object, MessageCallback)}.
+	 *
+	 * @since 4.0
+	 */
+	public interface MessageCallback {
+
+		void execute(Message<?> message);
+
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -15,6 +15,9 @@ package org.springframework.integration.store;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
@@ -92,6 +95,22 @@ public class SimpleMessageGroup implements MessageGroup {
 		messages.remove(message);
 	}
 
+	/**
+	 * Remove the messages in a single pass over the group; the pass stops as soon as
+	 * all of them have been found.
+	 * @param messagesToRemove the messages to remove.
+	 * @since 4.0
+	 */
+	public void removeAll(Collection<Message<?>> messagesToRemove) {
+		Set<Message<?>> remaining = new HashSet<Message<?>>(messagesToRemove);
+		Iterator<Message<?>> iterator = this.messages.iterator();
+		while (!remaining.isEmpty() && iterator.hasNext()) {
+			if (remaining.remove(iterator.next())) {
+				iterator.remove();
+			}
+		}
+	}
+
 	public int getLastReleasedMessageSequenceNumber() {
 		return lastReleasedMessageSequence;
 	}
@@ -29,7 +29,6 @@ import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessagingException;
 import org.springframework.util.Assert;
-import org.springframework.util.CollectionUtils;
 
 /**
  * Map-based in-memory implementation of {@link MessageStore} and {@link MessageGroupStore}. Enforces a maximum capacity for the
@@ -59,6 +58,8 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 
 	private volatile boolean isUsed;
 
+	private volatile boolean copyOnGet = true;
+
 	/**
 	 * Creates a SimpleMessageStore with a maximum size limited by the given capacity, or unlimited size if the given
 	 * capacity is less than 1. The capacities are applied independently to messages stored via
@@ -113,6 +114,22 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 		this.lockRegistry = lockRegistry;
 	}
 
+	/**
+	 * Set to false to disable copying the group in {@link #getMessageGroup(Object)}.
+	 * When false, a read-only view backed by the stored group is returned instead;
+	 * the view reflects subsequent additions and removals so callers that need a
+	 * stable snapshot must copy it themselves (for example, with
+	 * {@link SimpleMessageGroup#SimpleMessageGroup(MessageGroup)}).
+	 * Avoiding the copy makes repeated lookups of large groups (such as in an
+	 * aggregator) O(1) instead of O(n). Default true.
+	 *
+	 * @param copyOnGet True to copy, false to return a read-only view.
+	 * @since 4.0
+	 */
+	public void setCopyOnGet(boolean copyOnGet) {
+		this.copyOnGet = copyOnGet;
+	}
+
 	@Override
 	@ManagedAttribute
 	public long getMessageCount() {
@@ -154,6 +171,9 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 		if (group == null) {
 			return new SimpleMessageGroup(groupId);
 		}
+		if (!this.copyOnGet) {
+			return new ReadOnlyMessageGroup(group);
+		}
 		SimpleMessageGroup simpleMessageGroup = new SimpleMessageGroup(group);
 		simpleMessageGroup.setLastModified(group.getLastModified());
 		return simpleMessageGroup;
@@ -176,13 +196,49 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 				}
 				group.add(message);
 				this.groupIdToMessageGroup.get(groupId).setLastModified(System.currentTimeMillis());
-				return group;
+				return this.copyOnGet ? group : new ReadOnlyMessageGroup(group);
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MessagingException("Interrupted while obtaining lock", e);
+		}
+	}
+
+	@Override
+	public void addMessagesToGroup(Object groupId, Collection<Message<?>> messages) {
+		int acquired = 0;
+		while (acquired < messages.size()) {
+			if (!groupUpperBound.tryAcquire(0)) {
+				groupUpperBound.release(acquired);
+				throw new MessagingException(this.getClass().getSimpleName()
+						+ " was out of capacity at, try constructing it with a larger capacity.");
+			}
+			acquired++;
+		}
+		Lock lock = this.lockRegistry.obtain(groupId);
+		try {
+			lock.lockInterruptibly();
+			try {
+				SimpleMessageGroup group = this.groupIdToMessageGroup.get(groupId);
+				if (group == null) {
+					group = new SimpleMessageGroup(groupId);
+					this.groupIdToMessageGroup.putIfAbsent(groupId, group);
+				}
+				for (Message<?> message : messages) {
+					group.add(message);
+				}
+				this.groupIdToMessageGroup.get(groupId).setLastModified(System.currentTimeMillis());
 			}
 			finally {
 				lock.unlock();
 			}
 		}
 		catch (InterruptedException e) {
+			groupUpperBound.release(acquired);
 			Thread.currentThread().interrupt();
 			throw new MessagingException("Interrupted while obtaining lock", e);
 		}
@@ -222,7 +278,7 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 						"can not be located while attempting to remove Message from the MessageGroup");
 				group.remove(messageToRemove);
 				group.setLastModified(System.currentTimeMillis());
-				return group;
+				return this.copyOnGet ? group : new ReadOnlyMessageGroup(group);
 			}
 			finally {
 				lock.unlock();
@@ -234,6 +290,46 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 		}
 	}
 
+	@Override
+	public void removeMessagesFromGroup(Object groupId, Collection<Message<?>> messagesToRemove) {
+		Lock lock = this.lockRegistry.obtain(groupId);
+		try {
+			lock.lockInterruptibly();
+			try {
+				SimpleMessageGroup group = this.groupIdToMessageGroup.get(groupId);
+				Assert.notNull(group, "MessageGroup for groupId '" + groupId + "' " +
+						"can not be located while attempting to remove Messages from the MessageGroup");
+				group.removeAll(messagesToRemove);
+				group.setLastModified(System.currentTimeMillis());
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MessagingException("Interrupted while obtaining lock", e);
+		}
+	}
+
+	@Override
+	public void streamMessagesForGroup(Object groupId, MessageCallback callback) {
+		SimpleMessageGroup group = this.groupIdToMessageGroup.get(groupId);
+		if (group != null) {
+			for (Message<?> message : group.getMessages()) {
+				callback.execute(message);
+			}
+		}
+	}
+
+	/**
+	 * @return true: groups are kept under the group ids they were created with.
+	 */
+	@Override
+	public boolean isGroupIdStoredAsIs() {
+		return true;
+	}
+
 	@Override
 	public Iterator<MessageGroup> iterator() {
 		return new HashSet<MessageGroup>(groupIdToMessageGroup.values()).iterator();
@@ -285,10 +381,10 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 
 	@Override
 	public Message<?> pollMessageFromGroup(Object groupId) {
-		Collection<Message<?>> messageList = this.getMessageGroup(groupId).getMessages();
+		SimpleMessageGroup group = this.groupIdToMessageGroup.get(groupId);
 		Message<?> message = null;
-		if (!CollectionUtils.isEmpty(messageList)){
-			message = messageList.iterator().next();
+		if (group != null) {
+			message = group.getOne();
 			if (message != null){
 				this.removeMessageFromGroup(groupId, message);
 			}
@@ -298,6 +394,85 @@ public class SimpleMessageStore extends AbstractMessageGroupStore
 
 	@Override
 	public int messageGroupSize(Object groupId) {
-		return this.getMessageGroup(groupId).size();
+		SimpleMessageGroup group = this.groupIdToMessageGroup.get(groupId);
+		return group == null ? 0 : group.size();
 	}
+
+
+	/**
+	 * A read-only {@link MessageGroup} backed by the store's internal group; no
+	 * messages are copied. Mutating operations are rejected; use the store's
+	 * methods instead.
+	 */
+	private static final class ReadOnlyMessageGroup implements MessageGroup {
+
+		private final SimpleMessageGroup target;
+
+		private ReadOnlyMessageGroup(SimpleMessageGroup target) {
+			this.target = target;
+		}
+
+		@Override
+		public boolean canAdd(Message<?> message) {
+			return this.target.canAdd(message);
+		}
+
+		@Override
+		public Collection<Message<?>> getMessages() {
+			return this.target.getMessages();
+		}
+
+		@Override
+		public Object getGroupId() {
+			return this.target.getGroupId();
+		}
+
+		@Override
+		public int getLastReleasedMessageSequenceNumber() {
+			return this.target.getLastReleasedMessageSequenceNumber();
+		}
+
+		@Override
+		public boolean isComplete() {
+			return this.target.isComplete();
+		}
+
+		@Override
+		public void complete() {
+			throw new UnsupportedOperationException("This MessageGroup is read-only; use "
+					+ "MessageGroupStore.completeGroup(Object) to complete the group");
+		}
+
+		@Override
+		public int getSequenceSize() {
+			return this.target.getSequenceSize();
+		}
+
+		@Override
+		public int size() {
+			return this.target.size();
+		}
+
+		@Override
+		public Message<?> getOne() {
+			return this.target.getOne();
+		}
+
+		@Override
+		public long getTimestamp() {
+			return this.target.getTimestamp();
+		}
+
+		@Override
+		public long getLastModified() {
+			return this.target.getLastModified();
+		}
+
+		@Override
+		public String toString() {
+			return "ReadOnlyMessageGroup{" + this.target + "}";
+		}
+
+	}
+
 }
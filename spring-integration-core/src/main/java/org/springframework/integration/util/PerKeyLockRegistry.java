@@ -0,0 +1,227 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.integration.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link LockRegistry} that maintains a separate {@link ReentrantLock} for each distinct
+ * lock key, so that, unlike the {@link DefaultLockRegistry}, unrelated keys never share a lock.
+ * Keys are compared with {@code equals()}.
+ * <p>
+ * A key's lock is created when it is first locked and is reference counted by the threads that
+ * hold it or are waiting for it; it is discarded as soon as the last of them unlocks, so the
+ * registry only holds locks for keys that are currently in use. The {@link Lock}s returned by
+ * {@link #obtain(Object)} therefore do not support {@link Lock#newCondition()}.
+ * <p>
+ * The registry counts acquisitions, and acquisitions that had to wait because the key was
+ * locked by another thread, which can be used to assess contention.
+ *
+ * @since 4.0
+ */
+public final class PerKeyLockRegistry implements LockRegistry {
+
+	private final ConcurrentMap<Object, CountedLock> locks = new ConcurrentHashMap<Object, CountedLock>();
+
+	private final AtomicLong acquisitions = new AtomicLong();
+
+	private final AtomicLong contendedAcquisitions = new AtomicLong();
+
+	@Override
+	public Lock obtain(Object lockKey) {
+		Assert.notNull(lockKey, "'lockKey' must not be null");
+		return new KeyLock(lockKey);
+	}
+
+	/**
+	 * @return the number of keys that are currently locked, or being waited for.
+	 */
+	public int getLockCount() {
+		return this.locks.size();
+	}
+
+	/**
+	 * @return the number of successful lock acquisitions.
+	 */
+	public long getAcquisitionCount() {
+		return this.acquisitions.get();
+	}
+
+	/**
+	 * @return the number of lock acquisitions that found the key locked by another thread.
+	 */
+	public long getContendedAcquisitionCount() {
+		return this.contendedAcquisitions.get();
+	}
+
+	/**
+	 * Reference the lock for the key, creating it if necessary.
+	 */
+	private CountedLock reference(Object key) {
+		while (true) {
+			CountedLock lock = this.locks.get(key);
+			if (lock == null) {
+				CountedLock newLock = new CountedLock();
+				lock = this.locks.putIfAbsent(key, newLock);
+				if (lock == null) {
+					return newLock;
+				}
+			}
+			if (lock.reference()) {
+				return lock;
+			}
+			// discarded by its last user; it is being (or has been) removed
+			this.locks.remove(key, lock);
+		}
+	}
+
+	private void release(Object key, CountedLock lock) {
+		if (lock.release()) {
+			this.locks.remove(key, lock);
+		}
+	}
+
+
+	/**
+	 * A {@link ReentrantLock} with a count of the threads that reference it; a count of -1
+	 * means it has been discarded and must not be used.
+	 */
+	@SuppressWarnings("serial")
+	private static final class CountedLock extends ReentrantLock {
+
+		private final AtomicInteger references = new AtomicInteger(1);
+
+		private boolean reference() {
+			while (true) {
+				int count = this.references.get();
+				if (count < 0) {
+					return false;
+				}
+				if (this.references.compareAndSet(count, count + 1)) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * @return true if this was the last reference and the lock is now discarded.
+		 */
+		private boolean release() {
+			return this.references.decrementAndGet() == 0 && this.references.compareAndSet(0, -1);
+		}
+
+	}
+
+
+	private final class KeyLock implements Lock {
+
+		private final Object key;
+
+		private KeyLock(Object key) {
+			this.key = key;
+		}
+
+		@Override
+		public void lock() {
+			CountedLock lock = reference(this.key);
+			if (!lock.tryLock()) {
+				contendedAcquisitions.incrementAndGet();
+				lock.lock();
+			}
+			acquisitions.incrementAndGet();
+		}
+
+		@Override
+		public void lockInterruptibly() throws InterruptedException {
+			CountedLock lock = reference(this.key);
+			if (!lock.tryLock()) {
+				contendedAcquisitions.incrementAndGet();
+				try {
+					lock.lockInterruptibly();
+				}
+				catch (InterruptedException e) {
+					release(this.key, lock);
+					throw e;
+				}
+			}
+			acquisitions.incrementAndGet();
+		}
+
+		@Override
+		public boolean tryLock() {
+			CountedLock lock = reference(this.key);
+			if (lock.tryLock()) {
+				acquisitions.incrementAndGet();
+				return true;
+			}
+			release(this.key, lock);
+			return false;
+		}
+
+		@Override
+		public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+			CountedLock lock = reference(this.key);
+			boolean locked = lock.tryLock();
+			if (!locked) {
+				contendedAcquisitions.incrementAndGet();
+				try {
+					locked = lock.tryLock(time, unit);
+				}
+				catch (InterruptedException e) {
+					release(this.key, lock);
+					throw e;
+				}
+			}
+			if (locked) {
+				acquisitions.incrementAndGet();
+			}
+			else {
+				release(this.key, lock);
+			}
+			return locked;
+		}
+
+		@Override
+		public void unlock() {
+			// the current thread's reference keeps the lock registered while it is held
+			CountedLock lock = locks.get(this.key);
+			if (lock == null || !lock.isHeldByCurrentThread()) {
+				throw new IllegalMonitorStateException("The lock for key '" + this.key
+						+ "' is not held by the current thread");
+			}
+			lock.unlock();
+			release(this.key, lock);
+		}
+
+		@Override
+		public Condition newCondition() {
+			throw new UnsupportedOperationException("Conditions are not supported by this implementation of Lock");
+		}
+
+		@Override
+		public String toString() {
+			return "PerKeyLock [key=" + this.key + "]";
+		}
+
+	}
+
+}
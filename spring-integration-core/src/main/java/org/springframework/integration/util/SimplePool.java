@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,14 @@
 package org.springframework.integration.util;
 
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -34,6 +35,14 @@ import org.springframework.util.Assert;
  * Implementation of {@link Pool} supporting dynamic resizing and a variable
  * timeout when attempting to obtain an item from the pool. Pool grows on
  * demand up to the limit.
+ * <p>
+ * Obtaining and releasing items does not take any locks (other than the
+ * semaphore that limits the pool size, which only blocks when the pool is
+ * exhausted); in particular, stale item checks and item creation are performed
+ * by the calling thread without blocking other users of the pool. Items that
+ * have been idle for longer than the {@link #setIdleTimeout(long) idle timeout}
+ * are removed from the pool. Counters for the number of items obtained, and the
+ * time spent waiting for and obtaining them, are maintained.
  * @author Gary Russell
  * @since 2.2
  *
@@ -48,13 +57,25 @@ public class SimplePool<T> implements Pool<T> {
 
 	private final AtomicInteger targetPoolSize = new AtomicInteger();
 
-	private long waitTimeout = Long.MAX_VALUE;
+	private volatile long waitTimeout = Long.MAX_VALUE;
 
-	private final BlockingQueue<T> available = new LinkedBlockingQueue<T>();
+	private volatile long idleTimeout;
 
-	private final Set<T> allocated = Collections.synchronizedSet(new HashSet<T>());
+	private final Queue<IdleItem<T>> available = new ConcurrentLinkedQueue<IdleItem<T>>();
 
-	private final Set<T> inUse = Collections.synchronizedSet(new HashSet<T>());
+	private final AtomicInteger idleCount = new AtomicInteger();
+
+	private final Set<T> allocated = Collections.newSetFromMap(new ConcurrentHashMap<T, Boolean>());
+
+	private final Set<T> inUse = Collections.newSetFromMap(new ConcurrentHashMap<T, Boolean>());
+
+	private final AtomicLong checkoutCount = new AtomicLong();
+
+	private final AtomicLong waitCount = new AtomicLong();
+
+	private final AtomicLong totalWaitTime = new AtomicLong();
+
+	private final AtomicLong totalCheckoutTime = new AtomicLong();
 
 	private final PoolItemCallback<T> callback;
 
@@ -100,7 +121,7 @@ public class SimplePool<T> implements Pool<T> {
 				if (!this.permits.tryAcquire()) {
 					break;
 				}
-				T item = this.available.poll();
+				T item = this.pollIdleItem();
 				if (item == null) {
 					this.permits.release();
 					break;
@@ -125,7 +146,7 @@ public class SimplePool<T> implements Pool<T> {
 	}
 
 	public int getIdleCount() {
-		return this.available.size();
+		return this.idleCount.get();
 	}
 
 	public int getActiveCount() {
@@ -136,6 +157,42 @@ public class SimplePool<T> implements Pool<T> {
 		return this.allocated.size();
 	}
 
+	/**
+	 * @return the number of items obtained from the pool.
+	 * @since 4.0
+	 */
+	public long getCheckoutCount() {
+		return this.checkoutCount.get();
+	}
+
+	/**
+	 * @return the number of times {@link #getItem()} had to wait because all the
+	 * items were in use.
+	 * @since 4.0
+	 */
+	public long getWaitCount() {
+		return this.waitCount.get();
+	}
+
+	/**
+	 * @return the total time, in milliseconds, that {@link #getItem()} has spent
+	 * waiting for an item to be released.
+	 * @since 4.0
+	 */
+	public long getTotalWaitTime() {
+		return TimeUnit.NANOSECONDS.toMillis(this.totalWaitTime.get());
+	}
+
+	/**
+	 * @return the total time, in milliseconds, taken by successful calls to
+	 * {@link #getItem()}, including waiting, checking for stale items and creating
+	 * new items.
+	 * @since 4.0
+	 */
+	public long getTotalCheckoutTime() {
+		return TimeUnit.NANOSECONDS.toMillis(this.totalCheckoutTime.get());
+	}
+
 	/**
 	 * Adjusts the wait timeout - the time for which getItem() will wait if no idle
 	 * entries are available.
@@ -147,24 +204,48 @@ public class SimplePool<T> implements Pool<T> {
 		this.waitTimeout = waitTimeout;
 	}
 
+	/**
+	 * Set the time after which an idle item is removed from the pool (and
+	 * {@link PoolItemCallback#removedFromPool(Object)} is called). Idle items are
+	 * checked when items are obtained and released, so an item may remain in the pool
+	 * for longer than this time if the pool is not in use.
+	 * <br>
+	 * Default: 0 (idle items are not removed).
+	 * @param idleTimeout The idle timeout in milliseconds.
+	 * @since 4.0
+	 */
+	public void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
 	/**
 	 * Obtains an item from the pool; waits up to waitTime milliseconds (default infinity).
 	 * @throws MessagingException if no items become available in time.
 	 */
 	public T getItem() {
+		long start = System.nanoTime();
 		boolean permitted = false;
 		try {
-			try {
-				permitted = this.permits.tryAcquire(this.waitTimeout, TimeUnit.MILLISECONDS);
-			}
-			catch (InterruptedException e) {
-				Thread.currentThread().interrupt();
-				throw new MessagingException("Interrupted awaiting a pooled resource", e);
+			permitted = this.permits.tryAcquire();
+			if (!permitted) {
+				this.waitCount.incrementAndGet();
+				try {
+					permitted = this.permits.tryAcquire(this.waitTimeout, TimeUnit.MILLISECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new MessagingException("Interrupted awaiting a pooled resource", e);
+				}
+				finally {
+					this.totalWaitTime.addAndGet(System.nanoTime() - start);
+				}
 			}
 			if (!permitted) {
 				throw new IllegalStateException("Timed out while waiting to aquire a pool entry.");
 			}
 			T item = doGetItem();
+			this.checkoutCount.incrementAndGet();
+			this.totalCheckoutTime.addAndGet(System.nanoTime() - start);
 			return item;
 		}
 		catch (Exception e) {
@@ -179,52 +260,92 @@ public class SimplePool<T> implements Pool<T> {
 	}
 
 	private T doGetItem() {
-		T item = this.available.poll();
-		if (item != null && logger.isDebugEnabled()) {
-			logger.debug("Obtained " + item + " from pool.");
+		T item = this.pollIdleItem();
+		while (item != null && this.callback.isStale(item)) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Received a stale item " + item + ", will attempt to get a new one.");
+			}
+			doRemoveItem(item);
+			item = this.pollIdleItem();
 		}
-		if (item == null) {
-			item = this.callback.createForPool();
+		if (item != null) {
 			if (logger.isDebugEnabled()) {
-				logger.debug("Obtained new " + item + ".");
+				logger.debug("Obtained " + item + " from pool.");
 			}
-			allocated.add(item);
 		}
-		else if (this.callback.isStale(item)) {
+		else {
+			item = this.callback.createForPool();
 			if (logger.isDebugEnabled()) {
-				logger.debug("Received a stale item " + item + ", will attempt to get a new one.");
+				logger.debug("Obtained new " + item + ".");
 			}
-			doRemoveItem(item);
-			item = doGetItem();
+			allocated.add(item);
 		}
 		this.inUse.add(item);
 		return item;
 	}
 
+	/**
+	 * Take the least recently used idle item, removing any that have been idle
+	 * for too long.
+	 */
+	private T pollIdleItem() {
+		IdleItem<T> idleItem;
+		while ((idleItem = this.available.poll()) != null) {
+			this.idleCount.decrementAndGet();
+			if (!this.isExpired(idleItem)) {
+				return idleItem.item;
+			}
+			this.removeExpiredItem(idleItem);
+		}
+		return null;
+	}
+
+	/**
+	 * Remove the least recently used idle items while they have been idle for too long.
+	 */
+	private void evictExpiredItems() {
+		IdleItem<T> idleItem;
+		while ((idleItem = this.available.peek()) != null && this.isExpired(idleItem)) {
+			// only the thread that wins the removal evicts the item
+			if (this.available.remove(idleItem)) {
+				this.idleCount.decrementAndGet();
+				this.removeExpiredItem(idleItem);
+			}
+		}
+	}
+
+	private boolean isExpired(IdleItem<T> idleItem) {
+		long idleTimeout = this.idleTimeout;
+		return idleTimeout > 0 && System.currentTimeMillis() - idleItem.idleSince > idleTimeout;
+	}
+
+	private void removeExpiredItem(IdleItem<T> idleItem) {
+		if (logger.isDebugEnabled()) {
+			logger.debug("Item " + idleItem.item + " has been idle for more than " + this.idleTimeout + "ms");
+		}
+		doRemoveItem(idleItem.item);
+	}
+
 	/**
 	 * Returns an item to the pool.
 	 */
-	public synchronized void releaseItem(T item) {
+	public void releaseItem(T item) {
 		Assert.notNull(item, "Item cannot be null");
 		Assert.isTrue(this.allocated.contains(item),
 				"You can only release items that were obtained from the pool");
-		if (this.inUse.contains(item)) {
-			if (this.poolSize.get() > targetPoolSize.get()) {
-				poolSize.decrementAndGet();
-				if (item != null) {
-					doRemoveItem(item);
-				}
+		if (this.inUse.remove(item)) {
+			if (this.shrink()) {
+				doRemoveItem(item);
 			}
 			else {
 				if (logger.isDebugEnabled()){
 					logger.debug("Releasing " + item + " back to the pool");
 				}
-				if (item != null) {
-					this.available.add(item);
-					this.inUse.remove(item);
-				}
+				this.available.add(new IdleItem<T>(item));
+				this.idleCount.incrementAndGet();
 				permits.release();
 			}
+			this.evictExpiredItems();
 		}
 		else {
 			if (logger.isDebugEnabled()){
@@ -233,10 +354,27 @@ public class SimplePool<T> implements Pool<T> {
 		}
 	}
 
-	public synchronized void removeAllIdleItems() {
-		T item;
-		while ((item = this.available.poll()) != null) {
-			doRemoveItem(item);
+	/**
+	 * Decrement the pool size if it is greater than the target size.
+	 * @return true if the pool size was decremented.
+	 */
+	private boolean shrink() {
+		while (true) {
+			int size = this.poolSize.get();
+			if (size <= this.targetPoolSize.get()) {
+				return false;
+			}
+			if (this.poolSize.compareAndSet(size, size - 1)) {
+				return true;
+			}
+		}
+	}
+
+	public void removeAllIdleItems() {
+		IdleItem<T> idleItem;
+		while ((idleItem = this.available.poll()) != null) {
+			this.idleCount.decrementAndGet();
+			doRemoveItem(idleItem.item);
 		}
 	}
 
@@ -249,6 +387,18 @@ public class SimplePool<T> implements Pool<T> {
 		this.callback.removedFromPool(item);
 	}
 
+	private static final class IdleItem<T> {
+
+		private final T item;
+
+		private final long idleSince = System.currentTimeMillis();
+
+		private IdleItem(T item) {
+			this.item = item;
+		}
+
+	}
+
 	/**
 	 * User of the pool provide an implementation of this interface; called during
 	 * various pool operations.
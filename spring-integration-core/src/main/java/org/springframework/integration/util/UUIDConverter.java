@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2010 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import java.util.UUID;
 
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
 
 /**
  * Utility to help generate UUID instances from generic objects.
@@ -72,17 +73,22 @@ public class UUIDConverter implements Converter<Object, UUID> {
 			return (UUID) input;
 		}
 		if (input instanceof String) {
-			try {
-				return UUID.fromString((String) input);
-			}
-			catch (Exception e) {
+			String string = (String) input;
+			// a UUID has four '-' separators; skip the (failing) parse for other Strings
+			if (StringUtils.countOccurrencesOf(string, "-") == 4) {
 				try {
-					return UUID.nameUUIDFromBytes(((String) input).getBytes(DEFAULT_CHARSET));
+					return UUID.fromString(string);
 				}
-				catch (UnsupportedEncodingException ex) {
-					throw new IllegalStateException("Cannot convert String using charset=" + DEFAULT_CHARSET, ex);
+				catch (Exception e) {
+					// not a UUID
 				}
 			}
+			try {
+				return UUID.nameUUIDFromBytes(string.getBytes(DEFAULT_CHARSET));
+			}
+			catch (UnsupportedEncodingException ex) {
+				throw new IllegalStateException("Cannot convert String using charset=" + DEFAULT_CHARSET, ex);
+			}
 		}
 		if (ClassUtils.isPrimitiveOrWrapper(input.getClass())) {
 			try {
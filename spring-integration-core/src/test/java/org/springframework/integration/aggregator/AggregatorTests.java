@@ -25,6 +25,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.integration.channel.NullChannel;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.SimpleMessageStore;
@@ -33,6 +34,7 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHandlingException;
 import org.springframework.messaging.MessageHeaders;
+import org.springframework.util.StopWatch;
 
 /**
  * @author Mark Fisher
@@ -210,6 +212,34 @@ public class AggregatorTests {
 	}
 
 
+	@Test
+	@Ignore
+	public void testGroupLookupPerformance() {
+		for (int groupSize : new int[] {10, 1000, 10000}) {
+			for (boolean copyOnGet : new boolean[] {true, false}) {
+				SimpleMessageStore store = new SimpleMessageStore();
+				store.setCopyOnGet(copyOnGet);
+				AggregatingMessageHandler handler = new AggregatingMessageHandler(new MultiplyingProcessor(), store,
+						null, new MessageCountReleaseStrategy(groupSize));
+				handler.setOutputChannel(new NullChannel());
+				handler.setBeanFactory(mock(BeanFactory.class));
+				handler.afterPropertiesSet();
+				int groups = Math.max(1, 20000 / groupSize);
+				StopWatch watch = new StopWatch();
+				watch.start();
+				for (int i = 0; i < groups; i++) {
+					for (int j = 0; j < groupSize; j++) {
+						handler.handleMessage(MessageBuilder.withPayload(1).setCorrelationId(i).build());
+					}
+				}
+				watch.stop();
+				System.out.println("Aggregated " + groups + " groups of " + groupSize + " messages with copyOnGet="
+						+ copyOnGet + " in " + watch.getTotalTimeMillis() + "ms");
+			}
+		}
+	}
+
+
 	private static Message<?> createMessage(Object payload, Object correlationId, int sequenceSize, int sequenceNumber,
 			MessageChannel replyChannel, String predefinedId) {
 		MessageBuilder<Object> builder = MessageBuilder.withPayload(payload).setCorrelationId(correlationId)
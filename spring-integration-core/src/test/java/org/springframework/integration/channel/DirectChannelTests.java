@@ -25,6 +25,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.Ignore;
 import org.junit.Test;
 
 import org.springframework.beans.DirectFieldAccessor;
@@ -37,8 +38,10 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.ChannelInterceptorAdapter;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StopWatch;
 
 /**
  * @author Mark Fisher
@@ -215,6 +218,39 @@ public class DirectChannelTests {
 	}
 
 
+	@Test
+	@Ignore
+	public void testSendPerformanceWithInterceptors() {
+		int times = 10000000;
+		for (int interceptors : new int[] { 0, 1, 5 }) {
+			DirectChannel channel = new DirectChannel();
+			channel.subscribe(new MessageHandler() {
+
+				@Override
+				public void handleMessage(Message<?> message) {
+				}
+			});
+			for (int i = 0; i < interceptors; i++) {
+				channel.addInterceptor(new ChannelInterceptorAdapter() {
+				});
+			}
+			GenericMessage<String> message = new GenericMessage<String>("test");
+			// warm up
+			for (int i = 0; i < times; i++) {
+				channel.send(message);
+			}
+			StopWatch watch = new StopWatch();
+			watch.start();
+			for (int i = 0; i < times; i++) {
+				channel.send(message);
+			}
+			watch.stop();
+			System.out.println(interceptors + " interceptor(s): " + times + " sends in "
+					+ watch.getTotalTimeMillis() + "ms");
+		}
+	}
+
+
 	private static class ThreadNameExtractingTestTarget implements MessageHandler {
 
 		private String threadName;
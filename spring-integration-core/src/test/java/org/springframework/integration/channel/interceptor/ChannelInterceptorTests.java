@@ -23,6 +23,8 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -163,6 +165,33 @@ public class ChannelInterceptorTests {
 		assertEquals(2, invokedCount.get());
 		assertEquals(1, messageCount.get());
 	}
+
+	@Test
+	public void testInterceptorsChangedBetweenSends() {
+		final List<String> invoked = new ArrayList<String>();
+		channel.addInterceptor(new ChannelInterceptorAdapter() {
+			@Override
+			public Message<?> preSend(Message<?> message, MessageChannel channel) {
+				invoked.add("first");
+				return message;
+			}
+		});
+		channel.send(new GenericMessage<String>("test"));
+		channel.addInterceptor(0, new ChannelInterceptorAdapter() {
+			@Override
+			public Message<?> preSend(Message<?> message, MessageChannel channel) {
+				invoked.add("second");
+				return message;
+			}
+		});
+		channel.send(new GenericMessage<String>("test"));
+		assertEquals(Arrays.asList("first", "second", "first"), invoked);
+		channel.setInterceptors(new ArrayList<ChannelInterceptor>());
+		channel.send(new GenericMessage<String>("test"));
+		assertEquals(3, invoked.size());
+		assertEquals(3, channel.getQueueSize());
+	}
+
 	@Test
 	public void testInterceptorBeanWithPnamespace(){
 		ApplicationContext ac = new ClassPathXmlApplicationContext("ChannelInterceptorTests-context.xml", ChannelInterceptorTests.class);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -85,6 +85,7 @@ public class PollerParserTests {
 		PollerMetadata metadata = (PollerMetadata) poller;
 		assertNotNull(metadata.getAdviceChain());
 		assertEquals(4, metadata.getAdviceChain().size());
+		assertTrue(metadata.isAdviseEntirePoll());
 		assertSame(context.getBean("adviceBean1"), metadata.getAdviceChain().get(0));
 		assertEquals(TestAdviceBean.class, metadata.getAdviceChain().get(1).getClass());
 		assertEquals(2, ((TestAdviceBean) metadata.getAdviceChain().get(1)).getId());
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2010 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,12 @@ package org.springframework.integration.core;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Properties;
 
 import org.junit.Test;
@@ -36,6 +41,22 @@ import org.springframework.messaging.Message;
  */
 public class MessageHistoryTests {
 
+	/**
+	 * A history of two components (with timestamp "1234"), serialized by the MessageHistory of earlier versions.
+	 */
+	private static final String SERIALIZED_HISTORY =
+			"aced0005737200366f72672e737072696e676672616d65776f726b2e696e746567726174696f6e2e686973746f72792e" +
+			"4d657373616765486973746f7279cc20ef63e86f7b470200014c000a636f6d706f6e656e74737400104c6a6176612f75" +
+			"74696c2f4c6973743b7870737200136a6176612e7574696c2e41727261794c6973747881d21d99c7619d030001490004" +
+			"73697a657870000000027704000000027372003c6f72672e737072696e676672616d65776f726b2e696e746567726174" +
+			"696f6e2e686973746f72792e4d657373616765486973746f727924456e747279d375d263ad4b78f3020000787200146a" +
+			"6176612e7574696c2e50726f706572746965733912d07a70363e980200014c000864656661756c74737400164c6a6176" +
+			"612f7574696c2f50726f706572746965733b787200136a6176612e7574696c2e486173687461626c6513bb0f25214ae4" +
+			"b803000246000a6c6f6164466163746f724900097468726573686f6c6478703f40000000000005770800000007000000" +
+			"0374000974696d657374616d707400043132333474000474797065740006747970652d317400046e616d6574000f7465" +
+			"7374436f6d706f6e656e742d3178707371007e00053f400000000000057708000000070000000371007e000a71007e00" +
+			"0b71007e000c740006747970652d3271007e000e74000f74657374436f6d706f6e656e742d32787078";
+
 	@Test
 	public void addComponents() {
 		GenericMessage<String> original = new GenericMessage<String>("foo");
@@ -50,6 +71,66 @@ public class MessageHistoryTests {
 		assertEquals("testComponent-1,testComponent-2", history2.toString());
 	}
 
+	@Test
+	public void branchesShareEarlierEntries() {
+		Message<String> message = new GenericMessage<String>("foo");
+		for (int i = 1; i <= 25; i++) {
+			message = MessageHistory.write(message, new TestComponent(i));
+		}
+		MessageHistory history = MessageHistory.read(message);
+		Message<String> branch1 = MessageHistory.write(message, new TestComponent(26));
+		Message<String> branch2 = MessageHistory.write(message, new TestComponent(27));
+		MessageHistory history1 = MessageHistory.read(branch1);
+		MessageHistory history2 = MessageHistory.read(branch2);
+		assertEquals(25, history.size());
+		assertEquals(26, history1.size());
+		assertEquals(26, history2.size());
+		assertEquals("testComponent-26", history1.get(25).getProperty(MessageHistory.NAME_PROPERTY));
+		assertEquals("testComponent-27", history2.get(25).getProperty(MessageHistory.NAME_PROPERTY));
+		for (int i = 0; i < 25; i++) {
+			assertEquals("testComponent-" + (i + 1), history.get(i).getProperty(MessageHistory.NAME_PROPERTY));
+			assertSame(history.get(i), history1.get(i));
+			assertSame(history.get(i), history2.get(i));
+		}
+		assertEquals(history.get(3), history1.subList(3, 5).get(0));
+		assertEquals(24, history1.indexOf(history.get(24)));
+	}
+
+	@Test
+	public void serialization() throws Exception {
+		Message<String> message = new GenericMessage<String>("foo");
+		for (int i = 1; i <= 3; i++) {
+			message = MessageHistory.write(message, new TestComponent(i));
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(MessageHistory.read(message));
+		out.close();
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		MessageHistory history = (MessageHistory) in.readObject();
+		assertEquals(3, history.size());
+		assertEquals("testComponent-1,testComponent-2,testComponent-3", history.toString());
+		assertEquals("type-3", ((MessageHistory.Entry) history.get(2)).getType());
+		Message<String> result = MessageHistory.write(MessageBuilder.withPayload("foo")
+				.setHeader(MessageHistory.HEADER_NAME, history).build(), new TestComponent(4));
+		assertEquals("testComponent-1,testComponent-2,testComponent-3,testComponent-4",
+				MessageHistory.read(result).toString());
+	}
+
+	@Test
+	public void deserializeEarlierVersion() throws Exception {
+		byte[] bytes = new byte[SERIALIZED_HISTORY.length() / 2];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) Integer.parseInt(SERIALIZED_HISTORY.substring(i * 2, i * 2 + 2), 16);
+		}
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes));
+		MessageHistory history = (MessageHistory) in.readObject();
+		assertEquals("testComponent-1,testComponent-2", history.toString());
+		MessageHistory.Entry entry = (MessageHistory.Entry) history.get(1);
+		assertEquals("type-2", entry.getType());
+		assertEquals("1234", entry.getTimestamp());
+	}
+
 	@Test(expected = UnsupportedOperationException.class)
 	public void verifyImmutability() {
 		Message<?> message = MessageHistory.write(MessageBuilder.withPayload("test").build(), new TestComponent(1));
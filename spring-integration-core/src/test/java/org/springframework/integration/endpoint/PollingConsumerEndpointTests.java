@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2010 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,12 +19,16 @@ package org.springframework.integration.endpoint;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.mock;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -44,6 +48,7 @@ import org.springframework.util.ErrorHandler;
 /**
  * @author Iwein Fuld
  * @author Mark Fisher
+ * @author Gary Russell
  */
 @SuppressWarnings("unchecked")
 public class PollingConsumerEndpointTests {
@@ -119,6 +124,42 @@ public class PollingConsumerEndpointTests {
 		assertEquals(5, consumer.counter.get());
 	}
 
+	@Test
+	public void adviceAppliedPerMessage() throws Exception {
+		assertEquals(5, this.pollWithCountingAdvice(false));
+	}
+
+	@Test
+	public void adviceAppliedToEntirePoll() throws Exception {
+		assertEquals(1, this.pollWithCountingAdvice(true));
+	}
+
+	private int pollWithCountingAdvice(boolean adviseEntirePoll) throws Exception {
+		final AtomicInteger invocations = new AtomicInteger();
+		Advice advice = new MethodInterceptor() {
+			@Override
+			public Object invoke(MethodInvocation invocation) throws Throwable {
+				invocations.incrementAndGet();
+				return invocation.proceed();
+			}
+		};
+		PollingConsumer endpoint = new PollingConsumer(channelMock, consumer);
+		endpoint.setTaskScheduler(taskScheduler);
+		endpoint.setTrigger(trigger);
+		endpoint.setBeanFactory(mock(BeanFactory.class));
+		endpoint.setReceiveTimeout(-1);
+		endpoint.setAdviceChain(Collections.singletonList(advice));
+		endpoint.setAdviseEntirePoll(adviseEntirePoll);
+		endpoint.setMaxMessagesPerPoll(5);
+		endpoint.afterPropertiesSet();
+		Mockito.when(channelMock.receive()).thenReturn(message, message, message, message, message);
+		endpoint.start();
+		trigger.await();
+		endpoint.stop();
+		assertEquals(5, consumer.counter.get());
+		return invocations.get();
+	}
+
 	@Test
 	public void heavierLoadTest() throws Exception {
 		for (int i = 0; i < 1000; i++) {
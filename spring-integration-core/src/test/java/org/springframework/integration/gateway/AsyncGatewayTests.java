@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,20 +17,39 @@
 package org.springframework.integration.gateway;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.integration.channel.QueueChannel;
-import org.springframework.messaging.support.GenericMessage;
+import org.springframework.integration.context.IntegrationContextUtils;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.PollableChannel;
+import org.springframework.messaging.support.ErrorMessage;
+import org.springframework.messaging.support.GenericMessage;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
 
 /**
  * @author Mark Fisher
@@ -105,9 +124,188 @@ public class AsyncGatewayTests {
 		assertEquals("foobar", result);
 	}
 
+	@Test
+	public void listenableFutureWithPayloadReturned() throws Exception {
+		QueueChannel requestChannel = new QueueChannel();
+		Thread responder = startResponder(requestChannel);
+		CountingExecutor executor = new CountingExecutor();
+		TestEchoService service = createService(requestChannel, executor, mock(BeanFactory.class));
+		ListenableFuture<String> f = service.returnListenableString("foo");
+		final AtomicReference<Thread> callbackThread = new AtomicReference<Thread>();
+		final AtomicReference<String> callbackResult = new AtomicReference<String>();
+		final CountDownLatch latch = new CountDownLatch(1);
+		f.addCallback(new ListenableFutureCallback<String>() {
+
+			@Override
+			public void onSuccess(String result) {
+				callbackResult.set(result);
+				callbackThread.set(Thread.currentThread());
+				latch.countDown();
+			}
+
+			@Override
+			public void onFailure(Throwable t) {
+				latch.countDown();
+			}
+
+		});
+		assertEquals("foobar", f.get(1000, TimeUnit.MILLISECONDS));
+		assertTrue(latch.await(1, TimeUnit.SECONDS));
+		assertEquals("foobar", callbackResult.get());
+		// completed by the thread that sent the reply
+		assertSame(responder, callbackThread.get());
+		assertEquals(0, executor.count.get());
+	}
+
+	@Test
+	public void listenableFutureWithMessageReturned() throws Exception {
+		QueueChannel requestChannel = new QueueChannel();
+		startResponder(requestChannel);
+		TestEchoService service = createService(requestChannel, new CountingExecutor(), mock(BeanFactory.class));
+		ListenableFuture<Message<?>> f = service.returnListenableMessage("foo");
+		Message<?> result = f.get(1000, TimeUnit.MILLISECONDS);
+		assertEquals("foobar", result.getPayload());
+		assertNull(result.getHeaders().getReplyChannel());
+	}
 
-	private static void startResponder(final PollableChannel requestChannel) {
+	@Test
+	public void listenableFutureWithErrorReturned() throws Exception {
+		final QueueChannel requestChannel = new QueueChannel();
 		new Thread(new Runnable() {
+			public void run() {
+				Message<?> input = requestChannel.receive();
+				((MessageChannel) input.getHeaders().getErrorChannel()).send(
+						new ErrorMessage(new MessagingException(input, "bar")));
+			}
+		}).start();
+		TestEchoService service = createService(requestChannel, new CountingExecutor(), mock(BeanFactory.class));
+		ListenableFuture<String> f = service.returnListenableString("foo");
+		try {
+			f.get(1000, TimeUnit.MILLISECONDS);
+			fail("Expected ExecutionException");
+		}
+		catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof MessagingException);
+			assertEquals("bar", e.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void listenableFutureTimesOut() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.initialize();
+		beanFactory.registerSingleton(IntegrationContextUtils.TASK_SCHEDULER_BEAN_NAME, scheduler);
+		GatewayProxyFactoryBean proxyFactory = new GatewayProxyFactoryBean();
+		proxyFactory.setDefaultRequestChannel(new QueueChannel());
+		proxyFactory.setDefaultReplyTimeout(100L);
+		proxyFactory.setServiceInterface(TestEchoService.class);
+		proxyFactory.setBeanName("testGateway");
+		proxyFactory.setBeanFactory(beanFactory);
+		proxyFactory.afterPropertiesSet();
+		TestEchoService service = (TestEchoService) proxyFactory.getObject();
+		ListenableFuture<String> f = service.returnListenableString("foo");
+		assertNull(f.get(10, TimeUnit.SECONDS));
+		scheduler.destroy();
+	}
+
+	@Test
+	public void listenableFutureTimeoutIsCancelledByReply() throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.initialize();
+		beanFactory.registerSingleton(IntegrationContextUtils.TASK_SCHEDULER_BEAN_NAME, scheduler);
+		QueueChannel requestChannel = new QueueChannel();
+		startResponder(requestChannel);
+		GatewayProxyFactoryBean proxyFactory = new GatewayProxyFactoryBean();
+		proxyFactory.setDefaultRequestChannel(requestChannel);
+		proxyFactory.setDefaultReplyTimeout(60000L);
+		proxyFactory.setServiceInterface(TestEchoService.class);
+		proxyFactory.setBeanName("testGateway");
+		proxyFactory.setBeanFactory(beanFactory);
+		proxyFactory.afterPropertiesSet();
+		TestEchoService service = (TestEchoService) proxyFactory.getObject();
+		ListenableFuture<String> f = service.returnListenableString("foo");
+		assertEquals("foobar", f.get(10, TimeUnit.SECONDS));
+		Future<?> timeoutTask = (Future<?>) scheduler.getScheduledThreadPoolExecutor().getQueue().peek();
+		assertTrue(timeoutTask.isCancelled());
+		scheduler.destroy();
+	}
+
+	@Test
+	public void listenableFutureCancelNotifiesCallback() throws Exception {
+		QueueChannel requestChannel = new QueueChannel();
+		TestEchoService service = createService(requestChannel, new CountingExecutor(), mock(BeanFactory.class));
+		ListenableFuture<Message<?>> f = service.returnListenableMessage("foo");
+		final AtomicReference<Throwable> callbackFailure = new AtomicReference<Throwable>();
+		f.addCallback(new ListenableFutureCallback<Message<?>>() {
+
+			@Override
+			public void onSuccess(Message<?> result) {
+			}
+
+			@Override
+			public void onFailure(Throwable t) {
+				callbackFailure.set(t);
+			}
+
+		});
+		assertTrue(f.cancel(false));
+		assertTrue(f.isCancelled());
+		assertTrue(f.isDone());
+		assertTrue(callbackFailure.get() instanceof CancellationException);
+		try {
+			f.get();
+			fail("Expected CancellationException");
+		}
+		catch (CancellationException e) {
+			// expected
+		}
+		// a late reply is discarded
+		Message<?> request = requestChannel.receive(0);
+		MessageChannel replyChannel = (MessageChannel) request.getHeaders().getReplyChannel();
+		assertFalse(replyChannel.send(new GenericMessage<String>("bar")));
+		assertFalse(f.cancel(false));
+	}
+
+	@Test
+	public void manyListenableFuturesInFlight() throws Exception {
+		QueueChannel requestChannel = new QueueChannel();
+		CountingExecutor executor = new CountingExecutor();
+		TestEchoService service = createService(requestChannel, executor, mock(BeanFactory.class));
+		int count = 1000;
+		List<ListenableFuture<String>> futures = new ArrayList<ListenableFuture<String>>();
+		for (int i = 0; i < count; i++) {
+			futures.add(service.returnListenableString("foo" + i));
+		}
+		// all the requests are in flight, without a thread waiting for each reply
+		assertEquals(count, requestChannel.getQueueSize());
+		for (int i = 0; i < count; i++) {
+			Message<?> input = requestChannel.receive(0);
+			((MessageChannel) input.getHeaders().getReplyChannel()).send(
+					new GenericMessage<String>(input.getPayload() + "bar"));
+		}
+		for (int i = 0; i < count; i++) {
+			assertEquals("foo" + i + "bar", futures.get(i).get(0, TimeUnit.MILLISECONDS));
+		}
+		assertEquals(0, executor.count.get());
+	}
+
+
+	private static TestEchoService createService(MessageChannel requestChannel, Executor executor,
+			BeanFactory beanFactory) throws Exception {
+		GatewayProxyFactoryBean proxyFactory = new GatewayProxyFactoryBean();
+		proxyFactory.setDefaultRequestChannel(requestChannel);
+		proxyFactory.setServiceInterface(TestEchoService.class);
+		proxyFactory.setAsyncExecutor(executor);
+		proxyFactory.setBeanName("testGateway");
+		proxyFactory.setBeanFactory(beanFactory);
+		proxyFactory.afterPropertiesSet();
+		return (TestEchoService) proxyFactory.getObject();
+	}
+
+	private static Thread startResponder(final PollableChannel requestChannel) {
+		Thread responder = new Thread(new Runnable() {
 			public void run() {
 				Message<?> input = requestChannel.receive();
 				GenericMessage<String> reply = new GenericMessage<String>(input.getPayload() + "bar");
@@ -120,7 +318,22 @@ public class AsyncGatewayTests {
 				}
 				((MessageChannel) input.getHeaders().getReplyChannel()).send(reply);
 			}
-		}).start();
+		});
+		responder.start();
+		return responder;
+	}
+
+
+	private static class CountingExecutor implements Executor {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public void execute(Runnable command) {
+			this.count.incrementAndGet();
+			new Thread(command).start();
+		}
+
 	}
 
 
@@ -132,6 +345,10 @@ public class AsyncGatewayTests {
 
 		Future<?> returnSomething(String s);
 
+		ListenableFuture<String> returnListenableString(String s);
+
+		ListenableFuture<Message<?>> returnListenableMessage(String s);
+
 	}
 
 }
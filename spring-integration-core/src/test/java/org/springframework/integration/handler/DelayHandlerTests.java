@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,13 +21,20 @@ import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.AdditionalAnswers;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -44,6 +51,7 @@ import org.springframework.integration.context.IntegrationContextUtils;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
+import org.springframework.integration.store.MessageStore;
 import org.springframework.integration.store.SimpleMessageStore;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.test.util.TestUtils;
@@ -413,6 +421,167 @@ public class DelayHandlerTests {
 		assertEquals(0, messageGroupStore.messageGroupSize(DELAYER_MESSAGE_GROUP_ID));
 	}
 
+	@Test
+	public void releaseTickIntervalReleasesInBatches() throws Exception {
+		SimpleMessageStore messageGroupStore = Mockito.spy(new SimpleMessageStore());
+		this.delayHandler.setMessageStore(messageGroupStore);
+		this.delayHandler.setDefaultDelay(50);
+		this.delayHandler.setReleaseTickInterval(10);
+		this.startDelayerHandler();
+		final CountDownLatch latch = new CountDownLatch(100);
+		output.unsubscribe(resultHandler);
+		output.subscribe(new MessageHandler() {
+			public void handleMessage(Message<?> message) {
+				latch.countDown();
+			}
+		});
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < 100; i++) {
+			input.send(MessageBuilder.withPayload("test" + i).build());
+		}
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertTrue(System.currentTimeMillis() - start >= 50);
+		Mockito.verify(messageGroupStore, Mockito.never())
+				.removeMessageFromGroup(Mockito.eq(DELAYER_MESSAGE_GROUP_ID), Mockito.any(Message.class));
+		int n = 0;
+		while (n++ < 100 && messageGroupStore.messageGroupSize(DELAYER_MESSAGE_GROUP_ID) > 0) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, messageGroupStore.messageGroupSize(DELAYER_MESSAGE_GROUP_ID));
+	}
+
+	@Test
+	public void releaseTickIntervalWithDelaysSpanningWheelLevels() throws Exception {
+		this.delayHandler.setReleaseTickInterval(1);
+		this.setDelayExpression();
+		this.startDelayerHandler();
+		final List<Object> released = Collections.synchronizedList(new ArrayList<Object>());
+		final CountDownLatch latch = new CountDownLatch(3);
+		output.unsubscribe(resultHandler);
+		output.subscribe(new MessageHandler() {
+			public void handleMessage(Message<?> message) {
+				released.add(message.getPayload());
+				latch.countDown();
+			}
+		});
+		long start = System.currentTimeMillis();
+		input.send(MessageBuilder.withPayload("long").setHeader("delay", 700).build());
+		input.send(MessageBuilder.withPayload("medium").setHeader("delay", 300).build());
+		input.send(MessageBuilder.withPayload("short").setHeader("delay", 5).build());
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		assertTrue(System.currentTimeMillis() - start >= 700);
+		assertEquals(Arrays.asList("short", "medium", "long"), released);
+	}
+
+	@Test
+	public void releaseTickIntervalErrorChannelAndHandlerThrowsException() throws Exception {
+		DirectChannel errorChannel = new DirectChannel();
+		MessagePublishingErrorHandler errorHandler = new MessagePublishingErrorHandler();
+		errorHandler.setDefaultErrorChannel(errorChannel);
+		taskScheduler.setErrorHandler(errorHandler);
+		this.delayHandler.setReleaseTickInterval(10);
+		this.setDelayExpression();
+		this.startDelayerHandler();
+		output.unsubscribe(resultHandler);
+		errorChannel.subscribe(resultHandler);
+		output.subscribe(new MessageHandler() {
+			public void handleMessage(Message<?> message) {
+				throw new UnsupportedOperationException("intentional test failure");
+			}
+		});
+		Message<?> message = MessageBuilder.withPayload("test")
+				.setHeader("delay", "10")
+				.setErrorChannel(errorChannel).build();
+		input.send(message);
+		this.waitForLatch(1000);
+		Message<?> errorMessage = resultHandler.lastMessage;
+		assertEquals(MessageDeliveryException.class, errorMessage.getPayload().getClass());
+		MessageDeliveryException exceptionPayload = (MessageDeliveryException) errorMessage.getPayload();
+		assertSame(message.getPayload(), exceptionPayload.getFailedMessage().getPayload());
+		int n = 0;
+		while (n++ < 100 && this.delayHandler.getDelayedMessageCount() > 0) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, this.delayHandler.getDelayedMessageCount());
+	}
+
+	@Test
+	public void releaseTickIntervalFailedReleaseIsRemovedFromGroup() throws Exception {
+		final SimpleMessageStore delegate = new SimpleMessageStore();
+		// like a persistent store: not a SimpleMessageStore, and group members are stored messages
+		MessageGroupStore messageGroupStore = (MessageGroupStore) mock(MessageStore.class,
+				withSettings().extraInterfaces(MessageGroupStore.class)
+						.defaultAnswer(AdditionalAnswers.delegatesTo(delegate)));
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				Message<?> message = (Message<?>) invocation.getArguments()[1];
+				delegate.addMessage(message);
+				return delegate.addMessageToGroup(invocation.getArguments()[0], message);
+			}
+		}).when(messageGroupStore).addMessageToGroup(Mockito.any(), Mockito.any(Message.class));
+		this.delayHandler.setMessageStore(messageGroupStore);
+		this.delayHandler.setReleaseTickInterval(10);
+		this.delayHandler.setDefaultDelay(10);
+		this.startDelayerHandler();
+		output.unsubscribe(resultHandler);
+		final CountDownLatch latch = new CountDownLatch(2);
+		output.subscribe(new MessageHandler() {
+			public void handleMessage(Message<?> message) {
+				latch.countDown();
+				if ("bad".equals(message.getPayload())) {
+					throw new UnsupportedOperationException("intentional test failure");
+				}
+			}
+		});
+		input.send(MessageBuilder.withPayload("bad").build());
+		input.send(MessageBuilder.withPayload("good").build());
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		int n = 0;
+		while (n++ < 100 && delegate.messageGroupSize(DELAYER_MESSAGE_GROUP_ID) > 0) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, delegate.messageGroupSize(DELAYER_MESSAGE_GROUP_ID));
+		assertEquals(0, delegate.getMessageCount());
+
+		this.delayHandler.destroy();
+		assertTrue(TestUtils.getPropertyValue(this.delayHandler, "releaseWheel.tickTask",
+				ScheduledFuture.class).isCancelled());
+	}
+
+	@Test
+	public void testReschedulePersistedMessagesWithReleaseTickInterval() throws Exception {
+		MessageGroupStore messageGroupStore = new SimpleMessageStore();
+		this.delayHandler.setDefaultDelay(200);
+		this.delayHandler.setMessageStore(messageGroupStore);
+		this.startDelayerHandler();
+		Message<?> message = MessageBuilder.withPayload("test").build();
+		this.input.send(message);
+
+		Thread.sleep(100);
+
+		// emulate restart
+		this.taskScheduler.destroy();
+		assertEquals(1, messageGroupStore.messageGroupSize(DELAYER_MESSAGE_GROUP_ID));
+
+		this.taskScheduler.afterPropertiesSet();
+		this.delayHandler = new DelayHandler(DELAYER_MESSAGE_GROUP_ID, this.taskScheduler);
+		this.delayHandler.setOutputChannel(output);
+		this.delayHandler.setDefaultDelay(200);
+		this.delayHandler.setReleaseTickInterval(10);
+		this.delayHandler.setMessageStore(messageGroupStore);
+		this.delayHandler.setBeanFactory(mock(BeanFactory.class));
+		this.startDelayerHandler();
+
+		assertTrue(this.latch.await(10, TimeUnit.SECONDS));
+
+		assertSame(message.getPayload(), this.resultHandler.lastMessage.getPayload());
+		int n = 0;
+		while (n++ < 100 && messageGroupStore.messageGroupSize(DELAYER_MESSAGE_GROUP_ID) > 0) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, messageGroupStore.messageGroupSize(DELAYER_MESSAGE_GROUP_ID));
+	}
+
 	@Test //INT-1132
 	// Can happen in the parent-child context e.g. Spring-MVC applications
 	public void testDoubleOnApplicationEvent() throws Exception {
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.integration.mapping.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.springframework.util.PatternMatchUtils;
+
+/**
+ * @author Gary Russell
+ * @since 4.0
+ */
+public class HeaderNameMatcherTests {
+
+	@Test
+	public void matchesIgnoringCase() {
+		HeaderNameMatcher matcher = new HeaderNameMatcher(Arrays.asList("foo", "bar*", "*baz", "a*b*c"));
+		assertEquals("foo", matcher.match("FOO"));
+		assertEquals("bar*", matcher.match("Barometer"));
+		assertEquals("*baz", matcher.match("xBAZ"));
+		assertEquals("a*b*c", matcher.match("AxxBxxC"));
+		assertNull(matcher.match("foobar"));
+		assertNull(matcher.match("baz1"));
+		assertNull(matcher.match(null));
+		// cached results
+		assertEquals("foo", matcher.match("FOO"));
+		assertNull(matcher.match("foobar"));
+	}
+
+	@Test
+	public void matchAll() {
+		HeaderNameMatcher matcher = new HeaderNameMatcher(Arrays.asList("foo", "*"));
+		assertTrue(matcher.matches("anything"));
+		assertTrue(matcher.matches(""));
+		assertFalse(new HeaderNameMatcher(Collections.<String>emptyList()).matches("anything"));
+	}
+
+	@Test
+	public void namedSets() {
+		HeaderNameMatcher matcher = new HeaderNameMatcher(Arrays.asList("STANDARD", "x-*"),
+				Collections.singletonMap("STANDARD", Arrays.asList("Content-Type", "Accept")));
+		assertEquals("STANDARD", matcher.match("content-type"));
+		assertEquals("STANDARD", matcher.match("ACCEPT"));
+		assertEquals("STANDARD", matcher.match("standard"));
+		assertEquals("x-*", matcher.match("X-Foo"));
+		assertFalse(matcher.matches("Date"));
+	}
+
+	@Test
+	public void sameResultsAsSimpleMatch() {
+		List<String> patterns = Arrays.asList("foo", "foo*", "*foo", "*foo*", "f*o", "**", "");
+		List<String> names = Arrays.asList("foo", "FOO", "foobar", "barfoo", "barFoobar", "fxo", "f", "", "bar");
+		for (String pattern : patterns) {
+			HeaderNameMatcher matcher = new HeaderNameMatcher(Collections.singletonList(pattern));
+			for (String name : names) {
+				assertEquals(pattern + " / " + name,
+						PatternMatchUtils.simpleMatch(pattern.toLowerCase(), name.toLowerCase()), matcher.matches(name));
+			}
+		}
+	}
+
+}
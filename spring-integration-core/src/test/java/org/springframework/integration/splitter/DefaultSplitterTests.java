@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,13 +22,21 @@ import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
 import org.junit.Test;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessageHandler;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.channel.QueueChannel;
@@ -39,6 +47,7 @@ import org.springframework.integration.support.MessageBuilder;
  * @author Mark Fisher
  * @author Iwein Fuld
  * @author Gunnar Hillert
+ * @author Gary Russell
  */
 public class DefaultSplitterTests {
 
@@ -108,4 +117,149 @@ public class DefaultSplitterTests {
 		Message<?> output = replyChannel.receive(15);
 		assertThat(output, is(nullValue()));
 	}
+
+	@Test
+	public void splitMessageWithIteratorPayloadIsLazy() throws Exception {
+		final CountingIterator iterator = new CountingIterator(5);
+		Message<Iterator<Integer>> message = MessageBuilder.<Iterator<Integer>>withPayload(iterator).build();
+		DirectChannel outputChannel = new DirectChannel();
+		final List<Message<?>> replies = new ArrayList<Message<?>>();
+		outputChannel.subscribe(new MessageHandler() {
+
+			@Override
+			public void handleMessage(Message<?> message) {
+				// each element is produced as its message is sent
+				assertEquals(message.getPayload(), iterator.count);
+				replies.add(message);
+			}
+		});
+		DefaultMessageSplitter splitter = new DefaultMessageSplitter();
+		splitter.setOutputChannel(outputChannel);
+		splitter.handleMessage(message);
+		assertEquals(5, replies.size());
+		IntegrationMessageHeaderAccessor accessor = new IntegrationMessageHeaderAccessor(replies.get(4));
+		assertEquals(Integer.valueOf(5), accessor.getSequenceNumber());
+		assertEquals(Integer.valueOf(0), accessor.getSequenceSize());
+		assertEquals(message.getHeaders().getId(), accessor.getCorrelationId());
+	}
+
+	@Test
+	public void splitMessageWithIteratorPayloadIsBoundedByOutputChannel() throws Exception {
+		CountingIterator iterator = new CountingIterator(Integer.MAX_VALUE);
+		Message<Iterator<Integer>> message = MessageBuilder.<Iterator<Integer>>withPayload(iterator).build();
+		QueueChannel replyChannel = new QueueChannel(2);
+		DefaultMessageSplitter splitter = new DefaultMessageSplitter();
+		splitter.setOutputChannel(replyChannel);
+		splitter.setSendTimeout(0);
+		try {
+			splitter.handleMessage(message);
+			fail("Expected MessageDeliveryException");
+		}
+		catch (MessageDeliveryException e) {
+			// expected
+		}
+		assertEquals(2, replyChannel.getQueueSize());
+		assertEquals(3, iterator.count);
+	}
+
+	@Test
+	public void splitMessageWithEmptyIteratorPayload() throws Exception {
+		Message<Iterator<Integer>> message = MessageBuilder.<Iterator<Integer>>withPayload(new CountingIterator(0)).build();
+		QueueChannel replyChannel = new QueueChannel();
+		DefaultMessageSplitter splitter = new DefaultMessageSplitter();
+		splitter.setOutputChannel(replyChannel);
+		splitter.handleMessage(message);
+		Message<?> output = replyChannel.receive(15);
+		assertThat(output, is(nullValue()));
+	}
+
+	@Test
+	public void splitMessageWithIterablePayload() throws Exception {
+		Iterable<Integer> iterable = new Iterable<Integer>() {
+
+			@Override
+			public Iterator<Integer> iterator() {
+				return new CountingIterator(3);
+			}
+
+		};
+		Message<Iterable<Integer>> message = MessageBuilder.withPayload(iterable).build();
+		QueueChannel replyChannel = new QueueChannel();
+		DefaultMessageSplitter splitter = new DefaultMessageSplitter();
+		splitter.setOutputChannel(replyChannel);
+		splitter.handleMessage(message);
+		List<Message<?>> replies = replyChannel.clear();
+		assertEquals(3, replies.size());
+		assertEquals(3, replies.get(2).getPayload());
+	}
+
+	@Test
+	public void splitMessageWithIteratorPayloadIteratedWithinAdvice() throws Exception {
+		final CountingIterator iterator = new CountingIterator(5) {
+
+			@Override
+			public Integer next() {
+				Integer next = super.next();
+				if (next == 3) {
+					throw new IllegalStateException("iteration failed");
+				}
+				return next;
+			}
+
+		};
+		Message<Iterator<Integer>> message = MessageBuilder.<Iterator<Integer>>withPayload(iterator).build();
+		QueueChannel replyChannel = new QueueChannel();
+		final List<Throwable> adviceExceptions = new ArrayList<Throwable>();
+		DefaultMessageSplitter splitter = new DefaultMessageSplitter();
+		splitter.setOutputChannel(replyChannel);
+		splitter.setAdviceChain(Collections.<Advice>singletonList(new MethodInterceptor() {
+
+			@Override
+			public Object invoke(MethodInvocation invocation) throws Throwable {
+				try {
+					return invocation.proceed();
+				}
+				catch (Throwable t) {
+					adviceExceptions.add(t);
+					return null;
+				}
+			}
+
+		}));
+		splitter.afterPropertiesSet();
+		splitter.handleMessage(message);
+		assertEquals(1, adviceExceptions.size());
+		assertEquals("iteration failed", adviceExceptions.get(0).getMessage());
+		// nothing is sent until the iterator has been consumed
+		assertEquals(0, replyChannel.getQueueSize());
+	}
+
+
+	private static class CountingIterator implements Iterator<Integer> {
+
+		private final int size;
+
+		private volatile int count;
+
+		private CountingIterator(int size) {
+			this.size = size;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.count < this.size;
+		}
+
+		@Override
+		public Integer next() {
+			return ++this.count;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
 }
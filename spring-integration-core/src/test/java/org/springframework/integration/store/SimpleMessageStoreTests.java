@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,10 @@ package org.springframework.integration.store;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -115,6 +118,78 @@ public class SimpleMessageStoreTests {
 		assertNotSame(store.getMessageGroup("bar"), store.getMessageGroup("bar"));
 	}
 
+	@Test
+	public void shouldRemoveMessagesFromGroupInBulk() throws Exception {
+		SimpleMessageStore store = new SimpleMessageStore();
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		for (int i = 0; i < 5; i++) {
+			Message<String> message = MessageBuilder.withPayload("foo" + i).build();
+			store.addMessageToGroup("bar", message);
+			messages.add(message);
+		}
+		store.removeMessagesFromGroup("bar", Arrays.asList(messages.get(3), messages.get(0), messages.get(1)));
+		assertEquals(2, store.messageGroupSize("bar"));
+		final List<Message<?>> remaining = new ArrayList<Message<?>>();
+		store.streamMessagesForGroup("bar", new MessageGroupStore.MessageCallback() {
+
+			@Override
+			public void execute(Message<?> message) {
+				remaining.add(message);
+			}
+		});
+		assertEquals(Arrays.asList(messages.get(2), messages.get(4)), remaining);
+	}
+
+	@Test
+	public void shouldAddMessagesToGroupInBulk() throws Exception {
+		SimpleMessageStore store = new SimpleMessageStore(0, 4);
+		store.addMessageToGroup("bar", MessageBuilder.withPayload("foo").build());
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		for (int i = 0; i < 3; i++) {
+			messages.add(MessageBuilder.withPayload("foo" + i).build());
+		}
+		store.addMessagesToGroup("bar", messages);
+		assertEquals(4, store.messageGroupSize("bar"));
+		assertTrue(store.getMessageGroup("bar").getMessages().containsAll(messages));
+		try {
+			store.addMessagesToGroup("bar", Arrays.<Message<?>>asList(MessageBuilder.withPayload("baz").build()));
+			fail("Expected MessagingException");
+		}
+		catch (MessagingException e) {
+			// expected
+		}
+		assertEquals(4, store.messageGroupSize("bar"));
+	}
+
+	@Test
+	public void shouldReturnReadOnlyViewWhenNotCopying() throws Exception {
+		SimpleMessageStore store = new SimpleMessageStore();
+		store.setCopyOnGet(false);
+		Message<String> testMessage1 = MessageBuilder.withPayload("foo").build();
+		store.addMessageToGroup("bar", testMessage1);
+		MessageGroup group = store.getMessageGroup("bar");
+		assertEquals(1, group.size());
+		store.addMessageToGroup("bar", MessageBuilder.withPayload("baz").build());
+		assertEquals(2, group.size());
+		assertEquals(2, store.messageGroupSize("bar"));
+		assertSame(testMessage1, store.pollMessageFromGroup("bar"));
+		assertEquals(1, group.size());
+		try {
+			group.complete();
+			fail("Expected UnsupportedOperationException");
+		}
+		catch (UnsupportedOperationException e) {
+		}
+		try {
+			group.getMessages().clear();
+			fail("Expected UnsupportedOperationException");
+		}
+		catch (UnsupportedOperationException e) {
+		}
+		store.completeGroup("bar");
+		assertTrue(group.isComplete());
+	}
+
 	@Test
 	public void shouldRegisterCallbacks() throws Exception {
 		SimpleMessageStore store = new SimpleMessageStore();
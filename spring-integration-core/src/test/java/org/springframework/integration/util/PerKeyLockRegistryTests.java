@@ -0,0 +1,185 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.integration.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import org.springframework.util.StopWatch;
+
+/**
+ * @since 4.0
+ */
+public class PerKeyLockRegistryTests {
+
+	@Test
+	public void testLockAndReclaim() {
+		PerKeyLockRegistry registry = new PerKeyLockRegistry();
+		Lock lock = registry.obtain("foo");
+		lock.lock();
+		assertEquals(1, registry.getLockCount());
+		// reentrant, via a different Lock instance for the same key
+		Lock other = registry.obtain("foo");
+		assertTrue(other.tryLock());
+		other.unlock();
+		assertEquals(1, registry.getLockCount());
+		lock.unlock();
+		assertEquals(0, registry.getLockCount());
+		assertEquals(2, registry.getAcquisitionCount());
+		assertEquals(0, registry.getContendedAcquisitionCount());
+	}
+
+	@Test
+	public void testDistinctKeys() throws Exception {
+		final PerKeyLockRegistry registry = new PerKeyLockRegistry();
+		Lock foo = registry.obtain("foo");
+		foo.lock();
+		ExecutorService exec = Executors.newSingleThreadExecutor();
+		Future<Boolean> bar = exec.submit(new Callable<Boolean>() {
+
+			public Boolean call() throws Exception {
+				Lock lock = registry.obtain("bar");
+				boolean locked = lock.tryLock();
+				lock.unlock();
+				return locked;
+			}
+		});
+		assertTrue(bar.get(10, TimeUnit.SECONDS));
+		Future<Boolean> fooOnOtherThread = exec.submit(new Callable<Boolean>() {
+
+			public Boolean call() throws Exception {
+				return registry.obtain("foo").tryLock();
+			}
+		});
+		assertFalse(fooOnOtherThread.get(10, TimeUnit.SECONDS));
+		foo.unlock();
+		assertEquals(0, registry.getLockCount());
+		exec.shutdownNow();
+	}
+
+	@Test
+	public void testUnlockNotHeld() {
+		PerKeyLockRegistry registry = new PerKeyLockRegistry();
+		try {
+			registry.obtain("foo").unlock();
+			fail("Expected IllegalMonitorStateException");
+		}
+		catch (IllegalMonitorStateException e) {
+		}
+		assertEquals(0, registry.getLockCount());
+	}
+
+	@Test
+	public void testMutualExclusion() throws Exception {
+		PerKeyLockRegistry registry = new PerKeyLockRegistry();
+		final int[] counters = new int[4];
+		run(registry, 8, 10000, counters);
+		for (int counter : counters) {
+			assertEquals(8 * 10000 / counters.length, counter);
+		}
+		assertEquals(0, registry.getLockCount());
+		assertEquals(8 * 10000, registry.getAcquisitionCount());
+	}
+
+	@Test
+	public void testContendedTryLock() throws Exception {
+		final PerKeyLockRegistry registry = new PerKeyLockRegistry();
+		Lock lock = registry.obtain(1);
+		lock.lock();
+		final CountDownLatch latch = new CountDownLatch(1);
+		ExecutorService exec = Executors.newSingleThreadExecutor();
+		Future<Boolean> future = exec.submit(new Callable<Boolean>() {
+
+			public Boolean call() throws Exception {
+				latch.countDown();
+				Lock lock = registry.obtain(1);
+				boolean locked = lock.tryLock(10, TimeUnit.SECONDS);
+				if (locked) {
+					lock.unlock();
+				}
+				return locked;
+			}
+		});
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		Thread.sleep(100);
+		lock.unlock();
+		assertTrue(future.get(10, TimeUnit.SECONDS));
+		assertEquals(1, registry.getContendedAcquisitionCount());
+		assertEquals(0, registry.getLockCount());
+		exec.shutdownNow();
+	}
+
+	@Test
+	@Ignore
+	public void testContention() throws Exception {
+		int iterations = 2000000;
+		StopWatch watch = new StopWatch("LockRegistry contention");
+		for (int threads : new int[] { 8, 32, 64 }) {
+			for (LockRegistry registry : new LockRegistry[] { new DefaultLockRegistry(), new PerKeyLockRegistry() }) {
+				run(registry, threads, iterations / threads / 10, new int[1024]);
+				watch.start(registry.getClass().getSimpleName() + " " + threads + " threads");
+				run(registry, threads, iterations / threads, new int[1024]);
+				watch.stop();
+			}
+		}
+		System.out.println(watch.prettyPrint());
+	}
+
+	/**
+	 * Each thread increments the counters in turn, holding the lock for the counter's index.
+	 */
+	private static void run(final LockRegistry registry, int threads, final int iterations, final int[] counters)
+			throws Exception {
+		final CountDownLatch latch = new CountDownLatch(threads);
+		ExecutorService exec = Executors.newFixedThreadPool(threads);
+		for (int i = 0; i < threads; i++) {
+			final int offset = i;
+			exec.execute(new Runnable() {
+
+				public void run() {
+					for (int j = 0; j < iterations; j++) {
+						int index = (offset + j) % counters.length;
+						Lock lock = registry.obtain(index);
+						lock.lock();
+						try {
+							counters[index]++;
+						}
+						finally {
+							lock.unlock();
+						}
+					}
+					latch.countDown();
+				}
+			});
+		}
+		assertTrue(latch.await(60, TimeUnit.SECONDS));
+		exec.shutdownNow();
+	}
+
+}
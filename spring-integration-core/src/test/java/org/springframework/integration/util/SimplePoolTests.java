@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,12 +19,21 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
@@ -147,13 +156,102 @@ public class SimplePoolTests {
 		assertEquals(2, permits.availablePermits());
 	}
 
+	@Test
+	public void testIdleTimeout() throws Exception {
+		final Set<String> strings = new HashSet<String>();
+		final AtomicBoolean stale = new AtomicBoolean();
+		SimplePool<String> pool = stringPool(2, strings, stale);
+		pool.setIdleTimeout(50);
+		String s1 = pool.getItem();
+		String s2 = pool.getItem();
+		pool.releaseItem(s1);
+		assertEquals(1, pool.getIdleCount());
+		Thread.sleep(100);
+		// s1 is evicted when s2 is released
+		pool.releaseItem(s2);
+		assertEquals(1, pool.getIdleCount());
+		assertEquals(1, pool.getAllocatedCount());
+		assertFalse(strings.contains(s1));
+		Thread.sleep(100);
+		// s2 is evicted when obtained; a new item is created
+		String s3 = pool.getItem();
+		assertNotSame(s2, s3);
+		assertFalse(strings.contains(s2));
+		assertEquals(1, pool.getAllocatedCount());
+		assertEquals(0, pool.getIdleCount());
+	}
+
+	@Test
+	public void testStatistics() throws Exception {
+		final Set<String> strings = new HashSet<String>();
+		final AtomicBoolean stale = new AtomicBoolean();
+		SimplePool<String> pool = stringPool(1, strings, stale);
+		pool.setWaitTimeout(20);
+		String s1 = pool.getItem();
+		assertEquals(1, pool.getCheckoutCount());
+		assertEquals(0, pool.getWaitCount());
+		try {
+			pool.getItem();
+			fail("Expected exception");
+		}
+		catch (MessagingException e) {
+		}
+		assertEquals(1, pool.getCheckoutCount());
+		assertEquals(1, pool.getWaitCount());
+		assertTrue(pool.getTotalWaitTime() >= 10);
+		pool.releaseItem(s1);
+		pool.getItem();
+		assertEquals(2, pool.getCheckoutCount());
+		assertTrue(pool.getTotalCheckoutTime() >= 0);
+	}
+
+	@Test
+	public void testConcurrentUse() throws Exception {
+		final Set<String> strings = Collections.synchronizedSet(new HashSet<String>());
+		final AtomicBoolean stale = new AtomicBoolean();
+		final SimplePool<String> pool = stringPool(5, strings, stale);
+		int threads = 20;
+		final int iterations = 1000;
+		final AtomicInteger inUse = new AtomicInteger();
+		final AtomicInteger maxInUse = new AtomicInteger();
+		ExecutorService exec = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int i = 0; i < threads; i++) {
+			futures.add(exec.submit(new Runnable() {
+
+				@Override
+				public void run() {
+					for (int j = 0; j < iterations; j++) {
+						String item = pool.getItem();
+						int n = inUse.incrementAndGet();
+						if (n > maxInUse.get()) {
+							maxInUse.set(n);
+						}
+						inUse.decrementAndGet();
+						pool.releaseItem(item);
+					}
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		exec.shutdown();
+		assertTrue(maxInUse.get() <= 5);
+		assertEquals(threads * iterations, pool.getCheckoutCount());
+		assertEquals(0, pool.getActiveCount());
+		assertEquals(pool.getAllocatedCount(), pool.getIdleCount());
+		assertTrue(pool.getAllocatedCount() <= 5);
+		Semaphore permits = TestUtils.getPropertyValue(pool, "permits", Semaphore.class);
+		assertEquals(5, permits.availablePermits());
+	}
 
 	private SimplePool<String> stringPool(int size, final Set<String> strings,
 			final AtomicBoolean stale) {
 		SimplePool<String> pool = new SimplePool<String>(size, new SimplePool.PoolItemCallback<String>() {
-			private int i;
+			private final AtomicInteger i = new AtomicInteger();
 			public String createForPool() {
-				String string = new String("String" + i++);
+				String string = new String("String" + i.getAndIncrement());
 				strings.add(string);
 				return string;
 			}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -64,6 +64,12 @@ public class UUIDConverterTests {
 		assertNotNull(UUIDConverter.getUUID(name));
 	}
 
+	@Test
+	public void testConvertDashedString() throws Exception {
+		String name = "foo-bar-baz-qux-fiz";
+		assertEquals(UUID.nameUUIDFromBytes(name.getBytes("UTF-8")), UUIDConverter.getUUID(name));
+	}
+
 	@Test
 	public void testConvertRandomString() throws Exception {
 		UUID uuid = UUIDConverter.getUUID("foo");
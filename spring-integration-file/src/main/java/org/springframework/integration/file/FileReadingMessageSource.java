@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -57,6 +57,10 @@ import org.springframework.util.Assert;
  * a {@link ResequencingMessageGroupProcessor}, but in cases where writing files
  * and failure downstream are rare it might be sufficient.
  * <p>
+ * For directories that contain a vast number of files, consider a
+ * {@link StreamingDirectoryScanner}, which presents the directory in chunks
+ * instead of filtering and queuing the whole listing on each scan.
+ * <p>
  * FileReadingMessageSource is fully thread-safe under concurrent
  * <code>receive()</code> invocations and message delivery callbacks.
  *
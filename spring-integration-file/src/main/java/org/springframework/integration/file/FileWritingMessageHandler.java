@@ -16,7 +16,6 @@
 
 package org.springframework.integration.file;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.File;
@@ -25,12 +24,20 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.context.Lifecycle;
 import org.springframework.expression.Expression;
 import org.springframework.expression.common.LiteralExpression;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
@@ -44,6 +51,7 @@ import org.springframework.integration.util.WhileLockedProcessor;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.MessageHandlingException;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.util.Assert;
 import org.springframework.util.FileCopyUtils;
 import org.springframework.util.StringUtils;
@@ -65,6 +73,14 @@ import org.springframework.util.StringUtils;
  * Likewise, any Object can be converted to a String based on its
  * <code>toString()</code> method by the
  * {@link org.springframework.integration.transformer.ObjectToStringTransformer}.
+ * <p>
+ * With {@link FileExistsMode#APPEND_NO_FLUSH}, the files being appended to are kept open
+ * (up to {@link #setMaxOpenFiles(int) maxOpenFiles}, the least recently used file being
+ * closed first) and writes are buffered. A file is flushed and closed when it has not
+ * been written to for the {@link #setFlushInterval(long) flushInterval} (or, if
+ * {@link #setFlushWhenIdle(boolean) flushWhenIdle} is false, when that interval has
+ * elapsed since it was opened); this requires a {@link TaskScheduler}. All the files are
+ * flushed and closed by {@link #flush()} and when this handler is stopped.
  *
  * @author Mark Fisher
  * @author Iwein Fuld
@@ -74,7 +90,11 @@ import org.springframework.util.StringUtils;
  * @author Gunnar Hillert
  * @author Gary Russell
  */
-public class FileWritingMessageHandler extends AbstractReplyProducingMessageHandler {
+public class FileWritingMessageHandler extends AbstractReplyProducingMessageHandler implements Lifecycle {
+
+	private static final long DEFAULT_FLUSH_INTERVAL = 30000L;
+
+	private static final int DEFAULT_MAX_OPEN_FILES = 100;
 
 	private volatile String temporaryFileSuffix =".writing";
 
@@ -102,6 +122,23 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 
 	private volatile LockRegistry lockRegistry = new PassThruLockRegistry();
 
+	/*
+	 * The open files (APPEND_NO_FLUSH), least recently used first. A file's state is only
+	 * written to, added or removed while holding the lock for the file's path; the map
+	 * itself is guarded by its monitor, which is never held while obtaining a file lock.
+	 */
+	private final Map<String, FileState> fileStates = new LinkedHashMap<String, FileState>(16, 0.75f, true);
+
+	private volatile long flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+	private volatile boolean flushWhenIdle = true;
+
+	private volatile int maxOpenFiles = DEFAULT_MAX_OPEN_FILES;
+
+	private volatile ScheduledFuture<?> flushTask;
+
+	private volatile boolean running;
+
 	/**
 	 * Constructor which sets the {@link #destinationDirectoryExpression} using
 	 * a {@link LiteralExpression}.
@@ -172,13 +209,46 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 		Assert.notNull(fileExistsMode, "'fileExistsMode' must not be null.");
 		this.fileExistsMode = fileExistsMode;
 
-		if (FileExistsMode.APPEND.equals(fileExistsMode)){
+		if (this.isAppend()) {
 			this.lockRegistry = this.lockRegistry instanceof PassThruLockRegistry
 					? new DefaultLockRegistry()
 					: this.lockRegistry;
 		}
 	}
 
+	/**
+	 * Set the interval after which an open file (with {@link FileExistsMode#APPEND_NO_FLUSH})
+	 * is flushed and closed; see {@link #setFlushWhenIdle(boolean)}. Default 30 seconds.
+	 * @param flushInterval the interval in milliseconds.
+	 * @since 4.0
+	 */
+	public void setFlushInterval(long flushInterval) {
+		Assert.isTrue(flushInterval > 0, "'flushInterval' must be greater than 0");
+		this.flushInterval = flushInterval;
+	}
+
+	/**
+	 * Set to false to flush and close an open file when the flush interval has elapsed
+	 * since it was opened, rather than since it was last written to. Default true.
+	 * @param flushWhenIdle false to flush regardless of activity.
+	 * @since 4.0
+	 */
+	public void setFlushWhenIdle(boolean flushWhenIdle) {
+		this.flushWhenIdle = flushWhenIdle;
+	}
+
+	/**
+	 * Set the maximum number of files kept open with {@link FileExistsMode#APPEND_NO_FLUSH};
+	 * when a file is opened and the maximum is exceeded, the least recently used file
+	 * is flushed and closed. Default 100.
+	 * @param maxOpenFiles the maximum number of open files.
+	 * @since 4.0
+	 */
+	public void setMaxOpenFiles(int maxOpenFiles) {
+		Assert.isTrue(maxOpenFiles > 0, "'maxOpenFiles' must be greater than 0");
+		this.maxOpenFiles = maxOpenFiles;
+	}
+
 	/**
 	 * Specify whether a reply Message is expected. If not, this handler will simply return null for a
 	 * successful response or throw an Exception for a non-successful response. The default is true.
@@ -259,11 +329,58 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 				"Destination path [" + destinationDirectory + "] does not point to a directory.");
 		Assert.isTrue(destinationDirectory.canWrite(),
 				"Destination directory [" + destinationDirectory + "] is not writable.");
-		Assert.state(!(this.temporaryFileSuffixSet
-						&& FileExistsMode.APPEND.equals(this.fileExistsMode)),
+		Assert.state(!(this.temporaryFileSuffixSet && this.isAppend()),
 				"'temporaryFileSuffix' can not be set when appending to an existing file");
 	}
 
+	@Override
+	public void start() {
+		if (this.running) {
+			return;
+		}
+		if (FileExistsMode.APPEND_NO_FLUSH.equals(this.fileExistsMode)) {
+			TaskScheduler taskScheduler = this.getTaskScheduler();
+			if (taskScheduler != null) {
+				this.flushTask = taskScheduler.scheduleAtFixedRate(new Runnable() {
+
+					@Override
+					public void run() {
+						closeFiles(false);
+					}
+
+				}, this.flushInterval / 3 + 1);
+			}
+			else if (logger.isWarnEnabled()) {
+				logger.warn("No TaskScheduler is available; open files will only be flushed when too many "
+						+ "files are open, on flush() and when the handler is stopped");
+			}
+		}
+		this.running = true;
+	}
+
+	@Override
+	public void stop() {
+		if (this.flushTask != null) {
+			this.flushTask.cancel(false);
+			this.flushTask = null;
+		}
+		this.running = false;
+		this.closeFiles(true);
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	/**
+	 * Flush and close all the files that are open with {@link FileExistsMode#APPEND_NO_FLUSH}.
+	 * @since 4.0
+	 */
+	public void flush() {
+		this.closeFiles(true);
+	}
+
 	@Override
 	protected Object handleRequestMessage(Message<?> requestMessage) {
 		Assert.notNull(requestMessage, "message must not be null");
@@ -341,14 +458,32 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 	}
 
 	private File handleFileMessage(final File sourceFile, File tempFile, final File resultFile) throws IOException {
-		if (FileExistsMode.APPEND.equals(this.fileExistsMode)){
-			File fileToWriteTo = this.determineFileToWrite(resultFile, tempFile);
-			final BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(fileToWriteTo, true));
-			final BufferedInputStream bis = new BufferedInputStream(new FileInputStream(sourceFile));
+		if (this.isAppend()) {
+			final File fileToWriteTo = this.determineFileToWrite(resultFile, tempFile);
 			WhileLockedProcessor whileLockedProcessor = new WhileLockedProcessor(this.lockRegistry, fileToWriteTo.getAbsolutePath()){
 				@Override
 				protected void whileLocked() throws IOException {
-					FileCopyUtils.copy(bis, bos);
+					FileInputStream inputStream = new FileInputStream(sourceFile);
+					try {
+						if (FileExistsMode.APPEND_NO_FLUSH.equals(fileExistsMode)) {
+							FileState state = getFileState(fileToWriteTo);
+							// the buffered data must be written first
+							state.bufferedStream.flush();
+							transfer(inputStream.getChannel(), state.fileStream.getChannel());
+						}
+						else {
+							FileOutputStream outputStream = new FileOutputStream(fileToWriteTo, true);
+							try {
+								transfer(inputStream.getChannel(), outputStream.getChannel());
+							}
+							finally {
+								outputStream.close();
+							}
+						}
+					}
+					finally {
+						inputStream.close();
+					}
 				}
 			};
 			whileLockedProcessor.doWhileLocked();
@@ -374,6 +509,12 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 	private File handleByteArrayMessage(final byte[] bytes, File originalFile, File tempFile, final File resultFile) throws IOException {
 		File fileToWriteTo = this.determineFileToWrite(resultFile, tempFile);
 
+		if (FileExistsMode.APPEND_NO_FLUSH.equals(this.fileExistsMode)) {
+			this.appendNoFlush(bytes, fileToWriteTo);
+			this.cleanUpAfterCopy(fileToWriteTo, resultFile, originalFile);
+			return resultFile;
+		}
+
 		final boolean append = FileExistsMode.APPEND.equals(this.fileExistsMode);
 
 		final BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(fileToWriteTo, append));
@@ -392,6 +533,12 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 	private File handleStringMessage(final String content, File originalFile, File tempFile, final File resultFile) throws IOException {
 		File fileToWriteTo = this.determineFileToWrite(resultFile, tempFile);
 
+		if (FileExistsMode.APPEND_NO_FLUSH.equals(this.fileExistsMode)) {
+			this.appendNoFlush(content.getBytes(this.charset), fileToWriteTo);
+			this.cleanUpAfterCopy(fileToWriteTo, resultFile, originalFile);
+			return resultFile;
+		}
+
 		final boolean append = FileExistsMode.APPEND.equals(this.fileExistsMode);
 
 		final Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileToWriteTo, append), this.charset));
@@ -408,12 +555,133 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 		return resultFile;
 	}
 
+	private void appendNoFlush(final byte[] bytes, final File fileToWriteTo) throws IOException {
+		WhileLockedProcessor whileLockedProcessor = new WhileLockedProcessor(this.lockRegistry, fileToWriteTo.getAbsolutePath()){
+			@Override
+			protected void whileLocked() throws IOException {
+				getFileState(fileToWriteTo).bufferedStream.write(bytes);
+			}
+
+		};
+		whileLockedProcessor.doWhileLocked();
+	}
+
+	private static void transfer(FileChannel source, FileChannel target) throws IOException {
+		long size = source.size();
+		long position = 0;
+		while (position < size) {
+			position += source.transferTo(position, size - position, target);
+		}
+	}
+
+	/**
+	 * Return the state of the open file, opening it if necessary; must be called
+	 * while holding the lock for the file's path.
+	 */
+	private FileState getFileState(File file) throws IOException {
+		String path = file.getAbsolutePath();
+		FileState state;
+		boolean opened = false;
+		synchronized (this.fileStates) {
+			state = this.fileStates.get(path);
+		}
+		if (state == null) {
+			state = new FileState(path, new FileOutputStream(file, true));
+			synchronized (this.fileStates) {
+				this.fileStates.put(path, state);
+			}
+			opened = true;
+		}
+		state.lastWrite = System.currentTimeMillis();
+		if (opened) {
+			this.closeEldestFiles();
+		}
+		return state;
+	}
+
+	/**
+	 * Close the least recently used files while there are too many open; files that
+	 * are locked by another thread are left open for now.
+	 */
+	private void closeEldestFiles() {
+		while (true) {
+			FileState eldest;
+			synchronized (this.fileStates) {
+				if (this.fileStates.size() <= this.maxOpenFiles) {
+					return;
+				}
+				eldest = this.fileStates.values().iterator().next();
+			}
+			Lock lock = this.lockRegistry.obtain(eldest.path);
+			if (!lock.tryLock()) {
+				return;
+			}
+			try {
+				this.closeFile(eldest);
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Close all the open files, or just those whose flush interval has elapsed.
+	 */
+	private void closeFiles(boolean all) {
+		List<FileState> candidates;
+		synchronized (this.fileStates) {
+			if (this.fileStates.isEmpty()) {
+				return;
+			}
+			candidates = new ArrayList<FileState>(this.fileStates.values());
+		}
+		long expired = System.currentTimeMillis() - this.flushInterval;
+		for (FileState state : candidates) {
+			if (all || (this.flushWhenIdle ? state.lastWrite : state.opened) <= expired) {
+				Lock lock = this.lockRegistry.obtain(state.path);
+				lock.lock();
+				try {
+					this.closeFile(state);
+				}
+				finally {
+					lock.unlock();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Must be called while holding the lock for the file's path.
+	 */
+	private void closeFile(FileState state) {
+		synchronized (this.fileStates) {
+			if (this.fileStates.get(state.path) != state) {
+				// already closed
+				return;
+			}
+			this.fileStates.remove(state.path);
+		}
+		try {
+			state.bufferedStream.close();
+		}
+		catch (IOException e) {
+			logger.error("Failed to flush and close file " + state.path, e);
+		}
+	}
+
+	private boolean isAppend() {
+		return FileExistsMode.APPEND.equals(this.fileExistsMode)
+				|| FileExistsMode.APPEND_NO_FLUSH.equals(this.fileExistsMode);
+	}
+
 	private File determineFileToWrite(File resultFile, File tempFile){
 
 		final File fileToWriteTo;
 
 		switch (this.fileExistsMode) {
 			case APPEND:
+			case APPEND_NO_FLUSH:
 				fileToWriteTo = resultFile;
 				break;
 			case FAIL:
@@ -429,7 +697,7 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 	}
 
 	private void cleanUpAfterCopy(File fileToWriteTo, File resultFile, File originalFile) throws IOException{
-		if (!FileExistsMode.APPEND.equals(this.fileExistsMode) && StringUtils.hasText(this.temporaryFileSuffix)) {
+		if (!this.isAppend() && StringUtils.hasText(this.temporaryFileSuffix)) {
 			this.renameTo(fileToWriteTo, resultFile);
 		}
 
@@ -493,4 +761,25 @@ public class FileWritingMessageHandler extends AbstractReplyProducingMessageHand
 		return destinationDirectory;
 	}
 
+
+	private static final class FileState {
+
+		private final String path;
+
+		private final FileOutputStream fileStream;
+
+		private final BufferedOutputStream bufferedStream;
+
+		private final long opened = System.currentTimeMillis();
+
+		private volatile long lastWrite;
+
+		private FileState(String path, FileOutputStream fileStream) {
+			this.path = path;
+			this.fileStream = fileStream;
+			this.bufferedStream = new BufferedOutputStream(fileStream);
+		}
+
+	}
+
 }
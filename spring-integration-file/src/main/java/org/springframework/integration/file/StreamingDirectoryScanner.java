@@ -0,0 +1,215 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.file;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.springframework.integration.file.filters.AcceptOnceFileListFilter;
+import org.springframework.integration.file.filters.FileListFilter;
+import org.springframework.messaging.MessagingException;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link DirectoryScanner} for directories that contain a vast number of files. Rather
+ * than presenting the whole directory listing on each scan, each call to
+ * {@link #listFiles(File)} returns at most <code>maxFilesPerScan</code> files and the next
+ * call continues where the previous one stopped; the directory is only listed again once
+ * all of its entries have been presented.
+ * <p>
+ * Only the entry names of a directory are held between scans; {@link File} objects are
+ * created, and passed to the filter, in chunks no larger than the number of files still
+ * needed for the current scan. The filter therefore only sees (and, for example, an
+ * {@link AcceptOnceFileListFilter} only remembers) files that are actually returned.
+ * <p>
+ * When <code>recursive</code> is true, sub-directories are descended into (depth first,
+ * one listing per directory at a time) and only the files they contain are returned, as
+ * with the {@link RecursiveLeafOnlyDirectoryScanner}. Otherwise, all the entries of the
+ * directory are candidates, as with the {@link DefaultDirectoryScanner}.
+ * <p>
+ * Used with a {@link FileReadingMessageSource} that does not scan on each poll,
+ * <code>maxFilesPerScan</code> is typically set to the poller's
+ * <code>max-messages-per-poll</code>, bounding the number of files held in memory.
+ *
+ * @since 4.0
+ */
+public class StreamingDirectoryScanner implements DirectoryScanner {
+
+	private final int maxFilesPerScan;
+
+	private volatile FileListFilter<File> filter = new AcceptOnceFileListFilter<File>();
+
+	private volatile FileLocker locker;
+
+	private volatile boolean recursive;
+
+	private File root;
+
+	/*
+	 * The listings of the directories currently being scanned; the last is the
+	 * deepest. Only accessed while holding this scanner's monitor.
+	 */
+	private final LinkedList<Listing> listings = new LinkedList<Listing>();
+
+
+	/**
+	 * @param maxFilesPerScan the maximum number of files returned by each
+	 * {@link #listFiles(File)}.
+	 */
+	public StreamingDirectoryScanner(int maxFilesPerScan) {
+		Assert.isTrue(maxFilesPerScan > 0, "'maxFilesPerScan' must be greater than 0");
+		this.maxFilesPerScan = maxFilesPerScan;
+	}
+
+
+	public void setFilter(FileListFilter<File> filter) {
+		this.filter = filter;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final void setLocker(FileLocker locker) {
+		this.locker = locker;
+	}
+
+	/**
+	 * Set to true to return the files contained in sub-directories (at any depth)
+	 * instead of the entries of the scanned directory itself.
+	 *
+	 * @param recursive true to descend into sub-directories.
+	 */
+	public void setRecursive(boolean recursive) {
+		this.recursive = recursive;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This class takes the minimal implementation and merely delegates to the
+	 * locker if set.
+	 */
+	public final boolean tryClaim(File file) {
+		return (this.locker == null) || this.locker.lock(file);
+	}
+
+	public synchronized List<File> listFiles(File directory) throws IllegalArgumentException {
+		if (!directory.equals(this.root)) {
+			this.root = directory;
+			this.listings.clear();
+		}
+		// list the directory at most once per scan
+		boolean listedRoot = false;
+		if (this.listings.isEmpty()) {
+			this.listings.add(this.list(directory, true));
+			listedRoot = true;
+		}
+		List<File> files = new ArrayList<File>();
+		while (files.size() < this.maxFilesPerScan) {
+			Listing listing = this.listings.getLast();
+			if (listing.exhausted()) {
+				this.listings.removeLast();
+				if (this.listings.isEmpty()) {
+					if (listedRoot) {
+						break;
+					}
+					listedRoot = true;
+					this.listings.add(this.list(directory, true));
+				}
+				continue;
+			}
+			File[] chunk = this.nextChunk(listing, this.maxFilesPerScan - files.size());
+			if (chunk.length > 0) {
+				files.addAll((this.filter != null) ? this.filter.filterFiles(chunk) : Arrays.asList(chunk));
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * Create the next chunk of up to <code>max</code> candidate files from the listing,
+	 * descending into a sub-directory (and returning what was found so far) if recursive.
+	 */
+	private File[] nextChunk(Listing listing, int max) {
+		List<File> chunk = new ArrayList<File>(Math.min(max, listing.remaining()));
+		while (chunk.size() < max && !listing.exhausted()) {
+			File file = listing.next();
+			if (this.recursive && file.isDirectory()) {
+				Listing subListing = this.list(file, false);
+				if (subListing != null) {
+					this.listings.add(subListing);
+					break;
+				}
+			}
+			else {
+				chunk.add(file);
+			}
+		}
+		return chunk.toArray(new File[chunk.size()]);
+	}
+
+	private Listing list(File directory, boolean root) {
+		String[] names = directory.list();
+		if (names == null) {
+			if (root) {
+				throw new MessagingException("The path [" + directory
+						+ "] does not denote a properly accessible directory.");
+			}
+			// a sub-directory that has been removed, or cannot be read
+			return null;
+		}
+		return new Listing(directory, names);
+	}
+
+
+	/**
+	 * The names of the entries of a directory, and how far they have been presented.
+	 */
+	private static final class Listing {
+
+		private final File directory;
+
+		private final String[] names;
+
+		private int index;
+
+		private Listing(File directory, String[] names) {
+			this.directory = directory;
+			this.names = names;
+		}
+
+		private boolean exhausted() {
+			return this.index >= this.names.length;
+		}
+
+		private int remaining() {
+			return this.names.length - this.index;
+		}
+
+		private File next() {
+			String name = this.names[this.index];
+			// release the name as soon as it has been presented
+			this.names[this.index++] = null;
+			return new File(this.directory, name);
+		}
+
+	}
+
+}
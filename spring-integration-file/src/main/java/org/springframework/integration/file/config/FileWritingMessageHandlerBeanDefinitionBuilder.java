@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -63,6 +63,9 @@ abstract class FileWritingMessageHandlerBeanDefinitionBuilder {
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "delete-source-files");
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "temporary-file-suffix");
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "mode", "fileExistsMode");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "flush-interval");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "flush-when-idle");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "max-open-files");
 		IntegrationNamespaceUtils.setValueIfAttributeDefined(builder, element, "charset");
 		String remoteFileNameGenerator = element.getAttribute("filename-generator");
 		String remoteFileNameGeneratorExpression = element.getAttribute("filename-generator-expression");
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -60,6 +60,12 @@ public class FileWritingMessageHandlerFactoryBean extends AbstractSimpleMessageH
 
 	private volatile boolean expectReply = true;
 
+	private volatile Long flushInterval;
+
+	private volatile Boolean flushWhenIdle;
+
+	private volatile Integer maxOpenFiles;
+
 	public void setFileExistsMode(String fileExistsModeAsString) {
 		this.fileExistsMode = FileExistsMode.getForString(fileExistsModeAsString);
 	}
@@ -104,6 +110,18 @@ public class FileWritingMessageHandlerFactoryBean extends AbstractSimpleMessageH
 		this.expectReply = expectReply;
 	}
 
+	public void setFlushInterval(Long flushInterval) {
+		this.flushInterval = flushInterval;
+	}
+
+	public void setFlushWhenIdle(Boolean flushWhenIdle) {
+		this.flushWhenIdle = flushWhenIdle;
+	}
+
+	public void setMaxOpenFiles(Integer maxOpenFiles) {
+		this.maxOpenFiles = maxOpenFiles;
+	}
+
 	@Override
 	protected FileWritingMessageHandler createHandler() {
 
@@ -147,6 +165,15 @@ public class FileWritingMessageHandlerFactoryBean extends AbstractSimpleMessageH
 		if (this.fileExistsMode != null) {
 			handler.setFileExistsMode(this.fileExistsMode);
 		}
+		if (this.flushInterval != null) {
+			handler.setFlushInterval(this.flushInterval);
+		}
+		if (this.flushWhenIdle != null) {
+			handler.setFlushWhenIdle(this.flushWhenIdle);
+		}
+		if (this.maxOpenFiles != null) {
+			handler.setMaxOpenFiles(this.maxOpenFiles);
+		}
 
 		return handler;
 	}
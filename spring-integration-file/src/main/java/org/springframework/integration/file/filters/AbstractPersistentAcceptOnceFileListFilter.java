@@ -1,5 +1,5 @@
 /*
- * Copyright 2013 the original author or authors.
+ * Copyright 2013-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,16 @@
  */
 package org.springframework.integration.file.filters;
 
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.UnsupportedEncodingException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 import org.springframework.integration.metadata.MetadataStore;
 import org.springframework.util.Assert;
 
@@ -23,12 +33,34 @@ import org.springframework.util.Assert;
  * The default key is 'prefix' plus the absolute file name; value is the timestamp of the file.
  * Files are deemed as already 'seen' if they exist in the store and have the
  * same modified time as the current file.
+ * <p>
+ * By default, the store is read and written for each file. When filtering very large
+ * listings, the number of store operations can be reduced with:
+ * <ul>
+ * <li>a cache ({@link #setCacheSize(int)}) of the most recently used keys and values, so that
+ * recently seen files are recognized without reading the store;</li>
+ * <li>a persistent index ({@link #setIndexSize(int)}), a Bloom filter of all the keys this filter
+ * has written, so that files that have never been seen are recognized without reading the store;</li>
+ * <li>deferred writes ({@link #setFlushSize(int)}), so that the store is updated in batches
+ * (or on {@link #flush()}) rather than for each accepted file.</li>
+ * </ul>
+ * All of these use a fixed amount of memory, however many files are filtered.
  *
  * @author Gary Russell
  * @since 3.0
  *
  */
-public abstract class AbstractPersistentAcceptOnceFileListFilter<F> extends AbstractFileListFilter<F> {
+public abstract class AbstractPersistentAcceptOnceFileListFilter<F> extends AbstractFileListFilter<F>
+		implements Flushable, Closeable {
+
+	public static final int DEFAULT_INDEX_FLUSH_SIZE = 1000;
+
+	/**
+	 * File names cannot contain a NUL character, so the index key cannot be the key of a file.
+	 */
+	private static final String INDEX_KEY_SUFFIX = "\u0000acceptOnceIndex";
+
+	private static final Log logger = LogFactory.getLog(AbstractPersistentAcceptOnceFileListFilter.class);
 
 	protected final MetadataStore store;
 
@@ -36,6 +68,22 @@ public abstract class AbstractPersistentAcceptOnceFileListFilter<F> extends Abst
 
 	private final Object monitor = new Object();
 
+	private final Map<String, String> pending = new LinkedHashMap<String, String>();
+
+	private volatile Map<String, String> cache;
+
+	private volatile int flushSize = 1;
+
+	private volatile int indexSize;
+
+	private volatile int indexFlushSize = DEFAULT_INDEX_FLUSH_SIZE;
+
+	private volatile KeyIndex index;
+
+	private int unstoredIndexKeys;
+
+	private volatile boolean indexLoaded;
+
 	public AbstractPersistentAcceptOnceFileListFilter(MetadataStore store, String prefix) {
 		Assert.notNull(store, "'store' cannot be null");
 		Assert.notNull(prefix, "'prefix' cannot be null");
@@ -43,19 +91,190 @@ public abstract class AbstractPersistentAcceptOnceFileListFilter<F> extends Abst
 		this.prefix = prefix;
 	}
 
+	/**
+	 * Set the number of recently used keys (and their values) to keep in memory;
+	 * files found in this cache are not looked up in the store. Default 0 (no cache).
+	 * The cache assumes that this filter is the only writer of its keys.
+	 * @param cacheSize the maximum number of cached keys.
+	 * @since 4.0
+	 */
+	public void setCacheSize(final int cacheSize) {
+		Assert.isTrue(cacheSize >= 0, "'cacheSize' cannot be negative");
+		synchronized (this.monitor) {
+			if (cacheSize == 0) {
+				this.cache = null;
+			}
+			else {
+				this.cache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+
+					private static final long serialVersionUID = 1L;
+
+					@Override
+					protected boolean removeEldestEntry(Entry<String, String> eldest) {
+						return this.size() > cacheSize;
+					}
+
+				};
+			}
+		}
+	}
+
+	/**
+	 * Set the number of accepted files whose keys and values are held before they are
+	 * written to the store. Default 1 (each accepted file is written immediately).
+	 * With a larger size, call {@link #flush()} (or {@link #close()}) when the filter is
+	 * no longer used; files accepted but not yet written may be accepted again after an
+	 * abnormal termination.
+	 * @param flushSize the number of pending writes that triggers a flush.
+	 * @since 4.0
+	 */
+	public void setFlushSize(int flushSize) {
+		Assert.isTrue(flushSize > 0, "'flushSize' must be greater than 0");
+		this.flushSize = flushSize;
+	}
+
+	/**
+	 * Enable a persistent index of the keys written by this filter, sized for the given
+	 * number of keys with a false positive rate of about 1%. A file whose key is not in the
+	 * index has never been seen, and is accepted without reading the store; other files
+	 * are checked against the store as usual. The index is kept in the store itself (under
+	 * a key derived from the prefix) and, as it is large (about 1.2 bytes per expected key),
+	 * it is only written by {@link #flush()}, {@link #close()} and once every
+	 * {@link #setIndexFlushSize(int) indexFlushSize} new keys. Before it is written, it is
+	 * merged with the index currently in the store, so filters that share a store and
+	 * prefix do not discard each other's keys.
+	 * <p>
+	 * <b>Important:</b> the index can only know about keys written while it was enabled. If
+	 * no index is found in the store, the filter assumes that it owns the prefix and that
+	 * there are no earlier keys; so, when enabling the index for an existing store, use a
+	 * new prefix. Since the {@link MetadataStore} cannot update the index atomically, filters in
+	 * different processes that write the same prefix at the same time may still lose some
+	 * of each other's keys; give such filters distinct prefixes.
+	 * @param indexSize the expected number of keys.
+	 * @since 4.0
+	 */
+	public void setIndexSize(int indexSize) {
+		Assert.isTrue(indexSize >= 0, "'indexSize' cannot be negative");
+		this.indexSize = indexSize;
+	}
+
+	/**
+	 * Set the number of keys added to the index (see {@link #setIndexSize(int)}) that
+	 * triggers a write of the index to the store, in addition to {@link #flush()}.
+	 * Default {@value #DEFAULT_INDEX_FLUSH_SIZE}. Files whose keys were written to the
+	 * store, but not yet to the stored index, may be accepted again after an abnormal
+	 * termination.
+	 * @param indexFlushSize the number of new keys that triggers a write of the index.
+	 * @since 4.0
+	 */
+	public void setIndexFlushSize(int indexFlushSize) {
+		Assert.isTrue(indexFlushSize > 0, "'indexFlushSize' must be greater than 0");
+		this.indexFlushSize = indexFlushSize;
+	}
+
 	@Override
 	protected boolean accept(F file) {
 		String key = buildKey(file);
 		synchronized(monitor) {
-			String value = store.get(key);
+			if (!this.indexLoaded) {
+				this.loadIndex();
+			}
+			String value = this.pending.get(key);
+			if (value == null && this.cache != null) {
+				value = this.cache.get(key);
+			}
+			// a key that is not in the index has never been written
+			if (value == null && (this.index == null || this.index.mightContain(key))) {
+				value = store.get(key);
+				if (value != null && this.cache != null) {
+					this.cache.put(key, value);
+				}
+			}
 			if (value != null && isEqual(file, value)) {
 				return false;
 			}
-			store.put(key, value(file));
+			this.write(key, value(file));
 		}
 		return true;
 	}
 
+	/**
+	 * Write any pending keys and values, and the index, to the store.
+	 * @since 4.0
+	 */
+	@Override
+	public void flush() {
+		synchronized (this.monitor) {
+			this.flushPending();
+			if (this.unstoredIndexKeys > 0) {
+				this.storeIndex();
+			}
+		}
+	}
+
+	/**
+	 * Flush any pending writes.
+	 * @since 4.0
+	 * @see #flush()
+	 */
+	@Override
+	public void close() {
+		this.flush();
+	}
+
+	private void write(String key, String value) {
+		this.pending.put(key, value);
+		if (this.cache != null) {
+			this.cache.put(key, value);
+		}
+		if (this.index != null) {
+			this.index.add(key);
+			this.unstoredIndexKeys++;
+		}
+		if (this.pending.size() >= this.flushSize) {
+			this.flushPending();
+		}
+		if (this.unstoredIndexKeys >= this.indexFlushSize) {
+			this.storeIndex();
+		}
+	}
+
+	private void flushPending() {
+		for (Entry<String, String> entry : this.pending.entrySet()) {
+			this.store.put(entry.getKey(), entry.getValue());
+		}
+		this.pending.clear();
+	}
+
+	/**
+	 * Merge the index with the one in the store (which may have been updated by another
+	 * filter using the same prefix) and write it.
+	 */
+	private void storeIndex() {
+		String stored = this.store.get(this.prefix + INDEX_KEY_SUFFIX);
+		if (stored != null && !this.index.merge(stored)) {
+			logger.warn("The index stored for prefix '" + this.prefix + "' does not match the configured "
+					+ "index size; it will be replaced");
+		}
+		this.store.put(this.prefix + INDEX_KEY_SUFFIX, this.index.serialize());
+		this.unstoredIndexKeys = 0;
+	}
+
+	private void loadIndex() {
+		this.indexLoaded = true;
+		if (this.indexSize == 0) {
+			return;
+		}
+		KeyIndex newIndex = new KeyIndex(this.indexSize);
+		String stored = this.store.get(this.prefix + INDEX_KEY_SUFFIX);
+		if (stored != null && !newIndex.merge(stored)) {
+			logger.warn("The index stored for prefix '" + this.prefix + "' does not match the configured "
+					+ "index size; the index will not be used");
+			newIndex = null;
+		}
+		this.index = newIndex;
+	}
+
 	/**
 	 * The default value stored for the key is the last modified date.
 	 * @param file The file.
@@ -73,7 +292,12 @@ public abstract class AbstractPersistentAcceptOnceFileListFilter<F> extends Abst
 	 * @return true if equal.
 	 */
 	protected boolean isEqual(F file, String value) {
-		return Long.valueOf(value).longValue() == this.modified(file);
+		try {
+			return Long.valueOf(value).longValue() == this.modified(file);
+		}
+		catch (NumberFormatException e) {
+			return false;
+		}
 	}
 
 	/**
@@ -89,4 +313,96 @@ public abstract class AbstractPersistentAcceptOnceFileListFilter<F> extends Abst
 
 	protected abstract String fileName(F file);
 
+
+	/**
+	 * A Bloom filter of keys; it is stored as a String of ISO-8859-1 characters, one per
+	 * byte, preceded by the number of bits and hash functions.
+	 */
+	private static final class KeyIndex {
+
+		private static final String CHARSET = "ISO-8859-1";
+
+		private static final int HASHES = 7;
+
+		private final byte[] bits;
+
+		private final int bitCount;
+
+		private KeyIndex(int expectedKeys) {
+			// ~9.6 bits per key with 7 hash functions gives a false positive rate of ~1%
+			long bitCount = Math.max(64, ((long) expectedKeys * 96 + 9) / 10);
+			this.bitCount = (int) Math.min(bitCount, Integer.MAX_VALUE - 7);
+			this.bits = new byte[(this.bitCount + 7) / 8];
+		}
+
+		private void add(String key) {
+			int hash1 = key.hashCode();
+			int hash2 = secondHash(key);
+			for (int i = 0; i < HASHES; i++) {
+				int bit = bit(hash1 + i * hash2);
+				this.bits[bit >>> 3] |= 1 << (bit & 7);
+			}
+		}
+
+		private boolean mightContain(String key) {
+			int hash1 = key.hashCode();
+			int hash2 = secondHash(key);
+			for (int i = 0; i < HASHES; i++) {
+				int bit = bit(hash1 + i * hash2);
+				if ((this.bits[bit >>> 3] & (1 << (bit & 7))) == 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private int bit(int hash) {
+			return (hash & Integer.MAX_VALUE) % this.bitCount;
+		}
+
+		private String serialize() {
+			try {
+				return this.bitCount + ":" + HASHES + ":" + new String(this.bits, CHARSET);
+			}
+			catch (UnsupportedEncodingException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		/**
+		 * Add the keys of the stored index to this index.
+		 * @return false if the stored index was built with different parameters.
+		 */
+		private boolean merge(String stored) {
+			String header = this.bitCount + ":" + HASHES + ":";
+			if (!stored.startsWith(header) || stored.length() != header.length() + this.bits.length) {
+				return false;
+			}
+			try {
+				byte[] storedBits = stored.substring(header.length()).getBytes(CHARSET);
+				for (int i = 0; i < this.bits.length; i++) {
+					this.bits[i] |= storedBits[i];
+				}
+				return true;
+			}
+			catch (UnsupportedEncodingException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		/**
+		 * FNV-1a over the characters of the key, forced odd so that successive
+		 * probes differ.
+		 */
+		private static int secondHash(String key) {
+			int hash = 0x811c9dc5;
+			for (int i = 0; i < key.length(); i++) {
+				hash ^= key.charAt(i);
+				hash *= 0x01000193;
+			}
+			return hash | 1;
+		}
+
+	}
+
 }
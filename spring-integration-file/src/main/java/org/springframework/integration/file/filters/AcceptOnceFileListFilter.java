@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,15 +16,19 @@
 
 package org.springframework.integration.file.filters;
 
-import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.util.Assert;
 
 /**
  * {@link FileListFilter} that passes files only one time. This can
  * conveniently be used to prevent duplication of files, as is done in
  * {@link org.springframework.integration.file.FileReadingMessageSource}.
  * <p>
- * This implementation is thread safe.
+ * This implementation is thread safe. Looking up a file takes constant time,
+ * however many files have been seen.
  *
  * @author Iwein Fuld
  * @author Josh Long
@@ -32,7 +36,9 @@ import java.util.concurrent.LinkedBlockingQueue;
  */
 public class AcceptOnceFileListFilter<F> extends AbstractFileListFilter<F> {
 
-	private final Queue<F> seen;
+	private final Set<F> seen = new LinkedHashSet<F>();
+
+	private final int maxCapacity;
 
 	private final Object monitor = new Object();
 
@@ -45,25 +51,28 @@ public class AcceptOnceFileListFilter<F> extends AbstractFileListFilter<F> {
 	 * @param maxCapacity the maximum number of Files to maintain in the 'seen' queue.
 	 */
 	public AcceptOnceFileListFilter(int maxCapacity) {
-		this.seen = new LinkedBlockingQueue<F>(maxCapacity);
+		Assert.isTrue(maxCapacity > 0, "'maxCapacity' must be greater than 0");
+		this.maxCapacity = maxCapacity;
 	}
 
 	/**
 	 * Creates an AcceptOnceFileListFilter based on an unbounded queue.
 	 */
 	public AcceptOnceFileListFilter() {
-		this.seen = new LinkedBlockingQueue<F>();
+		this(Integer.MAX_VALUE);
 	}
 
 
 	public boolean accept(F file) {
 		synchronized (this.monitor) {
-			if (this.seen.contains(file)) {
+			if (!this.seen.add(file)) {
 				return false;
 			}
-			if (!this.seen.offer(file)) {
-				this.seen.poll();
-				this.seen.add(file);
+			if (this.seen.size() > this.maxCapacity) {
+				// the set iterates in insertion order: drop the file seen first
+				Iterator<F> iterator = this.seen.iterator();
+				iterator.next();
+				iterator.remove();
 			}
 			return true;
 		}
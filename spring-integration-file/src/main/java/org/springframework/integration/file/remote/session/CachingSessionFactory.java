@@ -100,6 +100,17 @@ public class CachingSessionFactory<F> implements SessionFactory<F>, DisposableBe
 		this.pool.setWaitTimeout(sessionWaitTimeout);
 	}
 
+	/**
+	 * Sets the time after which an idle session is closed and removed from the cache.
+	 * Default 0 (idle sessions are retained).
+	 *
+	 * @param sessionIdleTimeout the session idle timeout in milliseconds.
+	 * @since 4.0
+	 */
+	public void setSessionIdleTimeout(long sessionIdleTimeout) {
+		this.pool.setIdleTimeout(sessionIdleTimeout);
+	}
+
 	/**
 	 * Modify the target session pool size; the actual pool size will adjust up/down
 	 * to this size as and when sessions are requested or retrieved.
@@ -33,6 +33,14 @@ public enum FileExistsMode {
 	 */
 	APPEND,
 
+	/**
+	 * Append data to any pre-existing files, but keep the files open between writes;
+	 * the data is flushed (and the file closed) when the file has been idle for a while,
+	 * when too many files are open, or when the handler is flushed or stopped.
+	 * @since 4.0
+	 */
+	APPEND_NO_FLUSH,
+
 	/**
 	 * Raise an exception in case the file to be written already exists.
 	 */
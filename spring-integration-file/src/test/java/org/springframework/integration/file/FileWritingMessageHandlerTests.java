@@ -27,6 +27,7 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.FileOutputStream;
@@ -47,6 +48,8 @@ import org.springframework.integration.support.MessageBuilder;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHandlingException;
 import org.springframework.messaging.support.GenericMessage;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.util.FileCopyUtils;
 
 /**
@@ -303,6 +306,89 @@ public class FileWritingMessageHandlerTests {
 		assertFileContentIs(outFile, "foo");
 	}
 
+	@Test
+	public void appendNoFlush() throws Exception {
+		handler.setFileExistsMode(FileExistsMode.APPEND_NO_FLUSH);
+		handler.setCharset(DEFAULT_ENCODING);
+		handler.setOutputChannel(new NullChannel());
+		handler.setFileNameGenerator(new FileNameGenerator() {
+
+			@Override
+			public String generateFileName(Message<?> message) {
+				return "appended.txt";
+			}
+
+		});
+		handler.start();
+		handler.handleMessage(new GenericMessage<String>("foo"));
+		handler.handleMessage(new GenericMessage<byte[]>("bar".getBytes(DEFAULT_ENCODING)));
+		File appended = new File(outputDirectory, "appended.txt");
+		assertThat(appended.length(), is(0L));
+		handler.handleMessage(new GenericMessage<File>(sourceFile));
+		// the buffered data is written before the file
+		assertFileContentIs(appended, "foobar" + SAMPLE_CONTENT);
+		handler.handleMessage(new GenericMessage<String>("baz"));
+		handler.stop();
+		assertFileContentIs(appended, "foobar" + SAMPLE_CONTENT + "baz");
+	}
+
+	@Test
+	public void appendNoFlushClosesLeastRecentlyUsedFile() throws Exception {
+		handler.setFileExistsMode(FileExistsMode.APPEND_NO_FLUSH);
+		handler.setMaxOpenFiles(2);
+		handler.setOutputChannel(new NullChannel());
+		handler.setFileNameGenerator(new FileNameGenerator() {
+
+			@Override
+			public String generateFileName(Message<?> message) {
+				return message.getHeaders().get("file", String.class);
+			}
+
+		});
+		handler.start();
+		handler.handleMessage(MessageBuilder.withPayload("a1").setHeader("file", "a").build());
+		handler.handleMessage(MessageBuilder.withPayload("b1").setHeader("file", "b").build());
+		handler.handleMessage(MessageBuilder.withPayload("a2").setHeader("file", "a").build());
+		File a = new File(outputDirectory, "a");
+		File b = new File(outputDirectory, "b");
+		assertThat(a.length(), is(0L));
+		assertThat(b.length(), is(0L));
+		handler.handleMessage(MessageBuilder.withPayload("c1").setHeader("file", "c").build());
+		assertThat(a.length(), is(0L));
+		assertFileContentIs(b, "b1");
+		handler.flush();
+		assertFileContentIs(a, "a1a2");
+		assertFileContentIs(new File(outputDirectory, "c"), "c1");
+		handler.handleMessage(MessageBuilder.withPayload("b2").setHeader("file", "b").build());
+		handler.stop();
+		assertFileContentIs(b, "b1b2");
+	}
+
+	@Test
+	public void appendNoFlushFlushesIdleFiles() throws Exception {
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.afterPropertiesSet();
+		BeanFactory beanFactory = mock(BeanFactory.class);
+		when(beanFactory.containsBean("taskScheduler")).thenReturn(true);
+		when(beanFactory.getBean("taskScheduler", TaskScheduler.class)).thenReturn(taskScheduler);
+		handler.setBeanFactory(beanFactory);
+		handler.setFileExistsMode(FileExistsMode.APPEND_NO_FLUSH);
+		handler.setFlushInterval(100);
+		handler.start();
+		Message<?> message = MessageBuilder.withPayload("foo").build();
+		QueueChannel output = new QueueChannel();
+		handler.setOutputChannel(output);
+		handler.handleMessage(message);
+		File appended = (File) output.receive(0).getPayload();
+		int n = 0;
+		while (n++ < 100 && appended.length() == 0) {
+			Thread.sleep(50);
+		}
+		assertFileContentIs(appended, "foo");
+		handler.stop();
+		taskScheduler.destroy();
+	}
+
 	void assertFileContentIsMatching(Message<?> result) throws IOException, UnsupportedEncodingException {
 		assertFileContentIs(result, SAMPLE_CONTENT);
 	}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.file;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.integration.file.filters.AcceptOnceFileListFilter;
+import org.springframework.integration.file.filters.CompositeFileListFilter;
+import org.springframework.integration.file.filters.SimplePatternFileListFilter;
+import org.springframework.messaging.Message;
+
+/**
+ * @since 4.0
+ */
+public class StreamingDirectoryScannerTests {
+
+	@Rule
+	public TemporaryFolder directory = new TemporaryFolder();
+
+	@Test
+	public void testChunks() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			directory.newFile("file" + i);
+		}
+		StreamingDirectoryScanner scanner = new StreamingDirectoryScanner(4);
+		Set<File> files = new HashSet<File>();
+		assertEquals(4, addAll(files, scanner.listFiles(directory.getRoot())));
+		assertEquals(4, addAll(files, scanner.listFiles(directory.getRoot())));
+		assertEquals(2, addAll(files, scanner.listFiles(directory.getRoot())));
+		assertEquals(0, scanner.listFiles(directory.getRoot()).size());
+		assertEquals(10, files.size());
+
+		File newFile = directory.newFile("file10");
+		List<File> newFiles = scanner.listFiles(directory.getRoot());
+		assertEquals(1, newFiles.size());
+		assertEquals(newFile, newFiles.get(0));
+	}
+
+	@Test
+	public void testFilterOnlySeesReturnedFiles() throws Exception {
+		for (int i = 0; i < 6; i++) {
+			directory.newFile("file" + i + (i % 2 == 0 ? ".txt" : ".tmp"));
+		}
+		StreamingDirectoryScanner scanner = new StreamingDirectoryScanner(2);
+		CompositeFileListFilter<File> filter = new CompositeFileListFilter<File>();
+		filter.addFilter(new SimplePatternFileListFilter("*.txt"));
+		filter.addFilter(new AcceptOnceFileListFilter<File>());
+		scanner.setFilter(filter);
+		Set<File> files = new HashSet<File>();
+		assertEquals(2, addAll(files, scanner.listFiles(directory.getRoot())));
+		assertEquals(1, addAll(files, scanner.listFiles(directory.getRoot())));
+		assertEquals(0, scanner.listFiles(directory.getRoot()).size());
+		for (File file : files) {
+			assertTrue(file.getName().endsWith(".txt"));
+		}
+	}
+
+	@Test
+	public void testRecursive() throws Exception {
+		File topLevelFile = directory.newFile("file1");
+		File folder = directory.newFolder("folder");
+		File subFolder = new File(folder, "subFolder");
+		subFolder.mkdir();
+		new File(folder, "emptyFolder").mkdir();
+		File subLevelFile = new File(folder, "file2");
+		subLevelFile.createNewFile();
+		File subSubLevelFile = new File(subFolder, "file3");
+		subSubLevelFile.createNewFile();
+
+		StreamingDirectoryScanner scanner = new StreamingDirectoryScanner(1);
+		scanner.setRecursive(true);
+		Set<File> files = new HashSet<File>();
+		List<File> scanned;
+		do {
+			scanned = scanner.listFiles(directory.getRoot());
+			assertTrue(scanned.size() <= 1);
+			files.addAll(scanned);
+		}
+		while (!scanned.isEmpty());
+		assertEquals(3, files.size());
+		assertThat(files, hasItem(topLevelFile));
+		assertThat(files, hasItem(subLevelFile));
+		assertThat(files, hasItem(subSubLevelFile));
+	}
+
+	@Test
+	public void testWithMessageSource() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			directory.newFile("file" + i);
+		}
+		FileReadingMessageSource source = new FileReadingMessageSource();
+		source.setDirectory(directory.getRoot());
+		source.setScanner(new StreamingDirectoryScanner(3));
+		source.afterPropertiesSet();
+		Set<File> files = new HashSet<File>();
+		for (int i = 0; i < 10; i++) {
+			Message<File> message = source.receive();
+			assertTrue(files.add(message.getPayload()));
+		}
+		assertNull(source.receive());
+	}
+
+	private static int addAll(Set<File> files, List<File> scanned) {
+		for (File file : scanned) {
+			assertTrue("Duplicate " + file, files.add(file));
+		}
+		return scanned.size();
+	}
+
+}
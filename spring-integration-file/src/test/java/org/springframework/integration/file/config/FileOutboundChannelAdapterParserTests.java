@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -39,6 +39,7 @@ import org.springframework.messaging.MessagingException;
 import org.springframework.integration.endpoint.EventDrivenConsumer;
 import org.springframework.integration.file.DefaultFileNameGenerator;
 import org.springframework.integration.file.FileWritingMessageHandler;
+import org.springframework.integration.file.support.FileExistsMode;
 import org.springframework.integration.handler.advice.AbstractRequestHandlerAdvice;
 import org.springframework.messaging.support.GenericMessage;
 import org.springframework.integration.test.util.TestUtils;
@@ -78,6 +79,9 @@ public class FileOutboundChannelAdapterParserTests {
 	@Autowired
 	EventDrivenConsumer adapterWithDirectoryExpression;
 
+	@Autowired
+	EventDrivenConsumer adapterWithAppendNoFlush;
+
 	@Autowired
 	MessageChannel usageChannel;
 
@@ -161,6 +165,17 @@ public class FileOutboundChannelAdapterParserTests {
 		assertEquals(Charset.forName("UTF-8"), handlerAccessor.getPropertyValue("charset"));
 	}
 
+	@Test
+	public void adapterWithAppendNoFlush() {
+		FileWritingMessageHandler handler = TestUtils.getPropertyValue(adapterWithAppendNoFlush, "handler",
+				FileWritingMessageHandler.class);
+		assertEquals(FileExistsMode.APPEND_NO_FLUSH, TestUtils.getPropertyValue(handler, "fileExistsMode"));
+		assertEquals(12345L, TestUtils.getPropertyValue(handler, "flushInterval"));
+		assertEquals(Boolean.FALSE, TestUtils.getPropertyValue(handler, "flushWhenIdle"));
+		assertEquals(7, TestUtils.getPropertyValue(handler, "maxOpenFiles"));
+		assertTrue(handler.isRunning());
+	}
+
 	@Test
 	public void adapterWithDirectoryExpression() {
 
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.integration.file.filters;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * @since 4.0
+ */
+public class AcceptOnceFileListFilterTests {
+
+	@Test
+	public void testUnbounded() {
+		AcceptOnceFileListFilter<String> filter = new AcceptOnceFileListFilter<String>();
+		assertEquals(3, filter.filterFiles(new String[] {"foo", "bar", "baz"}).size());
+		assertEquals(1, filter.filterFiles(new String[] {"foo", "bar", "baz", "qux"}).size());
+	}
+
+	@Test
+	public void testBounded() {
+		AcceptOnceFileListFilter<String> filter = new AcceptOnceFileListFilter<String>(2);
+		assertEquals(2, filter.filterFiles(new String[] {"foo", "bar"}).size());
+		assertEquals(0, filter.filterFiles(new String[] {"foo", "bar"}).size());
+		// "foo" was seen first, so it is forgotten
+		assertEquals(1, filter.filterFiles(new String[] {"baz"}).size());
+		assertEquals(0, filter.filterFiles(new String[] {"bar", "baz"}).size());
+		assertEquals(1, filter.filterFiles(new String[] {"foo"}).size());
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2013 the original author or authors.
+ * Copyright 2013-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,9 +15,12 @@
  */
 package org.springframework.integration.file.filters;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -44,4 +47,203 @@ public class PersistentAcceptOnceFileListFilterTests {
 		file.delete();
 	}
 
+	@Test
+	public void testCache() throws Exception {
+		CountingMetadataStore store = new CountingMetadataStore();
+		FileSystemPersistentAcceptOnceFileListFilter filter = new FileSystemPersistentAcceptOnceFileListFilter(store, "foo:");
+		filter.setCacheSize(2);
+		File[] files = createFiles(3);
+		try {
+			assertEquals(3, filter.filterFiles(files).size());
+			assertEquals(3, store.gets);
+			// the two most recent files are cached
+			assertEquals(0, filter.filterFiles(new File[] {files[1], files[2]}).size());
+			assertEquals(3, store.gets);
+			assertEquals(0, filter.filterFiles(new File[] {files[0]}).size());
+			assertEquals(4, store.gets);
+			files[0].setLastModified(27L);
+			assertEquals(1, filter.filterFiles(new File[] {files[0]}).size());
+			assertEquals(4, store.gets);
+		}
+		finally {
+			delete(files);
+		}
+	}
+
+	@Test
+	public void testFlushSize() throws Exception {
+		CountingMetadataStore store = new CountingMetadataStore();
+		FileSystemPersistentAcceptOnceFileListFilter filter = new FileSystemPersistentAcceptOnceFileListFilter(store, "foo:");
+		filter.setFlushSize(3);
+		File[] files = createFiles(5);
+		try {
+			assertEquals(2, filter.filterFiles(new File[] {files[0], files[1]}).size());
+			assertEquals(0, store.puts);
+			// pending writes are seen by the filter
+			assertEquals(0, filter.filterFiles(new File[] {files[0], files[1]}).size());
+			assertEquals(1, filter.filterFiles(new File[] {files[2]}).size());
+			assertEquals(3, store.puts);
+			assertEquals(2, filter.filterFiles(new File[] {files[3], files[4]}).size());
+			assertEquals(3, store.puts);
+			filter.close();
+			assertEquals(5, store.puts);
+			filter.flush();
+			assertEquals(5, store.puts);
+		}
+		finally {
+			delete(files);
+		}
+	}
+
+	@Test
+	public void testIndex() throws Exception {
+		CountingMetadataStore store = new CountingMetadataStore();
+		FileSystemPersistentAcceptOnceFileListFilter filter = new FileSystemPersistentAcceptOnceFileListFilter(store, "foo:");
+		filter.setIndexSize(100);
+		filter.setFlushSize(10);
+		File[] files = createFiles(5);
+		try {
+			assertEquals(5, filter.filterFiles(files).size());
+			// just the (absent) index is read
+			assertEquals(1, store.gets);
+			filter.flush();
+			assertEquals(6, store.puts);
+
+			// a new filter uses the stored index
+			filter = new FileSystemPersistentAcceptOnceFileListFilter(store, "foo:");
+			filter.setIndexSize(100);
+			assertEquals(0, filter.filterFiles(files).size());
+			assertTrue(store.gets >= 7);
+			int gets = store.gets;
+			File newFile = File.createTempFile("foo", ".txt");
+			try {
+				assertEquals(1, filter.filterFiles(new File[] {newFile}).size());
+				// no read, unless the new key is a false positive
+				assertTrue(store.gets <= gets + 1);
+			}
+			finally {
+				newFile.delete();
+			}
+
+			// an index of a different size is not used
+			store = new CountingMetadataStore();
+			store.put("foo:\u0000acceptOnceIndex", "1:2:3");
+			filter = new FileSystemPersistentAcceptOnceFileListFilter(store, "foo:");
+			filter.setIndexSize(100);
+			assertEquals(5, filter.filterFiles(files).size());
+			assertEquals(6, store.gets);
+		}
+		finally {
+			delete(files);
+		}
+	}
+
+	@Test
+	public void testIndexWritesAreBatched() throws Exception {
+		CountingMetadataStore store = new CountingMetadataStore();
+		FileSystemPersistentAcceptOnceFileListFilter filter = new FileSystemPersistentAcceptOnceFileListFilter(store, "foo:");
+		filter.setIndexSize(100);
+		filter.setIndexFlushSize(3);
+		File[] files = createFiles(5);
+		try {
+			// each key is written, the index only once 3 keys have been added
+			assertEquals(2, filter.filterFiles(new File[] {files[0], files[1]}).size());
+			assertEquals(2, store.puts);
+			assertEquals(1, filter.filterFiles(new File[] {files[2]}).size());
+			assertEquals(4, store.puts);
+			assertEquals(2, filter.filterFiles(new File[] {files[3], files[4]}).size());
+			assertEquals(6, store.puts);
+			filter.flush();
+			assertEquals(7, store.puts);
+			filter.flush();
+			assertEquals(7, store.puts);
+		}
+		finally {
+			delete(files);
+		}
+	}
+
+	@Test
+	public void testIndexIsMerged() throws Exception {
+		MetadataStore store = new SimpleMetadataStore();
+		FileSystemPersistentAcceptOnceFileListFilter filter1 = new FileSystemPersistentAcceptOnceFileListFilter(store, "foo:");
+		filter1.setIndexSize(100);
+		FileSystemPersistentAcceptOnceFileListFilter filter2 = new FileSystemPersistentAcceptOnceFileListFilter(store, "foo:");
+		filter2.setIndexSize(100);
+		File[] files = createFiles(2);
+		try {
+			// both filters load the (empty) index before either writes it
+			assertEquals(1, filter1.filterFiles(new File[] {files[0]}).size());
+			assertEquals(1, filter2.filterFiles(new File[] {files[1]}).size());
+			filter1.flush();
+			filter2.flush();
+
+			FileSystemPersistentAcceptOnceFileListFilter filter3 = new FileSystemPersistentAcceptOnceFileListFilter(store, "foo:");
+			filter3.setIndexSize(100);
+			assertEquals(0, filter3.filterFiles(files).size());
+		}
+		finally {
+			delete(files);
+		}
+	}
+
+	@Test
+	public void testIndexKeyIsNotAFileKey() throws Exception {
+		MetadataStore store = new SimpleMetadataStore();
+		AbstractPersistentAcceptOnceFileListFilter<String> filter =
+				new AbstractPersistentAcceptOnceFileListFilter<String>(store, "foo:") {
+
+					@Override
+					protected long modified(String file) {
+						return 42L;
+					}
+
+					@Override
+					protected String fileName(String file) {
+						return file;
+					}
+
+				};
+		filter.setIndexSize(100);
+		String[] names = {"#acceptOnceIndex", "bar"};
+		assertEquals(2, filter.filterFiles(names).size());
+		filter.flush();
+		assertEquals("42", store.get("foo:#acceptOnceIndex"));
+		assertEquals(0, filter.filterFiles(names).size());
+	}
+
+	private static File[] createFiles(int count) throws Exception {
+		List<File> files = new ArrayList<File>();
+		for (int i = 0; i < count; i++) {
+			files.add(File.createTempFile("foo", ".txt"));
+		}
+		return files.toArray(new File[count]);
+	}
+
+	private static void delete(File[] files) {
+		for (File file : files) {
+			file.delete();
+		}
+	}
+
+	private static class CountingMetadataStore extends SimpleMetadataStore {
+
+		private int gets;
+
+		private int puts;
+
+		@Override
+		public void put(String key, String value) {
+			this.puts++;
+			super.put(key, value);
+		}
+
+		@Override
+		public String get(String key) {
+			this.gets++;
+			return super.get(key);
+		}
+
+	}
+
 }
@@ -19,6 +19,7 @@ package org.springframework.integration.gemfire.store;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.data.gemfire.RegionAttributesFactoryBean;
@@ -117,6 +118,15 @@ public class GemfireMessageStore extends AbstractKeyValueMessageStore implements
 		this.messageStoreRegion.put(id, objectToStore);
 	}
 
+	/**
+	 * Stores all the objects with a single {@link Region#putAll(java.util.Map)}.
+	 */
+	@Override
+	protected void doStoreAll(Map<Object, Object> objectsToStore) {
+		Assert.notNull(objectsToStore, "'objectsToStore' must not be null");
+		this.messageStoreRegion.putAll(objectsToStore);
+	}
+
 	@Override
 	protected Object doRemove(Object id) {
 		Assert.notNull(id, "'id' must not be null");
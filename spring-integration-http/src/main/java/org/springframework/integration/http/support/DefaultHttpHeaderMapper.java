@@ -24,11 +24,13 @@ import java.text.MessageFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -49,11 +51,11 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.integration.context.IntegrationContextUtils;
 import org.springframework.integration.mapping.HeaderMapper;
+import org.springframework.integration.mapping.support.HeaderNameMatcher;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.ObjectUtils;
-import org.springframework.util.PatternMatchUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -247,6 +249,19 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 
 	public static final String HTTP_RESPONSE_HEADER_NAME_PATTERN = "HTTP_RESPONSE_HEADERS";
 
+	private static final Set<String> HTTP_HEADER_NAMES = new HashSet<String>();
+
+	private static final Map<String, List<String>> HTTP_HEADER_NAME_PATTERN_SETS = new HashMap<String, List<String>>();
+
+	static {
+		HTTP_HEADER_NAMES.addAll(Arrays.asList(HTTP_REQUEST_HEADER_NAMES));
+		HTTP_HEADER_NAMES.addAll(Arrays.asList(HTTP_RESPONSE_HEADER_NAMES));
+		HTTP_HEADER_NAME_PATTERN_SETS.put(HTTP_REQUEST_HEADER_NAME_PATTERN, Arrays.asList(HTTP_REQUEST_HEADER_NAMES));
+		HTTP_HEADER_NAME_PATTERN_SETS.put(HTTP_RESPONSE_HEADER_NAME_PATTERN, Arrays.asList(HTTP_RESPONSE_HEADER_NAMES));
+	}
+
+	private static final HeaderNameMatcher HTTP_HEADER_NAME_MATCHER = new HeaderNameMatcher(HTTP_HEADER_NAMES);
+
 	// Copy of 'org.springframework.http.HttpHeaders#DATE_FORMATS'
 	private static final String[] DATE_FORMATS = new String[] {
 			"EEE, dd MMM yyyy HH:mm:ss zzz",
@@ -266,6 +281,13 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 
 	private volatile String userDefinedHeaderPrefix = "X-";
 
+	/*
+	 * Compiled from the header names (less the exclusions) whenever they are set.
+	 */
+	private volatile HeaderNameMatcher outboundHeaderMatcher = new HeaderNameMatcher(Collections.<String>emptyList());
+
+	private volatile HeaderNameMatcher inboundHeaderMatcher = new HeaderNameMatcher(Collections.<String>emptyList());
+
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
 		this.beanFactory = beanFactory;
@@ -283,6 +305,7 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 	 */
 	public void setOutboundHeaderNames(String[] outboundHeaderNames) {
 		this.outboundHeaderNames = (outboundHeaderNames != null) ? outboundHeaderNames : new String[0];
+		this.updateOutboundHeaderMatcher();
 	}
 
 	/**
@@ -298,6 +321,8 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 	 */
 	public void setInboundHeaderNames(String[] inboundHeaderNames) {
 		this.inboundHeaderNames = (inboundHeaderNames != null) ? inboundHeaderNames : new String[0];
+		this.inboundHeaderMatcher = new HeaderNameMatcher(Arrays.asList(this.inboundHeaderNames),
+				HTTP_HEADER_NAME_PATTERN_SETS);
 	}
 
 	/**
@@ -308,6 +333,7 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 	public void setExcludedOutboundStandardRequestHeaderNames(String[] excludedOutboundStandardRequestHeaderNames) {
 		Assert.notNull(excludedOutboundStandardRequestHeaderNames, "'excludedOutboundStandardRequestHeaderNames' must not be null");
 		this.excludedOutboundStandardRequestHeaderNames = excludedOutboundStandardRequestHeaderNames;
+		this.updateOutboundHeaderMatcher();
 	}
 
 	/**
@@ -318,6 +344,7 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 	public void setExcludedInboundStandardResponseHeaderNames(String[] excludedInboundStandardResponseHeaderNames) {
 		Assert.notNull(excludedInboundStandardResponseHeaderNames, "'excludedInboundStandardResponseHeaderNames' must not be null");
 		this.excludedInboundStandardResponseHeaderNames = excludedInboundStandardResponseHeaderNames;
+		this.updateOutboundHeaderMatcher();
 	}
 
 	/**
@@ -344,8 +371,7 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 			if (this.shouldMapOutboundHeader(name)) {
 				Object value = headers.get(name);
 				if (value != null) {
-					if (!this.containsElementIgnoreCase(HTTP_REQUEST_HEADER_NAMES, name) &&
-						!this.containsElementIgnoreCase(HTTP_RESPONSE_HEADER_NAMES, name)) {
+					if (!HTTP_HEADER_NAME_MATCHER.matches(name)) {
 						// prefix the user-defined header names if not already prefixed
 
 						name = StringUtils.startsWithIgnoreCase(name, this.userDefinedHeaderPrefix) ? name :
@@ -374,7 +400,7 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 		Set<String> headerNames = source.keySet();
 		for (String name : headerNames) {
 			if (this.shouldMapInboundHeader(name)) {
-				if (!ObjectUtils.containsElement(HTTP_REQUEST_HEADER_NAMES, name) && !ObjectUtils.containsElement(HTTP_RESPONSE_HEADER_NAMES, name)) {
+				if (!HTTP_HEADER_NAMES.contains(name)) {
 					String prefixedName = StringUtils.startsWithIgnoreCase(name, this.userDefinedHeaderPrefix) ? name :
 						this.userDefinedHeaderPrefix + name;
 					Object value = source.containsKey(prefixedName) ? this.getHttpHeader(source, prefixedName) : this.getHttpHeader(source, name);
@@ -406,71 +432,50 @@ public class DefaultHttpHeaderMapper implements HeaderMapper<HttpHeaders>, BeanF
 		}
 	}
 
-	private boolean containsElementIgnoreCase(String[] headerNames, String name){
-		for (String headerName : headerNames) {
-			if (headerName.equalsIgnoreCase(name)){
-				return true;
-			}
-		}
-		return false;
-	}
-
-	private boolean shouldMapOutboundHeader(String headerName) {
+	private void updateOutboundHeaderMatcher() {
+		List<String> patterns = new ArrayList<String>(Arrays.asList(this.outboundHeaderNames));
 		if (this.outboundHeaderNames == HTTP_RESPONSE_HEADER_NAMES) { // a default inbound mapper
 			/*
 			 * When using the default response header name list, suppress the
 			 * mapping of exclusions for specific headers.
 			 */
-			if (this.containsElementIgnoreCase(this.excludedInboundStandardResponseHeaderNames, headerName)) {
-				if (logger.isDebugEnabled()) {
-					logger.debug(MessageFormat.format("headerName=[{0}] WILL NOT be mapped", headerName));
-				}
-				return false;
-			}
+			this.removeIgnoreCase(patterns, this.excludedInboundStandardResponseHeaderNames);
 		}
 		else if (this.outboundHeaderNames == HTTP_REQUEST_HEADER_NAMES) { // a default outbound mapper
 			/*
 			 * When using the default request header name list, suppress the
 			 * mapping of exclusions for specific headers.
 			 */
-			if (this.containsElementIgnoreCase(this.excludedOutboundStandardRequestHeaderNames, headerName)) {
-				if (logger.isDebugEnabled()) {
-					logger.debug(MessageFormat.format("headerName=[{0}] WILL NOT be mapped", headerName));
+			this.removeIgnoreCase(patterns, this.excludedOutboundStandardRequestHeaderNames);
+		}
+		this.outboundHeaderMatcher = new HeaderNameMatcher(patterns, HTTP_HEADER_NAME_PATTERN_SETS);
+	}
+
+	private void removeIgnoreCase(List<String> headerNames, String[] excludedHeaderNames) {
+		for (String excludedHeaderName : excludedHeaderNames) {
+			for (Iterator<String> iterator = headerNames.iterator(); iterator.hasNext();) {
+				if (iterator.next().equalsIgnoreCase(excludedHeaderName)) {
+					iterator.remove();
 				}
-				return false;
 			}
 		}
-		return this.shouldMapHeader(headerName, this.outboundHeaderNames);
+	}
+
+	private boolean shouldMapOutboundHeader(String headerName) {
+		return this.shouldMapHeader(headerName, this.outboundHeaderMatcher);
 	}
 
 	private boolean shouldMapInboundHeader(String headerName) {
-		return this.shouldMapHeader(headerName, this.inboundHeaderNames);
+		return this.shouldMapHeader(headerName, this.inboundHeaderMatcher);
 	}
 
-	private boolean shouldMapHeader(String headerName, String[] patterns) {
-		if (patterns != null && patterns.length > 0) {
-			for (String pattern : patterns) {
-				if (PatternMatchUtils.simpleMatch(pattern.toLowerCase(), headerName.toLowerCase())) {
-					if (logger.isDebugEnabled()) {
-						logger.debug(MessageFormat.format("headerName=[{0}] WILL be mapped, matched pattern={1}", headerName, pattern));
-					}
-					return true;
-				}
-				else if (HTTP_REQUEST_HEADER_NAME_PATTERN.equals(pattern)
-						&& this.containsElementIgnoreCase(HTTP_REQUEST_HEADER_NAMES, headerName)) {
-					if (logger.isDebugEnabled()) {
-						logger.debug(MessageFormat.format("headerName=[{0}] WILL be mapped, matched pattern={1}", headerName, pattern));
-					}
-					return true;
-				}
-				else if (HTTP_RESPONSE_HEADER_NAME_PATTERN.equals(pattern)
-						&& this.containsElementIgnoreCase(HTTP_RESPONSE_HEADER_NAMES, headerName)) {
-					if (logger.isDebugEnabled()) {
-						logger.debug(MessageFormat.format("headerName=[{0}] WILL be mapped, matched pattern={1}", headerName, pattern));
-					}
-					return true;
-				}
+	private boolean shouldMapHeader(String headerName, HeaderNameMatcher headerMatcher) {
+		String pattern = headerMatcher.match(headerName);
+		if (pattern != null) {
+			if (logger.isDebugEnabled()) {
+				logger.debug(MessageFormat.format("headerName=[{0}] WILL be mapped, matched pattern={1}", headerName, pattern));
 			}
+			return true;
 		}
 		if (logger.isDebugEnabled()) {
 			logger.debug(MessageFormat.format("headerName=[{0}] WILL NOT be mapped", headerName));
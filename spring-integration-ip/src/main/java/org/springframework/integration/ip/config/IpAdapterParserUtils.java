@@ -70,6 +70,8 @@ public abstract class IpAdapterParserUtils {
 
 	static final String USING_DIRECT_BUFFERS = "using-direct-buffers";
 
+	static final String INLINE_FRAMING = "inline-framing";
+
 	static final String MESSAGE_FORMAT = "message-format";
 
 	static final String SO_LINGER = "so-linger";
@@ -103,6 +103,8 @@ public class TcpConnectionFactoryFactoryBean extends AbstractFactoryBean<Abstrac
 
 	private volatile boolean usingDirectBuffers;
 
+	private volatile boolean inlineFraming;
+
 	private volatile String beanName;
 
 	private volatile boolean applySequence;
@@ -141,6 +143,7 @@ public class TcpConnectionFactoryFactoryBean extends AbstractFactoryBean<Abstrac
 				this.setCommonAttributes(connectionFactory);
 				this.setServerAttributes(connectionFactory);
 				connectionFactory.setUsingDirectBuffers(this.usingDirectBuffers);
+				connectionFactory.setInlineFraming(this.inlineFraming);
 				connectionFactory.setTcpNioConnectionSupport(this.obtainNioConnectionSupport());
 				this.connectionFactory = connectionFactory;
 			} else {
@@ -148,6 +151,7 @@ public class TcpConnectionFactoryFactoryBean extends AbstractFactoryBean<Abstrac
 						this.host, this.port);
 				this.setCommonAttributes(connectionFactory);
 				connectionFactory.setUsingDirectBuffers(this.usingDirectBuffers);
+				connectionFactory.setInlineFraming(this.inlineFraming);
 				connectionFactory.setTcpNioConnectionSupport(this.obtainNioConnectionSupport());
 				this.connectionFactory = connectionFactory;
 			}
@@ -337,6 +341,14 @@ public class TcpConnectionFactoryFactoryBean extends AbstractFactoryBean<Abstrac
 		this.usingDirectBuffers = usingDirectBuffers;
 	}
 
+	/**
+	 * @param inlineFraming the inlineFraming to set.
+	 * @see org.springframework.integration.ip.tcp.connection.TcpNioServerConnectionFactory#setInlineFraming(boolean)
+	 */
+	public void setInlineFraming(boolean inlineFraming) {
+		this.inlineFraming = inlineFraming;
+	}
+
 	/**
 	 * @param taskExecutor The task executor.
 	 * @see org.springframework.integration.ip.tcp.connection.AbstractConnectionFactory#setTaskExecutor(java.util.concurrent.Executor)
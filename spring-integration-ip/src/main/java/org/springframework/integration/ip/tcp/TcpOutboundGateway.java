@@ -18,12 +18,14 @@ package org.springframework.integration.ip.tcp;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.context.SmartLifecycle;
 import org.springframework.integration.MessageTimeoutException;
+import org.springframework.integration.aggregator.CorrelationStrategy;
 import org.springframework.integration.handler.AbstractReplyProducingMessageHandler;
 import org.springframework.integration.ip.IpHeaders;
 import org.springframework.integration.ip.tcp.connection.AbstractClientConnectionFactory;
@@ -44,6 +46,13 @@ import org.springframework.util.Assert;
  * (or times out). Asynchronous requests/responses over the same connection are not
  * supported - use a pair of outbound/inbound adapters for that use case.
  * <p>
+ * Alternatively, if the remote system includes some correlation data (such as a request
+ * number) from each request in its reply, a {@link CorrelationStrategy} that extracts that
+ * data from both the request and the reply messages can be provided. Requests on a shared
+ * connection are then pipelined: each is sent without waiting for earlier replies, and the
+ * replies, which may arrive in any order, are correlated to the waiting requests by the keys
+ * returned by the strategy.
+ * <p>
  * {@link SmartLifecycle} methods delegate to the underlying {@link AbstractConnectionFactory}
  *
  *
@@ -58,6 +67,11 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler imp
 
 	private final Semaphore semaphore = new Semaphore(1, true);
 
+	private final ConcurrentMap<String, ConcurrentMap<Object, PipelinedReply>> pipelinedReplies =
+			new ConcurrentHashMap<String, ConcurrentMap<Object, PipelinedReply>>();
+
+	private volatile CorrelationStrategy correlationStrategy;
+
 	private volatile long remoteTimeout = 10000L;
 
 	private volatile boolean remoteTimeoutSet = false;
@@ -83,6 +97,19 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler imp
 		this.remoteTimeoutSet = true;
 	}
 
+	/**
+	 * Set a strategy to obtain a correlation key from each request message and each reply
+	 * message, enabling pipelined requests on a shared connection. The key of a reply must be
+	 * equal to the key of the request it answers, and no two requests on a connection may have
+	 * the same key while they await their replies. Ignored when the connection factory uses
+	 * single-use connections.
+	 * @param correlationStrategy the correlation strategy.
+	 * @since 4.0
+	 */
+	public void setCorrelationStrategy(CorrelationStrategy correlationStrategy) {
+		this.correlationStrategy = correlationStrategy;
+	}
+
 	@Override
 	public void setSendTimeout(long sendTimeout) {
 		super.setSendTimeout(sendTimeout);
@@ -100,6 +127,9 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler imp
 	protected Object handleRequestMessage(Message<?> requestMessage) {
 		Assert.notNull(connectionFactory, this.getClass().getName() +
 				" requires a client connection factory");
+		if (this.isPipelined()) {
+			return this.handlePipelinedRequestMessage(requestMessage);
+		}
 		boolean haveSemaphore = false;
 		String connectionId = null;
 		try {
@@ -156,6 +186,64 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler imp
 		}
 	}
 
+	private Object handlePipelinedRequestMessage(Message<?> requestMessage) {
+		Object correlationKey = this.correlationStrategy.getCorrelationKey(requestMessage);
+		Assert.state(correlationKey != null, "The correlation strategy returned null for the request message");
+		String connectionId = null;
+		PipelinedReply reply = new PipelinedReply();
+		try {
+			TcpConnection connection = this.connectionFactory.getConnection();
+			connectionId = connection.getConnectionId();
+			ConcurrentMap<Object, PipelinedReply> replies = this.pipelinedReplies.get(connectionId);
+			if (replies == null) {
+				replies = new ConcurrentHashMap<Object, PipelinedReply>();
+				ConcurrentMap<Object, PipelinedReply> existing = this.pipelinedReplies.putIfAbsent(connectionId, replies);
+				if (existing != null) {
+					replies = existing;
+				}
+			}
+			if (replies.putIfAbsent(correlationKey, reply) != null) {
+				throw new MessagingException(requestMessage, "A request with correlation key '" + correlationKey
+						+ "' is already awaiting a reply on connection " + connectionId);
+			}
+			if (!connection.isOpen()) {
+				// closed before we registered; we will not be told about it
+				throw new MessagingException(requestMessage, "Connection " + connectionId + " is closed");
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Added " + correlationKey + " on " + connectionId);
+			}
+			connection.send(requestMessage);
+			Message<?> replyMessage = reply.getReply(remoteTimeout);
+			if (replyMessage == null) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Remote Timeout for " + correlationKey + " on " + connectionId);
+				}
+				// other requests may be in progress; a late reply will be discarded
+				throw new MessageTimeoutException(requestMessage, "Timed out waiting for response");
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Response " + replyMessage);
+			}
+			return replyMessage;
+		}
+		catch (Exception e) {
+			logger.error("Tcp Gateway exception", e);
+			if (e instanceof MessagingException) {
+				throw (MessagingException) e;
+			}
+			throw new MessagingException("Failed to send or receive", e);
+		}
+		finally {
+			if (connectionId != null) {
+				ConcurrentMap<Object, PipelinedReply> replies = this.pipelinedReplies.get(connectionId);
+				if (replies != null) {
+					replies.remove(correlationKey, reply);
+				}
+			}
+		}
+	}
+
 	@Override
 	public boolean onMessage(Message<?> message) {
 		String connectionId = (String) message.getHeaders().get(IpHeaders.CONNECTION_ID);
@@ -166,6 +254,10 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler imp
 		if (logger.isTraceEnabled()) {
 			logger.trace("onMessage: " + connectionId + "(" + message + ")");
 		}
+		if (this.isPipelined()) {
+			this.onPipelinedMessage(connectionId, message);
+			return false;
+		}
 		AsyncReply reply = pendingReplies.get(connectionId);
 		if (reply == null) {
 			if (message instanceof ErrorMessage) {
@@ -184,6 +276,39 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler imp
 		return false;
 	}
 
+	private void onPipelinedMessage(String connectionId, Message<?> message) {
+		if (message instanceof ErrorMessage) {
+			/*
+			 * Socket errors are sent here so they can be conveyed to all the waiting
+			 * threads; the connection is no longer usable.
+			 */
+			this.failPipelinedReplies(connectionId, (Throwable) message.getPayload());
+			return;
+		}
+		ConcurrentMap<Object, PipelinedReply> replies = this.pipelinedReplies.get(connectionId);
+		Object correlationKey = this.correlationStrategy.getCorrelationKey(message);
+		PipelinedReply reply = (replies == null || correlationKey == null) ? null : replies.get(correlationKey);
+		if (reply == null) {
+			logger.error("Cannot correlate response - no pending reply for correlation key '" + correlationKey
+					+ "' on connection " + connectionId);
+			return;
+		}
+		reply.setReply(message);
+	}
+
+	private void failPipelinedReplies(String connectionId, Throwable cause) {
+		ConcurrentMap<Object, PipelinedReply> replies = this.pipelinedReplies.remove(connectionId);
+		if (replies != null) {
+			for (PipelinedReply reply : replies.values()) {
+				reply.setError(cause);
+			}
+		}
+	}
+
+	private boolean isPipelined() {
+		return this.correlationStrategy != null && !this.connectionFactory.isSingleUse();
+	}
+
 	public void setConnectionFactory(AbstractConnectionFactory connectionFactory) {
 		// TODO: In 3.0 Change parameter type to AbstractClientConnectionFactory
 		Assert.isTrue(connectionFactory instanceof AbstractClientConnectionFactory,
@@ -200,7 +325,10 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler imp
 
 	@Override
 	public void removeDeadConnection(TcpConnection connection) {
-		// do nothing - no asynchronous multiplexing supported
+		if (this.correlationStrategy != null) {
+			this.failPipelinedReplies(connection.getConnectionId(),
+					new MessagingException("Connection " + connection.getConnectionId() + " closed"));
+		}
 	}
 
 	/**
@@ -333,4 +461,46 @@ public class TcpOutboundGateway extends AbstractReplyProducingMessageHandler imp
 		}
 	}
 
+	/**
+	 * A reply to a pipelined request; there is no "second chance" for a reply after an
+	 * error, since an error fails all the requests on the connection.
+	 */
+	private static final class PipelinedReply {
+
+		private final CountDownLatch latch = new CountDownLatch(1);
+
+		private volatile Message<?> reply;
+
+		private volatile Throwable error;
+
+		/**
+		 * @return The reply message, or null if we time out.
+		 */
+		private Message<?> getReply(long timeout) throws Exception {
+			if (!this.latch.await(timeout, TimeUnit.MILLISECONDS)) {
+				return null;
+			}
+			if (this.error instanceof MessagingException) {
+				throw (MessagingException) this.error;
+			}
+			if (this.error != null) {
+				throw new MessagingException("Exception while awaiting reply", this.error);
+			}
+			return this.reply;
+		}
+
+		private void setReply(Message<?> reply) {
+			this.reply = reply;
+			this.latch.countDown();
+		}
+
+		private void setError(Throwable error) {
+			if (this.reply == null) {
+				this.error = error;
+				this.latch.countDown();
+			}
+		}
+
+	}
+
 }
@@ -69,6 +69,16 @@ public class CachingClientConnectionFactory extends AbstractClientConnectionFact
 		this.pool.setWaitTimeout(connectionWaitTimeout);
 	}
 
+	/**
+	 * Set the time after which an idle connection is closed and removed from the pool.
+	 * Default 0 (idle connections are retained).
+	 * @param connectionIdleTimeout the idle timeout in milliseconds.
+	 * @since 4.0
+	 */
+	public void setConnectionIdleTimeout(long connectionIdleTimeout) {
+		this.pool.setIdleTimeout(connectionIdleTimeout);
+	}
+
 	public synchronized void setPoolSize(int poolSize) {
 		this.pool.setPoolSize(poolSize);
 	}
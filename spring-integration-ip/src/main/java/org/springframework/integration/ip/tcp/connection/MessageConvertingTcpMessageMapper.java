@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -35,8 +35,7 @@ public class MessageConvertingTcpMessageMapper extends TcpMessageMapper {
 	}
 
 	@Override
-	public Message<?> toMessage(TcpConnection connection) throws Exception {
-		Object data = connection.getPayload();
+	public Message<?> toMessage(TcpConnection connection, Object data) throws Exception {
 		if (data != null) {
 			Message<?> message = this.messageConverter.toMessage(data, null);
 			AbstractIntegrationMessageBuilder<?> messageBuilder = this.getMessageBuilderFactory().fromMessage(message);
@@ -97,8 +97,19 @@ public class TcpMessageMapper implements
 
 	@Override
 	public Message<?> toMessage(TcpConnection connection) throws Exception {
+		return this.toMessage(connection, connection.getPayload());
+	}
+
+	/**
+	 * Map a payload that has already been read from the connection.
+	 * @param connection the connection.
+	 * @param payload the payload.
+	 * @return the message, or null if the payload is null.
+	 * @throws Exception Any Exception.
+	 * @since 4.0
+	 */
+	public Message<?> toMessage(TcpConnection connection, Object payload) throws Exception {
 		Message<Object> message = null;
-		Object payload = connection.getPayload();
 		if (payload != null) {
 			AbstractIntegrationMessageBuilder<Object> messageBuilder = this.messageBuilderFactory.withPayload(payload);
 			this.addStandardHeaders(connection, messageBuilder);
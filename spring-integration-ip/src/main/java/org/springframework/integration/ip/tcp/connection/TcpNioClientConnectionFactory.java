@@ -45,6 +45,8 @@ public class TcpNioClientConnectionFactory extends
 
 	private volatile boolean usingDirectBuffers;
 
+	private volatile boolean inlineFraming;
+
 	private volatile Selector selector;
 
 	private final Map<SocketChannel, TcpNioConnection> channelMap = new ConcurrentHashMap<SocketChannel, TcpNioConnection>();
@@ -85,6 +87,7 @@ public class TcpNioClientConnectionFactory extends
 		TcpNioConnection connection = this.tcpNioConnectionSupport.createNewConnection(
 				socketChannel, false, this.isLookupHost(), this.getApplicationEventPublisher(), this.getComponentName());
 		connection.setUsingDirectBuffers(this.usingDirectBuffers);
+		connection.setInlineFraming(this.inlineFraming);
 		connection.setTaskExecutor(this.getTaskExecutor());
 		TcpConnectionSupport wrappedConnection = wrapConnection(connection);
 		initializeConnection(wrappedConnection, socketChannel.socket());
@@ -108,6 +111,18 @@ public class TcpNioClientConnectionFactory extends
 		this.usingDirectBuffers = usingDirectBuffers;
 	}
 
+	/**
+	 * When set to true, connections created by this factory decode messages
+	 * directly from the read buffer, on the read thread, if the deserializer
+	 * supports it.
+	 * @param inlineFraming The inlineFraming to set.
+	 * @see TcpNioConnection#setInlineFraming(boolean)
+	 * @since 4.0
+	 */
+	public void setInlineFraming(boolean inlineFraming) {
+		this.inlineFraming = inlineFraming;
+	}
+
 	public void setTcpNioConnectionSupport(TcpNioConnectionSupport tcpNioSupport) {
 		Assert.notNull(tcpNioSupport, "TcpNioSupport must not be null");
 		this.tcpNioConnectionSupport = tcpNioSupport;
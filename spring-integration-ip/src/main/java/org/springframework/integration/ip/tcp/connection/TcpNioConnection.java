@@ -19,6 +19,7 @@ package org.springframework.integration.ip.tcp.connection;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.reflect.Method;
 import java.net.SocketTimeoutException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
@@ -35,10 +36,12 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.serializer.Serializer;
+import org.springframework.integration.ip.tcp.serializer.ByteBufferDeserializer;
 import org.springframework.integration.ip.tcp.serializer.SoftEndOfStreamException;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessagingException;
 import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * A TcpConnection that uses and underlying {@link SocketChannel}.
@@ -75,6 +78,10 @@ public class TcpNioConnection extends TcpConnectionSupport {
 
 	private volatile long pipeTimeout = DEFAULT_PIPE_TIMEOUT;
 
+	private volatile boolean inlineFraming;
+
+	private volatile Boolean inlineFramingSupported;
+
 	/**
 	 * Constructs a TcpNetConnection for the SocketChannel.
 	 * @param socketChannel The socketChannel.
@@ -101,6 +108,22 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		this.pipeTimeout = pipeTimeout;
 	}
 
+	/**
+	 * When true, and the deserializer is a {@link ByteBufferDeserializer}, messages
+	 * are decoded directly from the read buffer on the thread that reads the socket,
+	 * and are sent to the listener on that thread. This avoids handing the data to
+	 * a separate assembler thread through an internal pipe, but the listener must
+	 * not block for long because no more data is read from this connection until
+	 * it returns. Ignored for other deserializers, and for deserializers (or
+	 * mappers) that override the stream-based method without overriding its
+	 * buffer-based counterpart. Default false.
+	 * @param inlineFraming true to decode messages on the read thread.
+	 * @since 4.0
+	 */
+	public void setInlineFraming(boolean inlineFraming) {
+		this.inlineFraming = inlineFraming;
+	}
+
 	@Override
 	public void close() {
 		this.setNoReadErrorOnClose(true);
@@ -211,26 +234,7 @@ public class TcpNioConnection extends TcpConnectionSupport {
 				}
 			}
 			catch (Exception e) {
-				if (logger.isTraceEnabled()) {
-					logger.error("Read exception " +
-							 this.getConnectionId(), e);
-				}
-				else if (!this.isNoReadErrorOnClose()) {
-					logger.error("Read exception " +
-								 this.getConnectionId() + " " +
-								 e.getClass().getSimpleName() +
-							     ":" + e.getCause() + ":" + e.getMessage());
-				}
-				else {
-					if (logger.isDebugEnabled()) {
-						logger.debug("Read exception " +
-									 this.getConnectionId() + " " +
-									 e.getClass().getSimpleName() +
-								     ":" + e.getCause() + ":" + e.getMessage());
-					}
-				}
-				this.closeConnection(true);
-				this.sendExceptionToListener(e);
+				this.readFailed(e);
 				return;
 			}
 		}
@@ -252,6 +256,33 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		}
 	}
 
+	/**
+	 * Log the exception, close the connection and send the exception
+	 * to the listener.
+	 */
+	private void readFailed(Exception e) {
+		if (logger.isTraceEnabled()) {
+			logger.error("Read exception " +
+					 this.getConnectionId(), e);
+		}
+		else if (!this.isNoReadErrorOnClose()) {
+			logger.error("Read exception " +
+						 this.getConnectionId() + " " +
+						 e.getClass().getSimpleName() +
+					     ":" + e.getCause() + ":" + e.getMessage());
+		}
+		else {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Read exception " +
+							 this.getConnectionId() + " " +
+							 e.getClass().getSimpleName() +
+						     ":" + e.getCause() + ":" + e.getMessage());
+			}
+		}
+		this.closeConnection(true);
+		this.sendExceptionToListener(e);
+	}
+
 	private boolean dataAvailable() throws IOException {
 		return this.channelInputStream.available() > 0 || writingToPipe;
 	}
@@ -324,6 +355,17 @@ public class TcpNioConnection extends TcpConnectionSupport {
 			this.rawBuffer = allocate(maxMessageSize);
 		}
 
+		if (this.inlineFraming && this.isInlineFramingSupported()) {
+			try {
+				doInlineRead((ByteBufferDeserializer) this.getDeserializer());
+			}
+			catch (Exception e) {
+				this.publishConnectionExceptionEvent(e);
+				throw e;
+			}
+			return;
+		}
+
 		this.writingToPipe = true;
 		try {
 			if (this.taskExecutor == null) {
@@ -383,6 +425,92 @@ public class TcpNioConnection extends TcpConnectionSupport {
 		}
 	}
 
+	/**
+	 * Inline framing bypasses {@code deserialize(InputStream)} and
+	 * {@code toMessage(TcpConnection)}; it is only used if neither is overridden
+	 * below the class that declares its inline counterpart.
+	 */
+	private boolean isInlineFramingSupported() {
+		if (this.inlineFramingSupported == null) {
+			Object deserializer = this.getDeserializer();
+			boolean supported = false;
+			if (deserializer instanceof ByteBufferDeserializer) {
+				supported = declaresInlineMethod(deserializer.getClass(), "deserialize",
+						new Class<?>[] { InputStream.class }, new Class<?>[] { ByteBuffer.class })
+					&& declaresInlineMethod(this.getMapper().getClass(), "toMessage",
+						new Class<?>[] { TcpConnection.class }, new Class<?>[] { TcpConnection.class, Object.class });
+				if (!supported && logger.isWarnEnabled()) {
+					logger.warn(this.getConnectionId() + " Inline framing disabled; "
+							+ deserializer.getClass().getName() + " or " + this.getMapper().getClass().getName()
+							+ " overrides its stream-based method");
+				}
+			}
+			this.inlineFramingSupported = supported;
+		}
+		return this.inlineFramingSupported;
+	}
+
+	/**
+	 * @return true if the stream-based method is declared by the same class as the
+	 * inline method, or by one of its superclasses.
+	 */
+	private static boolean declaresInlineMethod(Class<?> type, String name, Class<?>[] streamParameterTypes,
+			Class<?>[] inlineParameterTypes) {
+		Method streamMethod = ReflectionUtils.findMethod(type, name, streamParameterTypes);
+		Method inlineMethod = ReflectionUtils.findMethod(type, name, inlineParameterTypes);
+		return streamMethod != null && inlineMethod != null
+				&& streamMethod.getDeclaringClass().isAssignableFrom(inlineMethod.getDeclaringClass());
+	}
+
+	/**
+	 * Reads from the socket and decodes all complete messages in the raw buffer
+	 * on the current thread; an incomplete message is retained at the start of the
+	 * buffer until the next read. Decoding failures are handled as in {@link #run()}.
+	 */
+	private void doInlineRead(ByteBufferDeserializer deserializer) throws Exception {
+		int len = this.socketChannel.read(this.rawBuffer);
+		this.rawBuffer.flip();
+		if (logger.isDebugEnabled()) {
+			logger.debug("Read " + len + " into raw buffer, " + this.rawBuffer.remaining() + " available");
+		}
+		try {
+			try {
+				byte[] frame;
+				while ((frame = deserializer.deserialize(this.rawBuffer)) != null) {
+					if (this.getListener() == null && !this.isSingleUse()) {
+						if (logger.isDebugEnabled()) {
+							logger.debug(this.getConnectionId() + " Discarding " + frame.length
+									+ " bytes - no listener and not single use");
+						}
+						continue;
+					}
+					Message<?> message = this.getMapper().toMessage(this, frame);
+					if (message != null) {
+						sendToChannel(message);
+					}
+				}
+			}
+			finally {
+				this.rawBuffer.compact();
+			}
+			if (len < 0) {
+				if (this.rawBuffer.position() > 0) {
+					throw new IOException("Socket closed during message assembly");
+				}
+				throw new SoftEndOfStreamException("Stream closed between payloads");
+			}
+			if (!this.rawBuffer.hasRemaining()) {
+				throw new IOException("Message exceeds the read buffer size: " + this.rawBuffer.capacity());
+			}
+		}
+		catch (SoftEndOfStreamException e) {
+			this.closeConnection(true);
+		}
+		catch (Exception e) {
+			this.readFailed(e);
+		}
+	}
+
 	protected void sendToPipe(ByteBuffer rawBuffer) throws IOException {
 		Assert.notNull(rawBuffer, "rawBuffer cannot be null");
 		if (logger.isTraceEnabled()) {
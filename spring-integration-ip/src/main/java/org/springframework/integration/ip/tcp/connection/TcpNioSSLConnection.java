@@ -74,6 +74,17 @@ public class TcpNioSSLConnection extends TcpNioConnection {
 		this.sslEngine = sslEngine;
 	}
 
+	/**
+	 * Inline framing is not supported with SSL; decrypted data is always
+	 * assembled into messages on a separate thread.
+	 */
+	@Override
+	public void setInlineFraming(boolean inlineFraming) {
+		if (inlineFraming && logger.isWarnEnabled()) {
+			logger.warn("Inline framing is not supported with SSL; ignored");
+		}
+	}
+
 	/**
 	 * Overrides super class method to perform decryption and/or participate
 	 * in handshaking. Decrypted data is sent to the super class to be
@@ -49,6 +49,8 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 
 	private volatile boolean usingDirectBuffers;
 
+	private volatile boolean inlineFraming;
+
 	private final Map<SocketChannel, TcpNioConnection> channelMap = new HashMap<SocketChannel, TcpNioConnection>();
 
 	private volatile Selector selector;
@@ -190,6 +192,7 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 					.createNewConnection(socketChannel, true,
 							this.isLookupHost(), this.getApplicationEventPublisher(), this.getComponentName());
 			connection.setUsingDirectBuffers(this.usingDirectBuffers);
+			connection.setInlineFraming(this.inlineFraming);
 			TcpConnectionSupport wrappedConnection = wrapConnection(connection);
 			this.initializeConnection(wrappedConnection, socketChannel.socket());
 			return connection;
@@ -224,6 +227,18 @@ public class TcpNioServerConnectionFactory extends AbstractServerConnectionFacto
 		this.usingDirectBuffers = usingDirectBuffers;
 	}
 
+	/**
+	 * When set to true, connections created by this factory decode messages
+	 * directly from the read buffer, on the read thread, if the deserializer
+	 * supports it.
+	 * @param inlineFraming The inlineFraming to set.
+	 * @see TcpNioConnection#setInlineFraming(boolean)
+	 * @since 4.0
+	 */
+	public void setInlineFraming(boolean inlineFraming) {
+		this.inlineFraming = inlineFraming;
+	}
+
 	public void setTcpNioConnectionSupport(TcpNioConnectionSupport tcpNioSupport) {
 		Assert.notNull(tcpNioSupport, "TcpNioSupport must not be null");
 		this.tcpNioConnectionSupport = tcpNioSupport;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.integration.ip.tcp.serializer;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -64,6 +65,22 @@ public abstract class AbstractByteArraySerializer implements
 		}
 	}
 
+	/**
+	 * Copy size bytes from the buffer's current position to a new array, and
+	 * advance the position past the data and the number of framing bytes
+	 * that follow it.
+	 * @param buffer The buffer containing the data.
+	 * @param size The number of bytes to copy.
+	 * @param trailer The number of framing bytes following the data.
+	 * @return The new array.
+	 */
+	protected byte[] copyToSizedArray(ByteBuffer buffer, int size, int trailer) {
+		byte[] assembledData = new byte[size];
+		buffer.get(assembledData);
+		buffer.position(buffer.position() + trailer);
+		return assembledData;
+	}
+
 	/**
 	 * Copy size bytes to a new buffer exactly size bytes long.
 	 * @param buffer The buffer containing the data.
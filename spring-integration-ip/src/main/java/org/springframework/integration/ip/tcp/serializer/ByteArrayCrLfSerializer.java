@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.integration.ip.tcp.serializer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Reads data in an InputStream to a byte[]; data must be terminated by \r\n
@@ -28,7 +29,7 @@ import java.io.OutputStream;
  * @author Gary Russell
  * @since 2.0
  */
-public class ByteArrayCrLfSerializer extends AbstractByteArraySerializer {
+public class ByteArrayCrLfSerializer extends AbstractByteArraySerializer implements ByteBufferDeserializer {
 
 	private static final byte[] CRLF = "\r\n".getBytes();
 
@@ -71,6 +72,26 @@ public class ByteArrayCrLfSerializer extends AbstractByteArraySerializer {
 		return n-1; // trim \r
 	}
 
+	/**
+	 * Scans the buffer for CRLF (\r\n) and returns the data preceding it.
+	 * Returns null if the buffer does not yet contain a CRLF.
+	 */
+	@Override
+	public byte[] deserialize(ByteBuffer buffer) throws IOException {
+		int start = buffer.position();
+		int limit = buffer.limit();
+		for (int i = start; i < limit; i++) {
+			if (i > start && buffer.get(i) == '\n' && buffer.get(i - 1) == '\r') {
+				return this.copyToSizedArray(buffer, i - start - 1, 2);
+			}
+			if (i - start + 1 >= this.maxMessageSize) {
+				throw new IOException("CRLF not found before max message length: "
+						+ this.maxMessageSize);
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Writes the byte[] to the stream and appends \r\n.
 	 */
@@ -42,7 +42,7 @@ import org.apache.commons.logging.LogFactory;
  * @author Gary Russell
  * @since 2.0
  */
-public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer {
+public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer implements ByteBufferDeserializer {
 
 
 	/**
@@ -111,6 +111,34 @@ public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer
 		return messagePart;
 	}
 
+	/**
+	 * Reads the header from the buffer and, if the buffer contains the whole
+	 * data part, returns it. Returns null if the header or the data part are
+	 * incomplete. Throws an IOException if the length field exceeds the
+	 * maxMessageSize. Subclasses that override {@link #readHeader(InputStream)}
+	 * must also override {@link #readHeader(ByteBuffer, int)}.
+	 *
+	 * @param buffer The buffer.
+	 * @throws IOException Any IOException.
+	 */
+	@Override
+	public byte[] deserialize(ByteBuffer buffer) throws IOException {
+		int start = buffer.position();
+		if (buffer.remaining() < this.headerSize) {
+			return null;
+		}
+		int messageLength = this.readHeader(buffer, start);
+		if (messageLength > this.maxMessageSize) {
+			throw new IOException("Message length " + messageLength +
+					" exceeds max message length: " + this.maxMessageSize);
+		}
+		if (buffer.remaining() - this.headerSize < messageLength) {
+			return null;
+		}
+		buffer.position(start + this.headerSize);
+		return this.copyToSizedArray(buffer, messageLength, 0);
+	}
+
 	/**
 	 * Writes the byte[] to the output stream, preceded by a 4 byte
 	 * length in network byte order (big endian).
@@ -229,4 +257,36 @@ public class ByteArrayLengthHeaderSerializer extends AbstractByteArraySerializer
 		}
 		return messageLength;
 	}
+
+	/**
+	 * Reads the header at the given index of the buffer, without changing its
+	 * position, and returns the length of the data part. The caller has
+	 * ensured that the header is available.
+	 *
+	 * @param buffer The buffer.
+	 * @param index The index of the header.
+	 * @return The length of the data part.
+	 */
+	protected int readHeader(ByteBuffer buffer, int index) {
+		int messageLength;
+		switch (this.headerSize) {
+		case HEADER_SIZE_INT:
+			messageLength = buffer.getInt(index);
+			if (messageLength < 0) {
+				throw new IllegalArgumentException("Length header:"
+						+ messageLength
+						+ " is negative");
+			}
+			break;
+		case HEADER_SIZE_UNSIGNED_BYTE:
+			messageLength = buffer.get(index) & 0xff;
+			break;
+		case HEADER_SIZE_UNSIGNED_SHORT:
+			messageLength = buffer.getShort(index) & 0xffff;
+			break;
+		default:
+			throw new IllegalArgumentException("Bad header size:" + headerSize);
+		}
+		return messageLength;
+	}
 }
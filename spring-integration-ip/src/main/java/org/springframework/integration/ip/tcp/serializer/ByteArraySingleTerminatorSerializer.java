@@ -19,6 +19,7 @@ package org.springframework.integration.ip.tcp.serializer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Reads data in an InputStream to a byte[]; data must be terminated by a single
@@ -28,7 +29,7 @@ import java.io.OutputStream;
  * @author Gary Russell
  * @since 2.2
  */
-public class ByteArraySingleTerminatorSerializer extends AbstractByteArraySerializer {
+public class ByteArraySingleTerminatorSerializer extends AbstractByteArraySerializer implements ByteBufferDeserializer {
 
 	private final byte terminator;
 
@@ -70,6 +71,26 @@ public class ByteArraySingleTerminatorSerializer extends AbstractByteArraySerial
 		return assembledData;
 	}
 
+	/**
+	 * Scans the buffer for the terminator and returns the data preceding it.
+	 * Returns null if the buffer does not yet contain the terminator.
+	 */
+	@Override
+	public byte[] deserialize(ByteBuffer buffer) throws IOException {
+		int start = buffer.position();
+		int limit = buffer.limit();
+		for (int i = start; i < limit; i++) {
+			if (buffer.get(i) == this.terminator) {
+				return this.copyToSizedArray(buffer, i - start, 1);
+			}
+			if (i - start + 1 >= this.maxMessageSize) {
+				throw new IOException("LF not found before max message length: "
+						+ this.maxMessageSize);
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Writes the byte[] to the stream and appends the terminator.
 	 */
@@ -19,6 +19,7 @@ package org.springframework.integration.ip.tcp.serializer;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 import org.springframework.integration.mapping.MessageMappingException;
 
@@ -30,7 +31,7 @@ import org.springframework.integration.mapping.MessageMappingException;
  * @author Gary Russell
  * @since 2.0
  */
-public class ByteArrayStxEtxSerializer extends AbstractByteArraySerializer {
+public class ByteArrayStxEtxSerializer extends AbstractByteArraySerializer implements ByteBufferDeserializer {
 
 	public static final int STX = 0x02;
 	
@@ -67,6 +68,34 @@ public class ByteArrayStxEtxSerializer extends AbstractByteArraySerializer {
 		return assembledData;
 	}
 
+	/**
+	 * Scans the buffer for a message prefixed with an ASCII STX character and
+	 * terminated with an ASCII ETX character and returns the data between them.
+	 * Returns null if the buffer does not yet contain the ETX.
+	 */
+	@Override
+	public byte[] deserialize(ByteBuffer buffer) throws IOException {
+		int start = buffer.position();
+		int limit = buffer.limit();
+		if (start == limit) {
+			return null;
+		}
+		if (buffer.get(start) != STX) {
+			throw new MessageMappingException("Expected STX to begin message");
+		}
+		for (int i = start + 1; i < limit; i++) {
+			if (buffer.get(i) == ETX) {
+				buffer.position(start + 1);
+				return this.copyToSizedArray(buffer, i - start - 1, 1);
+			}
+			if (i - start >= this.maxMessageSize) {
+				throw new IOException("ETX not found before max message length: "
+						+ this.maxMessageSize);
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Writes the byte[] to the stream, prefixed by an ASCII STX character and
 	 * terminated with an ASCII ETX character.
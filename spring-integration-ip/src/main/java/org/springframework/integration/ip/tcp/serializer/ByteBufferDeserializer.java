@@ -0,0 +1,45 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.ip.tcp.serializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Implemented by deserializers that can locate message boundaries directly in a
+ * {@link ByteBuffer}, without reading the data a byte at a time from an
+ * InputStream. Used by NIO connections when inline framing is enabled.
+ *
+ * @since 4.0
+ */
+public interface ByteBufferDeserializer {
+
+	/**
+	 * Attempts to decode a single message from the buffer, starting at its current
+	 * position. If the buffer contains a complete message, it is returned and the
+	 * buffer position is advanced past the message, including any framing bytes.
+	 * If the buffer contains an incomplete message, null is returned and the
+	 * position is unchanged so that the caller can append more data and retry.
+	 *
+	 * @param buffer The buffer, ready for reading (flipped).
+	 * @return The message data or null if the buffer does not contain a complete message.
+	 * @throws IOException if the data is invalid, or if no message boundary is
+	 * found before the maximum message size.
+	 */
+	byte[] deserialize(ByteBuffer buffer) throws IOException;
+
+}
@@ -23,6 +23,9 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,6 +39,11 @@ import org.springframework.messaging.MessagingException;
  * A channel adapter to receive incoming UDP packets. Packets can optionally be preceded by a
  * 4 byte length field, used to validate that all data was received. Packets may also contain
  * information indicating an acknowledgment needs to be sent.
+ * <p>
+ * The packets (and their receive buffers) are reused; a packet is returned to a small
+ * pool as soon as it has been mapped to a message (which copies just the received data),
+ * so that no receive buffers need be allocated while the adapter keeps up with the
+ * incoming packets.
  *
  * @author Gary Russell
  * @since 2.0
@@ -50,6 +58,16 @@ public class UnicastReceivingChannelAdapter extends AbstractInternetProtocolRece
 
 	private static Pattern addressPattern = Pattern.compile("([^:]*):([0-9]*)");
 
+	/*
+	 * The maximum number of idle packets retained for reuse; more packets are
+	 * allocated (and discarded) if the executor falls behind.
+	 */
+	private static final int MAX_IDLE_PACKETS = 64;
+
+	private final Queue<DatagramPacket> idlePackets = new ConcurrentLinkedQueue<DatagramPacket>();
+
+	private final AtomicInteger idlePacketCount = new AtomicInteger();
+
 
 	/**
 	 * Constructs a UnicastReceivingChannelAdapter that listens on the specified port.
@@ -151,6 +169,10 @@ public class UnicastReceivingChannelAdapter extends AbstractInternetProtocolRece
 				catch (Exception e) {
 					logger.error("Failed to map packet to message ", e);
 				}
+				finally {
+					// the message has its own copy of the data
+					releasePacket(packet);
+				}
 				if (message != null) {
 					if (message.getHeaders().containsKey(IpHeaders.ACK_ADDRESS)) {
 						sendAck(message);
@@ -163,12 +185,44 @@ public class UnicastReceivingChannelAdapter extends AbstractInternetProtocolRece
 
 	protected DatagramPacket receive() throws Exception {
 		DatagramSocket socket = this.getSocket();
-		final byte[] buffer = new byte[this.getReceiveBufferSize()];
-		DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
-		socket.receive(packet);
+		DatagramPacket packet = this.obtainPacket();
+		try {
+			socket.receive(packet);
+		}
+		catch (Exception e) {
+			this.releasePacket(packet);
+			throw e;
+		}
 		return packet;
 	}
 
+	private DatagramPacket obtainPacket() {
+		int receiveBufferSize = this.getReceiveBufferSize();
+		DatagramPacket packet;
+		while ((packet = this.idlePackets.poll()) != null) {
+			this.idlePacketCount.decrementAndGet();
+			// discard packets from before a change of buffer size
+			if (packet.getData().length == receiveBufferSize) {
+				packet.setLength(receiveBufferSize);
+				return packet;
+			}
+		}
+		final byte[] buffer = new byte[receiveBufferSize];
+		return new DatagramPacket(buffer, buffer.length);
+	}
+
+	private void releasePacket(DatagramPacket packet) {
+		if (packet.getData().length != this.getReceiveBufferSize()) {
+			return;
+		}
+		if (this.idlePacketCount.incrementAndGet() <= MAX_IDLE_PACKETS) {
+			this.idlePackets.add(packet);
+		}
+		else {
+			this.idlePacketCount.decrementAndGet();
+		}
+	}
+
 	/**
 	 * @param socket the socket to set
 	 */
@@ -40,6 +40,7 @@ import org.springframework.core.io.UrlResource;
 import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.integration.aggregator.CorrelationStrategy;
 import org.springframework.integration.channel.DirectChannel;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.core.MessagingTemplate;
@@ -145,6 +146,9 @@ public class ParserUnitTests {
 	@Qualifier(value="org.springframework.integration.ip.tcp.TcpOutboundGateway#0")
 	TcpOutboundGateway tcpOutboundGatewayByGeneratedName;
 
+	@Autowired
+	CorrelationStrategy correlationStrategy;
+
 	@Autowired
 	EventDrivenConsumer outGateway;
 
@@ -490,6 +494,7 @@ public class ParserUnitTests {
 				MessagingTemplate.class);
 		assertEquals(Long.valueOf(567), TestUtils.getPropertyValue(messagingTemplate, "sendTimeout", Long.class));
 		assertEquals(789L, dfa.getPropertyValue("remoteTimeout"));
+		assertSame(correlationStrategy, dfa.getPropertyValue("correlationStrategy"));
 		assertEquals("outGateway",tcpOutboundGateway.getComponentName());
 		assertEquals("ip:tcp-outbound-gateway", tcpOutboundGateway.getComponentType());
 		assertTrue(cfC2.isLookupHost());
@@ -535,6 +540,7 @@ public class ParserUnitTests {
 		assertSame(taskExecutor, dfa.getPropertyValue("taskExecutor"));
 		assertEquals(123, dfa.getPropertyValue("backlog"));
 		assertEquals(true, dfa.getPropertyValue("usingDirectBuffers"));
+		assertEquals(true, dfa.getPropertyValue("inlineFraming"));
 		assertNotNull(dfa.getPropertyValue("interceptorFactoryChain"));
 	}
 
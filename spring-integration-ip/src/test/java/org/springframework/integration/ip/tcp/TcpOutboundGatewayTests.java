@@ -41,6 +41,7 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -58,6 +59,7 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.core.serializer.DefaultDeserializer;
 import org.springframework.core.serializer.DefaultSerializer;
 import org.springframework.integration.MessageTimeoutException;
+import org.springframework.integration.aggregator.CorrelationStrategy;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.ip.tcp.connection.AbstractClientConnectionFactory;
 import org.springframework.integration.ip.tcp.connection.AbstractConnectionFactory;
@@ -204,6 +206,84 @@ public class TcpOutboundGatewayTests {
 		gateway.stop();
 	}
 
+	@Test
+	public void testGoodNetPipelined() throws Exception {
+		final int port = SocketUtils.findAvailableServerSocket();
+		final CountDownLatch latch = new CountDownLatch(1);
+		final AtomicBoolean done = new AtomicBoolean();
+		final int requests = 4;
+		Executors.newSingleThreadExecutor().execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					ServerSocket server = ServerSocketFactory.getDefault().createServerSocket(port, 10);
+					latch.countDown();
+					Socket socket = server.accept();
+					// read all the requests before replying, in reverse order
+					List<String> received = new ArrayList<String>();
+					for (int i = 0; i < requests; i++) {
+						ObjectInputStream ois = new ObjectInputStream(socket.getInputStream());
+						received.add((String) ois.readObject());
+					}
+					Collections.reverse(received);
+					for (String request : received) {
+						ObjectOutputStream oos = new ObjectOutputStream(socket.getOutputStream());
+						oos.writeObject(request.replace("Test", "Reply"));
+					}
+					socket.getInputStream().read();
+				} catch (Exception e) {
+					if (!done.get()) {
+						e.printStackTrace();
+					}
+				}
+			}
+		});
+		AbstractConnectionFactory ccf = new TcpNetClientConnectionFactory("localhost", port);
+		ccf.setSerializer(new DefaultSerializer());
+		ccf.setDeserializer(new DefaultDeserializer());
+		ccf.setSoTimeout(10000);
+		ccf.setSingleUse(false);
+		ccf.start();
+		assertTrue(latch.await(10000, TimeUnit.MILLISECONDS));
+		final TcpOutboundGateway gateway = new TcpOutboundGateway();
+		gateway.setConnectionFactory(ccf);
+		gateway.setRequiresReply(true);
+		gateway.setCorrelationStrategy(new CorrelationStrategy() {
+
+			@Override
+			public Object getCorrelationKey(Message<?> message) {
+				return ((String) message.getPayload()).replaceAll("\\D", "");
+			}
+		});
+		List<Future<Message<?>>> futures = new ArrayList<Future<Message<?>>>();
+		ExecutorService exec = Executors.newFixedThreadPool(requests);
+		for (int i = 0; i < requests; i++) {
+			final int n = i;
+			futures.add(exec.submit(new Callable<Message<?>>() {
+
+				@Override
+				public Message<?> call() throws Exception {
+					QueueChannel replyChannel = new QueueChannel();
+					gateway.handleMessage(MessageBuilder.withPayload("Test" + n).setReplyChannel(replyChannel).build());
+					return replyChannel.receive(10000);
+				}
+			}));
+		}
+		for (int i = 0; i < requests; i++) {
+			Message<?> reply = futures.get(i).get(20, TimeUnit.SECONDS);
+			assertNotNull(reply);
+			assertEquals("Reply" + i, reply.getPayload());
+		}
+		Map<?, ?> pending = TestUtils.getPropertyValue(gateway, "pipelinedReplies", Map.class);
+		for (Object replies : pending.values()) {
+			assertEquals(0, ((Map<?, ?>) replies).size());
+		}
+		done.set(true);
+		exec.shutdownNow();
+		gateway.stop();
+		ccf.stop();
+	}
+
 	@Test
 	public void testGoodNetTimeout() throws Exception {
 		final int port = SocketUtils.findAvailableServerSocket();
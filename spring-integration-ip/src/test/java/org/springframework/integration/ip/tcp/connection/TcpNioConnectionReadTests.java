@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,12 +20,15 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.net.SocketFactory;
 
@@ -39,6 +42,7 @@ import org.springframework.integration.ip.util.SocketTestUtils;
 import org.springframework.integration.ip.util.TestingUtilities;
 import org.springframework.integration.test.util.SocketUtils;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.support.ErrorMessage;
 
 /**
  * @author Gary Russell
@@ -55,7 +59,14 @@ public class TcpNioConnectionReadTests {
 
 	private AbstractServerConnectionFactory getConnectionFactory(int port,
 			AbstractByteArraySerializer serializer, TcpListener listener, TcpSender sender) throws Exception {
-		AbstractServerConnectionFactory scf = new TcpNioServerConnectionFactory(port);
+		return getConnectionFactory(port, serializer, listener, sender, false);
+	}
+
+	private AbstractServerConnectionFactory getConnectionFactory(int port,
+			AbstractByteArraySerializer serializer, TcpListener listener, TcpSender sender,
+			boolean inlineFraming) throws Exception {
+		TcpNioServerConnectionFactory scf = new TcpNioServerConnectionFactory(port);
+		scf.setInlineFraming(inlineFraming);
 		scf.setSerializer(serializer);
 		scf.setDeserializer(serializer);
 		scf.registerListener(listener);
@@ -200,6 +211,158 @@ public class TcpNioConnectionReadTests {
 		done.countDown();
 	}
 
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testReadCrLfInline() throws Exception {
+		int port = SocketUtils.findAvailableServerSocket();
+		ByteArrayCrLfSerializer serializer = new ByteArrayCrLfSerializer();
+		final List<Message<?>> responses = new ArrayList<Message<?>>();
+		final Semaphore semaphore = new Semaphore(0);
+		AbstractServerConnectionFactory scf = getConnectionFactory(port, serializer, new TcpListener() {
+			@Override
+			public boolean onMessage(Message<?> message) {
+				responses.add(message);
+				semaphore.release();
+				return false;
+			}
+		}, null, true);
+
+		// Fire up the sender.
+
+		CountDownLatch done = SocketTestUtils.testSendCrLf(port, latch);
+		latch.countDown();
+		assertTrue(semaphore.tryAcquire(2, 10000, TimeUnit.MILLISECONDS));
+		assertEquals("Did not receive data", 2, responses.size());
+		assertEquals("Data", SocketTestUtils.TEST_STRING + SocketTestUtils.TEST_STRING,
+				new String(((Message<byte[]>) responses.get(0)).getPayload()));
+		assertEquals("Data", SocketTestUtils.TEST_STRING + SocketTestUtils.TEST_STRING,
+				new String(((Message<byte[]>) responses.get(1)).getPayload()));
+		scf.stop();
+		done.countDown();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testFragmentedInline() throws Exception {
+		int port = SocketUtils.findAvailableServerSocket();
+		ByteArrayLengthHeaderSerializer serializer = new ByteArrayLengthHeaderSerializer();
+		final List<Message<?>> responses = new ArrayList<Message<?>>();
+		final Semaphore semaphore = new Semaphore(0);
+		AbstractServerConnectionFactory scf = getConnectionFactory(port, serializer, new TcpListener() {
+			@Override
+			public boolean onMessage(Message<?> message) {
+				responses.add(message);
+				semaphore.release();
+				return false;
+			}
+		}, null, true);
+
+		int howMany = 2;
+		scf.setBacklog(howMany + 5);
+		// Fire up the sender.
+		CountDownLatch done = SocketTestUtils.testSendFragmented(port, howMany, false);
+		assertTrue(semaphore.tryAcquire(howMany, 20000, TimeUnit.MILLISECONDS));
+		assertEquals("Expected", howMany, responses.size());
+		for (int i = 0; i < howMany; i++) {
+			assertEquals("Data", "xx",
+				new String(((Message<byte[]>) responses.get(i)).getPayload()));
+		}
+		scf.stop();
+		done.countDown();
+	}
+
+	@Test
+	public void testReadLengthOverflowInline() throws Exception {
+		int port = SocketUtils.findAvailableServerSocket();
+		ByteArrayLengthHeaderSerializer serializer = new ByteArrayLengthHeaderSerializer();
+		final Semaphore semaphore = new Semaphore(0);
+		final List<TcpConnection> added = new ArrayList<TcpConnection>();
+		final List<TcpConnection> removed = new ArrayList<TcpConnection>();
+		AbstractServerConnectionFactory scf = getConnectionFactory(port, serializer,new TcpListener() {
+			@Override
+			public boolean onMessage(Message<?> message) {
+				semaphore.release();
+				return false;
+			}
+		}, new TcpSender() {
+			@Override
+			public void addNewConnection(TcpConnection connection) {
+				added.add(connection);
+				semaphore.release();
+			}
+			@Override
+			public void removeDeadConnection(TcpConnection connection) {
+				removed.add(connection);
+				semaphore.release();
+			}
+		}, true);
+
+		// Fire up the sender.
+
+		CountDownLatch done = SocketTestUtils.testSendLengthOverflow(port);
+		whileOpen(semaphore, added);
+		assertEquals(1, added.size());
+		assertTrue(semaphore.tryAcquire(10000, TimeUnit.MILLISECONDS));
+		assertTrue(removed.size() > 0);
+		scf.stop();
+		done.countDown();
+	}
+
+	@Test
+	public void testReadLengthOverflowInlineSentToListener() throws Exception {
+		int port = SocketUtils.findAvailableServerSocket();
+		ByteArrayLengthHeaderSerializer serializer = new ByteArrayLengthHeaderSerializer();
+		final CountDownLatch errorLatch = new CountDownLatch(1);
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		AbstractServerConnectionFactory scf = getConnectionFactory(port, serializer, new TcpListener() {
+			@Override
+			public boolean onMessage(Message<?> message) {
+				if (message instanceof ErrorMessage) {
+					error.set(((ErrorMessage) message).getPayload());
+					errorLatch.countDown();
+				}
+				return false;
+			}
+		}, null, true);
+
+		CountDownLatch done = SocketTestUtils.testSendLengthOverflow(port);
+		assertTrue(errorLatch.await(10, TimeUnit.SECONDS));
+		assertTrue(error.get() instanceof IOException);
+		scf.stop();
+		done.countDown();
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testInlineFramingNotUsedWhenStreamDeserializationOverridden() throws Exception {
+		int port = SocketUtils.findAvailableServerSocket();
+		ByteArrayCrLfSerializer serializer = new ByteArrayCrLfSerializer() {
+
+			@Override
+			public byte[] deserialize(InputStream inputStream) throws IOException {
+				return new String(super.deserialize(inputStream)).toUpperCase().getBytes();
+			}
+
+		};
+		final List<Message<?>> responses = new ArrayList<Message<?>>();
+		final Semaphore semaphore = new Semaphore(0);
+		AbstractServerConnectionFactory scf = getConnectionFactory(port, serializer, new TcpListener() {
+			@Override
+			public boolean onMessage(Message<?> message) {
+				responses.add(message);
+				semaphore.release();
+				return false;
+			}
+		}, null, true);
+
+		CountDownLatch done = SocketTestUtils.testSendCrLf(port, null);
+		assertTrue(semaphore.tryAcquire(2, 10000, TimeUnit.MILLISECONDS));
+		assertEquals("Data", (SocketTestUtils.TEST_STRING + SocketTestUtils.TEST_STRING).toUpperCase(),
+				new String(((Message<byte[]>) responses.get(0)).getPayload()));
+		scf.stop();
+		done.countDown();
+	}
+
 	@Test
 	public void testReadLengthOverflow() throws Exception {
 		int port = SocketUtils.findAvailableServerSocket();
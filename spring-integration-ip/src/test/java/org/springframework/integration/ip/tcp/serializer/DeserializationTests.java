@@ -17,12 +17,16 @@
 package org.springframework.integration.ip.tcp.serializer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.util.concurrent.CountDownLatch;
 
 import javax.net.ServerSocketFactory;
@@ -31,6 +35,7 @@ import org.junit.Test;
 
 import org.springframework.core.serializer.DefaultDeserializer;
 import org.springframework.integration.ip.util.SocketTestUtils;
+import org.springframework.integration.mapping.MessageMappingException;
 import org.springframework.integration.test.util.SocketUtils;
 
 /**
@@ -242,6 +247,86 @@ public class DeserializationTests {
 		latch.countDown();
 	}
 
+	@Test
+	public void testByteBufferCrLf() throws Exception {
+		ByteArrayCrLfSerializer serializer = new ByteArrayCrLfSerializer();
+		ByteBuffer buffer = ByteBuffer.wrap("foo\r\nbar\r\nba".getBytes());
+		assertEquals("foo", new String(serializer.deserialize(buffer)));
+		assertEquals("bar", new String(serializer.deserialize(buffer)));
+		assertNull(serializer.deserialize(buffer));
+		assertEquals(10, buffer.position());
+		buffer = ByteBuffer.wrap("\r\n".getBytes());
+		assertEquals(0, serializer.deserialize(buffer).length);
+		assertFalse(buffer.hasRemaining());
+	}
+
+	@Test
+	public void testByteBufferCrLfOverflow() throws Exception {
+		ByteArrayCrLfSerializer serializer = new ByteArrayCrLfSerializer();
+		serializer.setMaxMessageSize(5);
+		assertEquals("foo", new String(serializer.deserialize(ByteBuffer.wrap("foo\r\n".getBytes()))));
+		try {
+			serializer.deserialize(ByteBuffer.wrap("fooo\r\n".getBytes()));
+			fail("Expected message length exceeded exception");
+		}
+		catch (IOException e) {
+			assertTrue(e.getMessage().startsWith("CRLF not found"));
+		}
+	}
+
+	@Test
+	public void testByteBufferLf() throws Exception {
+		ByteArrayLfSerializer serializer = new ByteArrayLfSerializer();
+		ByteBuffer buffer = ByteBuffer.wrap("foo\n\nba".getBytes());
+		assertEquals("foo", new String(serializer.deserialize(buffer)));
+		assertEquals(0, serializer.deserialize(buffer).length);
+		assertNull(serializer.deserialize(buffer));
+		assertEquals(5, buffer.position());
+	}
+
+	@Test
+	public void testByteBufferStxEtx() throws Exception {
+		ByteArrayStxEtxSerializer serializer = new ByteArrayStxEtxSerializer();
+		ByteBuffer buffer = ByteBuffer.wrap("\u0002foo\u0003\u0002ba".getBytes());
+		assertEquals("foo", new String(serializer.deserialize(buffer)));
+		assertNull(serializer.deserialize(buffer));
+		assertEquals(5, buffer.position());
+		try {
+			serializer.deserialize(ByteBuffer.wrap("foo\u0003".getBytes()));
+			fail("Expected MessageMappingException");
+		}
+		catch (MessageMappingException e) {
+			assertEquals("Expected STX to begin message", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testByteBufferLength() throws Exception {
+		ByteArrayLengthHeaderSerializer serializer = new ByteArrayLengthHeaderSerializer();
+		ByteBuffer buffer = ByteBuffer.allocate(20);
+		buffer.putInt(3).put("foo".getBytes()).putInt(3).put("ba".getBytes());
+		buffer.flip();
+		assertEquals("foo", new String(serializer.deserialize(buffer)));
+		assertNull(serializer.deserialize(buffer));
+		assertEquals(7, buffer.position());
+		buffer.limit(9);
+		assertNull(serializer.deserialize(buffer));
+		assertEquals(7, buffer.position());
+
+		serializer = new ByteArrayLengthHeaderSerializer(ByteArrayLengthHeaderSerializer.HEADER_SIZE_UNSIGNED_SHORT);
+		serializer.setMaxMessageSize(2);
+		buffer = ByteBuffer.allocate(5);
+		buffer.putShort((short) 3).put("foo".getBytes());
+		buffer.flip();
+		try {
+			serializer.deserialize(buffer);
+			fail("Expected message length exceeded exception");
+		}
+		catch (IOException e) {
+			assertTrue(e.getMessage().startsWith("Message length 3 exceeds max message length"));
+		}
+	}
+
     @Test
     public void canDeserializeMultipleSubsequentTerminators() throws IOException {
         byte terminator = (byte) '\n';
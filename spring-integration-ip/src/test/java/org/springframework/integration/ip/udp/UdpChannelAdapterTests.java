@@ -25,6 +25,7 @@ import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.Inet4Address;
 import java.net.InetSocketAddress;
+import java.util.Queue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -42,6 +43,7 @@ import org.springframework.integration.ip.IpHeaders;
 import org.springframework.integration.ip.util.SocketTestUtils;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.test.util.SocketUtils;
+import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.SubscribableChannel;
 
@@ -76,6 +78,40 @@ public class UdpChannelAdapterTests {
 		adapter.stop();
 	}
 
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testUnicastReceiverReusesPackets() throws Exception {
+		QueueChannel channel = new QueueChannel();
+		int port = SocketUtils.findAvailableUdpSocket();
+		UnicastReceivingChannelAdapter adapter = new UnicastReceivingChannelAdapter(port);
+		adapter.setOutputChannel(channel);
+		adapter.start();
+		SocketTestUtils.waitListening(adapter);
+
+		DatagramSocket datagramSocket = new DatagramSocket(SocketUtils.findAvailableUdpSocket());
+		int count = 50;
+		for (int i = 0; i < count; i++) {
+			// decreasing sizes, so stale data in a reused buffer would be visible
+			StringBuilder builder = new StringBuilder();
+			for (int j = 0; j < count - i; j++) {
+				builder.append((char) ('A' + j % 26));
+			}
+			byte[] bytes = builder.toString().getBytes();
+			DatagramPacket packet = new DatagramPacket(bytes, bytes.length, new InetSocketAddress("localhost", port));
+			datagramSocket.send(packet);
+			// don't overrun the receiver
+			Message<byte[]> receivedMessage = (Message<byte[]>) channel.receive(2000);
+			assertNotNull(receivedMessage);
+			assertEquals(builder.toString(), new String(receivedMessage.getPayload()));
+		}
+		datagramSocket.close();
+		Queue<?> idlePackets = TestUtils.getPropertyValue(adapter, "idlePackets", Queue.class);
+		// one packet is waiting for the next datagram; the others are idle
+		assertTrue(idlePackets.size() > 0);
+		assertTrue(idlePackets.size() < count);
+		adapter.stop();
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	public void testUnicastReceiverWithReply() throws Exception {
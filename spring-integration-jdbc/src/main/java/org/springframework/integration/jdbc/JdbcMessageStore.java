@@ -19,6 +19,7 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -45,6 +46,7 @@ import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageStore;
 import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.integration.util.UUIDConverter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementSetter;
@@ -321,24 +323,14 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 	}
 
 	@Override
-	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@SuppressWarnings("unchecked")
 	public <T> Message<T> addMessage(final Message<T> message) {
-		if (message.getHeaders().containsKey(SAVED_KEY)) {
-			Message<T> saved = (Message<T>) getMessage(message.getHeaders().getId());
-			if (saved != null) {
-				if (saved.equals(message)) {
-					return message;
-				} // We need to save it under its own id
-			}
+		if (this.isSaved(message)) {
+			return message;
 		}
 
 		final long createdDate = System.currentTimeMillis();
-		Message<T> result = this.getMessageBuilderFactory().fromMessage(message).setHeader(SAVED_KEY, Boolean.TRUE)
-				.setHeader(CREATED_DATE_KEY, new Long(createdDate)).build();
-
-		Map innerMap = (Map) new DirectFieldAccessor(result.getHeaders()).getPropertyValue("headers");
-		// using reflection to set ID since it is immutable through MessageHeaders
-		innerMap.put(MessageHeaders.ID, message.getHeaders().get(MessageHeaders.ID));
+		Message<T> result = (Message<T>) this.prepareForStore(message, createdDate);
 
 		final String messageId = getKey(result.getHeaders().getId());
 		final byte[] messageBytes = serializer.convert(result);
@@ -362,25 +354,7 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 	public MessageGroup addMessageToGroup(Object groupId, Message<?> message) {
 		final String groupKey = getKey(groupId);
 		final String messageId = getKey(message.getHeaders().getId());
-		boolean groupNotExist = jdbcTemplate.queryForObject(this.getQuery(Query.GROUP_EXISTS), Integer.class, groupKey, region) < 1;
-
-		final Timestamp updatedDate = new Timestamp(System.currentTimeMillis());
-
-		final Timestamp createdDate = groupNotExist ?
-				updatedDate :
-			    jdbcTemplate.queryForObject(getQuery(Query.GET_GROUP_CREATED_DATE), new Object[] { groupKey, region}, Timestamp.class);
-
-		if (groupNotExist){
-			try {
-				this.doCreateMessageGroup(groupKey, createdDate);
-			} catch (DuplicateKeyException e) {
-				logger.warn("Lost race to create group; attempting update instead", e);
-				this.doUpdateMessageGroup(groupKey, updatedDate);
-			}
-		}
-		else {
-			this.doUpdateMessageGroup(groupKey, updatedDate);
-		}
+		final Timestamp createdDate = this.createOrUpdateMessageGroup(groupKey);
 
 		this.addMessage(message);
 
@@ -399,6 +373,65 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 
 	}
 
+	/**
+	 * Creates (or updates) the group once, then inserts the messages that are not already
+	 * stored and the group-to-message rows, each with a single batch update.
+	 */
+	@Override
+	public void addMessagesToGroup(Object groupId, Collection<Message<?>> messages) {
+		if (messages.isEmpty()) {
+			return;
+		}
+		final String groupKey = getKey(groupId);
+		this.createOrUpdateMessageGroup(groupKey);
+
+		final Timestamp createdDate = new Timestamp(System.currentTimeMillis());
+		final List<String> messageIds = new ArrayList<String>(messages.size());
+		final List<String> newMessageIds = new ArrayList<String>(messages.size());
+		final List<byte[]> newMessageBytes = new ArrayList<byte[]>(messages.size());
+		for (Message<?> message : messages) {
+			String messageId = getKey(message.getHeaders().getId());
+			messageIds.add(messageId);
+			if (!this.isSaved(message)) {
+				newMessageIds.add(messageId);
+				newMessageBytes.add(serializer.convert(this.prepareForStore(message, createdDate.getTime())));
+			}
+		}
+		if (logger.isDebugEnabled()){
+			logger.debug("Inserting " + messageIds.size() + " messages in group with group key=" + groupKey);
+		}
+
+		if (!newMessageIds.isEmpty()) {
+			jdbcTemplate.batchUpdate(getQuery(Query.CREATE_MESSAGE), new BatchPreparedStatementSetter() {
+				@Override
+				public void setValues(PreparedStatement ps, int i) throws SQLException {
+					ps.setString(1, newMessageIds.get(i));
+					ps.setString(2, region);
+					ps.setTimestamp(3, createdDate);
+					lobHandler.getLobCreator().setBlobAsBytes(ps, 4, newMessageBytes.get(i));
+				}
+
+				@Override
+				public int getBatchSize() {
+					return newMessageIds.size();
+				}
+			});
+		}
+		jdbcTemplate.batchUpdate(getQuery(Query.CREATE_GROUP_TO_MESSAGE), new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				ps.setString(1, groupKey);
+				ps.setString(2, messageIds.get(i));
+				ps.setString(3, region);
+			}
+
+			@Override
+			public int getBatchSize() {
+				return messageIds.size();
+			}
+		});
+	}
+
 	@Override
 	@ManagedAttribute
 	public int getMessageGroupCount() {
@@ -484,6 +517,66 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 		return getMessageGroup(groupId);
 	}
 
+	@Override
+	public void removeMessagesFromGroup(Object groupId, Collection<Message<?>> messagesToRemove) {
+		final String groupKey = getKey(groupId);
+		final List<String> messageIds = new ArrayList<String>(messagesToRemove.size());
+		for (Message<?> message : messagesToRemove) {
+			messageIds.add(getKey(message.getHeaders().getId()));
+		}
+		if (messageIds.isEmpty()) {
+			return;
+		}
+		if (logger.isDebugEnabled()){
+			logger.debug("Removing " + messageIds.size() + " messages from group with group key=" + groupKey);
+		}
+
+		jdbcTemplate.batchUpdate(getQuery(Query.REMOVE_MESSAGE_FROM_GROUP), new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				ps.setString(1, groupKey);
+				ps.setString(2, messageIds.get(i));
+				ps.setString(3, region);
+			}
+
+			@Override
+			public int getBatchSize() {
+				return messageIds.size();
+			}
+		});
+		jdbcTemplate.batchUpdate(getQuery(Query.DELETE_MESSAGE), new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				ps.setString(1, messageIds.get(i));
+				ps.setString(2, region);
+			}
+
+			@Override
+			public int getBatchSize() {
+				return messageIds.size();
+			}
+		});
+		this.updateMessageGroup(groupKey);
+	}
+
+	/**
+	 * Maps and passes the messages of the group to the callback one row at a time,
+	 * while the query result is read, rather than building the group first.
+	 */
+	@Override
+	public void streamMessagesForGroup(Object groupId, final MessageCallback callback) {
+		jdbcTemplate.query(getQuery(Query.LIST_MESSAGES_BY_GROUP_KEY), new Object[] { getKey(groupId), region },
+				new RowCallbackHandler() {
+
+					private int rowNum;
+
+					@Override
+					public void processRow(ResultSet rs) throws SQLException {
+						callback.execute(mapper.mapRow(rs, this.rowNum++));
+					}
+				});
+	}
+
 	@Override
 	public void removeMessageGroup(Object groupId) {
 
@@ -636,6 +729,55 @@ public class JdbcMessageStore extends AbstractMessageGroupStore implements Messa
 		return null;
 	}
 
+	/**
+	 * @return true if the message has already been stored by this store, unchanged.
+	 */
+	private boolean isSaved(Message<?> message) {
+		if (message.getHeaders().containsKey(SAVED_KEY)) {
+			Message<?> saved = getMessage(message.getHeaders().getId());
+			// otherwise we need to save it under its own id
+			return saved != null && saved.equals(message);
+		}
+		return false;
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private Message<?> prepareForStore(Message<?> message, long createdDate) {
+		Message<?> result = this.getMessageBuilderFactory().fromMessage(message).setHeader(SAVED_KEY, Boolean.TRUE)
+				.setHeader(CREATED_DATE_KEY, new Long(createdDate)).build();
+
+		Map innerMap = (Map) new DirectFieldAccessor(result.getHeaders()).getPropertyValue("headers");
+		// using reflection to set ID since it is immutable through MessageHeaders
+		innerMap.put(MessageHeaders.ID, message.getHeaders().get(MessageHeaders.ID));
+		return result;
+	}
+
+	/**
+	 * @return the created date of the group.
+	 */
+	private Timestamp createOrUpdateMessageGroup(String groupKey) {
+		boolean groupNotExist = jdbcTemplate.queryForObject(this.getQuery(Query.GROUP_EXISTS), Integer.class, groupKey, region) < 1;
+
+		final Timestamp updatedDate = new Timestamp(System.currentTimeMillis());
+
+		final Timestamp createdDate = groupNotExist ?
+				updatedDate :
+			    jdbcTemplate.queryForObject(getQuery(Query.GET_GROUP_CREATED_DATE), new Object[] { groupKey, region}, Timestamp.class);
+
+		if (groupNotExist){
+			try {
+				this.doCreateMessageGroup(groupKey, createdDate);
+			} catch (DuplicateKeyException e) {
+				logger.warn("Lost race to create group; attempting update instead", e);
+				this.doUpdateMessageGroup(groupKey, updatedDate);
+			}
+		}
+		else {
+			this.doUpdateMessageGroup(groupKey, updatedDate);
+		}
+		return createdDate;
+	}
+
 	private void doCreateMessageGroup(final String groupKey, final Timestamp createdDate){
 		jdbcTemplate.update(getQuery(Query.CREATE_MESSAGE_GROUP), new PreparedStatementSetter() {
 			@Override
@@ -16,16 +16,18 @@ package org.springframework.integration.jdbc.store;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.sql.DataSource;
 
@@ -38,7 +40,9 @@ import org.springframework.core.serializer.Deserializer;
 import org.springframework.core.serializer.Serializer;
 import org.springframework.core.serializer.support.DeserializingConverter;
 import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.integration.jdbc.JdbcMessageStore;
+import org.springframework.integration.jdbc.store.channel.BatchPollingChannelMessageStoreQueryProvider;
 import org.springframework.integration.jdbc.store.channel.ChannelMessageStoreQueryProvider;
 import org.springframework.integration.jdbc.store.channel.DerbyChannelMessageStoreQueryProvider;
 import org.springframework.integration.jdbc.store.channel.MessageRowMapper;
@@ -53,6 +57,7 @@ import org.springframework.integration.store.MessageStore;
 import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.integration.transaction.TransactionSynchronizationFactory;
 import org.springframework.integration.util.UUIDConverter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcOperations;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementSetter;
@@ -65,6 +70,8 @@ import org.springframework.jmx.export.annotation.ManagedMetric;
 import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -95,13 +102,7 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore
 
 	private static final Log logger = LogFactory.getLog(JdbcChannelMessageStore.class);
 
-	private final Set<String> idCache = new HashSet<String>();
-
-	private final ReadWriteLock idCacheLock = new ReentrantReadWriteLock();
-
-	private final Lock idCacheReadLock = idCacheLock.readLock();
-
-	private final Lock idCacheWriteLock = idCacheLock.writeLock();
+	private final Set<String> idCache = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
 	/**
 	 * Default value for the table prefix property.
@@ -148,6 +149,10 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore
 
 	private boolean usingIdCache = false;
 
+	private volatile int pollBatchSize = 1;
+
+	private volatile JdbcTemplate batchJdbcTemplate;
+
 	/**
 	 * Convenient constructor for configuration use.
 	 */
@@ -355,6 +360,41 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore
 		this.usingIdCache = usingIdCache;
 	}
 
+	/**
+	 * <p>The maximum number of messages selected from the database by a single poll
+	 * query. Defaults to <code>1</code>, in which case each
+	 * {@link #pollMessageFromGroup(Object)} selects and deletes one message.</p>
+	 *
+	 * <p>When greater than <code>1</code>, and the poll runs in a transaction (with
+	 * transaction synchronization active), the first poll for a channel selects up to
+	 * this number of the oldest messages using
+	 * {@link BatchPollingChannelMessageStoreQueryProvider#getPollFromGroupBatchQuery()}.
+	 * Subsequent polls in the same transaction hand out these messages without accessing
+	 * the database, and the messages that were handed out are deleted with one batched
+	 * statement before the transaction commits (or before the next batch is selected).
+	 * Messages that were selected but not handed out remain in the database, so nothing
+	 * is lost on rollback or if the application terminates. Outside of a transaction,
+	 * each poll selects and deletes one message, as if this property was <code>1</code>.
+	 * A transactional poller starts one transaction per message unless it is configured
+	 * to advise the entire poll (see
+	 * {@link org.springframework.integration.endpoint.AbstractPollingEndpoint#setAdviseEntirePoll(boolean)}),
+	 * in which case the messages of one poll share a batch.</p>
+	 *
+	 * <p>The {@link #setChannelMessageStoreQueryProvider(ChannelMessageStoreQueryProvider)
+	 * query provider} must be a {@link BatchPollingChannelMessageStoreQueryProvider}, and
+	 * the {@link #setUsingIdCache(boolean) id cache} cannot be used in this mode. With a
+	 * database whose batch query does not lock the selected rows, concurrent consumers may
+	 * select the same message; the transaction that fails to delete it is rolled back with
+	 * a {@link ConcurrencyFailureException}.</p>
+	 *
+	 * @param pollBatchSize The maximum number of messages per poll query.
+	 * @since 4.0
+	 */
+	public void setPollBatchSize(int pollBatchSize) {
+		Assert.isTrue(pollBatchSize > 0, "'pollBatchSize' must be greater than 0.");
+		this.pollBatchSize = pollBatchSize;
+	}
+
 	/**
 	 * Check mandatory properties ({@link DataSource} and
 	 * {@link #setChannelMessageStoreQueryProvider(ChannelMessageStoreQueryProvider)}). If no {@link MessageRowMapper} was
@@ -382,6 +422,10 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore
 			logger.warn("The jdbcTemplate's fetchsize is not 1 but %s. This may cause FIFO issues with Oracle databases.");
 		}
 
+		if (this.pollBatchSize > 1) {
+			this.assertBatchPollingSupported();
+		}
+
 	}
 
 	/**
@@ -456,22 +500,19 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore
 
 		final String query;
 
-		final List<Message<?>> messages;
+		// a snapshot, so that the number of ids cannot change while the query is prepared
+		final List<String> excludeIds = this.usingIdCache
+				? new ArrayList<String>(this.idCache) : Collections.<String>emptyList();
 
-		this.idCacheReadLock.lock();
-		try {
-			if (this.usingIdCache && !this.idCache.isEmpty()) {
-				query = getQuery(this.channelMessageStoreQueryProvider.getPollFromGroupExcludeIdsQuery());
-				parameters.addValue("message_ids", idCache);
-			} else {
-				query = getQuery(this.channelMessageStoreQueryProvider.getPollFromGroupQuery());
-			}
-			messages = namedParameterJdbcTemplate.query(query, parameters, messageRowMapper);
+		if (!excludeIds.isEmpty()) {
+			query = getQuery(this.channelMessageStoreQueryProvider.getPollFromGroupExcludeIdsQuery());
+			parameters.addValue("message_ids", excludeIds);
 		}
-		finally {
-			this.idCacheReadLock.unlock();
+		else {
+			query = getQuery(this.channelMessageStoreQueryProvider.getPollFromGroupQuery());
 		}
 
+		final List<Message<?>> messages = namedParameterJdbcTemplate.query(query, parameters, messageRowMapper);
 
 		Assert.isTrue(messages.size() == 0 || messages.size() == 1);
 		if (messages.size() > 0){
@@ -480,16 +521,10 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore
 			final String messageId = message.getHeaders().getId().toString();
 
 			if (this.usingIdCache) {
-				this.idCacheWriteLock.lock();
-				try {
-					boolean added = this.idCache.add(messageId);
+				boolean added = this.idCache.add(messageId);
 
-					if (logger.isDebugEnabled()) {
-						logger.debug(String.format("Polled message with id '%s' added: '%s'.", messageId, added));
-					}
-				}
-				finally {
-					this.idCacheWriteLock.unlock();
+				if (logger.isDebugEnabled()) {
+					logger.debug(String.format("Polled message with id '%s' added: '%s'.", messageId, added));
 				}
 			}
 
@@ -498,6 +533,155 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore
 		return null;
 	}
 
+	/**
+	 * This method executes a call to the DB to get up to {@link #setPollBatchSize(int)
+	 * pollBatchSize} of the oldest Messages in the MessageGroup (channel). The messages
+	 * are not deleted.
+	 *
+	 * @param groupIdKey String representation of message group (Channel) ID
+	 * @param batchSize The maximum number of messages to select.
+	 * @return the messages, oldest first; may be empty
+	 * @since 4.0
+	 */
+	protected List<Message<?>> doPollForMessages(String groupIdKey, int batchSize) {
+
+		final NamedParameterJdbcTemplate namedParameterJdbcTemplate =
+				new NamedParameterJdbcTemplate(this.getBatchJdbcTemplate(batchSize));
+		final MapSqlParameterSource parameters = new MapSqlParameterSource();
+
+		parameters.addValue("region", region);
+		parameters.addValue("group_key", groupIdKey);
+		parameters.addValue("batch_size", batchSize);
+
+		return namedParameterJdbcTemplate.query(
+				getQuery(this.assertBatchPollingSupported().getPollFromGroupBatchQuery()), parameters,
+				messageRowMapper);
+	}
+
+	/**
+	 * Delete the messages with a single batched statement.
+	 *
+	 * @param groupIdKey String representation of message group (Channel) ID
+	 * @param messages The messages to delete.
+	 * @throws ConcurrencyFailureException if a message was already deleted.
+	 * @since 4.0
+	 */
+	protected void doRemoveMessages(final String groupIdKey, final List<Message<?>> messages) {
+		if (messages.isEmpty()) {
+			return;
+		}
+		int[] updated = this.jdbcTemplate.batchUpdate(getQuery(channelMessageStoreQueryProvider.getDeleteMessageQuery()),
+				new BatchPreparedStatementSetter() {
+
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						ps.setString(1, getKey(messages.get(i).getHeaders().getId()));
+						ps.setString(2, groupIdKey);
+						ps.setString(3, region);
+					}
+
+					@Override
+					public int getBatchSize() {
+						return messages.size();
+					}
+
+				});
+
+		for (int i = 0; i < messages.size(); i++) {
+			UUID id = messages.get(i).getHeaders().getId();
+			// a concurrent poll may have claimed the message (if the query did not lock it)
+			if (updated[i] == 0) {
+				throw new ConcurrencyFailureException(String.format("Message with id '%s' was not deleted.", id));
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug(String.format("Message with id '%s' was deleted.", id));
+			}
+		}
+		messages.clear();
+	}
+
+	private Message<?> pollFromBatch(String groupIdKey) {
+		Assert.state(!this.usingIdCache, "The id cache cannot be used with a 'pollBatchSize' greater than 1.");
+		PollBatch batch = this.getPollBatch(groupIdKey);
+		if (batch.claimed.isEmpty()) {
+			// the messages handed out so far must be deleted before they can be selected again
+			this.doRemoveMessages(groupIdKey, batch.polled);
+			batch.claimed.addAll(this.doPollForMessages(groupIdKey, this.pollBatchSize));
+		}
+		Message<?> message = batch.claimed.poll();
+		if (message != null) {
+			batch.polled.add(message);
+		}
+		return message;
+	}
+
+	private PollBatch getPollBatch(final String groupIdKey) {
+		@SuppressWarnings("unchecked")
+		Map<String, PollBatch> batches = (Map<String, PollBatch>) TransactionSynchronizationManager.getResource(this);
+		if (batches == null) {
+			final Map<String, PollBatch> newBatches = new HashMap<String, PollBatch>();
+			TransactionSynchronizationManager.bindResource(this, newBatches);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+				@Override
+				public void suspend() {
+					TransactionSynchronizationManager.unbindResource(JdbcChannelMessageStore.this);
+				}
+
+				@Override
+				public void resume() {
+					TransactionSynchronizationManager.bindResource(JdbcChannelMessageStore.this, newBatches);
+				}
+
+				@Override
+				public void beforeCommit(boolean readOnly) {
+					for (Entry<String, PollBatch> entry : newBatches.entrySet()) {
+						doRemoveMessages(entry.getKey(), entry.getValue().polled);
+					}
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(JdbcChannelMessageStore.this);
+				}
+
+			});
+			batches = newBatches;
+		}
+		PollBatch batch = batches.get(groupIdKey);
+		if (batch == null) {
+			batch = new PollBatch();
+			batches.put(groupIdKey, batch);
+		}
+		return batch;
+	}
+
+	private PollBatch getCurrentPollBatch(String groupIdKey) {
+		@SuppressWarnings("unchecked")
+		Map<String, PollBatch> batches = (Map<String, PollBatch>) TransactionSynchronizationManager.getResource(this);
+		return batches == null ? null : batches.get(groupIdKey);
+	}
+
+	private BatchPollingChannelMessageStoreQueryProvider assertBatchPollingSupported() {
+		Assert.state(this.channelMessageStoreQueryProvider instanceof BatchPollingChannelMessageStoreQueryProvider,
+				"A 'pollBatchSize' greater than 1 requires a BatchPollingChannelMessageStoreQueryProvider.");
+		return (BatchPollingChannelMessageStoreQueryProvider) this.channelMessageStoreQueryProvider;
+	}
+
+	private JdbcTemplate getBatchJdbcTemplate(int batchSize) {
+		JdbcTemplate batchJdbcTemplate = this.batchJdbcTemplate;
+		if (batchJdbcTemplate == null || batchJdbcTemplate.getMaxRows() != batchSize) {
+			batchJdbcTemplate = new JdbcTemplate(this.jdbcTemplate.getDataSource());
+			batchJdbcTemplate.setFetchSize(batchSize);
+			batchJdbcTemplate.setMaxRows(batchSize);
+			batchJdbcTemplate.setQueryTimeout(this.jdbcTemplate.getQueryTimeout());
+			batchJdbcTemplate.setExceptionTranslator(this.jdbcTemplate.getExceptionTranslator());
+			batchJdbcTemplate.afterPropertiesSet();
+			this.batchJdbcTemplate = batchJdbcTemplate;
+		}
+		return batchJdbcTemplate;
+	}
+
 	/**
 	 * Helper method that converts the channel id to a UUID using
 	 * {@link UUIDConverter#getUUID(Object)}.
@@ -581,7 +765,9 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore
 
 	/**
 	 * Returns the number of messages persisted for the specified channel id (groupId)
-	 * and the specified region ({@link #setRegion(String)}).
+	 * and the specified region ({@link #setRegion(String)}), excluding any messages
+	 * already polled by the current transaction but not yet deleted
+	 * ({@link #setPollBatchSize(int)}).
 	 *
 	 * @return The message group size.
 	 */
@@ -589,8 +775,10 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore
 	@ManagedAttribute
 	public int messageGroupSize(Object groupId) {
 		final String key = getKey(groupId);
-		return jdbcTemplate.queryForObject(getQuery(channelMessageStoreQueryProvider.getCountAllMessagesInGroupQuery()),
+		int size = jdbcTemplate.queryForObject(getQuery(channelMessageStoreQueryProvider.getCountAllMessagesInGroupQuery()),
 				Integer.class, key, this.region);
+		PollBatch batch = this.getCurrentPollBatch(key);
+		return batch == null ? size : size - batch.polled.size();
 	}
 
 	/**
@@ -601,6 +789,12 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore
 	public Message<?> pollMessageFromGroup(Object groupId) {
 
 		final String key = getKey(groupId);
+
+		if (this.pollBatchSize > 1 && TransactionSynchronizationManager.isActualTransactionActive()
+				&& TransactionSynchronizationManager.isSynchronizationActive()) {
+			return this.pollFromBatch(key);
+		}
+
 		final Message<?> polledMessage = this.doPollForMessage(key);
 
 		if (polledMessage != null){
@@ -658,13 +852,7 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore
 		if (logger.isDebugEnabled()) {
 			logger.debug("Removing Message Id:" + messageId);
 		}
-		this.idCacheWriteLock.lock();
-		try {
-			this.idCache.remove(messageId);
-		}
-		finally {
-			this.idCacheWriteLock.unlock();
-		}
+		this.idCache.remove(messageId);
 	}
 
 	/**
@@ -686,6 +874,12 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore
 
 		final String groupKey = getKey(groupId);
 
+		PollBatch batch = this.getCurrentPollBatch(groupKey);
+		if (batch != null) {
+			batch.claimed.clear();
+			batch.polled.clear();
+		}
+
 		jdbcTemplate.update(getQuery(channelMessageStoreQueryProvider.getDeleteMessageGroupQuery()), new PreparedStatementSetter() {
 			@Override
 			public void setValues(PreparedStatement ps) throws SQLException {
@@ -699,4 +893,15 @@ public class JdbcChannelMessageStore extends AbstractMessageGroupStore
 
 	}
 
+	/**
+	 * The messages of a channel selected by a batch poll in the current transaction.
+	 */
+	private static class PollBatch {
+
+		private final Queue<Message<?>> claimed = new LinkedList<Message<?>>();
+
+		private final List<Message<?>> polled = new ArrayList<Message<?>>();
+
+	}
+
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.integration.jdbc.store.channel;
+
+import org.springframework.integration.jdbc.store.JdbcChannelMessageStore;
+
+/**
+ * A {@link ChannelMessageStoreQueryProvider} that also provides the query needed
+ * by the {@link JdbcChannelMessageStore} to poll messages in batches.
+ *
+ * @since 4.0
+ * @see JdbcChannelMessageStore#setPollBatchSize(int)
+ */
+public interface BatchPollingChannelMessageStoreQueryProvider extends ChannelMessageStoreQueryProvider {
+
+	/**
+	 * Get the query used to retrieve the oldest messages for a channel, up to
+	 * the number given by the <code>:batch_size</code> parameter. Where the
+	 * database supports it, the query should lock the selected rows and skip
+	 * rows that are already locked by other transactions.
+	 *
+	 * @return Sql Query
+	 */
+	String getPollFromGroupBatchQuery();
+
+}
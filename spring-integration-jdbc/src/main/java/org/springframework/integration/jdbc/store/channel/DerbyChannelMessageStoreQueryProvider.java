@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -18,7 +18,8 @@ package org.springframework.integration.jdbc.store.channel;
  *
  * https://blogs.oracle.com/kah/entry/derby_10_5_preview_fetch
  */
-public class DerbyChannelMessageStoreQueryProvider extends AbstractChannelMessageStoreQueryProvider {
+public class DerbyChannelMessageStoreQueryProvider extends AbstractChannelMessageStoreQueryProvider
+		implements BatchPollingChannelMessageStoreQueryProvider {
 
 	@Override
 	public String getPollFromGroupExcludeIdsQuery() {
@@ -34,4 +35,15 @@ public class DerbyChannelMessageStoreQueryProvider extends AbstractChannelMessag
 				"order by CREATED_DATE ASC FETCH FIRST ROW ONLY";
 	}
 
+	/**
+	 * The number of rows fetched is limited by the maxRows property of the
+	 * <code>JdbcTemplate</code> used for batch polling.
+	 */
+	@Override
+	public String getPollFromGroupBatchQuery() {
+		return "SELECT %PREFIX%CHANNEL_MESSAGE.MESSAGE_ID, %PREFIX%CHANNEL_MESSAGE.MESSAGE_BYTES from %PREFIX%CHANNEL_MESSAGE " +
+				"where %PREFIX%CHANNEL_MESSAGE.GROUP_KEY = :group_key and %PREFIX%CHANNEL_MESSAGE.REGION = :region " +
+				"order by CREATED_DATE ASC";
+	}
+
 }
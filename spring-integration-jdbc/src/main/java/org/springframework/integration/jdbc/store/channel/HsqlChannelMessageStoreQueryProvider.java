@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -17,7 +17,8 @@ package org.springframework.integration.jdbc.store.channel;
  * @since 2.2
  *
  */
-public class HsqlChannelMessageStoreQueryProvider extends AbstractChannelMessageStoreQueryProvider {
+public class HsqlChannelMessageStoreQueryProvider extends AbstractChannelMessageStoreQueryProvider
+		implements BatchPollingChannelMessageStoreQueryProvider {
 
 	@Override
 	public String getPollFromGroupExcludeIdsQuery() {
@@ -33,4 +34,11 @@ public class HsqlChannelMessageStoreQueryProvider extends AbstractChannelMessage
 				"order by CREATED_DATE ASC LIMIT 1";
 	}
 
+	@Override
+	public String getPollFromGroupBatchQuery() {
+		return "SELECT %PREFIX%CHANNEL_MESSAGE.MESSAGE_ID, %PREFIX%CHANNEL_MESSAGE.MESSAGE_BYTES from %PREFIX%CHANNEL_MESSAGE " +
+				"where %PREFIX%CHANNEL_MESSAGE.GROUP_KEY = :group_key and %PREFIX%CHANNEL_MESSAGE.REGION = :region " +
+				"order by CREATED_DATE ASC LIMIT :batch_size";
+	}
+
 }
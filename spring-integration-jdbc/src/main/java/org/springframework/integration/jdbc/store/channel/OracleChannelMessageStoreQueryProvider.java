@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -24,7 +24,8 @@ import org.springframework.jdbc.core.JdbcTemplate;
  * @author Gunnar Hillert
  * @since 2.2
  */
-public class OracleChannelMessageStoreQueryProvider extends AbstractChannelMessageStoreQueryProvider {
+public class OracleChannelMessageStoreQueryProvider extends AbstractChannelMessageStoreQueryProvider
+		implements BatchPollingChannelMessageStoreQueryProvider {
 
 	@Override
 	public String getPollFromGroupExcludeIdsQuery() {
@@ -41,4 +42,15 @@ public class OracleChannelMessageStoreQueryProvider extends AbstractChannelMessa
 				"order by CREATED_DATE ASC FOR UPDATE SKIP LOCKED";
 	}
 
+	/**
+	 * Selects all messages of the channel; the number of rows fetched is limited by the maxRows
+	 * property of the {@link JdbcTemplate} used for batch polling.
+	 */
+	@Override
+	public String getPollFromGroupBatchQuery() {
+		return "SELECT %PREFIX%CHANNEL_MESSAGE.MESSAGE_ID, %PREFIX%CHANNEL_MESSAGE.MESSAGE_BYTES from %PREFIX%CHANNEL_MESSAGE " +
+				"where %PREFIX%CHANNEL_MESSAGE.GROUP_KEY = :group_key and %PREFIX%CHANNEL_MESSAGE.REGION = :region " +
+				"order by CREATED_DATE ASC FOR UPDATE SKIP LOCKED";
+	}
+
 }
@@ -30,6 +30,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
 
@@ -246,6 +249,65 @@ public class JdbcMessageStoreTests {
 		assertEquals(0, group.size());
 	}
 
+	@Test
+	@Transactional
+	public void testRemoveMessagesFromMessageGroup() throws Exception {
+		String groupId = "X";
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		for (int i = 0; i < 5; i++) {
+			Message<String> message = MessageBuilder.withPayload("foo" + i).setCorrelationId(groupId).build();
+			messageStore.addMessageToGroup(groupId, message);
+			messages.add(message);
+		}
+		messageStore.removeMessagesFromGroup(groupId, messages.subList(0, 3));
+		MessageGroup group = messageStore.getMessageGroup(groupId);
+		assertEquals(2, group.size());
+		assertNull(messageStore.getMessage(messages.get(0).getHeaders().getId()));
+		assertNotNull(messageStore.getMessage(messages.get(4).getHeaders().getId()));
+	}
+
+	@Test
+	@Transactional
+	public void testAddMessagesToMessageGroup() throws Exception {
+		String groupId = "X";
+		Message<String> first = MessageBuilder.withPayload("foo").setCorrelationId(groupId).build();
+		messageStore.addMessageToGroup(groupId, first);
+		MessageGroup group = messageStore.getMessageGroup(groupId);
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		for (int i = 0; i < 3; i++) {
+			messages.add(MessageBuilder.withPayload("foo" + i).setCorrelationId(groupId).build());
+		}
+		// a message that has already been stored is only added to the group
+		Message<?> saved = messageStore.getMessage(first.getHeaders().getId());
+		messageStore.addMessagesToGroup("Y", Arrays.<Message<?>>asList(saved));
+		messageStore.addMessagesToGroup(groupId, messages);
+		MessageGroup updated = messageStore.getMessageGroup(groupId);
+		assertEquals(4, updated.size());
+		assertEquals(group.getTimestamp(), updated.getTimestamp());
+		assertNotNull(messageStore.getMessage(messages.get(2).getHeaders().getId()));
+		assertEquals(1, messageStore.getMessageGroup("Y").size());
+		assertEquals(4, messageStore.getMessageCount());
+	}
+
+	@Test
+	@Transactional
+	public void testStreamMessagesForGroup() throws Exception {
+		String groupId = "X";
+		for (int i = 0; i < 3; i++) {
+			messageStore.addMessageToGroup(groupId, MessageBuilder.withPayload("foo" + i).build());
+		}
+		final List<Object> payloads = new ArrayList<Object>();
+		messageStore.streamMessagesForGroup(groupId, new MessageGroupStore.MessageCallback() {
+
+			@Override
+			public void execute(Message<?> message) {
+				payloads.add(message.getPayload());
+			}
+		});
+		assertEquals(3, payloads.size());
+		assertTrue(payloads.containsAll(Arrays.asList("foo0", "foo1", "foo2")));
+	}
+
 	@Test
 	@Transactional
 	public void testRemoveMessageGroup() throws Exception {
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,21 +17,55 @@
 package org.springframework.integration.jdbc.store.channel;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.sql.DataSource;
 
+import org.aopalliance.aop.Advice;
+
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.Message;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.endpoint.PollingConsumer;
 import org.springframework.integration.jdbc.store.JdbcChannelMessageStore;
+import org.springframework.integration.store.MessageGroupQueue;
 import org.springframework.integration.support.MessageBuilder;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessagingException;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.interceptor.MatchAlwaysTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
 import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ErrorHandler;
 
 /**
  * @author Gunnar Hillert
@@ -90,4 +124,224 @@ public class AbstractJdbcChannelMessageStoreTests {
 		assertNotNull(messageFromDb.getHeaders().get(JdbcChannelMessageStore.CREATED_DATE_KEY));
 	}
 
+	public void testBatchPoll() throws Exception {
+		final JdbcChannelMessageStore batchStore = this.createBatchStore();
+		final Set<UUID> ids = this.addMessages(5);
+
+		final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setIsolationLevel(Isolation.READ_COMMITTED.value());
+		transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				// more than one batch
+				for (int i = 0; i < 4; i++) {
+					Message<?> messageFromDb = batchStore.pollMessageFromGroup(TEST_MESSAGE_GROUP);
+					assertNotNull(messageFromDb);
+					assertTrue(ids.remove(messageFromDb.getHeaders().getId()));
+				}
+				assertEquals(1, batchStore.messageGroupSize(TEST_MESSAGE_GROUP));
+			}
+		});
+
+		assertEquals(1, messageStore.messageGroupSize(TEST_MESSAGE_GROUP));
+
+		// outside of a transaction, messages are polled one by one
+		Message<?> messageFromDb = batchStore.pollMessageFromGroup(TEST_MESSAGE_GROUP);
+		assertNotNull(messageFromDb);
+		assertTrue(ids.remove(messageFromDb.getHeaders().getId()));
+		assertNull(batchStore.pollMessageFromGroup(TEST_MESSAGE_GROUP));
+		assertEquals(0, messageStore.messageGroupSize(TEST_MESSAGE_GROUP));
+	}
+
+	public void testBatchPollRollback() throws Exception {
+		final JdbcChannelMessageStore batchStore = this.createBatchStore();
+		final Set<UUID> ids = this.addMessages(5);
+
+		final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setIsolationLevel(Isolation.READ_COMMITTED.value());
+		transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				for (int i = 0; i < 4; i++) {
+					assertNotNull(batchStore.pollMessageFromGroup(TEST_MESSAGE_GROUP));
+				}
+				status.setRollbackOnly();
+			}
+		});
+
+		// all the messages are still in the database
+		assertEquals(5, messageStore.messageGroupSize(TEST_MESSAGE_GROUP));
+
+		transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+			@Override
+			protected void doInTransactionWithoutResult(TransactionStatus status) {
+				for (int i = 0; i < 5; i++) {
+					Message<?> messageFromDb = batchStore.pollMessageFromGroup(TEST_MESSAGE_GROUP);
+					assertNotNull(messageFromDb);
+					assertTrue(ids.remove(messageFromDb.getHeaders().getId()));
+				}
+				assertNull(batchStore.pollMessageFromGroup(TEST_MESSAGE_GROUP));
+			}
+		});
+
+		assertEquals(0, messageStore.messageGroupSize(TEST_MESSAGE_GROUP));
+	}
+
+	public void testBatchPollWithPollingConsumer() throws Exception {
+		final Set<UUID> ids = this.addMessages(6);
+		CountingDataSource countingDataSource = new CountingDataSource(this.dataSource);
+		final Set<UUID> received = Collections.synchronizedSet(new HashSet<UUID>());
+		MessageHandler handler = new MessageHandler() {
+			@Override
+			public void handleMessage(Message<?> message) throws MessagingException {
+				received.add(message.getHeaders().getId());
+			}
+		};
+
+		assertFalse(this.pollOnce(countingDataSource, handler));
+
+		// two batch selects and two batched deletes instead of six selects and six deletes
+		assertEquals(4, countingDataSource.statements.get());
+		assertEquals(ids, received);
+		assertEquals(0, messageStore.messageGroupSize(TEST_MESSAGE_GROUP));
+	}
+
+	public void testBatchPollWithPollingConsumerRollback() throws Exception {
+		this.addMessages(6);
+		final AtomicInteger handled = new AtomicInteger();
+		MessageHandler handler = new MessageHandler() {
+			@Override
+			public void handleMessage(Message<?> message) throws MessagingException {
+				if (handled.incrementAndGet() == 5) {
+					throw new MessagingException(message, "intentional test failure");
+				}
+			}
+		};
+
+		assertTrue(this.pollOnce(new CountingDataSource(this.dataSource), handler));
+
+		// the failure rolled back the entire poll
+		assertEquals(5, handled.get());
+		assertEquals(6, messageStore.messageGroupSize(TEST_MESSAGE_GROUP));
+	}
+
+	/**
+	 * Run a single poll of a transactional {@link PollingConsumer} that advises the
+	 * entire poll, consuming up to 6 messages from a batch store.
+	 * @return true if the poll failed.
+	 */
+	private boolean pollOnce(DataSource dataSource, MessageHandler handler) throws Exception {
+		JdbcChannelMessageStore batchStore = this.createBatchStore(dataSource);
+		QueueChannel channel = new QueueChannel(new MessageGroupQueue(batchStore, TEST_MESSAGE_GROUP));
+
+		TransactionInterceptor txAdvice = new TransactionInterceptor(new DataSourceTransactionManager(dataSource),
+				new MatchAlwaysTransactionAttributeSource());
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.afterPropertiesSet();
+		final AtomicBoolean failed = new AtomicBoolean();
+		OnceTrigger trigger = new OnceTrigger();
+
+		PollingConsumer consumer = new PollingConsumer(channel, handler);
+		consumer.setTaskScheduler(taskScheduler);
+		consumer.setTrigger(trigger);
+		consumer.setErrorHandler(new ErrorHandler() {
+			@Override
+			public void handleError(Throwable t) {
+				failed.set(true);
+			}
+		});
+		consumer.setReceiveTimeout(0);
+		consumer.setMaxMessagesPerPoll(6);
+		consumer.setAdviceChain(Collections.<Advice>singletonList(txAdvice));
+		consumer.setAdviseEntirePoll(true);
+		consumer.setBeanFactory(new DefaultListableBeanFactory());
+		consumer.afterPropertiesSet();
+		try {
+			consumer.start();
+			assertTrue(trigger.latch.await(10, TimeUnit.SECONDS));
+			consumer.stop();
+		}
+		finally {
+			taskScheduler.destroy();
+		}
+		return failed.get();
+	}
+
+	private JdbcChannelMessageStore createBatchStore() throws Exception {
+		return this.createBatchStore(this.dataSource);
+	}
+
+	private JdbcChannelMessageStore createBatchStore(DataSource dataSource) throws Exception {
+		JdbcChannelMessageStore batchStore = new JdbcChannelMessageStore(dataSource);
+		batchStore.setRegion("AbstractJdbcChannelMessageStoreTests");
+		batchStore.setChannelMessageStoreQueryProvider(queryProvider);
+		batchStore.setPollBatchSize(3);
+		batchStore.afterPropertiesSet();
+		return batchStore;
+	}
+
+	private Set<UUID> addMessages(int count) {
+		Set<UUID> ids = new HashSet<UUID>();
+		for (int i = 0; i < count; i++) {
+			Message<String> message = MessageBuilder.withPayload("Kenny " + i).build();
+			messageStore.addMessageToGroup(TEST_MESSAGE_GROUP, message);
+			ids.add(message.getHeaders().getId());
+		}
+		return ids;
+	}
+
+	/**
+	 * Counts the statements prepared on its connections.
+	 */
+	private static class CountingDataSource extends DelegatingDataSource {
+
+		private final AtomicInteger statements = new AtomicInteger();
+
+		public CountingDataSource(DataSource targetDataSource) {
+			super(targetDataSource);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			final Connection connection = super.getConnection();
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+					new InvocationHandler() {
+						@Override
+						public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+							if (method.getName().startsWith("prepare")) {
+								statements.incrementAndGet();
+							}
+							try {
+								return method.invoke(connection, args);
+							}
+							catch (InvocationTargetException e) {
+								throw e.getTargetException();
+							}
+						}
+					});
+		}
+
+	}
+
+	/**
+	 * Fires once, then releases the latch when the poll has completed.
+	 */
+	private static class OnceTrigger implements Trigger {
+
+		private final CountDownLatch latch = new CountDownLatch(1);
+
+		private volatile boolean fired;
+
+		@Override
+		public Date nextExecutionTime(TriggerContext triggerContext) {
+			if (!this.fired) {
+				this.fired = true;
+				return new Date();
+			}
+			this.latch.countDown();
+			return null;
+		}
+
+	}
+
 }
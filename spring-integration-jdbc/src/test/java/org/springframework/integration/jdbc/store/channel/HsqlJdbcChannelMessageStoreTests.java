@@ -50,4 +50,28 @@ public class HsqlJdbcChannelMessageStoreTests extends AbstractJdbcChannelMessage
 		super.testAddAndGet();
 	}
 
+	@Test
+	@Override
+	public void testBatchPoll() throws Exception {
+		super.testBatchPoll();
+	}
+
+	@Test
+	@Override
+	public void testBatchPollRollback() throws Exception {
+		super.testBatchPollRollback();
+	}
+
+	@Test
+	@Override
+	public void testBatchPollWithPollingConsumer() throws Exception {
+		super.testBatchPollWithPollingConsumer();
+	}
+
+	@Test
+	@Override
+	public void testBatchPollWithPollingConsumerRollback() throws Exception {
+		super.testBatchPollWithPollingConsumerRollback();
+	}
+
 }
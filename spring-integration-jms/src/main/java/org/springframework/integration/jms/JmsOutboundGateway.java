@@ -17,14 +17,12 @@
 package org.springframework.integration.jms;
 
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -133,12 +131,25 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 
 	private final String gatewayCorrelation = UUID.randomUUID().toString();
 
-	private final Map<String, LinkedBlockingQueue<javax.jms.Message>> replies =
-			new HashMap<String, LinkedBlockingQueue<javax.jms.Message>>();
+	private static final int REPLY_LOCK_STRIPES = 16;
+
+	private final ConcurrentHashMap<String, ReplyFuture> replies = new ConcurrentHashMap<String, ReplyFuture>();
 
 	private final ConcurrentHashMap<String, TimedReply> earlyOrLateReplies =
 			new ConcurrentHashMap<String, JmsOutboundGateway.TimedReply>();
 
+	/*
+	 * The early or late replies in arrival order, which (since they all expire after the
+	 * same time) is also the order in which they expire.
+	 */
+	private final Queue<TimedReply> earlyOrLateReplyQueue = new ConcurrentLinkedQueue<TimedReply>();
+
+	/*
+	 * Guard the hand-off of a reply that may arrive before its correlationId is
+	 * registered; striped by correlationId so that unrelated replies do not contend.
+	 */
+	private final Object[] replyLocks = createReplyLocks();
+
 	private volatile ScheduledFuture<?> reaper;
 
 	private final Object lifeCycleMonitor = new Object();
@@ -876,19 +887,21 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 			else {
 				jmsRequest.setStringProperty(this.correlationKey, correlationId);
 			}
-			LinkedBlockingQueue<javax.jms.Message> replyQueue = new LinkedBlockingQueue<javax.jms.Message>(1);
+			ReplyFuture replyFuture = new ReplyFuture();
 			if (logger.isDebugEnabled()) {
 				logger.debug(this.getComponentName() + " Sending message with correlationId " + correlationId);
 			}
-			this.replies.put(correlationId, replyQueue);
+			this.replies.put(correlationId, replyFuture);
 
 			this.sendRequestMessage(jmsRequest, messageProducer, priority);
 
-			return obtainReplyFromContainer(correlationId, replyQueue);
+			return obtainReplyFromContainer(correlationId, replyFuture);
 		}
 		finally {
 			JmsUtils.closeMessageProducer(messageProducer);
-			this.replies.remove(correlationId);
+			if (correlationId != null) {
+				this.replies.remove(correlationId);
+			}
 		}
 	}
 
@@ -899,7 +912,7 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 
 		try {
 			messageProducer = session.createProducer(requestDestination);
-			LinkedBlockingQueue<javax.jms.Message> replyQueue = new LinkedBlockingQueue<javax.jms.Message>(1);
+			ReplyFuture replyFuture = new ReplyFuture();
 
 			this.sendRequestMessage(jmsRequest, messageProducer, priority);
 
@@ -908,39 +921,40 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 			if (logger.isDebugEnabled()) {
 				logger.debug(this.getComponentName() + " Sent message with correlationId " + correlationId);
 			}
-			this.replies.put(correlationId, replyQueue);
 
 			/*
 			 * Check to see if the reply arrived before we obtained the correlationId
 			 */
-			synchronized (this.earlyOrLateReplies) {
+			synchronized (this.replyLock(correlationId)) {
+				this.replies.put(correlationId, replyFuture);
 				TimedReply timedReply = this.earlyOrLateReplies.remove(correlationId);
 				if (timedReply != null) {
 					if (logger.isDebugEnabled()) {
 						logger.debug("Found early reply with correlationId " + correlationId);
 					}
-					replyQueue.add(timedReply.getReply());
+					replyFuture.set(timedReply.getReply());
 				}
 			}
 
-			return obtainReplyFromContainer(correlationId, replyQueue);
+			return obtainReplyFromContainer(correlationId, replyFuture);
 		}
 		finally {
 			JmsUtils.closeMessageProducer(messageProducer);
-			this.replies.remove(correlationId);
+			if (correlationId != null) {
+				this.replies.remove(correlationId);
+			}
 		}
 	}
 
-	private javax.jms.Message obtainReplyFromContainer(String correlationId,
-			LinkedBlockingQueue<javax.jms.Message> replyQueue) {
+	private javax.jms.Message obtainReplyFromContainer(String correlationId, ReplyFuture replyFuture) {
 		javax.jms.Message reply = null;
 
 		if (this.receiveTimeout < 0) {
-			reply = replyQueue.poll();
+			reply = replyFuture.get();
 		}
 		else {
 			try {
-				reply = replyQueue.poll(this.receiveTimeout, TimeUnit.MILLISECONDS);
+				reply = replyFuture.get(this.receiveTimeout);
 			}
 			catch (InterruptedException e) {
 				logger.error("Interrupted while awaiting reply; treated as a timeout", e);
@@ -1025,26 +1039,28 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 				correlationId = message.getStringProperty(this.correlationKey);
 			}
 			Assert.state(correlationId != null, "Message with no correlationId received");
-			LinkedBlockingQueue<javax.jms.Message> queue = this.replies.get(correlationId);
-			if (queue == null) {
+			ReplyFuture replyFuture = this.replies.get(correlationId);
+			if (replyFuture == null) {
 				if (this.correlationKey != null) {
 					throw new RuntimeException("No sender waiting for reply");
 				}
-				synchronized (this.earlyOrLateReplies) {
-					queue = this.replies.get(correlationId);
-					if (queue == null) {
+				synchronized (this.replyLock(correlationId)) {
+					replyFuture = this.replies.get(correlationId);
+					if (replyFuture == null) {
 						if (logger.isDebugEnabled()) {
 							logger.debug("Reply for correlationId " + correlationId + " received early or late");
 						}
-						this.earlyOrLateReplies.put(correlationId, new TimedReply(message));
+						TimedReply timedReply = new TimedReply(correlationId, message);
+						this.earlyOrLateReplies.put(correlationId, timedReply);
+						this.earlyOrLateReplyQueue.add(timedReply);
 					}
 				}
 			}
-			if (queue != null) {
+			if (replyFuture != null) {
 				if (logger.isDebugEnabled()) {
 					logger.debug("Received reply with correlationId " + correlationId);
 				}
-				queue.add(message);
+				replyFuture.set(message);
 			}
 		}
 		catch (Exception e) {
@@ -1139,13 +1155,57 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 		}
 	}
 
+	private static Object[] createReplyLocks() {
+		Object[] locks = new Object[REPLY_LOCK_STRIPES];
+		for (int i = 0; i < REPLY_LOCK_STRIPES; i++) {
+			locks[i] = new Object();
+		}
+		return locks;
+	}
+
+	private Object replyLock(String correlationId) {
+		return this.replyLocks[(correlationId.hashCode() & Integer.MAX_VALUE) % REPLY_LOCK_STRIPES];
+	}
+
+	/**
+	 * Holds the reply for a single request; the reply can be set only once.
+	 */
+	private static final class ReplyFuture {
+
+		private javax.jms.Message reply;
+
+		private synchronized void set(javax.jms.Message reply) {
+			Assert.state(this.reply == null, "A reply has already been received");
+			this.reply = reply;
+			this.notifyAll();
+		}
+
+		private synchronized javax.jms.Message get() {
+			return this.reply;
+		}
+
+		private synchronized javax.jms.Message get(long timeout) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + timeout;
+			long remaining = timeout;
+			while (this.reply == null && remaining > 0) {
+				this.wait(remaining);
+				remaining = deadline - System.currentTimeMillis();
+			}
+			return this.reply;
+		}
+
+	}
+
 	private class TimedReply {
 
 		private final long timeStamp = System.currentTimeMillis();
 
+		private final String correlationId;
+
 		private final javax.jms.Message reply;
 
-		public TimedReply(javax.jms.Message reply) {
+		public TimedReply(String correlationId, javax.jms.Message reply) {
+			this.correlationId = correlationId;
 			this.reply = reply;
 		}
 
@@ -1153,6 +1213,10 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 			return timeStamp;
 		}
 
+		public String getCorrelationId() {
+			return correlationId;
+		}
+
 		public javax.jms.Message getReply() {
 			return reply;
 		}
@@ -1165,17 +1229,19 @@ public class JmsOutboundGateway extends AbstractReplyProducingMessageHandler imp
 			if (logger.isTraceEnabled()) {
 				logger.trace("Running late reply reaper");
 			}
-			Iterator<Entry<String, TimedReply>> lateReplyIterator = earlyOrLateReplies.entrySet().iterator();
 			long now = System.currentTimeMillis();
 			long expired = now - (JmsOutboundGateway.this.receiveTimeout * 2);
-			while (lateReplyIterator.hasNext()) {
-				Entry<String, TimedReply> entry = lateReplyIterator.next();
-				if (entry.getValue().getTimeStamp() < expired) {
+			// only the expired replies, at the head of the queue, are visited
+			TimedReply timedReply = earlyOrLateReplyQueue.peek();
+			while (timedReply != null && timedReply.getTimeStamp() < expired) {
+				earlyOrLateReplyQueue.poll();
+				// unless it has already been claimed by a sender
+				if (earlyOrLateReplies.remove(timedReply.getCorrelationId(), timedReply)) {
 					if (logger.isDebugEnabled()) {
-						logger.debug("Removing late reply for correlationId " + entry.getKey());
+						logger.debug("Removing late reply for correlationId " + timedReply.getCorrelationId());
 					}
-					lateReplyIterator.remove();
 				}
+				timedReply = earlyOrLateReplyQueue.peek();
 			}
 			// reschedule myself
 			if (JmsOutboundGateway.this.receiveTimeout >= 0) {
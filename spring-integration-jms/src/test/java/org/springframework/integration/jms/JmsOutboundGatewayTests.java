@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,17 +26,25 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
+import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
 import javax.jms.Session;
 import javax.jms.TemporaryQueue;
+import javax.jms.TextMessage;
 
+import org.apache.activemq.ActiveMQConnectionFactory;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.junit.Test;
@@ -45,10 +53,15 @@ import org.mockito.stubbing.Answer;
 
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.jms.JmsOutboundGateway.ReplyContainerProperties;
+import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.test.util.TestUtils;
 import org.springframework.integration.util.ErrorHandlingTaskExecutor;
 import org.springframework.jms.JmsException;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.listener.SessionAwareMessageListener;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.util.ErrorHandler;
 import org.springframework.util.ObjectUtils;
@@ -154,4 +167,95 @@ public class JmsOutboundGatewayTests {
 			gateway.stop();
 		}
 	}
+
+	@Test
+	public void testConcurrentRequestsWithReplyContainer() throws Exception {
+		CachingConnectionFactory connectionFactory = new CachingConnectionFactory(
+				new ActiveMQConnectionFactory("vm://concurrentRequests?broker.persistent=false"));
+		connectionFactory.setSessionCacheSize(10);
+		// echo the requests; the default correlation (JMSCorrelationID = JMSMessageID) is used
+		DefaultMessageListenerContainer server = new DefaultMessageListenerContainer();
+		server.setConnectionFactory(connectionFactory);
+		server.setDestinationName("concurrentRequests");
+		server.setConcurrentConsumers(5);
+		server.setMessageListener(new SessionAwareMessageListener<Message>() {
+
+			@Override
+			public void onMessage(Message request, Session session) throws JMSException {
+				Message reply = session.createTextMessage(((TextMessage) request).getText());
+				reply.setJMSCorrelationID(request.getJMSMessageID());
+				MessageProducer producer = session.createProducer(request.getJMSReplyTo());
+				try {
+					producer.send(reply);
+				}
+				finally {
+					producer.close();
+				}
+			}
+
+		});
+		server.afterPropertiesSet();
+		server.start();
+
+		final JmsOutboundGateway gateway = new JmsOutboundGateway();
+		gateway.setConnectionFactory(connectionFactory);
+		gateway.setRequestDestinationName("concurrentRequests");
+		gateway.setUseReplyContainer(true);
+		gateway.setReceiveTimeout(10000);
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+		taskScheduler.initialize();
+		beanFactory.registerSingleton("taskScheduler", taskScheduler);
+		gateway.setBeanFactory(beanFactory);
+		gateway.afterPropertiesSet();
+		gateway.start();
+
+		int threads = 10;
+		final int requestsPerThread = 50;
+		final AtomicInteger correctReplies = new AtomicInteger();
+		final CountDownLatch latch = new CountDownLatch(threads);
+		ExecutorService exec = Executors.newFixedThreadPool(threads);
+		try {
+			for (int i = 0; i < threads; i++) {
+				final int thread = i;
+				exec.execute(new Runnable() {
+
+					@Override
+					public void run() {
+						try {
+							for (int j = 0; j < requestsPerThread; j++) {
+								String payload = thread + ":" + j;
+								QueueChannel replyChannel = new QueueChannel();
+								gateway.handleMessage(MessageBuilder.withPayload(payload)
+										.setReplyChannel(replyChannel)
+										.build());
+								// a missing reply fails the request (and the test)
+								if (payload.equals(replyChannel.receive(0).getPayload())) {
+									correctReplies.incrementAndGet();
+								}
+							}
+						}
+						catch (Exception e) {
+							logger.error("Request failed", e);
+						}
+						finally {
+							latch.countDown();
+						}
+					}
+
+				});
+			}
+			assertTrue(latch.await(60, TimeUnit.SECONDS));
+			assertEquals(threads * requestsPerThread, correctReplies.get());
+			assertEquals(0, TestUtils.getPropertyValue(gateway, "replies", Map.class).size());
+		}
+		finally {
+			exec.shutdownNow();
+			gateway.stop();
+			server.shutdown();
+			taskScheduler.destroy();
+			connectionFactory.destroy();
+		}
+	}
+
 }
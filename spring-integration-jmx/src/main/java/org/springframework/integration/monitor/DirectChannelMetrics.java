@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2010 the original author or authors.
+ * Copyright 2009-2014 the original author or authors.
  * 
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -22,7 +22,6 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.jmx.export.annotation.ManagedResource;
-import org.springframework.util.StopWatch;
 
 /**
  * Registers all message channels, and accumulates statistics about their performance. The statistics are then published
@@ -103,19 +102,17 @@ public class DirectChannelMetrics implements MethodInterceptor, MessageChannelMe
 		if (logger.isTraceEnabled()) {
 			logger.trace("Recording send on channel(" + channel + ") : message(" + message + ")");
 		}
-		final StopWatch timer = new StopWatch(channel + ".send:execution");
+		long start = System.nanoTime();
 		try {
-			timer.start();
-
 			sendCount.incrementAndGet();
 			sendRate.increment();
 
 			Object result = invocation.proceed();
 
-			timer.stop();
+			long elapsed = System.nanoTime() - start;
 			if ((Boolean)result) {
 				sendSuccessRatio.success();
-				sendDuration.append(timer.getTotalTimeMillis());
+				sendDuration.append(elapsed / 1000000.);
 			}
 			else {
 				sendSuccessRatio.failure();
@@ -132,7 +129,7 @@ public class DirectChannelMetrics implements MethodInterceptor, MessageChannelMe
 		}
 		finally {
 			if (logger.isTraceEnabled()) {
-				logger.trace(timer);
+				logger.trace(channel + ".send:execution took " + (System.nanoTime() - start) + " ns");
 			}
 		}
 	}
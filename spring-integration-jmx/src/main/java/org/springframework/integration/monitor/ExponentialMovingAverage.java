@@ -1,11 +1,11 @@
 /*
- * Copyright 2009-2010 the original author or authors.
- * 
+ * Copyright 2009-2014 the original author or authors.
+ *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
- * 
+ *
  * http://www.apache.org/licenses/LICENSE-2.0
- * 
+ *
  * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
  * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
  * specific language governing permissions and limitations under the License.
@@ -13,6 +13,8 @@
 
 package org.springframework.integration.monitor;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * Cumulative statistics for a series of real numbers with higher weight given to recent data but without storing any
  * history. Clients call {@link #append(double)} every time there is a new measurement, and then can collect summary
@@ -20,23 +22,24 @@ package org.springframework.integration.monitor;
  * weight, with a decay factor determined by a "window" size chosen by the caller. The result is a good approximation to
  * the statistics of the series but with more weight given to recent measurements, so if the statistics change over time
  * those trends can be approximately reflected.
- * 
+ * <p>
+ * Measurements are accumulated in a number of lock-striped accumulators, selected by the id of the calling thread, so
+ * that concurrent callers rarely contend for the same lock; the stripes are merged when the statistics are read. Each
+ * stripe decays with its own measurements, so a series appended from several threads is weighted slightly differently
+ * than by a single accumulator; a series appended from a single thread produces exactly the same statistics.
+ *
  * @author Dave Syer
  * @since 2.0
  */
 public class ExponentialMovingAverage {
 
-	private volatile int count;
-
-	private volatile double weight;
-
-	private volatile double sum;
-
-	private volatile double sumSquares;
-
-	private volatile double min;
+	/**
+	 * The number of stripes used by the moving average accumulators: the smallest power of two not less than the
+	 * number of available processors.
+	 */
+	static final int STRIPE_COUNT = stripeCount(Runtime.getRuntime().availableProcessors());
 
-	private volatile double max;
+	private final AtomicReferenceArray<Stripe> stripes = new AtomicReferenceArray<Stripe>(STRIPE_COUNT);
 
 	private final double decay;
 
@@ -44,7 +47,7 @@ public class ExponentialMovingAverage {
 	/**
 	 * Create a moving average accumulator with decay lapse window provided. Measurements older than this will have
 	 * smaller weight than <code>1/e</code>.
-	 * 
+	 *
 	 * @param window the exponential lapse window (number of measurements)
 	 */
 	public ExponentialMovingAverage(int window) {
@@ -52,37 +55,41 @@ public class ExponentialMovingAverage {
 	}
 
 
-	public synchronized void reset() {
-		weight = 0;
-		sum = 0;
-		sumSquares = 0;
-		count = 0;
-		min = 0;
-		max = 0;
+	public void reset() {
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			this.stripes.set(i, null);
+		}
 	}
 
 	/**
 	 * Add a new measurement to the series.
-	 * 
+	 *
 	 * @param value the measurement to append
 	 */
-	public synchronized void append(double value) {
-		if (value > max || count == 0) {
-			max = value;
-		}
-		if (value < min || count == 0) {
-			min = value;
+	public void append(double value) {
+		Stripe stripe = this.getStripe(stripeIndex());
+		synchronized (stripe) {
+			if (value > stripe.max || stripe.count == 0) {
+				stripe.max = value;
+			}
+			if (value < stripe.min || stripe.count == 0) {
+				stripe.min = value;
+			}
+			stripe.sum = decay * stripe.sum + value;
+			stripe.sumSquares = decay * stripe.sumSquares + value * value;
+			stripe.weight = decay * stripe.weight + 1;
+			stripe.count++;
 		}
-		sum = decay * sum + value;
-		sumSquares = decay * sumSquares + value * value;
-		weight = decay * weight + 1;
-		count++;
 	}
 
 	/**
 	 * @return the number of measurements recorded
 	 */
 	public int getCount() {
+		int count = 0;
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			count += this.getCount(i);
+		}
 		return count;
 	}
 
@@ -90,6 +97,17 @@ public class ExponentialMovingAverage {
 	 * @return the mean value
 	 */
 	public double getMean() {
+		double sum = 0;
+		double weight = 0;
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			Stripe stripe = this.stripes.get(i);
+			if (stripe != null) {
+				synchronized (stripe) {
+					sum += stripe.sum;
+					weight += stripe.weight;
+				}
+			}
+		}
 		return weight > 0 ? sum / weight : 0.;
 	}
 
@@ -97,15 +115,39 @@ public class ExponentialMovingAverage {
 	 * @return the approximate standard deviation
 	 */
 	public double getStandardDeviation() {
-		double mean = getMean();
-		double var = weight > 0 ? sumSquares / weight - mean * mean : 0.;
-		return var > 0 ? Math.sqrt(var) : 0;
+		double sum = 0;
+		double sumSquares = 0;
+		double weight = 0;
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			Stripe stripe = this.stripes.get(i);
+			if (stripe != null) {
+				synchronized (stripe) {
+					sum += stripe.sum;
+					sumSquares += stripe.sumSquares;
+					weight += stripe.weight;
+				}
+			}
+		}
+		return standardDeviation(sum, sumSquares, weight);
 	}
 
 	/**
 	 * @return the maximum value recorded (not weighted)
 	 */
 	public double getMax() {
+		double max = 0;
+		boolean found = false;
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			Stripe stripe = this.stripes.get(i);
+			if (stripe != null) {
+				synchronized (stripe) {
+					if (stripe.count > 0 && (!found || stripe.max > max)) {
+						max = stripe.max;
+						found = true;
+					}
+				}
+			}
+		}
 		return max;
 	}
 
@@ -113,6 +155,19 @@ public class ExponentialMovingAverage {
 	 * @return the minimum value recorded (not weighted)
 	 */
 	public double getMin() {
+		double min = 0;
+		boolean found = false;
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			Stripe stripe = this.stripes.get(i);
+			if (stripe != null) {
+				synchronized (stripe) {
+					if (stripe.count > 0 && (!found || stripe.min < min)) {
+						min = stripe.min;
+						found = true;
+					}
+				}
+			}
+		}
 		return min;
 	}
 
@@ -120,7 +175,7 @@ public class ExponentialMovingAverage {
 	 * @return summary statistics (count, mean, standard deviation etc.)
 	 */
 	public Statistics getStatistics() {
-		return new Statistics(count, min, max, getMean(), getStandardDeviation());
+		return new Statistics(getCount(), getMin(), getMax(), getMean(), getStandardDeviation());
 	}
 
 	@Override
@@ -128,4 +183,115 @@ public class ExponentialMovingAverage {
 		return getStatistics().toString();
 	}
 
+	/**
+	 * @param index the stripe index
+	 * @return the number of measurements recorded in the stripe
+	 */
+	int getCount(int index) {
+		Stripe stripe = this.stripes.get(index);
+		if (stripe == null) {
+			return 0;
+		}
+		synchronized (stripe) {
+			return stripe.count;
+		}
+	}
+
+	/**
+	 * @param index the stripe index
+	 * @return the decayed weight of the measurements recorded in the stripe
+	 */
+	double getWeight(int index) {
+		Stripe stripe = this.stripes.get(index);
+		if (stripe == null) {
+			return 0;
+		}
+		synchronized (stripe) {
+			return stripe.weight;
+		}
+	}
+
+	/**
+	 * @param index the stripe index
+	 * @return the mean value of the measurements recorded in the stripe
+	 */
+	double getMean(int index) {
+		Stripe stripe = this.stripes.get(index);
+		if (stripe == null) {
+			return 0;
+		}
+		synchronized (stripe) {
+			return stripe.weight > 0 ? stripe.sum / stripe.weight : 0.;
+		}
+	}
+
+	/**
+	 * @param index the stripe index
+	 * @return the approximate variance of the measurements recorded in the stripe
+	 */
+	double getVariance(int index) {
+		Stripe stripe = this.stripes.get(index);
+		if (stripe == null) {
+			return 0;
+		}
+		synchronized (stripe) {
+			double sd = standardDeviation(stripe.sum, stripe.sumSquares, stripe.weight);
+			return sd * sd;
+		}
+	}
+
+	private Stripe getStripe(int index) {
+		Stripe stripe = this.stripes.get(index);
+		if (stripe == null) {
+			this.stripes.compareAndSet(index, null, new Stripe());
+			stripe = this.stripes.get(index);
+		}
+		return stripe;
+	}
+
+	private static double standardDeviation(double sum, double sumSquares, double weight) {
+		double mean = weight > 0 ? sum / weight : 0.;
+		double var = weight > 0 ? sumSquares / weight - mean * mean : 0.;
+		return var > 0 ? Math.sqrt(var) : 0;
+	}
+
+	/**
+	 * @return the index of the stripe to be used by the calling thread
+	 */
+	static int stripeIndex() {
+		return (int) Thread.currentThread().getId() & (STRIPE_COUNT - 1);
+	}
+
+	static int stripeCount(int processors) {
+		int count = 1;
+		while (count < processors) {
+			count <<= 1;
+		}
+		return count;
+	}
+
+
+	/**
+	 * The accumulated state of one stripe; only accessed while holding its monitor. The trailing padding keeps
+	 * stripes that are allocated next to each other from sharing a cache line.
+	 */
+	@SuppressWarnings("unused")
+	private static final class Stripe {
+
+		private int count;
+
+		private double weight;
+
+		private double sum;
+
+		private double sumSquares;
+
+		private double min;
+
+		private double max;
+
+		private long p1, p2, p3, p4, p5, p6, p7;
+
+	}
+
 }
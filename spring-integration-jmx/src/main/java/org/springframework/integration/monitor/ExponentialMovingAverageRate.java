@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2013 the original author or authors.
+ * Copyright 2009-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -13,6 +13,8 @@
 
 package org.springframework.integration.monitor;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * Cumulative statistics for an event rate with higher weight given to recent data but without storing any history.
  * Clients call {@link #increment()} when a new event occurs, and then use convenience methods (e.g. {@link #getMean()})
@@ -25,6 +27,11 @@ package org.springframework.integration.monitor;
  * <li>per measurement according to the lapse window supplied: <code>weight = exp(-i/L)</code> where <code>L</code> is
  * the lapse window and <code>i</code> is the sequence number of the measurement.</li>
  * </ul>
+ * <p>
+ * Events are accumulated in lock-striped accumulators selected by the id of the calling thread, so that concurrent
+ * callers rarely contend for the same lock. When events arrive from several threads, the mean is the sum of the rates
+ * seen by each stripe, and each stripe decays with its own events, so the statistics approximate (rather than equal)
+ * those of a single accumulator; events from a single thread produce exactly the same statistics.
  *
  * @author Dave Syer
  * @author Gary Russell
@@ -34,15 +41,10 @@ public class ExponentialMovingAverageRate {
 
 	private final ExponentialMovingAverage rates;
 
-	private volatile double weight;
-
-	private volatile double sum;
-
-	private volatile double min;
+	private final AtomicReferenceArray<Stripe> stripes =
+			new AtomicReferenceArray<Stripe>(ExponentialMovingAverage.STRIPE_COUNT);
 
-	private volatile double max;
-
-	private volatile long t0 = System.currentTimeMillis();
+	private volatile long origin = System.nanoTime();
 
 	private final double lapse;
 
@@ -56,37 +58,43 @@ public class ExponentialMovingAverageRate {
 	 */
 	public ExponentialMovingAverageRate(double period, double lapsePeriod, int window) {
 		rates = new ExponentialMovingAverage(window);
-		this.lapse = lapsePeriod > 0 ? 0.001 / lapsePeriod : 0; // convert to milliseconds
-		this.period = period * 1000; // convert to milliseconds
+		this.lapse = lapsePeriod > 0 ? 0.000000001 / lapsePeriod : 0; // convert to nanoseconds
+		this.period = period * 1000000000; // convert to nanoseconds
 	}
 
 
-	public synchronized void reset() {
-		min = 0;
-		max = 0;
-		weight = 0;
-		sum = 0;
-		t0 = System.currentTimeMillis();
+	public void reset() {
+		this.origin = this.nanoTime();
+		for (int i = 0; i < this.stripes.length(); i++) {
+			this.stripes.set(i, null);
+		}
 		rates.reset();
 	}
 
 	/**
 	 * Add a new event to the series.
 	 */
-	public synchronized void increment() {
-		long t = System.currentTimeMillis();
-		double value = t > t0 ? (t - t0) / period : 0;
-		if (value > max || getCount() == 0) {
-			max = value;
+	public void increment() {
+		Stripe stripe = this.getStripe(ExponentialMovingAverage.stripeIndex());
+		double rate;
+		synchronized (stripe) {
+			long t = this.nanoTime();
+			double value = t > stripe.t0 ? (t - stripe.t0) / period : 0;
+			if (value > stripe.max || stripe.count == 0) {
+				stripe.max = value;
+			}
+			if (value < stripe.min || stripe.count == 0) {
+				stripe.min = value;
+			}
+			double alpha = Math.exp((stripe.t0 - t) * lapse);
+			stripe.t0 = t;
+			stripe.sum = alpha * stripe.sum + value;
+			stripe.weight = alpha * stripe.weight + 1;
+			stripe.count++;
+			rate = stripe.sum > 0 ? stripe.weight / stripe.sum : 0;
 		}
-		if (value < min || getCount() == 0) {
-			min = value;
-		}
-		double alpha = Math.exp((t0 - t) * lapse);
-		t0 = t;
-		sum = alpha * sum + value;
-		weight = alpha * weight + 1;
-		rates.append(sum > 0 ? weight / sum : 0);
+		// same thread, so the same stripe of the rates
+		rates.append(rate);
 	}
 
 	/**
@@ -100,33 +108,58 @@ public class ExponentialMovingAverageRate {
 	 * @return the time in seconds since the last measurement
 	 */
 	public double getTimeSinceLastMeasurement() {
-		return (System.currentTimeMillis() - t0) / 1000.;
+		long last = this.origin;
+		for (int i = 0; i < this.stripes.length(); i++) {
+			Stripe stripe = this.stripes.get(i);
+			if (stripe != null) {
+				synchronized (stripe) {
+					if (stripe.count > 0 && stripe.t0 - last > 0) {
+						last = stripe.t0;
+					}
+				}
+			}
+		}
+		return (this.nanoTime() - last) / 1000000000.;
 	}
 
 	/**
 	 * @return the mean value
 	 */
 	public double getMean() {
-		int count = rates.getCount();
-		if (count == 0) {
-			return 0;
+		long t = this.nanoTime();
+		double mean = 0;
+		for (int i = 0; i < this.stripes.length(); i++) {
+			Stripe stripe = this.stripes.get(i);
+			int count = rates.getCount(i);
+			if (stripe == null || count == 0) {
+				continue;
+			}
+			long t0;
+			synchronized (stripe) {
+				t0 = stripe.t0;
+			}
+			double value = t > t0 ? (t - t0) / period : 0;
+			mean += count / (count / rates.getMean(i) + value);
 		}
-		long t = System.currentTimeMillis();
-		double value = t > t0 ? (t - t0) / period : 0;
-		return count / (count / rates.getMean() + value);
+		return mean;
 	}
 
 	/**
 	 * @return the approximate standard deviation
 	 */
 	public double getStandardDeviation() {
-		return rates.getStandardDeviation();
+		double variance = 0;
+		for (int i = 0; i < this.stripes.length(); i++) {
+			variance += rates.getVariance(i);
+		}
+		return Math.sqrt(variance);
 	}
 
 	/**
 	 * @return the maximum value recorded (not weighted)
 	 */
 	public double getMax() {
+		double min = this.getMinInterval();
 		return min > 0 ? 1 / min : 0;
 	}
 
@@ -134,6 +167,7 @@ public class ExponentialMovingAverageRate {
 	 * @return the minimum value recorded (not weighted)
 	 */
 	public double getMin() {
+		double max = this.getMaxInterval();
 		return max > 0 ? 1 / max : 0;
 	}
 
@@ -141,7 +175,7 @@ public class ExponentialMovingAverageRate {
 	 * @return summary statistics (count, mean, standard deviation etc.)
 	 */
 	public Statistics getStatistics() {
-		return new Statistics(getCount(), min, max, getMean(), getStandardDeviation());
+		return new Statistics(getCount(), getMinInterval(), getMaxInterval(), getMean(), getStandardDeviation());
 	}
 
 	@Override
@@ -149,4 +183,81 @@ public class ExponentialMovingAverageRate {
 		return String.format("[%s, timeSinceLast=%f]", getStatistics(), getTimeSinceLastMeasurement());
 	}
 
+	private double getMinInterval() {
+		double min = 0;
+		boolean found = false;
+		for (int i = 0; i < this.stripes.length(); i++) {
+			Stripe stripe = this.stripes.get(i);
+			if (stripe != null) {
+				synchronized (stripe) {
+					if (stripe.count > 0 && (!found || stripe.min < min)) {
+						min = stripe.min;
+						found = true;
+					}
+				}
+			}
+		}
+		return min;
+	}
+
+	private double getMaxInterval() {
+		double max = 0;
+		boolean found = false;
+		for (int i = 0; i < this.stripes.length(); i++) {
+			Stripe stripe = this.stripes.get(i);
+			if (stripe != null) {
+				synchronized (stripe) {
+					if (stripe.count > 0 && (!found || stripe.max > max)) {
+						max = stripe.max;
+						found = true;
+					}
+				}
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * @return the current value of the time source, in nanoseconds
+	 */
+	long nanoTime() {
+		return System.nanoTime();
+	}
+
+	private Stripe getStripe(int index) {
+		Stripe stripe = this.stripes.get(index);
+		if (stripe == null) {
+			this.stripes.compareAndSet(index, null, new Stripe(this.origin));
+			stripe = this.stripes.get(index);
+		}
+		return stripe;
+	}
+
+
+	/**
+	 * The accumulated state of one stripe; only accessed while holding its monitor.
+	 */
+	@SuppressWarnings("unused")
+	private static final class Stripe {
+
+		private long t0;
+
+		private int count;
+
+		private double weight;
+
+		private double sum;
+
+		private double min;
+
+		private double max;
+
+		private long p1, p2, p3, p4, p5, p6, p7;
+
+		private Stripe(long t0) {
+			this.t0 = t0;
+		}
+
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2009-2010 the original author or authors.
+ * Copyright 2009-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -13,6 +13,8 @@
 
 package org.springframework.integration.monitor;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * Cumulative statistics for success ratio with higher weight given to recent data but without storing any history.
  * Clients call {@link #success()} or {@link #failure()} when an event occurs, and the ratio of success to total events
@@ -24,17 +26,19 @@ package org.springframework.integration.monitor;
  * <li>per measurement according to the lapse window supplied: <code>weight = exp(-i/L)</code> where <code>L</code> is
  * the lapse window and <code>i</code> is the sequence number of the measurement.</li>
  * </ul>
+ * <p>
+ * Events are accumulated in lock-striped accumulators selected by the id of the calling thread, so that concurrent
+ * callers rarely contend for the same lock; the mean is the weighted average of the stripes when it is read.
  *
  * @author Dave Syer
  * @since 2.0
  */
 public class ExponentialMovingAverageRatio {
 
-	private volatile double weight;
-
-	private volatile double sum;
+	private final AtomicReferenceArray<Stripe> stripes =
+			new AtomicReferenceArray<Stripe>(ExponentialMovingAverage.STRIPE_COUNT);
 
-	private volatile long t0 = System.currentTimeMillis();
+	private volatile long origin = System.nanoTime();
 
 	private final double lapse;
 
@@ -47,7 +51,7 @@ public class ExponentialMovingAverageRatio {
 	 */
 	public ExponentialMovingAverageRatio(double lapsePeriod, int window) {
 		this.cumulative = new ExponentialMovingAverage(window);
-		this.lapse = lapsePeriod > 0 ? 0.001 / lapsePeriod : 0; // convert to millisecs
+		this.lapse = lapsePeriod > 0 ? 0.000000001 / lapsePeriod : 0; // convert to nanosecs
 	}
 
 
@@ -65,20 +69,28 @@ public class ExponentialMovingAverageRatio {
 		append(0);
 	}
 
-	public synchronized void reset() {
-		weight = 0;
-		sum = 0;
-		t0 = System.currentTimeMillis();
+	public void reset() {
+		this.origin = System.nanoTime();
+		for (int i = 0; i < this.stripes.length(); i++) {
+			this.stripes.set(i, null);
+		}
 		cumulative.reset();
 	}
 
-	private synchronized void append(int value) {
-		long t = System.currentTimeMillis();
-		double alpha = Math.exp((t0 - t) * lapse);
-		t0 = t;
-		sum = alpha * sum + value;
-		weight = alpha * weight + 1;
-		cumulative.append(sum / weight);
+	private void append(int value) {
+		Stripe stripe = this.getStripe(ExponentialMovingAverage.stripeIndex());
+		double ratio;
+		synchronized (stripe) {
+			long t = System.nanoTime();
+			double alpha = Math.exp((stripe.t0 - t) * lapse);
+			stripe.t0 = t;
+			stripe.sum = alpha * stripe.sum + value;
+			stripe.weight = alpha * stripe.weight + 1;
+			stripe.count++;
+			ratio = stripe.sum / stripe.weight;
+		}
+		// same thread, so the same stripe of the cumulative average
+		cumulative.append(ratio);
 	}
 
 	/**
@@ -92,21 +104,43 @@ public class ExponentialMovingAverageRatio {
 	 * @return the time in seconds since the last measurement
 	 */
 	public double getTimeSinceLastMeasurement() {
-		return (System.currentTimeMillis() - t0) / 1000.;
+		long last = this.origin;
+		for (int i = 0; i < this.stripes.length(); i++) {
+			Stripe stripe = this.stripes.get(i);
+			if (stripe != null) {
+				synchronized (stripe) {
+					if (stripe.count > 0 && stripe.t0 - last > 0) {
+						last = stripe.t0;
+					}
+				}
+			}
+		}
+		return (System.nanoTime() - last) / 1000000000.;
 	}
 
 	/**
 	 * @return the mean success rate
 	 */
 	public double getMean() {
-		int count = cumulative.getCount();
-		if (count == 0) {
-			// Optimistic to start: success rate is 100%
-			return 1;
+		long t = System.nanoTime();
+		double sum = 0;
+		double weight = 0;
+		for (int i = 0; i < this.stripes.length(); i++) {
+			Stripe stripe = this.stripes.get(i);
+			double stripeWeight = cumulative.getWeight(i);
+			if (stripe == null || stripeWeight == 0) {
+				continue;
+			}
+			long t0;
+			synchronized (stripe) {
+				t0 = stripe.t0;
+			}
+			double alpha = Math.exp((t0 - t) * lapse);
+			sum += stripeWeight * (alpha * cumulative.getMean(i) + 1 - alpha);
+			weight += stripeWeight;
 		}
-		long t = System.currentTimeMillis();
-		double alpha = Math.exp((t0 - t) * lapse);
-		return alpha * cumulative.getMean() + 1 - alpha;
+		// Optimistic to start: success rate is 100%
+		return weight > 0 ? sum / weight : 1;
 	}
 
 	/**
@@ -142,4 +176,36 @@ public class ExponentialMovingAverageRatio {
 		return String.format("[%s, timeSinceLast=%f]", getStatistics(), getTimeSinceLastMeasurement());
 	}
 
+	private Stripe getStripe(int index) {
+		Stripe stripe = this.stripes.get(index);
+		if (stripe == null) {
+			this.stripes.compareAndSet(index, null, new Stripe(this.origin));
+			stripe = this.stripes.get(index);
+		}
+		return stripe;
+	}
+
+
+	/**
+	 * The accumulated state of one stripe; only accessed while holding its monitor.
+	 */
+	@SuppressWarnings("unused")
+	private static final class Stripe {
+
+		private long t0;
+
+		private int count;
+
+		private double weight;
+
+		private double sum;
+
+		private long p1, p2, p3, p4, p5, p6, p7;
+
+		private Stripe(long t0) {
+			this.t0 = t0;
+		}
+
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2010 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,7 +25,6 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.jmx.export.annotation.ManagedResource;
-import org.springframework.util.StopWatch;
 
 /**
  * @author Dave Syer
@@ -93,20 +92,14 @@ public class SimpleMessageHandlerMetrics implements MethodInterceptor, MessageHa
 		if (logger.isTraceEnabled()) {
 			logger.trace("messageHandler(" + this.handler + ") message(" + message + ") :");
 		}
-		String name = this.name;
-		if (name == null) {
-			name = this.handler.toString();
-		}
-		StopWatch timer = new StopWatch(name + ".handle:execution");
+		long start = System.nanoTime();
 		try {
-			timer.start();
 			this.handleCount.incrementAndGet();
 			this.activeCount.incrementAndGet();
 
 			invocation.proceed();
 
-			timer.stop();
-			this.duration.append(timer.getTotalTimeMillis());
+			this.duration.append((System.nanoTime() - start) / 1000000.);
 		}
 		catch (Throwable e) {
 			this.errorCount.incrementAndGet();
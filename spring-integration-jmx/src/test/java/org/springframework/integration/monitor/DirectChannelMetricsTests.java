@@ -0,0 +1,99 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.integration.monitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.integration.channel.NullChannel;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.util.StopWatch;
+
+/**
+ * @since 4.0
+ */
+public class DirectChannelMetricsTests {
+
+	@Test
+	public void testConcurrentSends() throws Exception {
+		DirectChannelMetrics metrics = new DirectChannelMetrics(new NullChannel(), "test");
+		MessageChannel channel = proxy(metrics);
+		send(channel, 8, 1000);
+		assertEquals(8000, metrics.getSendCount());
+		assertEquals(0, metrics.getSendErrorCount());
+		assertEquals(8000, metrics.getSendDuration().getCount());
+		assertEquals(8000, metrics.getSendRate().getCount());
+		assertEquals(0, metrics.getMeanErrorRatio(), 0.01);
+		assertTrue(metrics.getMeanSendRate() > 0);
+		assertTrue(metrics.getTimeSinceLastSend() >= 0);
+		metrics.reset();
+		assertEquals(0, metrics.getSendCount());
+		assertEquals(0, metrics.getSendDuration().getCount());
+		assertEquals(0, metrics.getMeanSendRate(), 0.01);
+	}
+
+	@Test
+	@Ignore
+	public void testContention() throws Exception {
+		int sends = 2000000;
+		StopWatch watch = new StopWatch("DirectChannelMetrics contention");
+		for (int threads : new int[] { 1, 4, 8, 16, 32 }) {
+			MessageChannel channel = proxy(new DirectChannelMetrics(new NullChannel(), "test"));
+			send(channel, threads, sends / threads / 10);
+			watch.start(threads + " threads");
+			send(channel, threads, sends / threads);
+			watch.stop();
+		}
+		System.out.println(watch.prettyPrint());
+	}
+
+	private static MessageChannel proxy(DirectChannelMetrics metrics) {
+		ProxyFactory factory = new ProxyFactory(metrics.getMessageChannel());
+		factory.addAdvice(metrics);
+		return (MessageChannel) factory.getProxy();
+	}
+
+	private static void send(final MessageChannel channel, int threads, final int sendsPerThread) throws Exception {
+		final Message<?> message = MessageBuilder.withPayload("foo").build();
+		final CountDownLatch latch = new CountDownLatch(threads);
+		ExecutorService exec = Executors.newFixedThreadPool(threads);
+		for (int i = 0; i < threads; i++) {
+			exec.execute(new Runnable() {
+
+				public void run() {
+					for (int j = 0; j < sendsPerThread; j++) {
+						channel.send(message);
+					}
+					latch.countDown();
+				}
+			});
+		}
+		assertTrue(latch.await(60, TimeUnit.SECONDS));
+		exec.shutdownNow();
+	}
+
+}
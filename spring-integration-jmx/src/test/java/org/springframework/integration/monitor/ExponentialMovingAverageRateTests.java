@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -16,6 +16,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.junit.Ignore;
@@ -126,4 +131,113 @@ public class ExponentialMovingAverageRateTests {
 		assertEquals(0, history.getMax(), 0.01);
 	}
 
+	@Test
+	public void testSequentialEventsMatchUnstripedRate() {
+		final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1));
+		ExponentialMovingAverageRate rate = new ExponentialMovingAverageRate(1., 10., 10) {
+
+			@Override
+			long nanoTime() {
+				return clock.get();
+			}
+
+		};
+		rate.reset();
+		UnstripedRate expected = new UnstripedRate(1., 10., 10, clock.get());
+		for (int i = 0; i < 100; i++) {
+			clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10 + i % 5));
+			rate.increment();
+			expected.increment(clock.get());
+		}
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5));
+		assertEquals(100, rate.getCount());
+		assertEquals(expected.getMean(clock.get()), rate.getMean(), 1e-9);
+	}
+
+	@Test
+	public void testSequentialEventsFromSeveralThreadsApproximateUnstripedRate() throws Exception {
+		final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1));
+		final ExponentialMovingAverageRate rate = new ExponentialMovingAverageRate(1., 10., 10) {
+
+			@Override
+			long nanoTime() {
+				return clock.get();
+			}
+
+		};
+		rate.reset();
+		final UnstripedRate expected = new UnstripedRate(1., 10., 10, clock.get());
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (int i = 0; i < 1000; i++) {
+				clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+				executor.submit(new Runnable() {
+
+					@Override
+					public void run() {
+						rate.increment();
+						expected.increment(clock.get());
+					}
+
+				}).get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertEquals(1000, rate.getCount());
+		// the mean is the sum of the rates seen by each stripe
+		assertEquals(100, expected.getMean(clock.get()), 1);
+		assertEquals(expected.getMean(clock.get()), rate.getMean(), 5);
+	}
+
+
+	/**
+	 * The rate as calculated before the events were striped, with an explicit clock.
+	 */
+	private static class UnstripedRate {
+
+		private final double lapse;
+
+		private final double period;
+
+		private final double decay;
+
+		private long t0;
+
+		private double sum;
+
+		private double weight;
+
+		private double ratesSum;
+
+		private double ratesWeight;
+
+		private int count;
+
+		private UnstripedRate(double period, double lapsePeriod, int window, long t0) {
+			this.lapse = 0.000000001 / lapsePeriod;
+			this.period = period * 1000000000;
+			this.decay = 1 - 1. / window;
+			this.t0 = t0;
+		}
+
+		private void increment(long t) {
+			double value = (t - this.t0) / this.period;
+			double alpha = Math.exp((this.t0 - t) * this.lapse);
+			this.t0 = t;
+			this.sum = alpha * this.sum + value;
+			this.weight = alpha * this.weight + 1;
+			this.ratesSum = this.decay * this.ratesSum + this.weight / this.sum;
+			this.ratesWeight = this.decay * this.ratesWeight + 1;
+			this.count++;
+		}
+
+		private double getMean(long t) {
+			double ratesMean = this.ratesSum / this.ratesWeight;
+			return this.count / (this.count / ratesMean + (t - this.t0) / this.period);
+		}
+
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2011 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,11 +19,15 @@ package org.springframework.integration.monitor;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.junit.Test;
 
 /**
  * @author Dave Syer
  * @author Artem Bilan
+ * @author Gary Russell
  *
  */
 public class ExponentialMovingAverageTests {
@@ -65,4 +69,78 @@ public class ExponentialMovingAverageTests {
 		assertEquals(String.format("[N=%d, min=%f, max=%f, mean=%f, sigma=%f]", 0, 0d, 0d, 0d, 0d), history.toString());
 	}
 
+	@Test
+	public void testSequentialSeriesMatchesUnstripedAverage() {
+		UnstripedAverage expected = new UnstripedAverage(10);
+		for (int i = 0; i < 100; i++) {
+			double value = (i * 7) % 13;
+			history.append(value);
+			expected.append(value);
+		}
+		assertEquals(100, history.getCount());
+		assertEquals(expected.getMean(), history.getMean(), 1e-9);
+		assertEquals(expected.getStandardDeviation(), history.getStandardDeviation(), 1e-9);
+	}
+
+	@Test
+	public void testSequentialSeriesFromSeveralThreadsApproximatesUnstripedAverage() throws Exception {
+		final UnstripedAverage expected = new UnstripedAverage(10);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (int i = 0; i < 1000; i++) {
+				final double value = 10 + (i * 7) % 13 / 13.;
+				executor.submit(new Runnable() {
+
+					@Override
+					public void run() {
+						history.append(value);
+						expected.append(value);
+					}
+
+				}).get();
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		assertEquals(1000, history.getCount());
+		// each stripe decays with its own measurements
+		assertEquals(expected.getMean(), history.getMean(), expected.getMean() * 0.05);
+	}
+
+
+	/**
+	 * The moving average as calculated before the measurements were striped.
+	 */
+	private static class UnstripedAverage {
+
+		private final double decay;
+
+		private double sum;
+
+		private double sumSquares;
+
+		private double weight;
+
+		private UnstripedAverage(int window) {
+			this.decay = 1 - 1. / window;
+		}
+
+		private void append(double value) {
+			this.sum = this.decay * this.sum + value;
+			this.sumSquares = this.decay * this.sumSquares + value * value;
+			this.weight = this.decay * this.weight + 1;
+		}
+
+		private double getMean() {
+			return this.sum / this.weight;
+		}
+
+		private double getStandardDeviation() {
+			double mean = this.getMean();
+			return Math.sqrt(this.sumSquares / this.weight - mean * mean);
+		}
+
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
-   * Copyright 2002-2012 the original author or authors.
+   * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -70,6 +70,8 @@ public class JpaOutboundChannelAdapterParser extends AbstractOutboundChannelAdap
 
 		jpaOutboundChannelAdapterBuilder.addConstructorArgReference(jpaExecutorBeanName);
 		jpaOutboundChannelAdapterBuilder.addPropertyValue("producesReply", Boolean.FALSE);
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(jpaOutboundChannelAdapterBuilder, element, "batch-size");
+		IntegrationNamespaceUtils.setValueIfAttributeDefined(jpaOutboundChannelAdapterBuilder, element, "batch-timeout");
 
 		final Element transactionalElement = DomUtils.getChildElementByTagName(element, "transactional");
 
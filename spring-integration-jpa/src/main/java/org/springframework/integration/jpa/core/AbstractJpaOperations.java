@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -71,4 +71,9 @@ abstract class AbstractJpaOperations implements JpaOperations, InitializingBean
 		this.entityManager.flush();
 	}
 
+	@Override
+	public void clear() {
+		this.entityManager.clear();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,7 +21,10 @@ import java.util.List;
 import java.util.Set;
 
 import javax.persistence.Parameter;
+import javax.persistence.PersistenceUnitUtil;
 import javax.persistence.Query;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -46,6 +49,12 @@ public class DefaultJpaOperations extends AbstractJpaOperations {
 
 	private static final Log logger = LogFactory.getLog(DefaultJpaOperations.class);
 
+	/**
+	 * The maximum number of identifiers in the 'in' clause of each batch delete statement;
+	 * some databases (e.g. Oracle) limit the number of expressions in a list.
+	 */
+	private static final int DELETE_IN_BATCH_MAX_IDS = 1000;
+
 	@Override
 	public void delete(Object entity) {
 		Assert.notNull(entity, "The entity must not be null!");
@@ -78,9 +87,63 @@ public class DefaultJpaOperations extends AbstractJpaOperations {
 		final String entityName  = JpaUtils.getEntityName(entityManager, entityClass);
 		final String queryString = JpaUtils.getQueryString(JpaUtils.DELETE_ALL_QUERY_STRING, entityName);
 
-		JpaUtils.applyAndBind(queryString, entities, entityManager)
+		final String idAttributeName = this.getIdAttributeName(entityClass);
+
+		if (idAttributeName == null) {
+			JpaUtils.applyAndBind(queryString, entities, entityManager)
+					.executeUpdate();
+			return;
+		}
+
+		/*
+		 * Delete by identifier, with a single bound parameter per statement, rather
+		 * than with one 'or' clause (and parameter) per entity.
+		 */
+		final String deleteByIdQueryString = queryString + " where x." + idAttributeName + " in (:ids)";
+		final PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+
+		List<Object> ids = new ArrayList<Object>();
+		for (Object entity : entities) {
+			ids.add(persistenceUnitUtil.getIdentifier(entity));
+			if (ids.size() == DELETE_IN_BATCH_MAX_IDS) {
+				this.deleteByIds(deleteByIdQueryString, ids);
+				ids.clear();
+			}
+		}
+		if (ids.size() > 0) {
+			this.deleteByIds(deleteByIdQueryString, ids);
+		}
+
+	}
+
+	private void deleteByIds(String deleteByIdQueryString, List<Object> ids) {
+		entityManager.createQuery(deleteByIdQueryString)
+				.setParameter("ids", ids)
 				.executeUpdate();
+	}
 
+	/**
+	 * @return the name of the identifier attribute of the entity class, or null if
+	 * it has a composite identifier (or is not known to the metamodel).
+	 */
+	private String getIdAttributeName(Class<?> entityClass) {
+		try {
+			EntityType<?> entityType = entityManager.getMetamodel().entity(entityClass);
+			if (entityType.hasSingleIdAttribute()) {
+				for (SingularAttribute<?, ?> attribute : entityType.getSingularAttributes()) {
+					if (attribute.isId()) {
+						return attribute.getName();
+					}
+				}
+			}
+		}
+		catch (IllegalArgumentException e) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not determine the identifier attribute of " + entityClass
+						+ "; entities will be deleted by reference", e);
+			}
+		}
+		return null;
 	}
 
 	@Override
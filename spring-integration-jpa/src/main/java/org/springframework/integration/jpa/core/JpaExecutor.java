@@ -330,6 +330,9 @@ public class JpaExecutor implements InitializingBean, BeanFactoryAware, Integrat
 
 			if (this.flush) {
 				this.jpaOperations.flush();
+				if (this.clearOnFlush) {
+					this.jpaOperations.clear();
+				}
 			}
 		}
 		return payload;
@@ -505,6 +508,8 @@ public class JpaExecutor implements InitializingBean, BeanFactoryAware, Integrat
 	/**
 	 * If set to {@code true} the {@link javax.persistence.EntityManager#clear()} will be called,
 	 * and only if the {@link javax.persistence.EntityManager#flush()} was called after performing persistence operations.
+	 * This also applies to the deletion of polled entities ({@link #setDeleteAfterPoll(boolean)}),
+	 * so that entities from earlier polls do not accumulate in the persistence context.
 	 *
 	 * @see #setFlush(boolean)
 	 * @see #setFlushSize(int)
@@ -209,4 +209,10 @@ public interface JpaOperations {
 	 */
 	void flush();
 
+	/**
+	 * Executes {@link javax.persistence.EntityManager#clear()}.
+	 * @since 4.0
+	 */
+	void clear();
+
 }
@@ -16,11 +16,23 @@
 
 package org.springframework.integration.jpa.outbound;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import org.aopalliance.aop.Advice;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.integration.channel.MessagePublishingErrorHandler;
 import org.springframework.integration.handler.AbstractReplyProducingMessageHandler;
 import org.springframework.integration.jpa.core.JpaExecutor;
 import org.springframework.integration.jpa.support.OutboundGatewayType;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandlingException;
 import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
 
 /**
  * The Jpa Outbound Gateway will allow you to make outbound operations to either:
@@ -37,6 +49,16 @@ import org.springframework.util.Assert;
  * In order to initialize the adapter, you must provide a {@link JpaExecutor} as
  * constructor.
  *
+ * When acting as an Outbound Channel Adapter of type {@link OutboundGatewayType#UPDATING},
+ * messages can be written in batches (see {@link #setBatchSize(int)}): each batch is
+ * written in a single transaction (if a {@link #setBatchAdviceChain(List) batch advice chain}
+ * with a transaction interceptor is provided). If a batch fails, each of its messages is
+ * written again on its own (in its own transaction) and, for each message that still fails,
+ * an {@link org.springframework.messaging.support.ErrorMessage} is published to the
+ * message's error channel header or the default 'errorChannel'. An entity persisted (rather
+ * than merged) by the failed batch may have been given a generated id, in which case it
+ * cannot be persisted again and its message is reported as failed.
+ *
  * @author Gunnar Hillert
  * @author Amol Nayak
  *
@@ -49,6 +71,26 @@ public class JpaOutboundGateway extends AbstractReplyProducingMessageHandler {
 	private OutboundGatewayType gatewayType = OutboundGatewayType.UPDATING;
 	private boolean producesReply = true;	//false for outbound-channel-adapter, true for outbound-gateway
 
+	private volatile int batchSize;
+
+	private volatile long batchTimeout = 1000;
+
+	private volatile List<Advice> batchAdviceChain;
+
+	private volatile BatchWriter batchWriter = new DefaultBatchWriter();
+
+	private final MessagePublishingErrorHandler batchErrorHandler = new MessagePublishingErrorHandler();
+
+	private final Object batchMonitor = new Object();
+
+	/*
+	 * The messages of the current batch, and the task that writes it when the batch times out;
+	 * only accessed while holding the batchMonitor.
+	 */
+	private List<Message<?>> batch;
+
+	private ScheduledFuture<?> batchTimeoutTask;
+
 	/**
 	 * Constructor taking an {@link JpaExecutor} that wraps all JPA Operations.
 	 *
@@ -64,10 +106,30 @@ public class JpaOutboundGateway extends AbstractReplyProducingMessageHandler {
 	@Override
 	protected void doInit() {
 		this.jpaExecutor.setBeanFactory(this.getBeanFactory());
+		if (this.batchSize > 0) {
+			Assert.state(!this.producesReply && OutboundGatewayType.UPDATING.equals(this.gatewayType),
+					"Batching is only supported by an Outbound Channel Adapter of type 'UPDATING'.");
+			Assert.state(this.batchTimeout <= 0 || this.getTaskScheduler() != null,
+					"A 'taskScheduler' is required for the 'batchTimeout'.");
+			if (this.getBeanFactory() != null) {
+				this.batchErrorHandler.setBeanFactory(this.getBeanFactory());
+			}
+			if (!CollectionUtils.isEmpty(this.batchAdviceChain)) {
+				ProxyFactory proxyFactory = new ProxyFactory(this.batchWriter);
+				for (Advice advice : this.batchAdviceChain) {
+					proxyFactory.addAdvice(advice);
+				}
+				this.batchWriter = (BatchWriter) proxyFactory.getProxy(BatchWriter.class.getClassLoader());
+			}
+		}
 	}
 
 	@Override
 	protected Object handleRequestMessage(Message<?> requestMessage) {
+		if (this.batchSize > 0) {
+			this.addToBatch(requestMessage);
+			return null;
+		}
 		final Object result;
 		if (OutboundGatewayType.RETRIEVING.equals(this.gatewayType)) {
 			result = this.jpaExecutor.poll(requestMessage);
@@ -104,4 +166,166 @@ public class JpaOutboundGateway extends AbstractReplyProducingMessageHandler {
 	public void setProducesReply(boolean producesReply) {
 		this.producesReply = producesReply;
 	}
+
+	/**
+	 * Set the number of messages written together, in a single call of the
+	 * {@link #setBatchAdviceChain(List) batch advice chain} (typically, in a single
+	 * transaction). A batch is written by the thread that adds its last message, or when
+	 * the {@link #setBatchTimeout(long) batch timeout} expires. Only supported by an
+	 * Outbound Channel Adapter of type {@link OutboundGatewayType#UPDATING}.
+	 * Default 0 (each message is written when it is handled).
+	 *
+	 * @param batchSize the maximum number of messages per batch.
+	 * @since 4.0
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize >= 0, "'batchSize' cannot be negative");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Set the maximum time (in milliseconds) the first message of a batch waits before
+	 * the batch is written, even if it is not full; requires a 'taskScheduler'.
+	 * If 0 or less, incomplete batches are only written by {@link #flushBatch()}.
+	 * Default 1000.
+	 *
+	 * @param batchTimeout the batch timeout.
+	 * @since 4.0
+	 */
+	public void setBatchTimeout(long batchTimeout) {
+		this.batchTimeout = batchTimeout;
+	}
+
+	/**
+	 * Set the advice chain (for example, a transaction interceptor) applied to the
+	 * writing of each batch, whichever thread writes it.
+	 *
+	 * @param batchAdviceChain the advice chain.
+	 * @since 4.0
+	 */
+	public void setBatchAdviceChain(List<Advice> batchAdviceChain) {
+		this.batchAdviceChain = batchAdviceChain;
+	}
+
+	/**
+	 * Write the messages of the current batch, if any, without waiting for it to
+	 * be complete.
+	 *
+	 * @since 4.0
+	 */
+	public void flushBatch() {
+		List<Message<?>> messages;
+		synchronized (this.batchMonitor) {
+			messages = this.takeBatch();
+		}
+		if (messages != null) {
+			this.writeBatch(messages);
+		}
+	}
+
+	private void addToBatch(Message<?> message) {
+		List<Message<?>> messages = null;
+		synchronized (this.batchMonitor) {
+			if (this.batch == null) {
+				this.batch = new ArrayList<Message<?>>(this.batchSize);
+				if (this.batchTimeout > 0) {
+					final List<Message<?>> newBatch = this.batch;
+					this.batchTimeoutTask = this.getTaskScheduler().schedule(new Runnable() {
+
+						@Override
+						public void run() {
+							flushBatch(newBatch);
+						}
+
+					}, new Date(System.currentTimeMillis() + this.batchTimeout));
+				}
+			}
+			this.batch.add(message);
+			if (this.batch.size() >= this.batchSize) {
+				messages = this.takeBatch();
+			}
+		}
+		if (messages != null) {
+			this.writeBatch(messages);
+		}
+	}
+
+	/**
+	 * Write the batch if it is still the current one (it may have been written because it
+	 * became full).
+	 */
+	private void flushBatch(List<Message<?>> timedOutBatch) {
+		List<Message<?>> messages = null;
+		synchronized (this.batchMonitor) {
+			if (this.batch == timedOutBatch) {
+				messages = this.takeBatch();
+			}
+		}
+		if (messages != null) {
+			this.writeBatch(messages);
+		}
+	}
+
+	/**
+	 * Must be called while holding the batchMonitor.
+	 */
+	private List<Message<?>> takeBatch() {
+		List<Message<?>> messages = this.batch;
+		this.batch = null;
+		if (this.batchTimeoutTask != null) {
+			this.batchTimeoutTask.cancel(false);
+			this.batchTimeoutTask = null;
+		}
+		return messages;
+	}
+
+	private void writeBatch(List<Message<?>> messages) {
+		try {
+			this.batchWriter.write(messages);
+		}
+		catch (Exception e) {
+			if (messages.size() == 1) {
+				this.batchErrorHandler.handleError(new MessageHandlingException(messages.get(0),
+						"Failed to write message", e));
+				return;
+			}
+			if (logger.isWarnEnabled()) {
+				logger.warn("Failed to write a batch of " + messages.size()
+						+ " messages; writing them one at a time", e);
+			}
+			// the batch was rolled back; only report the messages that cannot be written
+			for (Message<?> message : messages) {
+				try {
+					this.batchWriter.write(Collections.<Message<?>>singletonList(message));
+				}
+				catch (Exception e2) {
+					this.batchErrorHandler.handleError(new MessageHandlingException(message,
+							"Failed to write message", e2));
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Writes a batch of messages; proxied with the batch advice chain, if any.
+	 */
+	interface BatchWriter {
+
+		void write(List<Message<?>> messages);
+
+	}
+
+
+	private class DefaultBatchWriter implements BatchWriter {
+
+		@Override
+		public void write(List<Message<?>> messages) {
+			for (Message<?> message : messages) {
+				jpaExecutor.executeOutboundJpaOperation(message);
+			}
+		}
+
+	}
+
 }
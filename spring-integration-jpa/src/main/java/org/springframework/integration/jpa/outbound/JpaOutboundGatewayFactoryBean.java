@@ -75,6 +75,10 @@ public class JpaOutboundGatewayFactoryBean extends AbstractFactoryBean<MessageHa
 
 	private volatile String componentName;
 
+	private volatile int batchSize;
+
+	private volatile long batchTimeout = 1000;
+
 	/**
 	 * Constructor taking an {@link JpaExecutor} that wraps all JPA Operations.
 	 *
@@ -134,6 +138,24 @@ public class JpaOutboundGatewayFactoryBean extends AbstractFactoryBean<MessageHa
 		this.componentName = componentName;
 	}
 
+	/**
+	 * @param batchSize The batch size.
+	 * @see JpaOutboundGateway#setBatchSize(int)
+	 * @since 4.0
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * @param batchTimeout The batch timeout in milliseconds.
+	 * @see JpaOutboundGateway#setBatchTimeout(long)
+	 * @since 4.0
+	 */
+	public void setBatchTimeout(long batchTimeout) {
+		this.batchTimeout = batchTimeout;
+	}
+
 	@Override
 	public Class<?> getObjectType() {
 		return MessageHandler.class;
@@ -153,9 +175,16 @@ public class JpaOutboundGatewayFactoryBean extends AbstractFactoryBean<MessageHa
 		if (this.adviceChain != null) {
 			jpaOutboundGateway.setAdviceChain(this.adviceChain);
 		}
+		jpaOutboundGateway.setBatchSize(this.batchSize);
+		jpaOutboundGateway.setBatchTimeout(this.batchTimeout);
+		boolean batching = this.batchSize > 0;
+		if (batching) {
+			// the transaction applies to the writing of each batch, rather than to each message
+			jpaOutboundGateway.setBatchAdviceChain(this.txAdviceChain);
+		}
 		jpaOutboundGateway.setBeanFactory(this.getBeanFactory());
 		jpaOutboundGateway.afterPropertiesSet();
-		if (!CollectionUtils.isEmpty(this.txAdviceChain)) {
+		if (!batching && !CollectionUtils.isEmpty(this.txAdviceChain)) {
 
 			ProxyFactory proxyFactory = new ProxyFactory(jpaOutboundGateway);
 			if (!CollectionUtils.isEmpty(txAdviceChain)) {
@@ -169,4 +198,12 @@ public class JpaOutboundGatewayFactoryBean extends AbstractFactoryBean<MessageHa
 
 		return jpaOutboundGateway;
 	}
+
+	@Override
+	protected void destroyInstance(MessageHandler instance) throws Exception {
+		if (instance instanceof JpaOutboundGateway) {
+			((JpaOutboundGateway) instance).flushBatch();
+		}
+	}
+
 }
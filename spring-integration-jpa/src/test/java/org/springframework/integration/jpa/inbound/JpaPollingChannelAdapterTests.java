@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -311,6 +311,60 @@ public class JpaPollingChannelAdapterTests {
 
 	}
 
+	/**
+	 * In this test, a Jpa Polling Channel Adapter will drain the table in chunks of
+	 * at most 2 records, deleting each chunk in batch (by identifier) and clearing
+	 * the persistence context after each poll.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	@DirtiesContext
+	public void testWithJpaQueryAndDeleteInChunks() throws Exception {
+		testTrigger.reset();
+
+		//~~~~SETUP~~~~~
+		final JpaExecutor jpaExecutor = new JpaExecutor(entityManager);
+		jpaExecutor.setJpaQuery("from Student s order by s.rollNumber");
+		jpaExecutor.setMaxResultsExpression(new LiteralExpression("2"));
+		jpaExecutor.setDeleteAfterPoll(true);
+		jpaExecutor.setDeleteInBatch(true);
+		jpaExecutor.setFlush(true);
+		jpaExecutor.setClearOnFlush(true);
+		jpaExecutor.afterPropertiesSet();
+
+		final JpaPollingChannelAdapter jpaPollingChannelAdapter = new JpaPollingChannelAdapter(jpaExecutor);
+
+		final SourcePollingChannelAdapter adapter = JpaTestUtils.getSourcePollingChannelAdapter(
+				jpaPollingChannelAdapter, this.outputChannel, this.poller, this.context, this.getClass().getClassLoader());
+		adapter.start();
+
+		//~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~
+
+		final Consumer consumer = new Consumer();
+
+		Message<Collection<?>> message = consumer.poll(5000);
+
+		adapter.stop();
+
+		assertNotNull("Message is null.", message);
+		assertEquals(2, message.getPayload().size());
+		assertEquals(Long.valueOf(1), entityManager.createQuery("select count(*) from Student", Long.class).getSingleResult());
+
+		testTrigger.reset();
+		adapter.start();
+
+		message = consumer.poll(5000);
+
+		adapter.stop();
+
+		assertNotNull("Message is null.", message);
+		assertEquals(1, message.getPayload().size());
+
+		assertEquals(Long.valueOf(0), entityManager.createQuery("select count(*) from Student", Long.class).getSingleResult());
+
+	}
+
 	private Long waitForDeletes(Collection<?> students) throws InterruptedException {
 		Long studentCount = Long.valueOf(students.size());
 
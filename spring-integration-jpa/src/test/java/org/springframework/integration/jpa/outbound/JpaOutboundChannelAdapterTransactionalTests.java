@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2013 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
  * the License. You may obtain a copy of the License at
@@ -24,6 +24,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandlingException;
+import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.jpa.test.JpaTestUtils;
 import org.springframework.integration.jpa.test.entity.StudentDomain;
 import org.springframework.integration.support.MessageBuilder;
@@ -46,6 +48,10 @@ public class JpaOutboundChannelAdapterTransactionalTests {
 	@Qualifier("input")
 	private MessageChannel channel;
 
+	@Autowired
+	@Qualifier("batchInput")
+	private MessageChannel batchChannel;
+
 	@Autowired
 	DataSource dataSource;
 
@@ -70,4 +76,52 @@ public class JpaOutboundChannelAdapterTransactionalTests {
 
 	}
 
+	@Test
+	@DirtiesContext
+	public void saveEntitiesInBatches() throws InterruptedException {
+
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+		Assert.assertEquals(3, jdbcTemplate.queryForList("Select * from Student").size());
+
+		batchChannel.send(MessageBuilder.withPayload(JpaTestUtils.getTestStudent()).build());
+		Assert.assertEquals(3, jdbcTemplate.queryForList("Select * from Student").size());
+
+		// completes the batch
+		batchChannel.send(MessageBuilder.withPayload(JpaTestUtils.getTestStudent()).build());
+		Assert.assertEquals(5, jdbcTemplate.queryForList("Select * from Student").size());
+
+		// written when the batch times out
+		batchChannel.send(MessageBuilder.withPayload(JpaTestUtils.getTestStudent()).build());
+		int n = 0;
+		while (jdbcTemplate.queryForList("Select * from Student").size() < 6) {
+			Thread.sleep(100);
+			Assert.assertTrue("Batch was not written after its timeout", n++ < 100);
+		}
+
+	}
+
+	@Test
+	@DirtiesContext
+	public void failedBatchReportsOnlyFailedMessages() throws InterruptedException {
+
+		QueueChannel errorChannel = new QueueChannel();
+		Message<?> message1 = MessageBuilder.withPayload(JpaTestUtils.getTestStudent())
+				.setErrorChannel(errorChannel).build();
+		Message<?> message2 = MessageBuilder.withPayload("not an entity")
+				.setErrorChannel(errorChannel).build();
+
+		batchChannel.send(message1);
+		batchChannel.send(message2);
+
+		Message<?> error = errorChannel.receive(10000);
+		Assert.assertNotNull(error);
+		Assert.assertSame(message2, ((MessageHandlingException) error.getPayload()).getFailedMessage());
+		Assert.assertNull(errorChannel.receive(0));
+
+		// the valid message was written again on its own
+		Assert.assertEquals(4, new JdbcTemplate(dataSource).queryForList("Select * from Student").size());
+
+	}
+
 }
@@ -15,12 +15,15 @@
  */
 package org.springframework.integration.mongodb.store;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.UUID;
 
@@ -34,9 +37,11 @@ import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.convert.converter.GenericConverter;
 import org.springframework.core.serializer.support.DeserializingConverter;
 import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.IndexOperations;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.convert.CustomConversions;
@@ -47,21 +52,29 @@ import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Order;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.store.AbstractMessageGroupStore;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.MessageStore;
-import org.springframework.integration.store.SimpleMessageGroup;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.util.Assert;
 
+import org.bson.types.ObjectId;
+
 /**
  * An alternate MongoDB {@link MessageStore} and {@link MessageGroupStore} which allows the user to
  * configure the instance of {@link MongoTemplate}. The mechanism of storing the messages/group of messages
  * in the store is and is different from {@link MongoDbMessageStore}. Since the store uses serialization of the
  * messages by default, all the headers, and the payload of the Message must implement {@link java.io.Serializable}
  * interface
+ * <p>
+ * The attributes of each group (creation and modification times, completion and last released
+ * sequence number) are held in a separate metadata document in the same collection, which is
+ * updated atomically, so adding a message to a group does not read the group first. The
+ * {@link MessageGroup}s returned by this store are lazy views: their size is obtained with a
+ * count query and their messages are read, a page at a time, only when iterated.
  *
  * @author Amol Nayak
  * @author Artem Bilan
@@ -93,6 +106,18 @@ public class ConfigurableMongoDbMessageStore extends AbstractMessageGroupStore
 
 	private static final String COMPLETE = "complete";
 
+	private static final String CREATED_TIME = "createdTime";
+
+	/*
+	 * The key of a group's metadata document; message documents do not have this field,
+	 * and metadata documents do not have a groupId.
+	 */
+	private static final String METADATA_GROUP_ID = "metadataGroupId";
+
+	private static final String ID = "_id";
+
+	private static final int DEFAULT_PAGE_SIZE = 100;
+
 	private final String collectionName;
 
 	private final MongoDbFactory mongoDbFactory;
@@ -103,6 +128,8 @@ public class ConfigurableMongoDbMessageStore extends AbstractMessageGroupStore
 
 	private ApplicationContext applicationContext;
 
+	private volatile int pageSize = DEFAULT_PAGE_SIZE;
+
 
 	public ConfigurableMongoDbMessageStore(MongoTemplate mongoTemplate) {
 		this(mongoTemplate, DEFAULT_COLLECTION_NAME);
@@ -136,6 +163,17 @@ public class ConfigurableMongoDbMessageStore extends AbstractMessageGroupStore
 		this.mappingMongoConverter = mappingMongoConverter;
 	}
 
+	/**
+	 * Set the number of messages read at a time when the messages of a group are iterated.
+	 * Default 100.
+	 * @param pageSize the page size.
+	 * @since 4.0
+	 */
+	public void setPageSize(int pageSize) {
+		Assert.isTrue(pageSize > 0, "'pageSize' must be greater than 0");
+		this.pageSize = pageSize;
+	}
+
 	@Override
 	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
 		this.applicationContext = applicationContext;
@@ -161,6 +199,8 @@ public class ConfigurableMongoDbMessageStore extends AbstractMessageGroupStore
 		IndexOperations indexOperations = this.mongoTemplate.indexOps(this.collectionName);
 		indexOperations.ensureIndex(new Index(MESSAGE_ID, Order.ASCENDING));
 		indexOperations.ensureIndex(new Index(GROUP_ID, Order.ASCENDING).on(LAST_MODIFIED_TIME, Order.DESCENDING));
+		indexOperations.ensureIndex(new Index(GROUP_ID, Order.ASCENDING).on(ID, Order.ASCENDING));
+		indexOperations.ensureIndex(new Index(METADATA_GROUP_ID, Order.ASCENDING).unique().sparse());
 	}
 
 
@@ -179,14 +219,23 @@ public class ConfigurableMongoDbMessageStore extends AbstractMessageGroupStore
 		return message;
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
 	private void addMessageDocument(MessageDocument document) {
+		if (this.prepareMessageDocument(document)) {
+			this.mongoTemplate.insert(document, this.collectionName);
+		}
+	}
+
+	/**
+	 * @return false if the document's message has already been stored, unchanged.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private boolean prepareMessageDocument(MessageDocument document) {
 		Message<?> message = document.getMessage();
 		if (message.getHeaders().containsKey(SAVED_KEY)) {
 			Message<?> saved = getMessage(message.getHeaders().getId());
 			if (saved != null) {
 				if (saved.equals(message)) {
-					return;
+					return false;
 				} // We need to save it under its own id
 			}
 		}
@@ -202,7 +251,7 @@ public class ConfigurableMongoDbMessageStore extends AbstractMessageGroupStore
 		innerMap.put(MessageHeaders.TIMESTAMP, message.getHeaders().get(MessageHeaders.TIMESTAMP));
 
 		document.setCreatedTime(createdDate);
-		this.mongoTemplate.insert(document, this.collectionName);
+		return true;
 	}
 
 	@Override
@@ -215,7 +264,7 @@ public class ConfigurableMongoDbMessageStore extends AbstractMessageGroupStore
 
 	@Override
 	public long getMessageCount() {
-		return this.mongoTemplate.getCollection(this.collectionName).getCount();
+		return this.mongoTemplate.count(Query.query(Criteria.where(MESSAGE_ID).exists(true)), this.collectionName);
 	}
 
 
@@ -227,61 +276,61 @@ public class ConfigurableMongoDbMessageStore extends AbstractMessageGroupStore
 	}
 
 	@Override
+	@SuppressWarnings("rawtypes")
 	public MessageGroup getMessageGroup(Object groupId) {
-		List<MessageDocument> messageDocuments = this.mongoTemplate.find(groupIdQuery(groupId), MessageDocument.class,
-				this.collectionName);
-
-		long createdTime = 0;
-		long lastModifiedTime = 0;
-		int lastReleasedSequence = 0;
-		boolean complete = false;
-
-		if (messageDocuments.size() > 0) {
-			MessageDocument document = messageDocuments.get(0);
-			createdTime = document.getCreatedTime();
-			lastModifiedTime = document.getLastModifiedTime();
-			complete = document.isComplete();
-			lastReleasedSequence = document.getLastReleasedSequence();
+		Map metadata = this.mongoTemplate.findOne(metadataQuery(groupId), Map.class, this.collectionName);
+		if (metadata != null) {
+			return new PersistentMessageGroup(groupId, metadata);
 		}
-
-		List<Message<?>> messages = new ArrayList<Message<?>>();
-		for (MessageDocument document : messageDocuments) {
-			messages.add(document.getMessage());
+		// no metadata: the group is empty, or was stored by an earlier version of this store
+		MessageDocument document = this.mongoTemplate.findOne(groupIdQuery(groupId), MessageDocument.class,
+				this.collectionName);
+		if (document == null) {
+			return new PersistentMessageGroup(groupId, 0, 0, false, 0);
 		}
-		SimpleMessageGroup group = new SimpleMessageGroup(messages, groupId, createdTime, complete);
-		group.setLastReleasedMessageSequenceNumber(lastReleasedSequence);
-		group.setLastModified(lastModifiedTime);
-
-		return group;
+		return new PersistentMessageGroup(groupId, document.getCreatedTime(), document.getLastModifiedTime(),
+				document.isComplete(), document.getLastReleasedSequence());
 	}
 
 	@Override
 	public MessageGroup addMessageToGroup(Object groupId, Message<?> message) {
 		Assert.notNull(groupId, "'groupId' must not be null");
 		Assert.notNull(message, "'message' must not be null");
-		MessageDocument messageDocument = this.mongoTemplate.findOne(groupIdQuery(groupId), MessageDocument.class,
-				this.collectionName);
-
-		long createdTime = 0;
-		int lastReleasedSequence = 0;
-		boolean complete = false;
-
-		if (messageDocument != null) {
-			createdTime = messageDocument.getCreatedTime();
-			lastReleasedSequence = messageDocument.getLastReleasedSequence();
-			complete = messageDocument.isComplete();
-		}
-
+		long now = System.currentTimeMillis();
 		MessageDocument document = new MessageDocument(message);
 		document.setGroupId(groupId);
-		document.setComplete(complete);
-		document.setLastReleasedSequence(lastReleasedSequence);
-		document.setCreatedTime(createdTime == 0 ? System.currentTimeMillis() : createdTime);
-		document.setLastModifiedTime(System.currentTimeMillis());
-
+		document.setCreatedTime(now);
+		document.setLastModifiedTime(now);
 		this.addMessageDocument(document);
+		return this.updateGroup(groupId, Update.update(LAST_MODIFIED_TIME, now));
+	}
 
-		return this.getMessageGroup(groupId);
+	/**
+	 * Inserts all the new documents with a single batch insert.
+	 */
+	@Override
+	public void addMessagesToGroup(Object groupId, Collection<Message<?>> messages) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		Assert.notNull(messages, "'messages' must not be null");
+		if (messages.isEmpty()) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		List<MessageDocument> documents = new ArrayList<MessageDocument>(messages.size());
+		for (Message<?> message : messages) {
+			Assert.notNull(message, "'message' must not be null");
+			MessageDocument document = new MessageDocument(message);
+			document.setGroupId(groupId);
+			document.setCreatedTime(now);
+			document.setLastModifiedTime(now);
+			if (this.prepareMessageDocument(document)) {
+				documents.add(document);
+			}
+		}
+		if (!documents.isEmpty()) {
+			this.mongoTemplate.insert(documents, this.collectionName);
+		}
+		this.updateGroup(groupId, Update.update(LAST_MODIFIED_TIME, now));
 	}
 
 	@Override
@@ -290,26 +339,47 @@ public class ConfigurableMongoDbMessageStore extends AbstractMessageGroupStore
 		Assert.notNull(messageToRemove, "'messageToRemove' must not be null");
 		Query query = groupIdQuery(groupId).addCriteria(Criteria.where(MESSAGE_ID).is(messageToRemove.getHeaders().getId()));
 		this.mongoTemplate.remove(query, this.collectionName);
+		return this.updateGroup(groupId, lastModifiedUpdate());
+	}
+
+	/**
+	 * Removes all the messages with a single query.
+	 */
+	@Override
+	public void removeMessagesFromGroup(Object groupId, Collection<Message<?>> messagesToRemove) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		Assert.notNull(messagesToRemove, "'messagesToRemove' must not be null");
+		if (messagesToRemove.isEmpty()) {
+			return;
+		}
+		List<UUID> messageIds = new ArrayList<UUID>(messagesToRemove.size());
+		for (Message<?> message : messagesToRemove) {
+			messageIds.add(message.getHeaders().getId());
+		}
+		Query query = groupIdQuery(groupId).addCriteria(Criteria.where(MESSAGE_ID).in(messageIds));
+		this.mongoTemplate.remove(query, this.collectionName);
 		this.updateGroup(groupId, lastModifiedUpdate());
-		return this.getMessageGroup(groupId);
 	}
 
 	@Override
 	public void removeMessageGroup(Object groupId) {
 		this.mongoTemplate.remove(groupIdQuery(groupId), this.collectionName);
+		this.mongoTemplate.remove(metadataQuery(groupId), this.collectionName);
 	}
 
 	@Override
 	@SuppressWarnings({ "rawtypes" })
 	public Iterator<MessageGroup> iterator() {
 		Map<Object, MessageGroup> messageGroupMap = new HashMap<Object, MessageGroup>();
-		Query query = Query.query(Criteria.where(GROUP_ID).exists(true));
-		query.fields().include(GROUP_ID);
+		// groups whose messages have all been removed only have a metadata document
+		Query query = Query.query(new Criteria().orOperator(Criteria.where(GROUP_ID).exists(true),
+				Criteria.where(METADATA_GROUP_ID).exists(true)));
+		query.fields().include(GROUP_ID).include(METADATA_GROUP_ID);
 		List<Map> groupIds = this.mongoTemplate.find(query, Map.class, this.collectionName);
 		for (Map groupId : groupIds) {
-			Object key = groupId.get(GROUP_ID);
+			Object key = groupId.containsKey(GROUP_ID) ? groupId.get(GROUP_ID) : groupId.get(METADATA_GROUP_ID);
 			if (!messageGroupMap.containsKey(key)) {
-				messageGroupMap.put(key, this.getMessageGroup(groupId));
+				messageGroupMap.put(key, this.getMessageGroup(key));
 			}
 		}
 		return messageGroupMap.values().iterator();
@@ -339,8 +409,50 @@ public class ConfigurableMongoDbMessageStore extends AbstractMessageGroupStore
 	}
 
 
-	private void updateGroup(Object groupId, Update update) {
-		this.mongoTemplate.updateFirst(groupIdQuery(groupId), update, this.collectionName);
+	/**
+	 * Update (creating it if necessary) the metadata document of the group.
+	 * @return a view of the updated group.
+	 */
+	@SuppressWarnings("rawtypes")
+	private MessageGroup updateGroup(Object groupId, Update update) {
+		FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+		Map metadata;
+		try {
+			metadata = this.mongoTemplate.findAndModify(metadataQuery(groupId), update, options, Map.class,
+					this.collectionName);
+		}
+		catch (DuplicateKeyException e) {
+			// another store created the document concurrently
+			metadata = this.mongoTemplate.findAndModify(metadataQuery(groupId), update, options, Map.class,
+					this.collectionName);
+		}
+		if (metadata.get(CREATED_TIME) == null) {
+			metadata = this.initializeGroup(groupId, metadata);
+		}
+		return new PersistentMessageGroup(groupId, metadata);
+	}
+
+	/**
+	 * Complete a newly created metadata document; the attributes that were not just
+	 * updated are taken from the group's first message, if any, which carries them for
+	 * groups stored by an earlier version of this store.
+	 */
+	@SuppressWarnings("rawtypes")
+	private Map initializeGroup(Object groupId, Map metadata) {
+		MessageDocument document = this.mongoTemplate.findOne(groupIdQuery(groupId).with(new Sort(ID)),
+				MessageDocument.class, this.collectionName);
+		long createdTime = (document != null && document.getCreatedTime() != 0) ? document.getCreatedTime()
+				: System.currentTimeMillis();
+		Update update = Update.update(CREATED_TIME, createdTime);
+		if (metadata.get(COMPLETE) == null) {
+			update.set(COMPLETE, document != null && document.isComplete());
+		}
+		if (metadata.get(LAST_RELEASED_SEQUENCE) == null) {
+			update.set(LAST_RELEASED_SEQUENCE, document != null ? document.getLastReleasedSequence() : 0);
+		}
+		Query query = metadataQuery(groupId).addCriteria(Criteria.where(CREATED_TIME).exists(false));
+		this.mongoTemplate.updateFirst(query, update, this.collectionName);
+		return this.mongoTemplate.findOne(metadataQuery(groupId), Map.class, this.collectionName);
 	}
 
 	private static Update lastModifiedUpdate() {
@@ -352,6 +464,196 @@ public class ConfigurableMongoDbMessageStore extends AbstractMessageGroupStore
 		return Query.query(Criteria.where(GROUP_ID).is(groupId));
 	}
 
+	private static Query metadataQuery(Object groupId) {
+		return Query.query(Criteria.where(METADATA_GROUP_ID).is(groupId));
+	}
+
+	private static long longValue(Object value) {
+		return value instanceof Number ? ((Number) value).longValue() : 0;
+	}
+
+
+	/**
+	 * A view of a group in the store; the attributes are those read when the view was
+	 * created, the size is counted on first use, and the messages are read from the store,
+	 * a page at a time, each time they are iterated.
+	 */
+	private final class PersistentMessageGroup implements MessageGroup {
+
+		private final Object groupId;
+
+		private final long timestamp;
+
+		private final long lastModified;
+
+		private final int lastReleasedMessageSequenceNumber;
+
+		private volatile boolean complete;
+
+		private volatile Integer size;
+
+		private volatile Message<?> one;
+
+		private volatile boolean oneRead;
+
+		@SuppressWarnings("rawtypes")
+		private PersistentMessageGroup(Object groupId, Map metadata) {
+			this(groupId, longValue(metadata.get(CREATED_TIME)), longValue(metadata.get(LAST_MODIFIED_TIME)),
+					Boolean.TRUE.equals(metadata.get(COMPLETE)), (int) longValue(metadata.get(LAST_RELEASED_SEQUENCE)));
+		}
+
+		private PersistentMessageGroup(Object groupId, long timestamp, long lastModified, boolean complete,
+				int lastReleasedMessageSequenceNumber) {
+			this.groupId = groupId;
+			this.timestamp = timestamp;
+			this.lastModified = lastModified;
+			this.complete = complete;
+			this.lastReleasedMessageSequenceNumber = lastReleasedMessageSequenceNumber;
+		}
+
+		@Override
+		public boolean canAdd(Message<?> message) {
+			return true;
+		}
+
+		@Override
+		public Collection<Message<?>> getMessages() {
+			return new AbstractCollection<Message<?>>() {
+
+				@Override
+				public Iterator<Message<?>> iterator() {
+					return new MessageIterator(groupId);
+				}
+
+				@Override
+				public int size() {
+					return PersistentMessageGroup.this.size();
+				}
+
+			};
+		}
+
+		@Override
+		public Object getGroupId() {
+			return this.groupId;
+		}
+
+		@Override
+		public int getLastReleasedMessageSequenceNumber() {
+			return this.lastReleasedMessageSequenceNumber;
+		}
+
+		@Override
+		public boolean isComplete() {
+			return this.complete;
+		}
+
+		@Override
+		public void complete() {
+			this.complete = true;
+		}
+
+		@Override
+		public int getSequenceSize() {
+			Message<?> message = this.getOne();
+			return (message != null) ? new IntegrationMessageHeaderAccessor(message).getSequenceSize() : 0;
+		}
+
+		@Override
+		public int size() {
+			if (this.size == null) {
+				this.size = messageGroupSize(this.groupId);
+			}
+			return this.size;
+		}
+
+		@Override
+		public Message<?> getOne() {
+			if (!this.oneRead) {
+				MessageDocument document = mongoTemplate.findOne(groupIdQuery(this.groupId).with(new Sort(ID)),
+						MessageDocument.class, collectionName);
+				this.one = (document != null) ? document.getMessage() : null;
+				this.oneRead = true;
+			}
+			return this.one;
+		}
+
+		@Override
+		public long getTimestamp() {
+			return this.timestamp;
+		}
+
+		@Override
+		public long getLastModified() {
+			return this.lastModified;
+		}
+
+		@Override
+		public String toString() {
+			return "PersistentMessageGroup{groupId=" + this.groupId + ", complete=" + this.complete
+					+ ", timestamp=" + this.timestamp + ", lastModified=" + this.lastModified + "}";
+		}
+
+	}
+
+
+	/**
+	 * Iterates over the messages of a group in insertion order, reading a page of
+	 * documents at a time; each page starts after the last document of the previous one.
+	 */
+	private final class MessageIterator implements Iterator<Message<?>> {
+
+		private final Object groupId;
+
+		private Iterator<MessageDocument> page;
+
+		private String lastId;
+
+		private boolean lastPage;
+
+		private MessageIterator(Object groupId) {
+			this.groupId = groupId;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (this.page != null && this.page.hasNext()) {
+				return true;
+			}
+			if (this.lastPage) {
+				return false;
+			}
+			Query query = groupIdQuery(this.groupId);
+			if (this.lastId != null) {
+				// the ids are generated ObjectIds; the query mapper does not convert operands
+				Object id = ObjectId.isValid(this.lastId) ? new ObjectId(this.lastId) : this.lastId;
+				query.addCriteria(Criteria.where(ID).gt(id));
+			}
+			query.with(new Sort(ID)).limit(pageSize);
+			List<MessageDocument> documents = mongoTemplate.find(query, MessageDocument.class, collectionName);
+			this.lastPage = documents.size() < pageSize;
+			if (!documents.isEmpty()) {
+				this.lastId = documents.get(documents.size() - 1).getId();
+			}
+			this.page = documents.iterator();
+			return this.page.hasNext();
+		}
+
+		@Override
+		public Message<?> next() {
+			if (!this.hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return this.page.next().getMessage();
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException("Use the store to remove messages from the group");
+		}
+
+	}
+
 	/**
 	 * The entity class to wrap {@link Message} to the MongoDB document.
 	 */
@@ -362,7 +664,6 @@ public class ConfigurableMongoDbMessageStore extends AbstractMessageGroupStore
 		 * when the application context is configured with auditing. The document is not
 		 * currently Auditable.
 		 */
-		@SuppressWarnings("unused")
 		@Id
 		private String _id;
 
@@ -388,6 +689,10 @@ public class ConfigurableMongoDbMessageStore extends AbstractMessageGroupStore
 			this.messageId = message.getHeaders().getId();
 		}
 
+		public String getId() {
+			return _id;
+		}
+
 		public Message<?> getMessage() {
 			return message;
 		}
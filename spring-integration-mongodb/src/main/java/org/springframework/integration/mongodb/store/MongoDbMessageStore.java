@@ -22,6 +22,7 @@ import static org.springframework.integration.history.MessageHistory.TIMESTAMP_P
 import static org.springframework.integration.history.MessageHistory.TYPE_PROPERTY;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -220,30 +221,67 @@ public class MongoDbMessageStore extends AbstractMessageGroupStore
 	public MessageGroup addMessageToGroup(Object groupId, Message<?> message) {
 		Assert.notNull(groupId, "'groupId' must not be null");
 		Assert.notNull(message, "'message' must not be null");
-		MessageGroup messageGroup = this.getMessageGroup(groupId);
+		// the group attributes are carried by each document; there is no need to read the whole group
+		MessageWrapper groupWrapper = this.template.findOne(whereGroupIdIs(groupId), MessageWrapper.class, this.collectionName);
 
-		long messageGroupTimestamp = messageGroup.getTimestamp();
-		long lastModified = messageGroup.getLastModified();
-
-		if (messageGroupTimestamp == 0){
-			messageGroupTimestamp = System.currentTimeMillis();
-			lastModified = messageGroupTimestamp;
-		}
-		else {
-			lastModified = System.currentTimeMillis();
+		long lastModified = System.currentTimeMillis();
+		long messageGroupTimestamp = lastModified;
+		boolean complete = false;
+		int lastReleasedSequenceNumber = 0;
+		if (groupWrapper != null && groupWrapper.get_Group_timestamp() != 0) {
+			messageGroupTimestamp = groupWrapper.get_Group_timestamp();
+			complete = groupWrapper.get_Group_complete();
+			lastReleasedSequenceNumber = groupWrapper.get_LastReleasedSequenceNumber();
 		}
 
 		MessageWrapper wrapper = new MessageWrapper(message);
 		wrapper.set_GroupId(groupId);
 		wrapper.set_Group_timestamp(messageGroupTimestamp);
 		wrapper.set_Group_update_timestamp(lastModified);
-		wrapper.set_Group_complete(messageGroup.isComplete());
-		wrapper.set_LastReleasedSequenceNumber(messageGroup.getLastReleasedMessageSequenceNumber());
+		wrapper.set_Group_complete(complete);
+		wrapper.set_LastReleasedSequenceNumber(lastReleasedSequenceNumber);
 
 		this.template.insert(wrapper, this.collectionName);
 		return this.getMessageGroup(groupId);
 	}
 
+	/**
+	 * Reads the group attributes from a single document, rather than building the group,
+	 * and inserts all the messages with a single batch insert.
+	 */
+	@Override
+	public void addMessagesToGroup(Object groupId, Collection<Message<?>> messages) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		Assert.notNull(messages, "'messages' must not be null");
+		if (messages.isEmpty()) {
+			return;
+		}
+		MessageWrapper groupWrapper = this.template.findOne(whereGroupIdIs(groupId), MessageWrapper.class, this.collectionName);
+
+		long lastModified = System.currentTimeMillis();
+		long messageGroupTimestamp = lastModified;
+		boolean complete = false;
+		int lastReleasedSequenceNumber = 0;
+		if (groupWrapper != null && groupWrapper.get_Group_timestamp() != 0) {
+			messageGroupTimestamp = groupWrapper.get_Group_timestamp();
+			complete = groupWrapper.get_Group_complete();
+			lastReleasedSequenceNumber = groupWrapper.get_LastReleasedSequenceNumber();
+		}
+
+		List<MessageWrapper> wrappers = new ArrayList<MessageWrapper>(messages.size());
+		for (Message<?> message : messages) {
+			Assert.notNull(message, "'message' must not be null");
+			MessageWrapper wrapper = new MessageWrapper(message);
+			wrapper.set_GroupId(groupId);
+			wrapper.set_Group_timestamp(messageGroupTimestamp);
+			wrapper.set_Group_update_timestamp(lastModified);
+			wrapper.set_Group_complete(complete);
+			wrapper.set_LastReleasedSequenceNumber(lastReleasedSequenceNumber);
+			wrappers.add(wrapper);
+		}
+		this.template.insert(wrappers, this.collectionName);
+	}
+
 	@Override
 	public MessageGroup removeMessageFromGroup(Object groupId, Message<?> messageToRemove) {
 		Assert.notNull(groupId, "'groupId' must not be null");
@@ -254,6 +292,25 @@ public class MongoDbMessageStore extends AbstractMessageGroupStore
 		return this.getMessageGroup(groupId);
 	}
 
+	/**
+	 * Removes all the messages with a single query.
+	 */
+	@Override
+	public void removeMessagesFromGroup(Object groupId, Collection<Message<?>> messagesToRemove) {
+		Assert.notNull(groupId, "'groupId' must not be null");
+		Assert.notNull(messagesToRemove, "'messagesToRemove' must not be null");
+		if (messagesToRemove.isEmpty()) {
+			return;
+		}
+		List<String> messageIds = new ArrayList<String>(messagesToRemove.size());
+		for (Message<?> message : messagesToRemove) {
+			messageIds.add(message.getHeaders().getId().toString());
+		}
+		this.template.remove(new Query(where("headers.id._value").in(messageIds).and(GROUP_ID_KEY).is(groupId)),
+				this.collectionName);
+		this.updateGroup(groupId);
+	}
+
 	@Override
 	public void removeMessageGroup(Object groupId) {
 		List<MessageWrapper> messageWrappers = this.template.find(whereGroupIdIs(groupId), MessageWrapper.class, this.collectionName);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,7 +16,14 @@
 package org.springframework.integration.mongodb.store;
 
 import static org.junit.Assert.assertEquals;
-
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Test;
@@ -27,10 +34,13 @@ import org.springframework.core.convert.converter.Converter;
 import org.springframework.data.mongodb.MongoDbFactory;
 import org.springframework.data.mongodb.core.SimpleMongoDbFactory;
 import org.springframework.integration.mongodb.rules.MongoDbAvailable;
+import org.springframework.integration.store.MessageGroup;
+import org.springframework.integration.store.MessageGroupStore;
 import org.springframework.integration.store.MessageStore;
 import org.springframework.integration.support.MessageBuilder;
 import org.springframework.integration.test.util.TestUtils;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
 
 import com.mongodb.DBObject;
 import com.mongodb.Mongo;
@@ -84,6 +94,82 @@ public class ConfigurableMongoDbMessageGroupStoreTests extends AbstractMongoDbMe
 		context.close();
 	}
 
+	@Test
+	@MongoDbAvailable
+	public void testMessagesAreReadInPages() throws Exception {
+		this.cleanupCollections(new SimpleMongoDbFactory(new Mongo(), "test"));
+		ConfigurableMongoDbMessageStore store = this.getMessageGroupStore();
+		store.setPageSize(2);
+		MessageGroup group = null;
+		for (int i = 0; i < 5; i++) {
+			group = store.addMessageToGroup(1, new GenericMessage<String>("foo" + i));
+		}
+		assertEquals(5, group.size());
+		assertEquals("foo0", group.getOne().getPayload());
+
+		group = store.getMessageGroup(1);
+		assertEquals(5, group.getMessages().size());
+		Iterator<Message<?>> iterator = group.getMessages().iterator();
+		for (int i = 0; i < 5; i++) {
+			assertTrue(iterator.hasNext());
+			assertEquals("foo" + i, iterator.next().getPayload());
+		}
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	@MongoDbAvailable
+	public void testGroupAttributesSurviveRemovalOfAllMessages() throws Exception {
+		this.cleanupCollections(new SimpleMongoDbFactory(new Mongo(), "test"));
+		ConfigurableMongoDbMessageStore store = this.getMessageGroupStore();
+		Message<?> message = new GenericMessage<String>("foo");
+		MessageGroup group = store.addMessageToGroup(1, message);
+		long timestamp = group.getTimestamp();
+		store.setLastReleasedSequenceNumberForGroup(1, 3);
+		store.completeGroup(1);
+		store.removeMessageFromGroup(1, message);
+		assertEquals(0, store.getMessageCount());
+
+		group = store.getMessageGroup(1);
+		assertEquals(0, group.size());
+		assertTrue(group.isComplete());
+		assertEquals(3, group.getLastReleasedMessageSequenceNumber());
+		assertEquals(timestamp, group.getTimestamp());
+
+		store.removeMessageGroup(1);
+		group = store.getMessageGroup(1);
+		assertFalse(group.isComplete());
+		assertEquals(0, group.getTimestamp());
+	}
+
+	@Test
+	@MongoDbAvailable
+	public void testEmptyGroupIsExpired() throws Exception {
+		this.cleanupCollections(new SimpleMongoDbFactory(new Mongo(), "test"));
+		ConfigurableMongoDbMessageStore store = this.getMessageGroupStore();
+		Message<?> message1 = new GenericMessage<String>("foo");
+		Message<?> message2 = new GenericMessage<String>("bar");
+		store.addMessageToGroup(1, message1);
+		store.addMessageToGroup(1, message2);
+		store.completeGroup(1);
+		store.removeMessagesFromGroup(1, Arrays.<Message<?>>asList(message1, message2));
+		assertEquals(0, store.getMessageCount());
+
+		final List<Object> expired = new ArrayList<Object>();
+		store.registerMessageGroupExpiryCallback(new MessageGroupStore.MessageGroupCallback() {
+
+			@Override
+			public void execute(MessageGroupStore messageGroupStore, MessageGroup group) {
+				expired.add(group.getGroupId());
+				messageGroupStore.removeMessageGroup(group.getGroupId());
+			}
+
+		});
+		assertEquals(1, store.expireMessageGroups(-10000));
+		assertEquals(Collections.<Object>singletonList(1), expired);
+		assertFalse(store.iterator().hasNext());
+	}
+
 	public static interface TestGateway {
 
 		String service(String payload);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2013 the original author or authors
+ * Copyright 2013-2014 the original author or authors
  *
  *     Licensed under the Apache License, Version 2.0 (the "License");
  *     you may not use this file except in compliance with the License.
@@ -15,6 +15,9 @@
  */
 package org.springframework.integration.redis.inbound;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
@@ -24,6 +27,7 @@ import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.BoundListOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -41,6 +45,14 @@ import org.springframework.messaging.MessagingException;
 import org.springframework.util.Assert;
 
 /**
+ * A message-driven endpoint that pops data from a Redis list (queue).
+ * <p>
+ * By default, each message is retrieved with a blocking 'rightPop'. With a
+ * {@link #setBatchSize(int) batch size} greater than 1, up to that many elements are
+ * removed with a single (atomic) script invocation, and the blocking 'rightPop' is only
+ * used when the queue is empty. The elements of a batch are either sent as separate
+ * messages, in queue order, or as a single message with a {@link List} payload.
+ *
  * @author Mark Fisher
  * @author Gunnar Hillert
  * @author Artem Bilan
@@ -53,6 +65,15 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport impl
 
 	public static final long DEFAULT_RECOVERY_INTERVAL = 5000;
 
+	/*
+	 * Removes up to ARGV[1] elements from the tail of the list; they are returned
+	 * in list order, that is, the oldest last.
+	 */
+	private static final String BATCH_POP_SCRIPT =
+			"local items = redis.call('LRANGE', KEYS[1], -tonumber(ARGV[1]), -1) "
+			+ "if #items > 0 then redis.call('LTRIM', KEYS[1], 0, -tonumber(ARGV[1]) - 1) end "
+			+ "return items";
+
 	private final BoundListOperations<String, byte[]> boundListOperations;
 
 	private volatile ApplicationEventPublisher applicationEventPublisher;
@@ -69,6 +90,12 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport impl
 
 	private volatile long recoveryInterval = DEFAULT_RECOVERY_INTERVAL;
 
+	private volatile int batchSize = 1;
+
+	private volatile boolean batchAsList;
+
+	private final DefaultRedisScript<List<byte[]>> batchPopScript = new DefaultRedisScript<List<byte[]>>();
+
 	private volatile boolean active;
 
 	private volatile boolean listening;
@@ -77,6 +104,7 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport impl
 	 * @param queueName         Must not be an empty String
 	 * @param connectionFactory Must not be null
 	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public RedisQueueMessageDrivenEndpoint(String queueName, RedisConnectionFactory connectionFactory) {
 		Assert.hasText(queueName, "'queueName' is required");
 		Assert.notNull(connectionFactory, "'connectionFactory' must not be null");
@@ -86,6 +114,8 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport impl
 		template.setKeySerializer(new StringRedisSerializer());
 		template.afterPropertiesSet();
 		this.boundListOperations = template.boundListOps(queueName);
+		this.batchPopScript.setScriptText(BATCH_POP_SCRIPT);
+		this.batchPopScript.setResultType((Class) List.class);
 	}
 
 	@Override
@@ -131,6 +161,30 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport impl
 		this.receiveTimeout = receiveTimeout;
 	}
 
+	/**
+	 * The maximum number of elements to remove from the queue with each round trip.
+	 * Default 1.
+	 * @param batchSize the batch size.
+	 * @since 4.0
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be > 0.");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * When true, the elements removed from the queue by each round trip are sent as
+	 * a single message, with a {@link List} of the payloads (in queue order) as its
+	 * payload, instead of as separate messages. Cannot be used when
+	 * {@link #setExpectMessage(boolean) expectMessage} is true. Default false.
+	 * @param batchAsList true to send each batch as a single message.
+	 * @since 4.0
+	 * @see #setBatchSize(int)
+	 */
+	public void setBatchAsList(boolean batchAsList) {
+		this.batchAsList = batchAsList;
+	}
+
 	public void setTaskExecutor(Executor taskExecutor) {
 		this.taskExecutor = taskExecutor;
 	}
@@ -150,6 +204,7 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport impl
 		super.onInit();
 		if (this.expectMessage) {
 			Assert.notNull(this.serializer, "'serializer' has to be provided where 'expectMessage == true'.");
+			Assert.isTrue(!this.batchAsList, "'batchAsList' cannot be used where 'expectMessage == true'.");
 		}
 		if (this.taskExecutor == null) {
 			String beanName = this.getComponentName();
@@ -168,13 +223,10 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport impl
 		return "redis:queue-inbound-channel-adapter";
 	}
 
-	@SuppressWarnings("unchecked")
 	private void popMessageAndSend() {
-		Message<Object> message = null;
-
-		byte[] value = null;
+		List<byte[]> values = null;
 		try {
-			value = this.boundListOperations.rightPop(this.receiveTimeout, TimeUnit.MILLISECONDS);
+			values = this.pop();
 		}
 		catch (Exception e) {
 			this.listening = false;
@@ -189,27 +241,81 @@ public class RedisQueueMessageDrivenEndpoint extends MessageProducerSupport impl
 			return;
 		}
 
-		if (value != null) {
-			if (this.expectMessage) {
+		if (values.isEmpty()) {
+			return;
+		}
+		if (this.batchAsList) {
+			List<Object> payloads = new ArrayList<Object>(values.size());
+			for (byte[] value : values) {
+				payloads.add(this.deserializePayload(value));
+			}
+			this.sendMessage(this.getMessageBuilderFactory().withPayload(payloads).build());
+		}
+		else {
+			// the elements have been removed from the queue; attempt to send them all
+			RuntimeException exception = null;
+			for (byte[] value : values) {
 				try {
-					message = (Message<Object>) this.serializer.deserialize(value);
+					Message<Object> message = this.createMessage(value);
+					if (message != null) {
+						this.sendMessage(message);
+					}
 				}
-				catch (Exception e) {
-					throw new MessagingException("Deserialization of Message failed.", e);
+				catch (RuntimeException e) {
+					if (exception == null) {
+						exception = e;
+					}
+					else {
+						logger.error("Failed to send message", e);
+					}
 				}
 			}
-			else {
-				Object payload = value;
-				if (this.serializer != null) {
-					payload = this.serializer.deserialize(value);
-				}
-				message = this.getMessageBuilderFactory().withPayload(payload).build();
+			if (exception != null) {
+				throw exception;
+			}
+		}
+	}
+
+	/**
+	 * Remove up to {@link #batchSize} elements from the queue, in queue order; if the
+	 * queue is empty, wait up to {@link #receiveTimeout} for one element.
+	 */
+	private List<byte[]> pop() {
+		if (this.batchSize > 1) {
+			List<byte[]> values = this.boundListOperations.getOperations().execute(this.batchPopScript,
+					new StringRedisSerializer(), null, Collections.singletonList(this.boundListOperations.getKey()),
+					Integer.toString(this.batchSize));
+			if (values != null && !values.isEmpty()) {
+				Collections.reverse(values);
+				return values;
 			}
 		}
+		byte[] value = this.boundListOperations.rightPop(this.receiveTimeout, TimeUnit.MILLISECONDS);
+		if (value == null) {
+			return Collections.emptyList();
+		}
+		return Collections.singletonList(value);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Message<Object> createMessage(byte[] value) {
+		if (this.expectMessage) {
+			try {
+				return (Message<Object>) this.serializer.deserialize(value);
+			}
+			catch (Exception e) {
+				throw new MessagingException("Deserialization of Message failed.", e);
+			}
+		}
+		return this.getMessageBuilderFactory().withPayload(this.deserializePayload(value)).build();
+	}
 
-		if (message != null) {
-			this.sendMessage(message);
+	private Object deserializePayload(byte[] value) {
+		Object payload = value;
+		if (this.serializer != null) {
+			payload = this.serializer.deserialize(value);
 		}
+		return payload;
 	}
 
 	@Override
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.redis.store;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * Lists the keys matching a pattern with the SCAN command, a page at a time, rather
+ * than with KEYS, which blocks the server while it examines the whole keyspace.
+ * SCAN is issued from a script, one page per call, so that it can be used with any
+ * connection factory. If the server does not support SCAN (before Redis 2.8), or
+ * scripts (before Redis 2.6), KEYS is used instead.
+ * <p>
+ * As with SCAN itself, keys that are added or removed while the keys are being
+ * listed may or may not be returned. Keys must be Strings.
+ *
+ * @author Gary Russell
+ * @since 4.0
+ */
+class KeyScanner {
+
+	private static final Log logger = LogFactory.getLog(KeyScanner.class);
+
+	private static final String SCAN_SCRIPT = "return redis.call('SCAN', ARGV[1], 'MATCH', ARGV[2], 'COUNT', ARGV[3])";
+
+	private static final int SCAN_COUNT = 1000;
+
+	private static final StringRedisSerializer stringSerializer = new StringRedisSerializer();
+
+	private final RedisTemplate<Object, ?> redisTemplate;
+
+	private final DefaultRedisScript<List<?>> scanScript = new DefaultRedisScript<List<?>>();
+
+	private volatile boolean scanSupported = true;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	KeyScanner(RedisTemplate<Object, ?> redisTemplate) {
+		this.redisTemplate = redisTemplate;
+		this.scanScript.setScriptText(SCAN_SCRIPT);
+		this.scanScript.setResultType((Class) List.class);
+	}
+
+	/**
+	 * @param pattern the pattern.
+	 * @return the keys that match the pattern.
+	 */
+	@SuppressWarnings("unchecked")
+	Set<Object> keys(String pattern) {
+		if (!this.scanSupported) {
+			return this.redisTemplate.keys(pattern);
+		}
+		Set<Object> keys = new LinkedHashSet<Object>();
+		String cursor = "0";
+		do {
+			List<?> page;
+			try {
+				page = this.redisTemplate.execute(this.scanScript, stringSerializer, this.resultSerializer(),
+						Collections.emptyList(), cursor, pattern, Integer.toString(SCAN_COUNT));
+			}
+			catch (DataAccessException e) {
+				if (cursor.equals("0") && isUnknownCommand(e)) {
+					logger.warn("The Redis server does not support SCAN; KEYS will be used to list keys");
+					this.scanSupported = false;
+					return this.redisTemplate.keys(pattern);
+				}
+				throw e;
+			}
+			cursor = (String) page.get(0);
+			keys.addAll((List<Object>) page.get(1));
+		}
+		while (!cursor.equals("0"));
+		return keys;
+	}
+
+	/**
+	 * SCAN called from a script fails with "Unknown Redis command called from Lua script"
+	 * before Redis 2.8; EVAL itself fails with "ERR unknown command 'EVAL'" before Redis 2.6.
+	 */
+	private static boolean isUnknownCommand(DataAccessException e) {
+		// the message includes those of the nested exceptions
+		String message = e.getMessage();
+		if (message == null) {
+			return false;
+		}
+		message = message.toLowerCase();
+		return message.contains("unknown redis command") || message.contains("unknown command 'eval'");
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private RedisSerializer<List<?>> resultSerializer() {
+		// results are nested lists of strings; each string is deserialized
+		return (RedisSerializer) stringSerializer;
+	}
+
+}
@@ -15,12 +15,16 @@
  */
 package org.springframework.integration.redis.store;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializer;
@@ -36,6 +40,9 @@ import org.springframework.util.Assert;
  * Specialized Redis {@link ChannelMessageStore} that uses a list to back a QueueChannel.
  * <p>
  * Requires {@link #setBeanName(String)} which is used as part of the key.
+ * <p>
+ * The keys of the store are listed with SCAN (when supported by the server) rather
+ * than KEYS.
  *
  * @author Gary Russell
  * @since 4.0
@@ -45,6 +52,8 @@ public class RedisChannelMessageStore implements ChannelMessageStore, BeanNameAw
 
 	private final RedisTemplate<Object, Message<?>> redisTemplate;
 
+	private final KeyScanner keyScanner;
+
 	private String beanName;
 
 	/**
@@ -58,6 +67,7 @@ public class RedisChannelMessageStore implements ChannelMessageStore, BeanNameAw
 		this.redisTemplate.setKeySerializer(new StringRedisSerializer());
 		this.redisTemplate.setValueSerializer(new JdkSerializationRedisSerializer());
 		this.redisTemplate.afterPropertiesSet();
+		this.keyScanner = new KeyScanner(this.redisTemplate);
 	}
 
 	/**
@@ -85,6 +95,10 @@ public class RedisChannelMessageStore implements ChannelMessageStore, BeanNameAw
 		return redisTemplate;
 	}
 
+	KeyScanner getKeyScanner() {
+		return keyScanner;
+	}
+
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		Assert.notNull(this.beanName, "'beanName' must not be null");
@@ -119,17 +133,50 @@ public class RedisChannelMessageStore implements ChannelMessageStore, BeanNameAw
 
 	@ManagedAttribute
 	public int getMessageCountForAllMessageGroups() {
-		Set<?> keys = this.redisTemplate.keys(this.beanName + ":*");
+		return this.listSize(this.keyScanner.keys(this.beanName + ":*"));
+	}
+
+	@ManagedAttribute
+	public int getMessageGroupCount() {
+		return this.keyScanner.keys(this.beanName + ":*").size();
+	}
+
+	/**
+	 * Get the total size of the lists with a single (pipelined) round trip.
+	 * @param keys the keys of the lists.
+	 * @return the number of messages in the lists.
+	 */
+	int listSize(Collection<?> keys) {
+		if (keys.isEmpty()) {
+			return 0;
+		}
+		final List<byte[]> rawKeys = this.rawKeys(keys);
+		List<Object> sizes = this.redisTemplate.executePipelined(new RedisCallback<Object>() {
+
+			@Override
+			public Object doInRedis(RedisConnection connection) throws DataAccessException {
+				for (byte[] rawKey : rawKeys) {
+					connection.lLen(rawKey);
+				}
+				return null;
+			}
+
+		});
 		int count = 0;
-		for (Object key : keys) {
-			count += this.messageGroupSize(key);
+		for (Object size : sizes) {
+			count += ((Long) size).intValue();
 		}
 		return count;
 	}
 
-	@ManagedAttribute
-	public int getMessageGroupCount() {
-		return this.redisTemplate.keys(this.beanName + ":*").size();
+	@SuppressWarnings("unchecked")
+	List<byte[]> rawKeys(Collection<?> keys) {
+		RedisSerializer<Object> keySerializer = (RedisSerializer<Object>) this.redisTemplate.getKeySerializer();
+		List<byte[]> rawKeys = new ArrayList<byte[]>(keys.size());
+		for (Object key : keys) {
+			rawKeys.add(keySerializer.serialize(key));
+		}
+		return rawKeys;
 	}
 
 }
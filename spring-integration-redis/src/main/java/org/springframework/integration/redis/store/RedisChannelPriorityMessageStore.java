@@ -15,13 +15,19 @@
  */
 package org.springframework.integration.redis.store;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.store.MessageGroup;
 import org.springframework.integration.store.PriorityCapableChannelMessageStore;
@@ -36,6 +42,10 @@ import org.springframework.util.Assert;
  * Priorities 0-9 are supported; higher values are treated with the same priority (none)
  * as messages with no priority header (retrieved after any messages that have a priority).
  * <p>
+ * Each priority is held in a separate list; the lists of a group are read with a single
+ * (pipelined) round trip, and a message is polled from the first non-empty list with a
+ * single script invocation.
+ * <p>
  * Requires that groupId is a String.
  *
  * @author Gary Russell
@@ -44,8 +54,19 @@ import org.springframework.util.Assert;
  */
 public class RedisChannelPriorityMessageStore extends RedisChannelMessageStore implements PriorityCapableChannelMessageStore {
 
+	private static final String[] PRIORITY_SUFFIXES = { ":0", ":1", ":2", ":3", ":4", ":5", ":6", ":7", ":8", ":9", ":z" };
+
+	private static final String POLL_SCRIPT =
+			"for i = 1, #KEYS do local m = redis.call('RPOP', KEYS[i]) if m then return m end end return false";
+
+	private final DefaultRedisScript<Message<?>> pollScript = new DefaultRedisScript<Message<?>>();
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public RedisChannelPriorityMessageStore(RedisConnectionFactory connectionFactory) {
 		super(connectionFactory);
+		this.pollScript.setScriptText(POLL_SCRIPT);
+		// a single (bulk) value, deserialized with the value serializer
+		this.pollScript.setResultType((Class) byte[].class);
 	}
 
 	@Override
@@ -57,22 +78,29 @@ public class RedisChannelPriorityMessageStore extends RedisChannelMessageStore i
 	@ManagedAttribute
 	public int messageGroupSize(Object groupId) {
 		Assert.isInstanceOf(String.class, groupId);
-		List<String> list = sortedKeys((String) groupId);
-		int count = 0;
-		for (String key : list) {
-			count += this.getRedisTemplate().boundListOps(key).size();
-		}
-		return count;
+		return this.listSize(sortedKeys((String) groupId));
 	}
 
 	@Override
 	public MessageGroup getMessageGroup(Object groupId) {
 		Assert.isInstanceOf(String.class, groupId);
+		final List<byte[]> rawKeys = this.rawKeys(sortedKeys((String) groupId));
+		List<Object> lists = this.getRedisTemplate().executePipelined(new RedisCallback<Object>() {
+
+			@Override
+			public Object doInRedis(RedisConnection connection) throws DataAccessException {
+				for (byte[] rawKey : rawKeys) {
+					connection.lRange(rawKey, 0, -1);
+				}
+				return null;
+			}
+
+		});
 		List<Message<?>> allMessages = new LinkedList<Message<?>>();
-		List<String> list = sortedKeys((String) groupId);
-		for (String key : list) {
-			List<Message<?>> messages = this.getRedisTemplate().boundListOps(key).range(0, -1);
-			allMessages.addAll(messages);
+		for (Object messages : lists) {
+			@SuppressWarnings("unchecked")
+			List<Message<?>> list = (List<Message<?>>) messages;
+			allMessages.addAll(list);
 		}
 		return new SimpleMessageGroup(allMessages, groupId);
 	}
@@ -93,27 +121,22 @@ public class RedisChannelPriorityMessageStore extends RedisChannelMessageStore i
 	}
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public Message<?> pollMessageFromGroup(Object groupId) {
 		Assert.isInstanceOf(String.class, groupId);
-		List<String> list = sortedKeys((String) groupId);
-		Message<?> message;
-		for (String key : list) {
-			message = super.pollMessageFromGroup(key);
-			if (message != null) {
-				return message;
-			}
-		}
-		return null;
+		List<Object> keys = new ArrayList<Object>(sortedKeys((String) groupId));
+		return this.getRedisTemplate().execute(this.pollScript, new StringRedisSerializer(),
+				(RedisSerializer<Message<?>>) this.getRedisTemplate().getValueSerializer(), keys);
 	}
 
+	/**
+	 * @return the keys of the lists for the group, in priority order.
+	 */
 	private List<String> sortedKeys(String groupId) {
-		Set<Object> keys = this.getRedisTemplate().keys(groupId == null ? (this.getBeanName() + ":*") : (groupId + "*"));
-		List<String> list = new LinkedList<String>();
-		for (Object key : keys) {
-			Assert.isInstanceOf(String.class, key);
-			list.add((String) key);
+		List<String> list = new ArrayList<String>(PRIORITY_SUFFIXES.length);
+		for (String suffix : PRIORITY_SUFFIXES) {
+			list.add(groupId + suffix);
 		}
-		Collections.sort(list);
 		return list;
 	}
 
@@ -126,7 +149,7 @@ public class RedisChannelPriorityMessageStore extends RedisChannelMessageStore i
 
 
 	private Set<Object> narrowedKeys() {
-		Set<Object> keys = this.getRedisTemplate().keys(this.getBeanName() + ":*");
+		Set<Object> keys = this.getKeyScanner().keys(this.getBeanName() + ":*");
 		Set<Object> narrowedKeys = new HashSet<Object>();
 		for (Object key : keys) {
 			Assert.isInstanceOf(String.class, key);
@@ -145,21 +168,13 @@ public class RedisChannelPriorityMessageStore extends RedisChannelMessageStore i
 	@Override
 	public void removeMessageGroup(Object groupId) {
 		Assert.isInstanceOf(String.class, groupId);
-		List<String> list = sortedKeys((String) groupId);
-		for (String key : list) {
-			super.removeMessageGroup(key);
-		}
+		this.getRedisTemplate().delete(new ArrayList<Object>(sortedKeys((String) groupId)));
 	}
 
 	@Override
 	@ManagedAttribute
 	public int getMessageCountForAllMessageGroups() {
-		Set<Object> narrowedKeys = narrowedKeys();
-		int count = 0;
-		for (Object key : narrowedKeys) {
-			count += this.messageGroupSize(key);
-		}
-		return count;
+		return this.listSize(this.getKeyScanner().keys(this.getBeanName() + ":*"));
 	}
 
 
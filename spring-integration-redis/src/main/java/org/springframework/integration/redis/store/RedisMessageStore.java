@@ -1,5 +1,5 @@
 /*
- * Copyright 2007-2013 the original author or authors
+ * Copyright 2007-2014 the original author or authors
  *
  *     Licensed under the Apache License, Version 2.0 (the "License");
  *     you may not use this file except in compliance with the License.
@@ -17,7 +17,9 @@
 package org.springframework.integration.redis.store;
 
 import java.util.Collection;
-import java.util.Set;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.BoundValueOperations;
@@ -33,6 +35,9 @@ import org.springframework.util.Assert;
 
 /**
  * Redis implementation of the key/value style {@link MessageStore} and {@link MessageGroupStore}
+ * <p>
+ * Keys are listed with SCAN (when supported by the server) rather than KEYS, and the
+ * messages of a group are retrieved with a single MGET.
  *
  * @author Oleg Zhurakousky
  * @author Gary Russell
@@ -42,12 +47,15 @@ public class RedisMessageStore extends AbstractKeyValueMessageStore {
 
 	private final RedisTemplate<Object, Object> redisTemplate;
 
+	private final KeyScanner keyScanner;
+
 	public RedisMessageStore(RedisConnectionFactory connectionFactory) {
 		this.redisTemplate = new RedisTemplate<Object, Object>();
 		this.redisTemplate.setConnectionFactory(connectionFactory);
 		this.redisTemplate.setKeySerializer(new StringRedisSerializer());
 		this.redisTemplate.setValueSerializer(new JdkSerializationRedisSerializer());
 		this.redisTemplate.afterPropertiesSet();
+		this.keyScanner = new KeyScanner(this.redisTemplate);
 	}
 
 	public void setValueSerializer(RedisSerializer<?> valueSerializer) {
@@ -63,6 +71,19 @@ public class RedisMessageStore extends AbstractKeyValueMessageStore {
 	}
 
 
+	/**
+	 * Retrieves all the objects with a single MGET.
+	 */
+	@Override
+	protected List<?> doRetrieveAll(Collection<Object> ids) {
+		Assert.notNull(ids, "'ids' must not be null");
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+		return redisTemplate.opsForValue().multiGet(ids);
+	}
+
+
 	@Override
 	protected void doStore(Object id, Object objectToStore) {
 		Assert.notNull(id, "'id' must not be null");
@@ -79,6 +100,26 @@ public class RedisMessageStore extends AbstractKeyValueMessageStore {
 	}
 
 
+	/**
+	 * Stores all the objects with a single MSET.
+	 */
+	@Override
+	protected void doStoreAll(Map<Object, Object> objectsToStore) {
+		Assert.notNull(objectsToStore, "'objectsToStore' must not be null");
+		if (objectsToStore.isEmpty()) {
+			return;
+		}
+		try {
+			redisTemplate.opsForValue().multiSet(objectsToStore);
+		}
+		catch (SerializationException e) {
+			throw new IllegalArgumentException("If relying on the default RedisSerializer (JdkSerializationRedisSerializer) " +
+					"the Object must be Serializable. Either make it Serializable or provide your own implementation of " +
+					"RedisSerializer via 'setValueSerializer(..)'", e);
+		}
+	}
+
+
 	@Override
 	protected Object doRemove(Object id) {
 		Assert.notNull(id, "'id' must not be null");
@@ -90,10 +131,21 @@ public class RedisMessageStore extends AbstractKeyValueMessageStore {
 	}
 
 
+	/**
+	 * Removes all the keys with a single DEL.
+	 */
+	@Override
+	protected void doRemoveAll(Collection<Object> ids) {
+		Assert.notNull(ids, "'ids' must not be null");
+		if (!ids.isEmpty()) {
+			redisTemplate.delete(ids);
+		}
+	}
+
+
 	@Override
 	protected Collection<?> doListKeys(String keyPattern) {
 		Assert.hasText(keyPattern, "'keyPattern' must not be empty");
-		Set<Object> keys = redisTemplate.keys(keyPattern);
-		return keys;
+		return this.keyScanner.keys(keyPattern);
 	}
 }
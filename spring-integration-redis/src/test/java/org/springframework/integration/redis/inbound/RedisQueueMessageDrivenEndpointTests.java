@@ -1,5 +1,5 @@
 /*
- * Copyright 2013 the original author or authors
+ * Copyright 2013-2014 the original author or authors
  *
  *     Licensed under the Apache License, Version 2.0 (the "License");
  *     you may not use this file except in compliance with the License.
@@ -125,6 +125,79 @@ public class RedisQueueMessageDrivenEndpointTests extends RedisAvailableTests {
 		endpoint.stop();
 	}
 
+	@Test
+	@RedisAvailable
+	public void testBatch() throws Exception {
+
+		String queueName = "si.test.redisQueueInboundChannelAdapterTests.batch";
+
+		StringRedisTemplate redisTemplate = new StringRedisTemplate(this.connectionFactory);
+		redisTemplate.delete(queueName);
+		for (int i = 0; i < 25; i++) {
+			redisTemplate.boundListOps(queueName).leftPush("foo" + i);
+		}
+
+		PollableChannel channel = new QueueChannel();
+
+		RedisQueueMessageDrivenEndpoint endpoint = new RedisQueueMessageDrivenEndpoint(queueName, this.connectionFactory);
+		endpoint.setBeanFactory(Mockito.mock(BeanFactory.class));
+		endpoint.setOutputChannel(channel);
+		endpoint.setSerializer(new StringRedisSerializer());
+		endpoint.setBatchSize(10);
+		endpoint.setReceiveTimeout(1000);
+		endpoint.afterPropertiesSet();
+		endpoint.start();
+
+		for (int i = 0; i < 25; i++) {
+			Message<?> receive = channel.receive(2000);
+			assertNotNull(receive);
+			assertEquals("foo" + i, receive.getPayload());
+		}
+		assertEquals(0, endpoint.getQueueSize());
+
+		endpoint.stop();
+	}
+
+	@Test
+	@RedisAvailable
+	public void testBatchAsList() throws Exception {
+
+		String queueName = "si.test.redisQueueInboundChannelAdapterTests.batchAsList";
+
+		StringRedisTemplate redisTemplate = new StringRedisTemplate(this.connectionFactory);
+		redisTemplate.delete(queueName);
+		for (int i = 0; i < 15; i++) {
+			redisTemplate.boundListOps(queueName).leftPush("foo" + i);
+		}
+
+		PollableChannel channel = new QueueChannel();
+
+		RedisQueueMessageDrivenEndpoint endpoint = new RedisQueueMessageDrivenEndpoint(queueName, this.connectionFactory);
+		endpoint.setBeanFactory(Mockito.mock(BeanFactory.class));
+		endpoint.setOutputChannel(channel);
+		endpoint.setSerializer(new StringRedisSerializer());
+		endpoint.setBatchSize(10);
+		endpoint.setBatchAsList(true);
+		endpoint.setReceiveTimeout(1000);
+		endpoint.afterPropertiesSet();
+		endpoint.start();
+
+		List<Object> payloads = new ArrayList<Object>();
+		while (payloads.size() < 15) {
+			Message<?> receive = channel.receive(2000);
+			assertNotNull(receive);
+			assertThat(receive.getPayload(), Matchers.instanceOf(List.class));
+			List<?> batch = (List<?>) receive.getPayload();
+			assertTrue(batch.size() <= 10);
+			payloads.addAll(batch);
+		}
+		for (int i = 0; i < 15; i++) {
+			assertEquals("foo" + i, payloads.get(i));
+		}
+
+		endpoint.stop();
+	}
+
 	@Test
 	@RedisAvailable
 	@SuppressWarnings("unchecked")
@@ -190,6 +190,31 @@ public class RedisMessageGroupStoreTests extends RedisAvailableTests {
 		assertEquals(2, messageGroup.size());
 	}
 
+	@Test
+	@RedisAvailable
+	public void testAddAndRemoveMessagesInBulk() throws Exception{
+		RedisConnectionFactory jcf = this.getConnectionFactoryForTest();
+		RedisMessageStore store = new RedisMessageStore(jcf);
+
+		store.addMessageToGroup(1, new GenericMessage<String>("1"));
+		List<Message<?>> messages = new ArrayList<Message<?>>();
+		for (int i = 2; i <= 5; i++) {
+			messages.add(new GenericMessage<String>(String.valueOf(i)));
+		}
+		store.addMessagesToGroup(1, messages);
+		assertEquals(5, store.messageGroupSize(1));
+
+		store.removeMessagesFromGroup(1, messages.subList(0, 3));
+
+		// make sure the store is properly rebuild from Redis
+		store = new RedisMessageStore(jcf);
+
+		MessageGroup messageGroup = store.getMessageGroup(1);
+		assertEquals(2, messageGroup.size());
+		assertNull(store.getMessage(messages.get(0).getHeaders().getId()));
+		assertNotNull(store.getMessage(messages.get(3).getHeaders().getId()));
+	}
+
 	@Test
 	@RedisAvailable
 	public void testWithMessageHistory() throws Exception{
@@ -1,5 +1,5 @@
 /*
- * Copyright 2007-2013 the original author or authors
+ * Copyright 2007-2014 the original author or authors
  *
  *     Licensed under the Apache License, Version 2.0 (the "License");
  *     you may not use this file except in compliance with the License.
@@ -21,6 +21,8 @@ import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
 
@@ -57,6 +59,27 @@ public class RedisMessageStoreTests extends RedisAvailableTests {
 		assertEquals(0, store.getMessageCount());
 	}
 
+	@Test
+	@RedisAvailable
+	public void testGetMessageCountOverSeveralScans(){
+		RedisConnectionFactory jcf = this.getConnectionFactoryForTest();
+		RedisMessageStore store = new RedisMessageStore(jcf);
+		long initialCount = store.getMessageCount();
+		List<UUID> ids = new ArrayList<UUID>();
+		for (int i = 0; i < 2500; i++) {
+			ids.add(store.addMessage(new GenericMessage<Integer>(i)).getHeaders().getId());
+		}
+		try {
+			assertEquals(initialCount + 2500, store.getMessageCount());
+		}
+		finally {
+			for (UUID id : ids) {
+				store.removeMessage(id);
+			}
+		}
+		assertEquals(initialCount, store.getMessageCount());
+	}
+
 	@Test
 	@RedisAvailable
 	public void testAddStringMessage(){
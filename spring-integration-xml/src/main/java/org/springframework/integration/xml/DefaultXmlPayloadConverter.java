@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2010 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,7 +21,6 @@ import java.io.StringReader;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.Source;
 import javax.xml.transform.dom.DOMSource;
 
@@ -29,6 +28,7 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.xml.sax.InputSource;
 
+import org.springframework.integration.xml.support.DocumentBuilderPool;
 import org.springframework.messaging.MessagingException;
 import org.springframework.xml.transform.StringSource;
 
@@ -40,16 +40,17 @@ import org.springframework.xml.transform.StringSource;
  */
 public class DefaultXmlPayloadConverter implements XmlPayloadConverter {
 
-	private DocumentBuilderFactory documentBuilderFactory;
+	private final DocumentBuilderPool documentBuilderPool;
 
 
 	public DefaultXmlPayloadConverter() {
-		this.documentBuilderFactory = DocumentBuilderFactory.newInstance();
-		this.documentBuilderFactory.setNamespaceAware(true);
+		DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+		documentBuilderFactory.setNamespaceAware(true);
+		this.documentBuilderPool = new DocumentBuilderPool(documentBuilderFactory);
 	}
 
 	public DefaultXmlPayloadConverter(DocumentBuilderFactory documentBuilderFactory) {
-		this.documentBuilderFactory = documentBuilderFactory;
+		this.documentBuilderPool = new DocumentBuilderPool(documentBuilderFactory);
 	}
 
 
@@ -58,20 +59,28 @@ public class DefaultXmlPayloadConverter implements XmlPayloadConverter {
 			return (Document) object;
 		}
 		if (object instanceof File) {
+			DocumentBuilder documentBuilder = getDocumentBuilder();
 			try {
-				return getDocumentBuilder().parse((File) object);
+				return documentBuilder.parse((File) object);
 			}
 			catch (Exception e) {
 				throw new MessagingException("failed to parse File payload '" + object + "'", e);
 			}
+			finally {
+				releaseDocumentBuilder(documentBuilder);
+			}
 		}
 		if (object instanceof String) {
+			DocumentBuilder documentBuilder = getDocumentBuilder();
 			try {
-				return getDocumentBuilder().parse(new InputSource(new StringReader((String) object)));
+				return documentBuilder.parse(new InputSource(new StringReader((String) object)));
 			}
 			catch (Exception e) {
 				throw new MessagingException("failed to parse String payload '" + object + "'", e);
 			}
+			finally {
+				releaseDocumentBuilder(documentBuilder);
+			}
 		}
 		throw new MessagingException("unsupported payload type [" + object.getClass().getName() + "]");
 	}
@@ -107,13 +116,24 @@ public class DefaultXmlPayloadConverter implements XmlPayloadConverter {
 		return source;
 	}
 
-	protected synchronized DocumentBuilder getDocumentBuilder() {
-		try {
-			return this.documentBuilderFactory.newDocumentBuilder();
-		}
-		catch (ParserConfigurationException e) {
-			throw new MessagingException("failed to create a new DocumentBuilder", e);
-		}
+	/**
+	 * Obtain a {@link DocumentBuilder} from the pool; it is
+	 * {@link #releaseDocumentBuilder(DocumentBuilder) released} after use.
+	 *
+	 * @return the document builder.
+	 */
+	protected DocumentBuilder getDocumentBuilder() {
+		return this.documentBuilderPool.obtain();
+	}
+
+	/**
+	 * Return a {@link DocumentBuilder} obtained from {@link #getDocumentBuilder()} to the pool.
+	 *
+	 * @param documentBuilder the document builder.
+	 * @since 4.0
+	 */
+	protected void releaseDocumentBuilder(DocumentBuilder documentBuilder) {
+		this.documentBuilderPool.release(documentBuilder);
 	}
 
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2010 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.Result;
 import javax.xml.transform.dom.DOMResult;
 
+import org.springframework.integration.xml.support.DocumentBuilderPool;
 import org.springframework.messaging.MessagingException;
 
 /**
@@ -29,34 +30,44 @@ import org.springframework.messaging.MessagingException;
  */
 public class DomResultFactory implements ResultFactory {
 
-	private final DocumentBuilderFactory documentBuilderFactory;
+	private final DocumentBuilderPool documentBuilderPool;
 
 
 	public DomResultFactory(DocumentBuilderFactory documentBuilderFactory) {
-		this.documentBuilderFactory = documentBuilderFactory;
+		this.documentBuilderPool = new DocumentBuilderPool(documentBuilderFactory);
 	}
 
 	public DomResultFactory() {
 		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
 		factory.setNamespaceAware(true);
-		this.documentBuilderFactory = factory;
+		this.documentBuilderPool = new DocumentBuilderPool(factory);
 	}
 
 
-	public synchronized Result createResult(Object payload) {
+	public Result createResult(Object payload) {
+		DocumentBuilder documentBuilder = null;
 		try {
-			return new DOMResult(getNewDocumentBuilder().newDocument());
+			documentBuilder = getNewDocumentBuilder();
+			return new DOMResult(documentBuilder.newDocument());
 		}
 		catch (ParserConfigurationException e) {
 			throw new MessagingException("failed to create Result for payload type [" +
 					payload.getClass().getName() + "]");
 		}
+		finally {
+			this.documentBuilderPool.release(documentBuilder);
+		}
 	}
 
+	/**
+	 * Obtain a {@link DocumentBuilder} from the pool; it is returned to the pool
+	 * once the document of the result is created.
+	 *
+	 * @return the document builder.
+	 * @throws ParserConfigurationException if the builder cannot be created.
+	 */
 	protected DocumentBuilder getNewDocumentBuilder() throws ParserConfigurationException {
-		synchronized (this.documentBuilderFactory) {
-			return this.documentBuilderFactory.newDocumentBuilder();
-		}
+		return this.documentBuilderPool.obtain();
 	}
 
 }
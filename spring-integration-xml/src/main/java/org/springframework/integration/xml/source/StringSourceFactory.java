@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2010 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import javax.xml.transform.dom.DOMSource;
 
 import org.w3c.dom.Document;
 
+import org.springframework.integration.xml.support.TransformerPool;
 import org.springframework.messaging.MessagingException;
 import org.springframework.util.FileCopyUtils;
 import org.springframework.xml.transform.StringResult;
@@ -40,7 +41,7 @@ import org.springframework.xml.transform.StringSource;
  */
 public class StringSourceFactory implements SourceFactory {
 
-	private final TransformerFactory transformerFactory;
+	private final TransformerPool transformerPool;
 
 
 	public StringSourceFactory() {
@@ -48,7 +49,7 @@ public class StringSourceFactory implements SourceFactory {
 	}
 
 	public StringSourceFactory(TransformerFactory transformerFactory) {
-		this.transformerFactory = transformerFactory;
+		this.transformerPool = new TransformerPool(transformerFactory);
 	}
 
 
@@ -71,15 +72,19 @@ public class StringSourceFactory implements SourceFactory {
 	}
 
 	private StringSource createStringSourceForDocument(Document document) {
+		Transformer transformer = null;
 		try {
 			StringResult result = new StringResult();
-			Transformer transformer = getTransformer();
+			transformer = this.transformerPool.obtain();
 			transformer.transform(new DOMSource(document), result);
 			return new StringSource(result.toString());
 		}
 		catch (Exception e) {
 			throw new MessagingException("failed to create StringSource from document", e);
 		}
+		finally {
+			this.transformerPool.release(transformer);
+		}
 	}
 
 	private StringSource createStringSourceForFile(File file) {
@@ -92,13 +97,4 @@ public class StringSourceFactory implements SourceFactory {
 		}
 	}
 
-	private synchronized Transformer getTransformer() {
-		try {
-			return transformerFactory.newTransformer();
-		}
-		catch (Exception e) {
-			throw new MessagingException("Exception creating transformer", e);
-		}
-	}
-
 }
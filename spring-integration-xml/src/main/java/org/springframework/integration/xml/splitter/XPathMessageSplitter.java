@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2010 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,7 +24,6 @@ import java.util.Map;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
@@ -38,6 +37,8 @@ import org.springframework.messaging.MessagingException;
 import org.springframework.integration.splitter.AbstractMessageSplitter;
 import org.springframework.integration.xml.DefaultXmlPayloadConverter;
 import org.springframework.integration.xml.XmlPayloadConverter;
+import org.springframework.integration.xml.support.DocumentBuilderPool;
+import org.springframework.integration.xml.support.TransformerPool;
 import org.springframework.util.Assert;
 import org.springframework.xml.transform.StringResult;
 import org.springframework.xml.xpath.XPathExpression;
@@ -59,7 +60,9 @@ public class XPathMessageSplitter extends AbstractMessageSplitter {
 
 	private volatile boolean createDocuments;
 
-	private volatile DocumentBuilderFactory documentBuilderFactory;
+	private volatile DocumentBuilderPool documentBuilderPool;
+
+	private final TransformerPool transformerPool = new TransformerPool(TransformerFactory.newInstance());
 
 	private volatile XmlPayloadConverter xmlPayloadConverter = new DefaultXmlPayloadConverter();
 
@@ -74,8 +77,9 @@ public class XPathMessageSplitter extends AbstractMessageSplitter {
 
 	public XPathMessageSplitter(XPathExpression xpathExpression) {
 		this.xpathExpression = xpathExpression;
-		this.documentBuilderFactory = DocumentBuilderFactory.newInstance();
-		this.documentBuilderFactory.setNamespaceAware(true);
+		DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+		documentBuilderFactory.setNamespaceAware(true);
+		this.documentBuilderPool = new DocumentBuilderPool(documentBuilderFactory);
 	}
 
 
@@ -89,7 +93,7 @@ public class XPathMessageSplitter extends AbstractMessageSplitter {
 
 	public void setDocumentBuilder(DocumentBuilderFactory documentBuilderFactory) {
 		Assert.notNull(documentBuilderFactory, "DocumentBuilderFactory must not be null");
-		this.documentBuilderFactory = documentBuilderFactory;
+		this.documentBuilderPool = new DocumentBuilderPool(documentBuilderFactory);
 	}
 
 	public void setXmlPayloadConverter(XmlPayloadConverter xmlPayloadConverter) {
@@ -112,9 +116,6 @@ public class XPathMessageSplitter extends AbstractMessageSplitter {
 			}
 			return result;
 		}
-		catch (ParserConfigurationException e) {
-			throw new MessagingException(message, "failed to create DocumentBuilder", e);
-		}
 		catch (Exception e) {
 			throw new MessagingException(message, "failed to split Message payload", e);
 		}
@@ -122,17 +123,22 @@ public class XPathMessageSplitter extends AbstractMessageSplitter {
 
 	private Object splitDocument(Document document) throws Exception {
 		List<Node> nodes = splitNode(document);
-		Transformer transformer = TransformerFactory.newInstance().newTransformer();
-		List<String> splitStrings = new ArrayList<String>(nodes.size());
-		for (Node nodeFromList : nodes) {
-			StringResult result = new StringResult();
-			transformer.transform(new DOMSource(nodeFromList), result);
-			splitStrings.add(result.toString());
+		Transformer transformer = this.transformerPool.obtain();
+		try {
+			List<String> splitStrings = new ArrayList<String>(nodes.size());
+			for (Node nodeFromList : nodes) {
+				StringResult result = new StringResult();
+				transformer.transform(new DOMSource(nodeFromList), result);
+				splitStrings.add(result.toString());
+			}
+			return splitStrings;
+		}
+		finally {
+			this.transformerPool.release(transformer);
 		}
-		return splitStrings;
 	}
 
-	private List<Node> splitNode(Node node) throws ParserConfigurationException {
+	private List<Node> splitNode(Node node) {
 		List<Node> nodeList = this.xpathExpression.evaluateAsNodeList(node);
 		if (nodeList.size() == 0) {
 			throw new IllegalArgumentException("failed to split message with XPath expression: " + this.xpathExpression);
@@ -143,20 +149,20 @@ public class XPathMessageSplitter extends AbstractMessageSplitter {
 		return nodeList;
 	}
 
-	private List<Node> convertNodesToDocuments(List<Node> nodes) throws ParserConfigurationException {
-		DocumentBuilder documentBuilder = this.getNewDocumentBuilder();
-		List<Node> documents = new ArrayList<Node>(nodes.size());
-		for (Node node : nodes) {
-			Document document = documentBuilder.newDocument();
-			document.appendChild(document.importNode(node, true));
-			documents.add(document);
+	private List<Node> convertNodesToDocuments(List<Node> nodes) {
+		DocumentBuilderPool documentBuilderPool = this.documentBuilderPool;
+		DocumentBuilder documentBuilder = documentBuilderPool.obtain();
+		try {
+			List<Node> documents = new ArrayList<Node>(nodes.size());
+			for (Node node : nodes) {
+				Document document = documentBuilder.newDocument();
+				document.appendChild(document.importNode(node, true));
+				documents.add(document);
+			}
+			return documents;
 		}
-		return documents;
-	}
-
-	private DocumentBuilder getNewDocumentBuilder() throws ParserConfigurationException {
-		synchronized (this.documentBuilderFactory) {
-			return this.documentBuilderFactory.newDocumentBuilder();
+		finally {
+			documentBuilderPool.release(documentBuilder);
 		}
 	}
 
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.xml.support;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.util.Assert;
+
+/**
+ * Base class for pools of the XML infrastructure objects (such as
+ * {@link javax.xml.parsers.DocumentBuilder}s and {@link javax.xml.transform.Transformer}s)
+ * that are costly to create and cannot be used by several threads at once.
+ * <p>
+ * The pool never blocks: {@link #obtain()} creates a new object when there is no idle one,
+ * and {@link #release(Object)} resets the object and keeps it for reuse, unless
+ * {@link #setMaxIdle(int) maxIdle} objects are already idle (or it cannot be reset), in
+ * which case it is discarded.
+ *
+ * @param <T> the type of the pooled objects.
+ * @since 4.0
+ */
+public abstract class AbstractXmlObjectPool<T> {
+
+	public static final int DEFAULT_MAX_IDLE = 16;
+
+	private final Queue<T> idle = new ConcurrentLinkedQueue<T>();
+
+	private final AtomicInteger idleCount = new AtomicInteger();
+
+	private volatile int maxIdle = DEFAULT_MAX_IDLE;
+
+	/**
+	 * Set the maximum number of idle objects kept for reuse; typically the number of
+	 * threads using the pool concurrently. Default {@value #DEFAULT_MAX_IDLE}.
+	 *
+	 * @param maxIdle the maximum number of idle objects.
+	 */
+	public void setMaxIdle(int maxIdle) {
+		Assert.isTrue(maxIdle >= 0, "'maxIdle' cannot be negative");
+		this.maxIdle = maxIdle;
+	}
+
+	/**
+	 * @return the number of idle objects.
+	 */
+	public int getIdleCount() {
+		return this.idleCount.get();
+	}
+
+	/**
+	 * Obtain an idle object, or a new one if there is none. The object must be
+	 * {@link #release(Object) released} after use (it must not be used after that).
+	 *
+	 * @return the object.
+	 */
+	public T obtain() {
+		T item = this.idle.poll();
+		if (item != null) {
+			this.idleCount.decrementAndGet();
+			return item;
+		}
+		return this.create();
+	}
+
+	/**
+	 * Return an object obtained from this pool.
+	 *
+	 * @param item the object; ignored if null.
+	 */
+	public void release(T item) {
+		if (item == null || !this.reset(item)) {
+			return;
+		}
+		if (this.idleCount.incrementAndGet() <= this.maxIdle) {
+			this.idle.offer(item);
+		}
+		else {
+			this.idleCount.decrementAndGet();
+		}
+	}
+
+	/**
+	 * @return a new object.
+	 */
+	protected abstract T create();
+
+	/**
+	 * Reset the object to the state it was created in.
+	 *
+	 * @param item the object.
+	 * @return false if the object cannot be reset (and must be discarded).
+	 */
+	protected abstract boolean reset(T item);
+
+}
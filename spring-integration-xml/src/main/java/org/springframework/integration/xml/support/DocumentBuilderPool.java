@@ -0,0 +1,122 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.xml.support;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import org.springframework.messaging.MessagingException;
+import org.springframework.util.Assert;
+
+/**
+ * A pool of the {@link DocumentBuilder}s created by a {@link DocumentBuilderFactory};
+ * builders are {@link DocumentBuilder#reset() reset} when they are released.
+ * The factory must not be reconfigured once the pool is in use.
+ *
+ * @since 4.0
+ */
+public class DocumentBuilderPool extends AbstractXmlObjectPool<DocumentBuilder> {
+
+	private final DocumentBuilderFactory documentBuilderFactory;
+
+	public DocumentBuilderPool(DocumentBuilderFactory documentBuilderFactory) {
+		Assert.notNull(documentBuilderFactory, "'documentBuilderFactory' must not be null");
+		this.documentBuilderFactory = documentBuilderFactory;
+	}
+
+	/**
+	 * Parse the source with a pooled builder.
+	 *
+	 * @param inputSource the source.
+	 * @return the document.
+	 * @throws SAXException if a parse error occurs.
+	 * @throws IOException if an IO error occurs.
+	 */
+	public Document parse(InputSource inputSource) throws SAXException, IOException {
+		DocumentBuilder documentBuilder = this.obtain();
+		try {
+			return documentBuilder.parse(inputSource);
+		}
+		finally {
+			this.release(documentBuilder);
+		}
+	}
+
+	/**
+	 * Parse the file with a pooled builder.
+	 *
+	 * @param file the file.
+	 * @return the document.
+	 * @throws SAXException if a parse error occurs.
+	 * @throws IOException if an IO error occurs.
+	 */
+	public Document parse(File file) throws SAXException, IOException {
+		DocumentBuilder documentBuilder = this.obtain();
+		try {
+			return documentBuilder.parse(file);
+		}
+		finally {
+			this.release(documentBuilder);
+		}
+	}
+
+	/**
+	 * @return a new, empty, document created with a pooled builder.
+	 */
+	public Document newDocument() {
+		DocumentBuilder documentBuilder = this.obtain();
+		try {
+			return documentBuilder.newDocument();
+		}
+		finally {
+			this.release(documentBuilder);
+		}
+	}
+
+	@Override
+	protected DocumentBuilder create() {
+		// DocumentBuilderFactory is not guaranteed to be thread safe
+		synchronized (this.documentBuilderFactory) {
+			try {
+				return this.documentBuilderFactory.newDocumentBuilder();
+			}
+			catch (ParserConfigurationException e) {
+				throw new MessagingException("failed to create a new DocumentBuilder", e);
+			}
+		}
+	}
+
+	@Override
+	protected boolean reset(DocumentBuilder documentBuilder) {
+		try {
+			documentBuilder.reset();
+			return true;
+		}
+		catch (UnsupportedOperationException e) {
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.xml.support;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+
+import org.springframework.messaging.MessagingException;
+import org.springframework.util.Assert;
+
+/**
+ * A pool of the {@link Transformer}s created by compiled {@link Templates} or, for
+ * identity transformers, by a {@link TransformerFactory}. Transformers are
+ * {@link Transformer#reset() reset} when they are released, which clears any
+ * parameters and output properties set while they were in use.
+ *
+ * @since 4.0
+ */
+public class TransformerPool extends AbstractXmlObjectPool<Transformer> {
+
+	private final Templates templates;
+
+	private final TransformerFactory transformerFactory;
+
+	/**
+	 * @param templates the templates that create the transformers.
+	 */
+	public TransformerPool(Templates templates) {
+		Assert.notNull(templates, "'templates' must not be null");
+		this.templates = templates;
+		this.transformerFactory = null;
+	}
+
+	/**
+	 * @param transformerFactory the factory that creates the (identity) transformers.
+	 */
+	public TransformerPool(TransformerFactory transformerFactory) {
+		Assert.notNull(transformerFactory, "'transformerFactory' must not be null");
+		this.templates = null;
+		this.transformerFactory = transformerFactory;
+	}
+
+	@Override
+	protected Transformer create() {
+		try {
+			if (this.templates != null) {
+				return this.templates.newTransformer();
+			}
+			// TransformerFactory is not guaranteed to be thread safe
+			synchronized (this.transformerFactory) {
+				return this.transformerFactory.newTransformer();
+			}
+		}
+		catch (TransformerConfigurationException e) {
+			throw new MessagingException("failed to create a new Transformer", e);
+		}
+	}
+
+	@Override
+	protected boolean reset(Transformer transformer) {
+		try {
+			transformer.reset();
+			// the JDK's XSLTC does not clear the stylesheet parameters on reset()
+			if (this.templates != null) {
+				transformer.clearParameters();
+			}
+			transformer.setOutputProperties(null);
+			return true;
+		}
+		catch (UnsupportedOperationException e) {
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.integration.xml.support;
+
+import org.springframework.util.Assert;
+import org.springframework.xml.xpath.XPathExpression;
+import org.springframework.xml.xpath.XPathExpressionFactory;
+
+/**
+ * A pool of the compiled {@link XPathExpression}s of an XPath. A compiled JAXP expression
+ * can only be evaluated by one thread at a time (the JAXP 1.3 {@link XPathExpression}
+ * synchronizes on it), so concurrent evaluations each use their own.
+ *
+ * @since 4.0
+ */
+public class XPathExpressionPool extends AbstractXmlObjectPool<XPathExpression> {
+
+	private final String xpath;
+
+	/**
+	 * @param xpath the XPath of the expressions.
+	 */
+	public XPathExpressionPool(String xpath) {
+		Assert.hasText(xpath, "'xpath' must not be empty");
+		this.xpath = xpath;
+	}
+
+	@Override
+	protected XPathExpression create() {
+		return XPathExpressionFactory.createXPathExpression(this.xpath);
+	}
+
+	@Override
+	protected boolean reset(XPathExpression expression) {
+		// evaluating an expression does not change it
+		return true;
+	}
+
+}
@@ -0,0 +1,4 @@
+/**
+ * Provides pools of XML infrastructure objects used by the XML components.
+ */
+package org.springframework.integration.xml.support;
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2010 the original author or authors.
+ * Copyright 2002-2014 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,12 +20,12 @@ import java.util.Properties;
 
 import javax.xml.transform.Result;
 import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.dom.DOMSource;
 
+import org.springframework.integration.xml.support.TransformerPool;
 import org.springframework.messaging.MessagingException;
 import org.springframework.xml.transform.StringResult;
 
@@ -40,11 +40,11 @@ public class ResultToStringTransformer implements ResultTransformer {
 
 	private volatile Properties outputProperties;
 
-	private final TransformerFactory transformerFactory;
+	private final TransformerPool transformerPool;
 
 
 	public ResultToStringTransformer() {
-		this.transformerFactory = TransformerFactory.newInstance();
+		this.transformerPool = new TransformerPool(TransformerFactory.newInstance());
 	}
 
 
@@ -58,15 +58,18 @@ public class ResultToStringTransformer implements ResultTransformer {
 			returnString = ((StringResult) result).toString();
 		}
 		else if (result instanceof DOMResult) {
+			Transformer transformer = this.getTransformer();
 			try {
 				StringResult stringResult = new StringResult();
-				this.getNewTransformer().transform(
-						new DOMSource(((DOMResult) result).getNode()), stringResult);
+				transformer.transform(new DOMSource(((DOMResult) result).getNode()), stringResult);
 				returnString = stringResult.toString();
 			}
 			catch (TransformerException e) {
 				throw new MessagingException("failed to transform from DOMSource failed", e);
 			}
+			finally {
+				this.transformerPool.release(transformer);
+			}
 		}
 		if (returnString == null) {
 			throw new MessagingException("failed to convert Result type ["
@@ -75,11 +78,9 @@ public class ResultToStringTransformer implements ResultTransformer {
 		return returnString;
 	}
 
-	private Transformer getNewTransformer() throws TransformerConfigurationException {
-		Transformer transformer = null;
-		synchronized (this.transformerFactory) {
-			transformer = this.transformerFactory.newTransformer();
-		}
+	private Transformer getTransformer() {
+		// output properties are cleared when the transformer is released
+		Transformer transformer = this.transformerPool.obtain();
 		if (this.outputProperties != null) {
 			transformer.setOutputProperties(this.outputProperties);
 		}
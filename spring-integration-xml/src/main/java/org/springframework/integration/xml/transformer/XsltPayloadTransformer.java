@@ -41,6 +41,7 @@ import org.springframework.integration.xml.result.DomResultFactory;
 import org.springframework.integration.xml.result.ResultFactory;
 import org.springframework.integration.xml.source.DomSourceFactory;
 import org.springframework.integration.xml.source.SourceFactory;
+import org.springframework.integration.xml.support.TransformerPool;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.MessagingException;
@@ -85,6 +86,8 @@ public class XsltPayloadTransformer extends AbstractTransformer implements BeanC
 
 	private volatile Templates templates;
 
+	private volatile TransformerPool transformerPool;
+
 	private String transformerFactoryClassName;
 
 	private volatile StandardEvaluationContext evaluationContext;
@@ -136,6 +139,7 @@ public class XsltPayloadTransformer extends AbstractTransformer implements BeanC
 	public XsltPayloadTransformer(Templates templates, ResultTransformer resultTransformer) {
 		Assert.notNull(templates, "'templates' must not be null.");
 		this.templates = templates;
+		this.transformerPool = new TransformerPool(templates);
 		this.resultTransformer = resultTransformer;
 	}
 
@@ -211,37 +215,44 @@ public class XsltPayloadTransformer extends AbstractTransformer implements BeanC
 				transformerFactory = TransformerFactory.newInstance();
 			}
 			this.templates = transformerFactory.newTemplates(createStreamSourceOnResource(this.xslResource));
+			this.transformerPool = new TransformerPool(this.templates);
 		}
 	}
 
 	@Override
 	protected Object doTransform(Message<?> message) throws Exception {
 		Transformer transformer = buildTransformer(message);
-		Object payload;
-		if (this.alwaysUseSourceFactory) {
-			payload = sourceFactory.createSource(message.getPayload());
-		}
-		else {
-			payload = message.getPayload();
-		}
-		Object transformedPayload = null;
-		if (this.alwaysUseResultFactory) {
-			transformedPayload = transformUsingResultFactory(payload, transformer);
-		}
-		else if (payload instanceof String) {
-			transformedPayload = transformString((String) payload, transformer);
-		}
-		else if (payload instanceof Document) {
-			transformedPayload = transformDocument((Document) payload, transformer);
-		}
-		else if (payload instanceof Source) {
-			transformedPayload = transformSource((Source) payload, payload, transformer);
+		try {
+			Object payload;
+			if (this.alwaysUseSourceFactory) {
+				payload = sourceFactory.createSource(message.getPayload());
+			}
+			else {
+				payload = message.getPayload();
+			}
+			Object transformedPayload = null;
+			if (this.alwaysUseResultFactory) {
+				transformedPayload = transformUsingResultFactory(payload, transformer);
+			}
+			else if (payload instanceof String) {
+				transformedPayload = transformString((String) payload, transformer);
+			}
+			else if (payload instanceof Document) {
+				transformedPayload = transformDocument((Document) payload, transformer);
+			}
+			else if (payload instanceof Source) {
+				transformedPayload = transformSource((Source) payload, payload, transformer);
+			}
+			else {
+				// fall back to trying factories
+				transformedPayload = transformUsingResultFactory(payload, transformer);
+			}
+			return transformedPayload;
 		}
-		else {
-			// fall back to trying factories
-			transformedPayload = transformUsingResultFactory(payload, transformer);
+		finally {
+			// the parameters are cleared before the transformer is reused
+			this.transformerPool.release(transformer);
 		}
-		return transformedPayload;
 	}
 
 	private Object transformUsingResultFactory(Object payload, Transformer transformer) throws TransformerException {
@@ -313,7 +324,7 @@ public class XsltPayloadTransformer extends AbstractTransformer implements BeanC
 
 	private Transformer buildTransformer(Message<?> message) throws TransformerException {
 		// process individual mappings
-		Transformer transformer = this.templates.newTransformer();
+		Transformer transformer = this.transformerPool.obtain();
 		if (this.xslParameterMappings != null) {
 			for (String parameterName : this.xslParameterMappings.keySet()) {
 				Expression expression = this.xslParameterMappings.get(parameterName);
@@ -20,22 +20,24 @@ package org.springframework.integration.xml.xpath;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 
 import org.springframework.integration.xml.DefaultXmlPayloadConverter;
 import org.springframework.integration.xml.XmlPayloadConverter;
+import org.springframework.integration.xml.support.DocumentBuilderPool;
+import org.springframework.integration.xml.support.XPathExpressionPool;
 import org.springframework.messaging.MessagingException;
 import org.springframework.util.Assert;
 import org.springframework.xml.xpath.NodeMapper;
 import org.springframework.xml.xpath.XPathException;
 import org.springframework.xml.xpath.XPathExpression;
-import org.springframework.xml.xpath.XPathExpressionFactory;
 
 /**
  * Utility class for 'xpath' support.
@@ -61,7 +63,18 @@ public final class XPathUtils {
 
 	private static XmlPayloadConverter converter = new DefaultXmlPayloadConverter();
 
-	private static DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+	private static final DocumentBuilderPool documentBuilderPool =
+			new DocumentBuilderPool(DocumentBuilderFactory.newInstance());
+
+	private static final int MAX_CACHED_EXPRESSIONS = 1000;
+
+	/*
+	 * A compiled expression can only be evaluated by one thread at a time, so each XPath
+	 * has a pool of them; the cache is bounded because the expressions of the '#xpath()'
+	 * SpEL function can be built at runtime.
+	 */
+	private static final ConcurrentMap<String, XPathExpressionPool> expressionPools =
+			new ConcurrentHashMap<String, XPathExpressionPool>();
 
 	/**
 	 * Utility method to evaluate an xpath on the provided object.
@@ -80,7 +93,6 @@ public final class XPathUtils {
 	 * @throws MessagingException - if the provided object can't be converted to a {@link Node};
 	 * @throws XPathException - if the xpath expression can't be evaluated.
 	 */
-	@SuppressWarnings({"unchecked"})
 	public static <T> T evaluate(Object o, String xpath, Object... resultArg) {
 		Object resultType = null;
 		if (resultArg != null && resultArg.length > 0) {
@@ -89,9 +101,27 @@ public final class XPathUtils {
 			resultType = resultArg[0];
 		}
 
-		XPathExpression expression = XPathExpressionFactory.createXPathExpression(xpath);
-		Node node = converter.convertToNode(o);
+		XPathExpressionPool expressionPool = expressionPools.get(xpath);
+		if (expressionPool == null) {
+			expressionPool = new XPathExpressionPool(xpath);
+			if (expressionPools.size() < MAX_CACHED_EXPRESSIONS) {
+				XPathExpressionPool existing = expressionPools.putIfAbsent(xpath, expressionPool);
+				if (existing != null) {
+					expressionPool = existing;
+				}
+			}
+		}
+		XPathExpression expression = expressionPool.obtain();
+		try {
+			return evaluate(converter.convertToNode(o), expression, resultType);
+		}
+		finally {
+			expressionPool.release(expression);
+		}
+	}
 
+	@SuppressWarnings({"unchecked"})
+	private static <T> T evaluate(Node node, XPathExpression expression, Object resultType) {
 		if (resultType == null) {
 			return (T) expression.evaluateAsString(node);
 		}
@@ -102,8 +132,14 @@ public final class XPathUtils {
 			String resType = (String) resultType;
 			if (DOCUMENT_LIST.equals(resType)) {
 				List<Node> nodeList = (List<Node>) XPathEvaluationType.NODE_LIST_RESULT.evaluateXPath(expression, node);
+				DocumentBuilder documentBuilder;
+				try {
+					documentBuilder = documentBuilderPool.obtain();
+				}
+				catch (MessagingException e) {
+					throw new XPathException("Unable to create 'documentBuilder'.", e.getCause());
+				}
 				try {
-					DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
 					List<Node> documents = new ArrayList<Node>(nodeList.size());
 					for (Node n : nodeList) {
 						Document document = documentBuilder.newDocument();
@@ -112,8 +148,8 @@ public final class XPathUtils {
 					}
 					return (T) documents;
 				}
-				catch (ParserConfigurationException e) {
-					throw new XPathException("Unable to create 'documentBuilder'.", e);
+				finally {
+					documentBuilderPool.release(documentBuilder);
 				}
 			}
 			else {
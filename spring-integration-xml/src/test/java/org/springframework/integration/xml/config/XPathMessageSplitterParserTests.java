@@ -95,6 +95,7 @@ public class XPathMessageSplitterParserTests {
 		DirectFieldAccessor fieldAccessor = new DirectFieldAccessor(consumer);
 		Object handler = fieldAccessor.getPropertyValue("handler");
 		fieldAccessor = new DirectFieldAccessor(handler);
+		fieldAccessor = new DirectFieldAccessor(fieldAccessor.getPropertyValue("documentBuilderPool"));
 		Object documnetBuilderFactory = fieldAccessor.getPropertyValue("documentBuilderFactory");
 		assertTrue("DocumnetBuilderFactory was not expected stub ", documnetBuilderFactory instanceof DocumentBuilderFactory);
 	}
@@ -110,6 +111,7 @@ public class XPathMessageSplitterParserTests {
 		DirectFieldAccessor fieldAccessor = new DirectFieldAccessor(consumer);
 		Object handler = fieldAccessor.getPropertyValue("handler");
 		fieldAccessor = new DirectFieldAccessor(handler);
+		fieldAccessor = new DirectFieldAccessor(fieldAccessor.getPropertyValue("documentBuilderPool"));
 		Object documnetBuilderFactory = fieldAccessor.getPropertyValue("documentBuilderFactory");
 		assertTrue("DocumnetBuilderFactory was not expected stub ", documnetBuilderFactory instanceof DocumentBuilderFactory);
 	}
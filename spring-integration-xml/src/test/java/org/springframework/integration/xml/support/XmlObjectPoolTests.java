@@ -0,0 +1,177 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.integration.xml.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.StringReader;
+import java.util.Collections;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+
+import org.junit.Ignore;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.integration.xml.transformer.XsltPayloadTransformer;
+import org.springframework.integration.xml.xpath.XPathUtils;
+import org.springframework.messaging.Message;
+import org.springframework.util.StopWatch;
+import org.springframework.xml.transform.StringSource;
+import org.springframework.xml.xpath.XPathExpression;
+
+/**
+ * @since 4.0
+ */
+public class XmlObjectPoolTests {
+
+	private static final String XSL =
+			"<xsl:stylesheet version='1.0' xmlns:xsl='http://www.w3.org/1999/XSL/Transform'>" +
+			"<xsl:param name='testParam'/>" +
+			"<xsl:template match='/'><result><xsl:value-of select='$testParam'/></result></xsl:template>" +
+			"</xsl:stylesheet>";
+
+	@Test
+	public void releasedObjectsAreReused() {
+		DocumentBuilderPool pool = new DocumentBuilderPool(DocumentBuilderFactory.newInstance());
+		DocumentBuilder first = pool.obtain();
+		DocumentBuilder second = pool.obtain();
+		assertNotSame(first, second);
+		assertEquals(0, pool.getIdleCount());
+		pool.release(first);
+		assertEquals(1, pool.getIdleCount());
+		assertSame(first, pool.obtain());
+		assertEquals(0, pool.getIdleCount());
+	}
+
+	@Test
+	public void idleObjectsAreBounded() {
+		DocumentBuilderPool pool = new DocumentBuilderPool(DocumentBuilderFactory.newInstance());
+		pool.setMaxIdle(2);
+		DocumentBuilder[] builders = { pool.obtain(), pool.obtain(), pool.obtain() };
+		for (DocumentBuilder builder : builders) {
+			pool.release(builder);
+		}
+		assertEquals(2, pool.getIdleCount());
+		pool.release(null);
+		assertEquals(2, pool.getIdleCount());
+	}
+
+	@Test
+	public void releasedDocumentBuilderCanParse() throws Exception {
+		DocumentBuilderPool pool = new DocumentBuilderPool(DocumentBuilderFactory.newInstance());
+		for (int i = 0; i < 3; i++) {
+			Document document = pool.parse(new InputSource(new StringReader("<doc>" + i + "</doc>")));
+			assertEquals(String.valueOf(i), document.getDocumentElement().getTextContent());
+		}
+		assertEquals(1, pool.getIdleCount());
+	}
+
+	@Test
+	public void releasedTransformerIsReset() throws Exception {
+		Templates templates = TransformerFactory.newInstance().newTemplates(new StringSource(XSL));
+		TransformerPool pool = new TransformerPool(templates);
+		Transformer transformer = pool.obtain();
+		transformer.setParameter("testParam", "foo");
+		transformer.setOutputProperty("indent", "yes");
+		pool.release(transformer);
+		transformer = pool.obtain();
+		assertNull(transformer.getParameter("testParam"));
+		assertEquals("no", transformer.getOutputProperty("indent"));
+	}
+
+	@Test
+	public void xpathExpressionsAreNotShared() throws Exception {
+		XPathExpressionPool pool = new XPathExpressionPool("/doc/a");
+		XPathExpression first = pool.obtain();
+		XPathExpression second = pool.obtain();
+		assertNotSame(first, second);
+		pool.release(first);
+		assertSame(first, pool.obtain());
+		Document document = new DocumentBuilderPool(DocumentBuilderFactory.newInstance())
+				.parse(new InputSource(new StringReader("<doc><a>foo</a></doc>")));
+		assertEquals("foo", second.evaluateAsString(document));
+	}
+
+	@Test
+	@Ignore
+	public void testPerformance() throws Exception {
+		int iterations = 100000;
+		StopWatch watch = new StopWatch("XML infrastructure");
+		for (int n = 0; n < 2; n++) {
+			watch.start("Templates.newTransformer() per message");
+			Templates templates = TransformerFactory.newInstance().newTemplates(new StringSource(XSL));
+			for (int i = 0; i < iterations; i++) {
+				Transformer transformer = templates.newTransformer();
+				transformer.setParameter("testParam", "foo");
+			}
+			watch.stop();
+
+			watch.start("TransformerPool");
+			TransformerPool transformerPool = new TransformerPool(templates);
+			for (int i = 0; i < iterations; i++) {
+				Transformer transformer = transformerPool.obtain();
+				transformer.setParameter("testParam", "foo");
+				transformerPool.release(transformer);
+			}
+			watch.stop();
+
+			DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+			watch.start("DocumentBuilderFactory.newDocumentBuilder() per message");
+			for (int i = 0; i < iterations; i++) {
+				documentBuilderFactory.newDocumentBuilder().parse(new InputSource(new StringReader("<doc/>")));
+			}
+			watch.stop();
+
+			watch.start("DocumentBuilderPool");
+			DocumentBuilderPool documentBuilderPool = new DocumentBuilderPool(documentBuilderFactory);
+			for (int i = 0; i < iterations; i++) {
+				documentBuilderPool.parse(new InputSource(new StringReader("<doc/>")));
+			}
+			watch.stop();
+
+			watch.start("XsltPayloadTransformer");
+			XsltPayloadTransformer xsltTransformer = new XsltPayloadTransformer(templates);
+			xsltTransformer.setXslParameterMappings(Collections.singletonMap("testParam",
+					new SpelExpressionParser().parseExpression("'foo'")));
+			xsltTransformer.afterPropertiesSet();
+			Message<String> message = MessageBuilder.withPayload("<doc/>").build();
+			for (int i = 0; i < iterations; i++) {
+				xsltTransformer.transform(message);
+			}
+			watch.stop();
+
+			watch.start("XPathUtils.evaluate()");
+			Document document = documentBuilderPool.parse(new InputSource(new StringReader("<doc><a>foo</a></doc>")));
+			for (int i = 0; i < iterations; i++) {
+				XPathUtils.evaluate(document, "/doc/a");
+			}
+			watch.stop();
+		}
+		System.out.println(watch.prettyPrint());
+	}
+
+}